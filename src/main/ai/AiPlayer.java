@@ -0,0 +1,172 @@
+package main.ai;
+
+import main.model.GameEngine;
+import main.model.PieceShape;
+import main.model.PlacementSearch;
+import main.sim.BatchSimulator;
+import main.sim.BatchSummary;
+import main.sim.Player;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Player choosing a placement for each new piece by beam search, then playing the moves leading to it.
+ * If the piece is moved by gravity between actions, the path to the same placement is searched again;
+ * once the piece is above its placement it is hard dropped.
+ */
+public class AiPlayer implements Player {
+    public static final int DEFAULT_BEAM_WIDTH = 4;
+    public static final int DEFAULT_DEPTH = 2;
+    public static final int DEFAULT_TABLE_CAPACITY = 1 << 16;
+    private final BeamSearch beamSearch;
+    private final GameEngine.ACTIONS[] path;
+    private long plannedPiece;
+    private boolean hasTarget;
+    private int targetRotation;
+    private int targetX;
+    private int targetY;
+    private int pathLength;
+    private int pathIndex;
+    private int expectedRotation;
+    private int expectedX;
+    private int expectedY;
+
+    /**
+     * Constructs player using default beam width and depth, evaluating candidates in calling thread and caching
+     * their scores in a table of its own
+     */
+    public AiPlayer(int gridWidth, int gridHeight) {
+        this(new BeamSearch(gridWidth, gridHeight, DEFAULT_BEAM_WIDTH, DEFAULT_DEPTH, null,
+                new TranspositionTable(DEFAULT_TABLE_CAPACITY, 1)));
+    }
+
+    /**
+     * Constructs player choosing placements with beamSearch; beamSearch must not be shared with other players
+     */
+    public AiPlayer(BeamSearch beamSearch) {
+        this.beamSearch = beamSearch;
+        this.path = new GameEngine.ACTIONS[beamSearch.getPlacementSearch().getMaxPathLength()];
+        this.plannedPiece = -1;
+    }
+
+    @Override
+    public GameEngine.ACTIONS nextAction(GameEngine engine) {
+        if (engine.getPieceCount() != plannedPiece) {
+            plan(engine);
+        } else if (hasTarget && !isExpected(engine)) {
+            findPath(engine);
+        }
+        if (!hasTarget) {
+            return GameEngine.ACTIONS.HARD_DROP;
+        }
+        if (engine.getPieceRotation() == targetRotation && engine.getPieceX() == targetX
+                && engine.getGhostY() == targetY) {
+            return GameEngine.ACTIONS.HARD_DROP;
+        }
+        if (pathIndex == pathLength) {
+            return GameEngine.ACTIONS.DOWN;
+        }
+        GameEngine.ACTIONS action = path[pathIndex++];
+        expect(action);
+        return action;
+    }
+
+    /**
+     * MODIFIES: this
+     * Chooses placement of engine's new piece and path leading to it
+     */
+    private void plan(GameEngine engine) {
+        plannedPiece = engine.getPieceCount();
+        int best = beamSearch.search(engine);
+        hasTarget = best >= 0;
+        if (hasTarget) {
+            PlacementSearch search = beamSearch.getPlacementSearch();
+            targetRotation = search.getPlacementRotation(best);
+            targetX = search.getPlacementX(best);
+            targetY = search.getPlacementY(best);
+            setPath(engine, best);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Searches path from piece's current position to chosen placement; chooses placement again if it can
+     * no longer be reached
+     */
+    private void findPath(GameEngine engine) {
+        PlacementSearch search = beamSearch.getPlacementSearch();
+        int count = search.search(engine);
+        for (int i = 0; i < count; i++) {
+            if (search.getPlacementRotation(i) == targetRotation && search.getPlacementX(i) == targetX
+                    && search.getPlacementY(i) == targetY) {
+                setPath(engine, i);
+                return;
+            }
+        }
+        plan(engine);
+    }
+
+    /**
+     * MODIFIES: this
+     * Reads path to placement of last search and expects piece at its current position
+     */
+    private void setPath(GameEngine engine, int placement) {
+        pathLength = beamSearch.getPlacementSearch().getPath(placement, path);
+        pathIndex = 0;
+        expectedRotation = engine.getPieceRotation();
+        expectedX = engine.getPieceX();
+        expectedY = engine.getPieceY();
+    }
+
+    /**
+     * @return true if piece is where the moves played so far should have left it
+     */
+    private boolean isExpected(GameEngine engine) {
+        return engine.getPieceRotation() == expectedRotation && engine.getPieceX() == expectedX
+                && engine.getPieceY() == expectedY;
+    }
+
+    /**
+     * MODIFIES: this
+     * Updates expected piece position after action is applied
+     */
+    private void expect(GameEngine.ACTIONS action) {
+        switch (action) {
+            case LEFT:
+                expectedX--;
+                break;
+            case RIGHT:
+                expectedX++;
+                break;
+            case ROTATE_CW:
+                expectedRotation = PieceShape.nextRotationCW(expectedRotation);
+                break;
+            case ROTATE_CCW:
+                expectedRotation = PieceShape.nextRotationCounterCW(expectedRotation);
+                break;
+            default:
+                expectedY++;
+                break;
+        }
+    }
+
+    /**
+     * Runs batch of AI games on a 12 x 21 board and prints summary. Games run in parallel and each player
+     * searches in its game's thread, which gives the best throughput per core.
+     *
+     * @param args optional number of games, batch seed and maximum moves per game
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 0L;
+        long maxMoves = args.length > 2 ? Long.parseLong(args[2]) : 100_000L;
+        BatchSimulator simulator = new BatchSimulator(12, 21, 4, maxMoves, playerSeed -> new AiPlayer(12, 21));
+        long start = System.nanoTime();
+        BatchSummary summary = simulator.run(games, seed);
+        long elapsed = System.nanoTime() - start;
+        System.out.println(summary);
+        double pieces = summary.getPieces().getMean() * games;
+        System.out.printf("elapsed: %.1f ms on %d threads, %.0f pieces/s%n", elapsed / 1e6,
+                ForkJoinPool.getCommonPoolParallelism(), pieces / (elapsed / 1e9));
+    }
+}
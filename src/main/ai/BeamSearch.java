@@ -0,0 +1,382 @@
+package main.ai;
+
+import main.model.BitBoard;
+import main.model.GameEngine;
+import main.model.PieceQueue;
+import main.model.PieceShape;
+import main.model.PlacementSearch;
+import main.model.PuzzlePiece;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Chooses a placement for the current piece by looking depth - 1 pieces ahead.
+ * Placements are scored by a BoardEvaluator and only the best beamWidth of them are expanded. Following pieces
+ * shown in the game's preview are placed as they will come; beyond the preview, a candidate's value is the
+ * average over every piece type of the best value reachable with that piece. Every placement the current piece
+ * can reach is considered, while following pieces are only hard dropped from the top row in each distinct
+ * rotation and column, which costs constant time per placement instead of a full search.
+ * Each expanded candidate of the current piece is evaluated as a separate fork/join task with its own boards,
+ * allocated once, so results do not depend on scheduling.
+ * An optional TranspositionTable caches placement scores by the hash of the stack they produce; since different
+ * placement orders and consecutive searches reach the same stacks, many scores are found instead of computed.
+ */
+public class BeamSearch {
+    public static final double TOP_OUT_SCORE = -1.0e6;
+    private static final PuzzlePiece.PIECES[] TYPES = PuzzlePiece.PIECES.values();
+    private static final boolean[][] DISTINCT_ROTATIONS = distinctRotations();
+    private final int GRID_WIDTH;
+    private final int BEAM_WIDTH;
+    private final int DEPTH;
+    private final int X0_NEW_PIECE;
+    private final ForkJoinPool pool;
+    private final PlacementSearch search;
+    private final BoardEvaluator evaluator;
+    private final TranspositionTable table;
+    private final int[] beam;
+    private final double[] beamScores;
+    private final CandidateTask[] tasks;
+    private final RootTask rootTask;
+    private final PuzzlePiece.PIECES[] known;
+    private int knownCount;
+    private int beamLength;
+
+    /**
+     * Constructs search for boards of gridWidth by gridHeight
+     *
+     * @param beamWidth number of best placements expanded at each level, greater than 0
+     * @param depth     number of pieces placed in each line of search, including current piece, greater than 0
+     * @param pool      pool evaluating candidates in parallel; null evaluates them in calling thread
+     * @throws IllegalArgumentException if beamWidth < 1, depth < 1 or gridWidth > BitBoard.MAX_WIDTH
+     */
+    public BeamSearch(int gridWidth, int gridHeight, int beamWidth, int depth, ForkJoinPool pool)
+            throws IllegalArgumentException {
+        this(gridWidth, gridHeight, beamWidth, depth, pool, null);
+    }
+
+    /**
+     * Constructs search for boards of gridWidth by gridHeight caching placement scores in table
+     *
+     * @param beamWidth number of best placements expanded at each level, greater than 0
+     * @param depth     number of pieces placed in each line of search, including current piece, greater than 0
+     * @param pool      pool evaluating candidates in parallel; null evaluates them in calling thread
+     * @param table     cache of scores, shared only with searches of the same board size and evaluator
+     *                  weights; null scores every placement
+     * @throws IllegalArgumentException if beamWidth < 1, depth < 1 or gridWidth > BitBoard.MAX_WIDTH
+     */
+    public BeamSearch(int gridWidth, int gridHeight, int beamWidth, int depth, ForkJoinPool pool,
+                      TranspositionTable table) throws IllegalArgumentException {
+        if (beamWidth < 1 || depth < 1) {
+            throw new IllegalArgumentException("beamWidth and depth must be greater than 0");
+        }
+        if (gridWidth > BitBoard.MAX_WIDTH) {
+            throw new IllegalArgumentException("gridWidth must not be greater than BitBoard.MAX_WIDTH");
+        }
+        this.GRID_WIDTH = gridWidth;
+        this.BEAM_WIDTH = beamWidth;
+        this.DEPTH = depth;
+        this.X0_NEW_PIECE = gridWidth / 2 - 1;
+        this.pool = pool;
+        this.search = new PlacementSearch(gridWidth, gridHeight);
+        this.evaluator = new BoardEvaluator(gridWidth);
+        this.table = table;
+        this.beam = new int[beamWidth];
+        this.beamScores = new double[beamWidth];
+        this.tasks = new CandidateTask[depth > 1 ? beamWidth : 0];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new CandidateTask(gridWidth, gridHeight);
+        }
+        this.rootTask = new RootTask();
+        this.known = new PuzzlePiece.PIECES[depth - 1];
+    }
+
+    /**
+     * @return for each piece type and rotation, false if an earlier rotation of that type has the same shape
+     */
+    private static boolean[][] distinctRotations() {
+        boolean[][] distinct = new boolean[TYPES.length][PieceShape.ROTATIONS];
+        for (PuzzlePiece.PIECES type : TYPES) {
+            for (int r = 0; r < PieceShape.ROTATIONS; r++) {
+                distinct[type.ordinal()][r] = true;
+                for (int earlier = 0; earlier < r; earlier++) {
+                    if (isSameShape(PieceShape.get(type, r), PieceShape.get(type, earlier))) {
+                        distinct[type.ordinal()][r] = false;
+                    }
+                }
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * @return true if shapes cover the same cells relative to their origins
+     */
+    private static boolean isSameShape(PieceShape a, PieceShape b) {
+        if (a.getHeight() != b.getHeight()) {
+            return false;
+        }
+        for (int dy = 0; dy < a.getHeight(); dy++) {
+            if (a.getRowMask(dy) != b.getRowMask(dy)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return searcher holding placements of current piece found by last call to search
+     */
+    public PlacementSearch getPlacementSearch() {
+        return this.search;
+    }
+
+    /**
+     * MODIFIES: this
+     * Finds best placement of current piece of engine, knowing the pieces shown in its preview
+     *
+     * @return index of best placement in getPlacementSearch(); -1 if piece cannot be placed
+     * @throws IllegalArgumentException if engine board is not a BitBoard
+     */
+    public int search(GameEngine engine) throws IllegalArgumentException {
+        if (!(engine.getBoard() instanceof BitBoard)) {
+            throw new IllegalArgumentException("engine board must be a BitBoard");
+        }
+        PieceQueue preview = engine.getPreview();
+        knownCount = Math.min(known.length, preview.getDepth());
+        for (int i = 0; i < knownCount; i++) {
+            known[i] = preview.peek(i);
+        }
+        return searchPlacements((BitBoard) engine.getBoard(), engine.getPieceType(), engine.getPieceRotation(),
+                engine.getPieceX(), engine.getPieceY());
+    }
+
+    /**
+     * MODIFIES: this
+     * Finds best placement of a piece of type starting at rotationIndex with origin x0, y0, with no following
+     * piece known; board is only read
+     *
+     * @return index of best placement in getPlacementSearch(); -1 if piece does not fit at its start
+     */
+    public int search(BitBoard board, PuzzlePiece.PIECES type, int rotationIndex, int x0, int y0) {
+        knownCount = 0;
+        return searchPlacements(board, type, rotationIndex, x0, y0);
+    }
+
+    /**
+     * MODIFIES: this
+     * Finds best placement of a piece as search does, knowing the first knownCount following pieces
+     */
+    private int searchPlacements(BitBoard board, PuzzlePiece.PIECES type, int rotationIndex, int x0, int y0) {
+        if (table != null) {
+            table.nextGeneration();
+        }
+        int count = search.search(board, type, rotationIndex, x0, y0);
+        beamLength = 0;
+        for (int i = 0; i < count; i++) {
+            PieceShape shape = PieceShape.get(type, search.getPlacementRotation(i));
+            double score = evaluate(evaluator, board, shape, search.getPlacementX(i), search.getPlacementY(i));
+            beamLength = offer(beam, beamScores, beamLength, i, score);
+        }
+        if (beamLength == 0 || DEPTH == 1) {
+            return beamLength == 0 ? -1 : beam[0];
+        }
+        for (int i = 0; i < beamLength; i++) {
+            int placement = beam[i];
+            tasks[i].reinitialize();
+            tasks[i].setCandidate(board, PieceShape.get(type, search.getPlacementRotation(placement)),
+                    search.getPlacementX(placement), search.getPlacementY(placement), GameEngine.colorIndex(type));
+        }
+        if (pool == null) {
+            rootTask.compute();
+        } else if (ForkJoinTask.getPool() == pool) {
+            rootTask.reinitialize();
+            rootTask.invoke();
+        } else {
+            rootTask.reinitialize();
+            pool.invoke(rootTask);
+        }
+        int best = 0;
+        for (int i = 1; i < beamLength; i++) {
+            if (tasks[i].value > tasks[best].value) {
+                best = i;
+            }
+        }
+        return beam[best];
+    }
+
+    /**
+     * @return number of placements scored by this search's evaluators, not counting scores found in its table
+     */
+    public long getEvaluationCount() {
+        long count = evaluator.getEvaluationCount();
+        for (CandidateTask task : tasks) {
+            count += task.taskEvaluator.getEvaluationCount();
+        }
+        return count;
+    }
+
+    /**
+     * MODIFIES: scorer, table
+     * Scores shape set with origin at x, y on board, taking the score from table if the resulting stack is in it
+     */
+    private double evaluate(BoardEvaluator scorer, BitBoard board, PieceShape shape, int x, int y) {
+        if (table == null) {
+            return scorer.evaluate(board, shape, x, y);
+        }
+        long key = board.hashAfterPlacing(shape, x, y);
+        double score = table.get(key);
+        if (Double.isNaN(score)) {
+            score = scorer.evaluate(board, shape, x, y);
+            table.put(key, score);
+        }
+        return score;
+    }
+
+    /**
+     * MODIFIES: kept, keptScores
+     * Inserts placement into beam if its score is among the best beam length scores; beam is kept in
+     * descending score order, earlier placements first among equal scores
+     *
+     * @param length number of placements currently in beam
+     * @return number of placements in beam after insertion
+     */
+    private static int offer(int[] kept, double[] keptScores, int length, int placement, double score) {
+        int i = Math.min(length, kept.length - 1);
+        if (length == kept.length && score <= keptScores[i]) {
+            return length;
+        }
+        while (i > 0 && score > keptScores[i - 1]) {
+            kept[i] = kept[i - 1];
+            keptScores[i] = keptScores[i - 1];
+            i--;
+        }
+        kept[i] = placement;
+        keptScores[i] = score;
+        return Math.min(length + 1, kept.length);
+    }
+
+    /**
+     * Fork/join task evaluating every candidate in beam, one task per candidate
+     */
+    private class RootTask extends RecursiveAction {
+        @Override
+        protected void compute() {
+            if (pool == null) {
+                for (int i = 0; i < beamLength; i++) {
+                    tasks[i].compute();
+                }
+                return;
+            }
+            for (int i = 1; i < beamLength; i++) {
+                tasks[i].fork();
+            }
+            tasks[0].invoke();
+            for (int i = beamLength - 1; i > 0; i--) {
+                tasks[i].join();
+            }
+        }
+    }
+
+    /**
+     * Fork/join task evaluating one placement of current piece; owns the board of every following level,
+     * where level 0 is the current piece
+     */
+    private class CandidateTask extends RecursiveAction {
+        private final BitBoard[] boards;
+        private final int[][] kept;
+        private final double[][] keptScores;
+        private final BoardEvaluator taskEvaluator;
+        private BitBoard board;
+        private PieceShape shape;
+        private int x;
+        private int y;
+        private byte colorIndex;
+        private double value;
+
+        CandidateTask(int gridWidth, int gridHeight) {
+            this.boards = new BitBoard[DEPTH - 1];
+            this.kept = new int[DEPTH - 1][BEAM_WIDTH];
+            this.keptScores = new double[DEPTH - 1][BEAM_WIDTH];
+            for (int i = 0; i < DEPTH - 1; i++) {
+                boards[i] = new BitBoard(gridWidth, gridHeight);
+            }
+            this.taskEvaluator = new BoardEvaluator(gridWidth);
+        }
+
+        /**
+         * MODIFIES: this
+         * Sets placement evaluated by this task: shape with origin at x, y on board
+         */
+        void setCandidate(BitBoard board, PieceShape shape, int x, int y, byte colorIndex) {
+            this.board = board;
+            this.shape = shape;
+            this.x = x;
+            this.y = y;
+            this.colorIndex = colorIndex;
+        }
+
+        @Override
+        protected void compute() {
+            boards[0].copyFrom(board);
+            int lines = boards[0].placeShape(shape, x, y, colorIndex);
+            value = taskEvaluator.getLinesWeight() * lines + expectedValue(1);
+        }
+
+        /**
+         * @return best value of placing piece of given level on boards[level - 1] if it is known; average over
+         *         piece types of that value otherwise
+         */
+        private double expectedValue(int level) {
+            if (level <= knownCount) {
+                return bestValue(level, known[level - 1]);
+            }
+            double total = 0;
+            for (PuzzlePiece.PIECES type : TYPES) {
+                total += bestValue(level, type);
+            }
+            return total / TYPES.length;
+        }
+
+        /**
+         * @return best value of dropping new piece of type on boards[level - 1], looking ahead to DEPTH levels;
+         *         kept placements are encoded as rotation * GRID_WIDTH + x
+         */
+        private double bestValue(int level, PuzzlePiece.PIECES type) {
+            BitBoard current = boards[level - 1];
+            int[] levelKept = kept[level - 1];
+            double[] levelScores = keptScores[level - 1];
+            int length = 0;
+            for (int r = 0; r < PieceShape.ROTATIONS; r++) {
+                if (!DISTINCT_ROTATIONS[type.ordinal()][r]) {
+                    continue;
+                }
+                PieceShape dropped = PieceShape.get(type, r);
+                for (int dropX = 0; dropX + dropped.getMaxX() < GRID_WIDTH; dropX++) {
+                    if (current.fits(dropped, dropX, 0)) {
+                        double score = evaluate(taskEvaluator, current, dropped, dropX,
+                                current.dropDistance(dropped, dropX, 0));
+                        length = offer(levelKept, levelScores, length, r * GRID_WIDTH + dropX, score);
+                    }
+                }
+            }
+            if (length == 0) {
+                return TOP_OUT_SCORE;
+            }
+            if (level == DEPTH - 1) {
+                return levelScores[0];
+            }
+            double best = TOP_OUT_SCORE;
+            for (int i = 0; i < length; i++) {
+                PieceShape dropped = PieceShape.get(type, levelKept[i] / GRID_WIDTH);
+                int dropX = levelKept[i] % GRID_WIDTH;
+                boards[level].copyFrom(current);
+                int lines = boards[level].placeShape(dropped, dropX, current.dropDistance(dropped, dropX, 0),
+                        GameEngine.colorIndex(type));
+                best = Math.max(best, taskEvaluator.getLinesWeight() * lines + expectedValue(level + 1));
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package main.ai;
+
+import main.model.BitBoard;
+import main.model.PieceShape;
+
+/**
+ * Scores boards by a weighted sum of aggregate column height, holes, bumpiness and rows cleared.
+ * A placement is scored in one pass over the occupied rows, as if the piece were set and complete rows
+ * removed, without modifying or copying the board. Features of the last evaluation can be read back.
+ * Keeps scratch state, so an evaluator must not be shared between threads.
+ */
+public class BoardEvaluator {
+    public static final double DEFAULT_HEIGHT_WEIGHT = -0.510066;
+    public static final double DEFAULT_LINES_WEIGHT = 0.760666;
+    public static final double DEFAULT_HOLES_WEIGHT = -0.35663;
+    public static final double DEFAULT_BUMPINESS_WEIGHT = -0.184483;
+    private final double HEIGHT_WEIGHT;
+    private final double LINES_WEIGHT;
+    private final double HOLES_WEIGHT;
+    private final double BUMPINESS_WEIGHT;
+    private final int[] columnHeights;
+    private int aggregateHeight;
+    private int lines;
+    private int holes;
+    private int bumpiness;
+    private long evaluations;
+
+    /**
+     * Constructs evaluator for boards gridWidth wide using default weights
+     */
+    public BoardEvaluator(int gridWidth) {
+        this(gridWidth, DEFAULT_HEIGHT_WEIGHT, DEFAULT_LINES_WEIGHT, DEFAULT_HOLES_WEIGHT, DEFAULT_BUMPINESS_WEIGHT);
+    }
+
+    /**
+     * Constructs evaluator for boards gridWidth wide; score is the sum of each feature times its weight
+     */
+    public BoardEvaluator(int gridWidth, double heightWeight, double linesWeight, double holesWeight,
+                          double bumpinessWeight) {
+        this.HEIGHT_WEIGHT = heightWeight;
+        this.LINES_WEIGHT = linesWeight;
+        this.HOLES_WEIGHT = holesWeight;
+        this.BUMPINESS_WEIGHT = bumpinessWeight;
+        this.columnHeights = new int[gridWidth];
+    }
+
+    public double getLinesWeight() {
+        return this.LINES_WEIGHT;
+    }
+
+    /**
+     * @return number of placements scored by this evaluator
+     */
+    public long getEvaluationCount() {
+        return this.evaluations;
+    }
+
+    /**
+     * MODIFIES: this
+     * Scores board as it would be after shape is set with origin at x, y and complete rows are removed
+     *
+     * @param shape compiled piece rotation; must fit at x, y
+     * @return weighted score of resulting board; higher is better
+     */
+    public double evaluate(BitBoard board, PieceShape shape, int x, int y) {
+        evaluations++;
+        int height = board.getHeight();
+        long full = board.getFullRow();
+        long covered = 0L;
+        int fullAbove = 0;
+        lines = 0;
+        holes = 0;
+        for (int row = Math.min(board.getSurfaceTop(), y); row < height; row++) {
+            long mask = board.getRow(row);
+            int dy = row - y;
+            if (dy >= 0 && dy < shape.getHeight()) {
+                mask |= shape.getRowMask(dy) << x;
+            }
+            if (mask == full) {
+                lines++;
+                fullAbove++;
+                continue;
+            }
+            holes += Long.bitCount(covered & ~mask);
+            for (long first = mask & ~covered; first != 0; first &= first - 1) {
+                columnHeights[Long.numberOfTrailingZeros(first)] = height - row + fullAbove;
+            }
+            covered |= mask;
+        }
+        aggregateHeight = 0;
+        bumpiness = 0;
+        for (int col = 0; col < board.getWidth(); col++) {
+            int columnHeight = (covered & (1L << col)) != 0 ? columnHeights[col] - lines : 0;
+            columnHeights[col] = columnHeight;
+            aggregateHeight += columnHeight;
+            if (col > 0) {
+                bumpiness += Math.abs(columnHeight - columnHeights[col - 1]);
+            }
+        }
+        return HEIGHT_WEIGHT * aggregateHeight + LINES_WEIGHT * lines + HOLES_WEIGHT * holes
+                + BUMPINESS_WEIGHT * bumpiness;
+    }
+
+    /**
+     * @return sum of column heights after last evaluation
+     */
+    public int getAggregateHeight() {
+        return this.aggregateHeight;
+    }
+
+    /**
+     * @return number of rows completed by last evaluated placement
+     */
+    public int getLines() {
+        return this.lines;
+    }
+
+    /**
+     * @return number of empty cells below the top of their column after last evaluation
+     */
+    public int getHoles() {
+        return this.holes;
+    }
+
+    /**
+     * @return sum of height differences between neighbouring columns after last evaluation
+     */
+    public int getBumpiness() {
+        return this.bumpiness;
+    }
+}
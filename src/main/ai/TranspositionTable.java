@@ -0,0 +1,161 @@
+package main.ai;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of search values keyed by 64 bit board hashes, such as BitBoard.getHash, shared by any number of
+ * search threads. Entries live in buckets of WAYS slots; each bucket is guarded by one of a fixed number of
+ * stripe locks, so threads only contend when they touch buckets of the same stripe. A full bucket replaces its
+ * entry from the oldest generation, preferring entries not used since the search that wrote them.
+ * Keys must include everything the value depends on besides the board; two keys colliding in all 64 bits are
+ * treated as the same entry.
+ */
+public class TranspositionTable {
+    public static final int WAYS = 4;
+    private static final int EMPTY_GENERATION = 0;
+    private final int BUCKET_MASK;
+    private final int STRIPE_MASK;
+    private final long[] keys;
+    private final double[] values;
+    private final int[] generations;
+    private final Object[] locks;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile int generation = EMPTY_GENERATION + 1;
+
+    /**
+     * Constructs empty table
+     *
+     * @param capacity number of entries, rounded up to a power of two of at least WAYS
+     * @param stripes  number of locks, rounded up to a power of two and at most the number of buckets
+     * @throws IllegalArgumentException if capacity < 1, stripes < 1 or capacity above 2 ^ 30
+     */
+    public TranspositionTable(int capacity, int stripes) throws IllegalArgumentException {
+        if (capacity < 1 || stripes < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity and stripes must be between 1 and 2 ^ 30");
+        }
+        int buckets = Math.max(1, roundUp(capacity) / WAYS);
+        this.BUCKET_MASK = buckets - 1;
+        this.STRIPE_MASK = Math.min(roundUp(stripes), buckets) - 1;
+        this.keys = new long[buckets * WAYS];
+        this.values = new double[buckets * WAYS];
+        this.generations = new int[buckets * WAYS];
+        this.locks = new Object[STRIPE_MASK + 1];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    private static int roundUp(int n) {
+        return n == 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * @return number of entries the table can hold
+     */
+    public int getCapacity() {
+        return this.keys.length;
+    }
+
+    /**
+     * MODIFIES: this
+     * Starts a new generation; entries written or used before it become candidates for replacement.
+     * Call once per search.
+     */
+    public void nextGeneration() {
+        int next = generation + 1;
+        generation = next == EMPTY_GENERATION ? EMPTY_GENERATION + 1 : next;
+    }
+
+    /**
+     * MODIFIES: this
+     * Looks up key, marking a found entry as used in the current generation
+     *
+     * @return value stored for key, or Double.NaN if none is stored
+     */
+    public double get(long key) {
+        int bucket = bucketOf(key);
+        int first = bucket * WAYS;
+        synchronized (locks[bucket & STRIPE_MASK]) {
+            for (int i = first; i < first + WAYS; i++) {
+                if (generations[i] != EMPTY_GENERATION && keys[i] == key) {
+                    generations[i] = generation;
+                    hits.increment();
+                    return values[i];
+                }
+            }
+        }
+        misses.increment();
+        return Double.NaN;
+    }
+
+    /**
+     * MODIFIES: this
+     * Stores value for key, replacing the stored value of key, an empty slot or the entry of the oldest
+     * generation in key's bucket, in that order of preference
+     *
+     * @param value value to store, not NaN
+     */
+    public void put(long key, double value) {
+        int bucket = bucketOf(key);
+        int first = bucket * WAYS;
+        int current = generation;
+        synchronized (locks[bucket & STRIPE_MASK]) {
+            int victim = first;
+            int oldestAge = -1;
+            for (int i = first; i < first + WAYS; i++) {
+                if (generations[i] == EMPTY_GENERATION || keys[i] == key) {
+                    victim = i;
+                    break;
+                }
+                int age = current - generations[i];
+                if (age > oldestAge) {
+                    oldestAge = age;
+                    victim = i;
+                }
+            }
+            keys[victim] = key;
+            values[victim] = value;
+            generations[victim] = current;
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Removes every entry and resets hit and miss counts
+     */
+    public void clear() {
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            synchronized (locks[stripe]) {
+                for (int bucket = stripe; bucket <= BUCKET_MASK; bucket += locks.length) {
+                    for (int i = bucket * WAYS; i < (bucket + 1) * WAYS; i++) {
+                        generations[i] = EMPTY_GENERATION;
+                    }
+                }
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * @return number of lookups that found a value
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of lookups that found nothing
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return bucket of key, folded from both halves of it
+     */
+    private int bucketOf(long key) {
+        return (int) (key ^ (key >>> 32)) & BUCKET_MASK;
+    }
+}
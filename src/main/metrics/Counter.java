@@ -0,0 +1,40 @@
+package main.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free monotonically increasing count, cheap to update from many threads at once
+ */
+public class Counter implements CounterMXBean {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * MODIFIES: this
+     * Adds amount to count
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * MODIFIES: this
+     * Adds 1 to count
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,8 @@
+package main.metrics;
+
+/**
+ * JMX view of a Counter
+ */
+public interface CounterMXBean {
+    long getCount();
+}
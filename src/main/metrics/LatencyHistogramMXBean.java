@@ -0,0 +1,20 @@
+package main.metrics;
+
+/**
+ * JMX view of a LatencyHistogram; percentiles are upper bounds of the bucket holding them
+ */
+public interface LatencyHistogramMXBean {
+    long getCount();
+
+    long getMaxNanos();
+
+    double getMeanNanos();
+
+    long getP50Nanos();
+
+    long getP90Nanos();
+
+    long getP99Nanos();
+
+    long getP999Nanos();
+}
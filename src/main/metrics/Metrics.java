@@ -0,0 +1,93 @@
+package main.metrics;
+
+import javax.management.JMException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of the game's hot paths, collected only when the system property rainingblocks.metrics is true.
+ * ENABLED is a constant, so when metrics are off the JIT removes the timing calls at every call site.
+ * Call sites take start() before the measured work and pass it to record afterwards.
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("rainingblocks.metrics");
+    public static final MetricsRegistry REGISTRY = new MetricsRegistry();
+    public static final LatencyHistogram NEXT_STATE = REGISTRY.histogram("game.nextState");
+    public static final LatencyHistogram USER_INPUT = REGISTRY.histogram("game.userInput");
+    public static final LatencyHistogram PLACE_PIECE = REGISTRY.histogram("engine.placePiece");
+    public static final LatencyHistogram ROW_CLEAR = REGISTRY.histogram("engine.rowClear");
+    public static final LatencyHistogram PAINT = REGISTRY.histogram("ui.paint");
+    public static final LatencyHistogram TICK_JITTER = REGISTRY.histogram("loop.tickJitter");
+    public static final Counter MOVES = REGISTRY.counter("game.moves");
+    public static final Counter PIECES = REGISTRY.counter("game.pieces");
+    public static final Counter ROWS_CLEARED = REGISTRY.counter("engine.rowsCleared");
+    public static final Counter LOOP_ALLOCATED_BYTES = REGISTRY.counter("loop.allocatedBytes");
+    private static final ThreadMXBean THREADS = ENABLED ? ManagementFactory.getThreadMXBean() : null;
+
+    private Metrics() {
+    }
+
+    /**
+     * @return start time to pass to record; 0 if metrics are disabled
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * MODIFIES: histogram
+     * Records time elapsed since start if metrics are enabled
+     */
+    public static void record(LatencyHistogram histogram, long start) {
+        if (ENABLED) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * MODIFIES: counter
+     * Adds amount to counter if metrics are enabled
+     */
+    public static void add(Counter counter, long amount) {
+        if (ENABLED) {
+            counter.add(amount);
+        }
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far; 0 if metrics are disabled or the JVM does not
+     *         measure allocation
+     */
+    public static long threadAllocatedBytes() {
+        if (ENABLED && THREADS instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0L;
+    }
+
+    /**
+     * Registers metrics with the platform MBean server and prints a dump every periodSeconds if metrics are
+     * enabled; reports registration failure without stopping the game
+     */
+    public static void publish(long periodSeconds) {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            REGISTRY.registerMBeans(ManagementFactory.getPlatformMBeanServer());
+        } catch (JMException e) {
+            System.err.println("metrics not registered with JMX: " + e);
+        }
+        MetricsRegistry.startDump(periodSeconds, TimeUnit.SECONDS, System.out, Metrics::dump);
+    }
+
+    /**
+     * @return REGISTRY's dump followed by bytes allocated by the game loop thread per piece spawned
+     */
+    public static String dump() {
+        long pieces = PIECES.getCount();
+        return REGISTRY.dump() + String.format("%-24s %.1f%n", "loop.bytesPerPiece",
+                pieces == 0 ? 0.0 : (double) LOOP_ALLOCATED_BYTES.getCount() / pieces);
+    }
+}
@@ -0,0 +1,118 @@
+package main.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Named counters and latency histograms, which can be registered as JMX MBeans and dumped as text.
+ * Metrics are created once by name and then updated without locking; safe for use by several threads.
+ */
+public class MetricsRegistry {
+    public static final String JMX_DOMAIN = "main.metrics";
+    private final ConcurrentSkipListMap<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Long> dumpedCounts = new ConcurrentSkipListMap<>();
+    private long dumpedNanos = System.nanoTime();
+
+    /**
+     * MODIFIES: this
+     *
+     * @return counter named name, created if it does not exist
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * MODIFIES: this
+     *
+     * @return histogram named name, created if it does not exist
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Registers every metric created so far with server, as JMX_DOMAIN:type=Counter or type=Latency and its name
+     *
+     * @throws JMException if a metric is already registered or cannot be registered
+     */
+    public void registerMBeans(MBeanServer server) throws JMException {
+        for (Counter counter : counters.values()) {
+            server.registerMBean(counter, objectName("Counter", counter.getName()));
+        }
+        for (LatencyHistogram histogram : histograms.values()) {
+            server.registerMBean(histogram, objectName("Latency", histogram.getName()));
+        }
+    }
+
+    /**
+     * @return JMX name of metric of type named name
+     * @throws JMException if name is not valid in an ObjectName
+     */
+    public static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * MODIFIES: this
+     * Formats every metric as one line: counters with their count and rate per second since the previous dump,
+     * histograms with count, mean, percentiles and max in microseconds
+     *
+     * @return dump text
+     */
+    public synchronized String dump() {
+        long now = System.nanoTime();
+        double seconds = (now - dumpedNanos) / 1e9;
+        dumpedNanos = now;
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            long count = entry.getValue().getCount();
+            Long previous = dumpedCounts.put(entry.getKey(), count);
+            double rate = seconds > 0 ? (count - (previous == null ? 0 : previous)) / seconds : 0.0;
+            text.append(String.format("%-24s count %d, %.1f/s%n", entry.getKey(), count, rate));
+        }
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            text.append(String.format("%-24s count %d, mean %.1f, p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, "
+                            + "max %.1f us%n", entry.getKey(), histogram.getCount(), histogram.getMeanNanos() / 1e3,
+                    histogram.getP50Nanos() / 1e3, histogram.getP90Nanos() / 1e3, histogram.getP99Nanos() / 1e3,
+                    histogram.getP999Nanos() / 1e3, histogram.getMaxNanos() / 1e3));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Prints dump to out every period on a daemon thread
+     *
+     * @return executor running the dumps; shut it down to stop them
+     */
+    public ScheduledExecutorService startDump(long period, TimeUnit unit, PrintStream out) {
+        return startDump(period, unit, out, this::dump);
+    }
+
+    /**
+     * Prints text supplied by dump, such as this registry's dump with derived values added, to out every period
+     * on a daemon thread
+     *
+     * @return executor running the dumps; shut it down to stop them
+     */
+    public static ScheduledExecutorService startDump(long period, TimeUnit unit, PrintStream out,
+                                                     Supplier<String> dump) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> out.print(dump.get()), period, period, unit);
+        return executor;
+    }
+}
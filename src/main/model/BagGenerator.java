@@ -0,0 +1,74 @@
+package main.model;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Generator dealing pieces from shuffled bags holding one of each type, so every type appears exactly once in
+ * each run of PIECES.length pieces taken from the start of a bag. The same seed deals the same sequence.
+ */
+public class BagGenerator implements PieceGenerator {
+    private static final PuzzlePiece.PIECES[] TYPES = PuzzlePiece.PIECES.values();
+    private final Random random;
+    private final byte[] bag = new byte[TYPES.length];
+    private final byte[] restored = new byte[TYPES.length];
+    private int taken = TYPES.length;
+
+    /**
+     * Constructs generator; no values are drawn from random until the first piece is taken
+     */
+    public BagGenerator(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public PuzzlePiece.PIECES next() {
+        if (taken == bag.length) {
+            fillBag();
+        }
+        return TYPES[bag[taken++]];
+    }
+
+    /**
+     * MODIFIES: this
+     * Refills bag with one of each type in Fisher-Yates shuffled order
+     */
+    private void fillBag() {
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = (byte) i;
+        }
+        for (int i = bag.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte swap = bag[i];
+            bag[i] = bag[j];
+            bag[j] = swap;
+        }
+        taken = 0;
+    }
+
+    @Override
+    public void writeState(ByteBuffer buffer) throws IllegalStateException {
+        buffer.putLong(GameRandom.of(random).getState());
+        buffer.put(bag);
+        buffer.put((byte) taken);
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) throws IllegalStateException, IndexOutOfBoundsException {
+        GameRandom gameRandom = GameRandom.of(random);
+        long state = buffer.getLong();
+        buffer.get(restored);
+        int newTaken = buffer.get();
+        if (newTaken < 0 || newTaken > bag.length) {
+            throw new IndexOutOfBoundsException("Invalid Bag Position");
+        }
+        for (byte type : restored) {
+            if (type < 0 || type >= TYPES.length) {
+                throw new IndexOutOfBoundsException("Invalid Piece Type");
+            }
+        }
+        gameRandom.setState(state);
+        System.arraycopy(restored, 0, bag, 0, bag.length);
+        taken = newTaken;
+    }
+}
@@ -0,0 +1,591 @@
+package main.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Represents puzzle board occupancy as one bitmask per row, with a separate color index plane.
+ * Bit x of a row mask is set when column x is occupied; color index EMPTY marks a blank cell.
+ * The row of the highest occupied cell in each column is kept up to date on every change, and the range of rows
+ * changed since clearDirtyRows was last called is tracked so only those rows need to be copied or redrawn.
+ * A Zobrist hash of occupancy is also kept up to date, so that searches can recognise a stack they have already
+ * seen; colors do not affect it.
+ */
+public class BitBoard implements Board {
+    public static final int MAX_WIDTH = Long.SIZE;
+    public static final byte EMPTY = 0;
+    private static final long HASH_ROW_MULT = 0x9E3779B97F4A7C15L;
+    private static final long HASH_MASK_MULT = 0xC2B2AE3D27D4EB4FL;
+    private final int GRID_WIDTH;
+    private final int GRID_HEIGHT;
+    private final long FULL_ROW;
+    private final long[] rows;
+    private final byte[] cells;
+    private final int[] columnTops;
+    private int dirtyTop;
+    private int dirtyBottom;
+    private long hash;
+
+    /**
+     * Constructs blank board
+     *
+     * @param gridWidth  number of columns, from 1 to MAX_WIDTH
+     * @param gridHeight number of rows, greater than 0
+     * @throws IllegalArgumentException if gridWidth or gridHeight out of range
+     */
+    public BitBoard(int gridWidth, int gridHeight) throws IllegalArgumentException {
+        if (gridWidth < 1 || gridWidth > MAX_WIDTH) {
+            throw new IllegalArgumentException("gridWidth must be between 1 and " + MAX_WIDTH);
+        }
+        if (gridHeight < 1) {
+            throw new IllegalArgumentException("gridHeight must be greater than 0");
+        }
+        this.GRID_WIDTH = gridWidth;
+        this.GRID_HEIGHT = gridHeight;
+        this.FULL_ROW = gridWidth == MAX_WIDTH ? -1L : (1L << gridWidth) - 1;
+        this.rows = new long[gridHeight];
+        this.cells = new byte[gridWidth * gridHeight];
+        this.columnTops = new int[gridWidth];
+        Arrays.fill(this.columnTops, gridHeight);
+        this.dirtyTop = 0;
+        this.dirtyBottom = gridHeight - 1;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.GRID_WIDTH;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.GRID_HEIGHT;
+    }
+
+    /**
+     * @return row mask with every column bit set
+     */
+    public long getFullRow() {
+        return this.FULL_ROW;
+    }
+
+    /**
+     * @return 1; each row is one bitmask
+     */
+    @Override
+    public int getWordsPerRow() {
+        return 1;
+    }
+
+    /**
+     * MODIFIES: this
+     * Clears all occupancy bits and color indices
+     */
+    @Override
+    public void setBlankBoard() {
+        Arrays.fill(this.rows, 0L);
+        Arrays.fill(this.cells, EMPTY);
+        Arrays.fill(this.columnTops, GRID_HEIGHT);
+        this.hash = 0L;
+        markDirty(0, GRID_HEIGHT - 1);
+    }
+
+    /**
+     * MODIFIES: this
+     * Copies occupancy, color indices and column tops of other board into this board
+     *
+     * @throws IllegalArgumentException if other board is not a BitBoard of the same size
+     */
+    @Override
+    public void copyFrom(Board other) throws IllegalArgumentException {
+        if (!(other instanceof BitBoard)) {
+            throw new IllegalArgumentException("board classes do not match");
+        }
+        copyFrom((BitBoard) other);
+    }
+
+    /**
+     * MODIFIES: this
+     * Copies occupancy, color indices and column tops of other board into this board
+     *
+     * @throws IllegalArgumentException if other board size differs from this board size
+     */
+    public void copyFrom(BitBoard other) throws IllegalArgumentException {
+        if (other.GRID_WIDTH != GRID_WIDTH || other.GRID_HEIGHT != GRID_HEIGHT) {
+            throw new IllegalArgumentException("board sizes do not match");
+        }
+        System.arraycopy(other.rows, 0, this.rows, 0, GRID_HEIGHT);
+        System.arraycopy(other.cells, 0, this.cells, 0, this.cells.length);
+        System.arraycopy(other.columnTops, 0, this.columnTops, 0, GRID_WIDTH);
+        this.hash = other.hash;
+        markDirty(0, GRID_HEIGHT - 1);
+    }
+
+    /**
+     * MODIFIES: rowsDest, cellsDest
+     * Copies occupancy and color indices of rows fromY to toY into rowsDest from index destRow and cellsDest from
+     * index destRow * GRID_WIDTH, from which restoreRows puts them back
+     *
+     * @throws IndexOutOfBoundsException if a row is out of bounds or a destination is too short
+     */
+    @Override
+    public void saveRows(int fromY, int toY, long[] rowsDest, byte[] cellsDest, int destRow)
+            throws IndexOutOfBoundsException {
+        System.arraycopy(this.rows, fromY, rowsDest, destRow, toY - fromY + 1);
+        System.arraycopy(this.cells, fromY * GRID_WIDTH, cellsDest, destRow * GRID_WIDTH,
+                (toY - fromY + 1) * GRID_WIDTH);
+    }
+
+    /**
+     * MODIFIES: this
+     * Replaces rows fromY to toY with rows copied by saveRows, updating column tops and hash of those rows only
+     *
+     * @throws IndexOutOfBoundsException if a row is out of bounds or a source is too short
+     */
+    @Override
+    public void restoreRows(int fromY, int toY, long[] rowsSrc, byte[] cellsSrc, int srcRow)
+            throws IndexOutOfBoundsException {
+        isOutOfBounds(0, fromY);
+        isOutOfBounds(0, toY);
+        this.hash ^= rowsHash(fromY, toY);
+        System.arraycopy(rowsSrc, srcRow, this.rows, fromY, toY - fromY + 1);
+        System.arraycopy(cellsSrc, srcRow * GRID_WIDTH, this.cells, fromY * GRID_WIDTH,
+                (toY - fromY + 1) * GRID_WIDTH);
+        this.hash ^= rowsHash(fromY, toY);
+        markDirty(fromY, toY);
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            if (this.columnTops[x] >= fromY) {
+                this.columnTops[x] = findColumnTop(x, fromY);
+            }
+        }
+    }
+
+    /**
+     * @return Zobrist hash of occupancy: XOR over rows of the key of each row's index and mask; 0 for a blank
+     *         board. Boards of the same size with the same occupied cells have the same hash.
+     */
+    @Override
+    public long getHash() {
+        return this.hash;
+    }
+
+    /**
+     * @return getHash() of this board after every cell of shape is set with origin at x, y, before complete rows
+     *         are removed; the board is not changed
+     */
+    public long hashAfterPlacing(PieceShape shape, int x, int y) {
+        long placed = this.hash;
+        for (int dy = 0; dy < shape.getHeight(); dy++) {
+            long row = this.rows[y + dy];
+            placed ^= rowKey(y + dy, row) ^ rowKey(y + dy, row | shape.getRowMask(dy) << x);
+        }
+        return placed;
+    }
+
+    /**
+     * @return Zobrist key of row y holding mask; keys are derived by a 64 bit mixing function instead of a table
+     *         of random numbers, since a row has 2 ^ GRID_WIDTH masks. A blank row has key 0. WideBitBoard keys
+     *         each word of a row by the word's index in place of y.
+     */
+    static long rowKey(int y, long mask) {
+        if (mask == 0L) {
+            return 0L;
+        }
+        long key = mask * HASH_MASK_MULT + (y + 1) * HASH_ROW_MULT;
+        key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+        key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+        return key ^ (key >>> 31);
+    }
+
+    /**
+     * @return XOR of keys of rows fromY to toY
+     */
+    private long rowsHash(int fromY, int toY) {
+        long rowsHash = 0L;
+        for (int y = fromY; y <= toY; y++) {
+            rowsHash ^= rowKey(y, this.rows[y]);
+        }
+        return rowsHash;
+    }
+
+    /**
+     * @return top row changed since clearDirtyRows was last called; greater than getDirtyBottom() if none
+     */
+    @Override
+    public int getDirtyTop() {
+        return this.dirtyTop;
+    }
+
+    /**
+     * @return bottom row changed since clearDirtyRows was last called; less than getDirtyTop() if none
+     */
+    @Override
+    public int getDirtyBottom() {
+        return this.dirtyBottom;
+    }
+
+    /**
+     * MODIFIES: this
+     * Marks every row as unchanged; called once the dirty rows have been copied or redrawn
+     */
+    @Override
+    public void clearDirtyRows() {
+        this.dirtyTop = GRID_HEIGHT;
+        this.dirtyBottom = -1;
+    }
+
+    /**
+     * MODIFIES: this
+     * Adds rows fromY to toY to the range of changed rows
+     */
+    private void markDirty(int fromY, int toY) {
+        this.dirtyTop = Math.min(this.dirtyTop, fromY);
+        this.dirtyBottom = Math.max(this.dirtyBottom, toY);
+    }
+
+    /**
+     * MODIFIES: buffer
+     * Writes color index of every cell, row by row, as GRID_WIDTH * GRID_HEIGHT bytes
+     *
+     * @throws java.nio.BufferOverflowException if buffer has too little space remaining
+     */
+    @Override
+    public void writeCells(ByteBuffer buffer) {
+        buffer.put(this.cells);
+    }
+
+    /**
+     * MODIFIES: this, buffer
+     * Reads color index of every cell written by writeCells, rebuilding occupancy and column tops
+     *
+     * @throws java.nio.BufferUnderflowException if buffer has too few bytes remaining
+     */
+    @Override
+    public void readCells(ByteBuffer buffer) {
+        buffer.get(this.cells);
+        Arrays.fill(this.columnTops, GRID_HEIGHT);
+        for (int y = GRID_HEIGHT - 1; y >= 0; y--) {
+            long row = 0L;
+            for (int x = 0; x < GRID_WIDTH; x++) {
+                if (this.cells[x + y * GRID_WIDTH] != EMPTY) {
+                    row |= 1L << x;
+                    this.columnTops[x] = y;
+                }
+            }
+            this.rows[y] = row;
+        }
+        this.hash = rowsHash(0, GRID_HEIGHT - 1);
+        markDirty(0, GRID_HEIGHT - 1);
+    }
+
+    /**
+     * MODIFIES: dest
+     * Copies color indices of row y into the first GRID_WIDTH elements of dest
+     *
+     * @throws IndexOutOfBoundsException if y out of bounds or dest shorter than GRID_WIDTH
+     */
+    @Override
+    public void copyRowCells(int y, byte[] dest) throws IndexOutOfBoundsException {
+        isOutOfBounds(0, y);
+        System.arraycopy(this.cells, y * GRID_WIDTH, dest, 0, GRID_WIDTH);
+    }
+
+    /**
+     * returns occupancy mask of row y; bit x is set if column x is occupied
+     *
+     * @param y vertical coordinate from 0 to GRID_HEIGHT - 1
+     * @throws IndexOutOfBoundsException if y out of bounds
+     */
+    public long getRow(int y) throws IndexOutOfBoundsException {
+        return this.rows[y];
+    }
+
+    /**
+     * @return true if no column of row y is occupied
+     * @throws IndexOutOfBoundsException if y out of bounds
+     */
+    @Override
+    public boolean isRowEmpty(int y) throws IndexOutOfBoundsException {
+        return this.rows[y] == 0L;
+    }
+
+    /**
+     * returns color index of board at x, y coordinate
+     *
+     * @param x horizontal coordinate from 0 to GRID_WIDTH - 1
+     * @param y vertical coordinate from 0 to GRID_HEIGHT - 1
+     * @return color index of x,y position; EMPTY if blank
+     * @throws IndexOutOfBoundsException if x or y out of bounds
+     */
+    @Override
+    public byte getCell(int x, int y) throws IndexOutOfBoundsException {
+        isOutOfBounds(x, y);
+        return this.cells[x + y * this.GRID_WIDTH];
+    }
+
+    /**
+     * MODIFIES: this
+     * sets color index of board at x, y coordinate; EMPTY clears the cell
+     *
+     * @param x          horizontal coordinate from 0 to GRID_WIDTH - 1
+     * @param y          vertical coordinate from 0 to GRID_HEIGHT - 1
+     * @param colorIndex color index of cell
+     * @throws IndexOutOfBoundsException if x or y out of bounds
+     */
+    @Override
+    public void setCell(int x, int y, byte colorIndex) throws IndexOutOfBoundsException {
+        isOutOfBounds(x, y);
+        this.cells[x + y * this.GRID_WIDTH] = colorIndex;
+        markDirty(y, y);
+        long row = this.rows[y];
+        if (colorIndex == EMPTY) {
+            this.rows[y] = row & ~(1L << x);
+            if (y == this.columnTops[x]) {
+                this.columnTops[x] = findColumnTop(x, y + 1);
+            }
+        } else {
+            this.rows[y] = row | 1L << x;
+            this.columnTops[x] = Math.min(this.columnTops[x], y);
+        }
+        if (this.rows[y] != row) {
+            this.hash ^= rowKey(y, row) ^ rowKey(y, this.rows[y]);
+        }
+    }
+
+    /**
+     * @return row of highest occupied cell in column x at or below row fromY; GRID_HEIGHT if none
+     */
+    private int findColumnTop(int x, int fromY) {
+        long bit = 1L << x;
+        for (int y = fromY; y < GRID_HEIGHT; y++) {
+            if ((this.rows[y] & bit) != 0) {
+                return y;
+            }
+        }
+        return GRID_HEIGHT;
+    }
+
+    /**
+     * returns row of highest occupied cell in column x
+     *
+     * @param x horizontal coordinate from 0 to GRID_WIDTH - 1
+     * @return row of highest occupied cell; GRID_HEIGHT if column is empty
+     * @throws IndexOutOfBoundsException if x out of bounds
+     */
+    @Override
+    public int getColumnTop(int x) throws IndexOutOfBoundsException {
+        return this.columnTops[x];
+    }
+
+    /**
+     * @return row of highest occupied cell on board; GRID_HEIGHT if board is empty
+     */
+    @Override
+    public int getSurfaceTop() {
+        int surface = GRID_HEIGHT;
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            surface = Math.min(surface, this.columnTops[x]);
+        }
+        return surface;
+    }
+
+    /**
+     * @return number of rows from bottom of board up to and including highest occupied cell in column x
+     * @throws IndexOutOfBoundsException if x out of bounds
+     */
+    public int getColumnHeight(int x) throws IndexOutOfBoundsException {
+        return GRID_HEIGHT - this.columnTops[x];
+    }
+
+    /**
+     * @return true if cell at x, y is not EMPTY
+     * @throws IndexOutOfBoundsException if x or y out of bounds
+     */
+    @Override
+    public boolean isOccupied(int x, int y) throws IndexOutOfBoundsException {
+        isOutOfBounds(x, y);
+        return (this.rows[y] & (1L << x)) != 0;
+    }
+
+    /**
+     * throws exception if x,y out of bounds
+     *
+     * @param x horizontal coordinate from 0 to GRID_WIDTH - 1
+     * @param y vertical coordinate from 0 to GRID_HEIGHT - 1
+     * @throws IndexOutOfBoundsException if x or y out of bounds
+     */
+    private void isOutOfBounds(int x, int y) throws IndexOutOfBoundsException {
+        if (x < 0 || x >= GRID_WIDTH) {
+            throw new IndexOutOfBoundsException("x must be between 0 and GRID_WIDTH - 1");
+        }
+        if (y < 0 || y >= GRID_HEIGHT) {
+            throw new IndexOutOfBoundsException("y must be between 0 and GRID_HEIGHT - 1");
+        }
+    }
+
+    /**
+     * Checks that shape placed with origin at x, y lies within the board and covers no occupied cell
+     *
+     * @param shape compiled piece rotation
+     * @param x     horizontal coordinate of shape origin
+     * @param y     vertical coordinate of shape origin
+     * @return true if shape fits at x, y
+     */
+    @Override
+    public boolean fits(PieceShape shape, int x, int y) {
+        if (x < 0 || y < 0 || x + shape.getMaxX() >= GRID_WIDTH || y + shape.getMaxY() >= GRID_HEIGHT) {
+            return false;
+        }
+        for (int dy = 0; dy < shape.getHeight(); dy++) {
+            if ((this.rows[y + dy] & (shape.getRowMask(dy) << x)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns how far shape with origin at x, y can move down before it is blocked.
+     * Constant time when shape lies above the surface of every column it covers; otherwise probes row by row.
+     *
+     * @param shape compiled piece rotation
+     * @param x     horizontal coordinate of shape origin
+     * @param y     vertical coordinate of shape origin
+     * @return clear distance shape can travel down; 0 if shape does not fit at x, y + 1
+     */
+    @Override
+    public int dropDistance(PieceShape shape, int x, int y) {
+        if (x < 0 || y < 0 || x + shape.getMaxX() >= GRID_WIDTH) {
+            return 0;
+        }
+        int distance = GRID_HEIGHT;
+        for (int dx = 0; dx <= shape.getMaxX(); dx++) {
+            if (shape.getColumnBottom(dx) < 0) {
+                continue;
+            }
+            int bottom = y + shape.getColumnBottom(dx);
+            int top = this.columnTops[x + dx];
+            if (bottom >= top) {
+                return probeDropDistance(shape, x, y);
+            }
+            distance = Math.min(distance, top - 1 - bottom);
+        }
+        return distance;
+    }
+
+    /**
+     * @return clear distance shape with origin at x, y can travel down, found by testing each row below
+     */
+    private int probeDropDistance(PieceShape shape, int x, int y) {
+        int distance = 0;
+        while (fits(shape, x, y + distance + 1)) {
+            distance++;
+        }
+        return distance;
+    }
+
+    /**
+     * MODIFIES: this
+     * sets every cell of shape with origin at x, y to colorIndex, then removes the rows it completed
+     *
+     * @param shape      compiled piece rotation; must fit at x, y
+     * @param colorIndex color index of piece cells, not EMPTY
+     * @return number of rows removed
+     * @throws IndexOutOfBoundsException if shape lies outside board
+     */
+    @Override
+    public int placeShape(PieceShape shape, int x, int y, byte colorIndex) throws IndexOutOfBoundsException {
+        for (int i = 0; i < shape.getVertexCount(); i++) {
+            setCell(x + shape.getVertexX(i), y + shape.getVertexY(i), colorIndex);
+        }
+        return clearCompleteRows(y, y + shape.getMaxY());
+    }
+
+    /**
+     * @return true if every column of row y is occupied
+     * @throws IndexOutOfBoundsException if y out of bounds
+     */
+    @Override
+    public boolean isRowComplete(int y) throws IndexOutOfBoundsException {
+        return this.rows[y] == FULL_ROW;
+    }
+
+    /**
+     * MODIFIES: this
+     * removes row from board by shifting all rows above it down one; top row becomes blank
+     *
+     * @param rowIndex row to remove, from 0 to GRID_HEIGHT - 1
+     * @throws IndexOutOfBoundsException if rowIndex out of bounds
+     */
+    @Override
+    public void clearRow(int rowIndex) throws IndexOutOfBoundsException {
+        isOutOfBounds(0, rowIndex);
+        int surface = Math.min(getSurfaceTop(), rowIndex);
+        markDirty(surface, rowIndex);
+        this.hash ^= rowsHash(surface, rowIndex);
+        System.arraycopy(this.rows, 0, this.rows, 1, rowIndex);
+        this.rows[0] = 0L;
+        this.hash ^= rowsHash(surface, rowIndex);
+        System.arraycopy(this.cells, 0, this.cells, GRID_WIDTH, rowIndex * GRID_WIDTH);
+        Arrays.fill(this.cells, 0, GRID_WIDTH, EMPTY);
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            int top = this.columnTops[x];
+            if (top < rowIndex) {
+                this.columnTops[x] = top + 1;
+            } else if (top == rowIndex) {
+                this.columnTops[x] = findColumnTop(x, rowIndex + 1);
+            }
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * removes every complete row from fromY to toY in one pass; rows above each removed row move down and
+     * blank rows are added at top. Each surviving row is written at most once.
+     *
+     * @param fromY top row of range to check, from 0 to GRID_HEIGHT - 1
+     * @param toY   bottom row of range to check, from fromY to GRID_HEIGHT - 1
+     * @return number of rows removed
+     * @throws IndexOutOfBoundsException if fromY or toY out of bounds, or fromY > toY
+     */
+    @Override
+    public int clearCompleteRows(int fromY, int toY) throws IndexOutOfBoundsException {
+        isOutOfBounds(0, fromY);
+        isOutOfBounds(0, toY);
+        if (fromY > toY) {
+            throw new IndexOutOfBoundsException("fromY must not be greater than toY");
+        }
+        int bottom = toY;
+        while (bottom >= fromY && this.rows[bottom] != FULL_ROW) {
+            bottom--;
+        }
+        if (bottom < fromY) {
+            return 0;
+        }
+        int surface = Math.min(getSurfaceTop(), fromY);
+        this.hash ^= rowsHash(surface, bottom);
+        int removed = 0;
+        for (int y = bottom; y >= fromY; y--) {
+            if (this.rows[y] == FULL_ROW) {
+                removed++;
+            } else if (removed > 0) {
+                this.rows[y + removed] = this.rows[y];
+                System.arraycopy(this.cells, y * GRID_WIDTH, this.cells, (y + removed) * GRID_WIDTH, GRID_WIDTH);
+            }
+        }
+        markDirty(surface, toY);
+        System.arraycopy(this.rows, 0, this.rows, removed, fromY);
+        System.arraycopy(this.cells, 0, this.cells, removed * GRID_WIDTH, fromY * GRID_WIDTH);
+        Arrays.fill(this.rows, 0, removed, 0L);
+        Arrays.fill(this.cells, 0, removed * GRID_WIDTH, EMPTY);
+        this.hash ^= rowsHash(surface, bottom);
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            int top = this.columnTops[x];
+            if (top < fromY) {
+                this.columnTops[x] = top + removed;
+            } else if (top <= toY) {
+                this.columnTops[x] = findColumnTop(x, top);
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,194 @@
+package main.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Puzzle board holding a color index per cell and the occupancy derived from it, as played on by GameEngine.
+ * Color index BitBoard.EMPTY marks a blank cell. Implementations keep the top of each column, a Zobrist hash of
+ * occupancy and the range of rows changed since clearDirtyRows up to date on every change.
+ * BitBoard holds boards up to BitBoard.MAX_WIDTH columns as one bitmask per row; WideBitBoard holds wider boards
+ * as several words per row. create picks between them by width.
+ */
+public interface Board {
+
+    /**
+     * @return BitBoard if gridWidth is at most BitBoard.MAX_WIDTH, WideBitBoard otherwise
+     * @throws IllegalArgumentException if gridWidth or gridHeight < 1
+     */
+    static Board create(int gridWidth, int gridHeight) throws IllegalArgumentException {
+        if (gridWidth <= BitBoard.MAX_WIDTH) {
+            return new BitBoard(gridWidth, gridHeight);
+        }
+        return new WideBitBoard(gridWidth, gridHeight);
+    }
+
+    int getWidth();
+
+    int getHeight();
+
+    /**
+     * @return number of 64 bit occupancy words per row, as copied by saveRows
+     */
+    int getWordsPerRow();
+
+    /**
+     * MODIFIES: this
+     * Clears all occupancy and color indices
+     */
+    void setBlankBoard();
+
+    /**
+     * MODIFIES: this
+     * Copies occupancy, color indices and column tops of other board into this board
+     *
+     * @throws IllegalArgumentException if other board is of another size or class
+     */
+    void copyFrom(Board other) throws IllegalArgumentException;
+
+    /**
+     * MODIFIES: rowsDest, cellsDest
+     * Copies occupancy words and color indices of rows fromY to toY into rowsDest from index
+     * destRow * getWordsPerRow() and cellsDest from index destRow * getWidth(), from which restoreRows puts them back
+     *
+     * @throws IndexOutOfBoundsException if a row is out of bounds or a destination is too short
+     */
+    void saveRows(int fromY, int toY, long[] rowsDest, byte[] cellsDest, int destRow)
+            throws IndexOutOfBoundsException;
+
+    /**
+     * MODIFIES: this
+     * Replaces rows fromY to toY with rows copied by saveRows, updating column tops and hash of those rows only
+     *
+     * @throws IndexOutOfBoundsException if a row is out of bounds or a source is too short
+     */
+    void restoreRows(int fromY, int toY, long[] rowsSrc, byte[] cellsSrc, int srcRow)
+            throws IndexOutOfBoundsException;
+
+    /**
+     * @return Zobrist hash of occupancy; 0 for a blank board. Boards of the same size and class with the same
+     *         occupied cells have the same hash.
+     */
+    long getHash();
+
+    /**
+     * @return top row changed since clearDirtyRows was last called; greater than getDirtyBottom() if none
+     */
+    int getDirtyTop();
+
+    /**
+     * @return bottom row changed since clearDirtyRows was last called; less than getDirtyTop() if none
+     */
+    int getDirtyBottom();
+
+    /**
+     * MODIFIES: this
+     * Marks every row as unchanged; called once the dirty rows have been copied or redrawn
+     */
+    void clearDirtyRows();
+
+    /**
+     * MODIFIES: buffer
+     * Writes color index of every cell, row by row, as getWidth() * getHeight() bytes
+     *
+     * @throws java.nio.BufferOverflowException if buffer has too little space remaining
+     */
+    void writeCells(ByteBuffer buffer);
+
+    /**
+     * MODIFIES: this, buffer
+     * Reads color index of every cell written by writeCells, rebuilding occupancy and column tops
+     *
+     * @throws java.nio.BufferUnderflowException if buffer has too few bytes remaining
+     */
+    void readCells(ByteBuffer buffer);
+
+    /**
+     * MODIFIES: dest
+     * Copies color indices of row y into the first getWidth() elements of dest
+     *
+     * @throws IndexOutOfBoundsException if y out of bounds or dest shorter than getWidth()
+     */
+    void copyRowCells(int y, byte[] dest) throws IndexOutOfBoundsException;
+
+    /**
+     * @return color index of cell at x, y; EMPTY if blank
+     * @throws IndexOutOfBoundsException if x or y out of bounds
+     */
+    byte getCell(int x, int y) throws IndexOutOfBoundsException;
+
+    /**
+     * MODIFIES: this
+     * sets color index of cell at x, y; EMPTY clears the cell
+     *
+     * @throws IndexOutOfBoundsException if x or y out of bounds
+     */
+    void setCell(int x, int y, byte colorIndex) throws IndexOutOfBoundsException;
+
+    /**
+     * @return true if cell at x, y is not EMPTY
+     * @throws IndexOutOfBoundsException if x or y out of bounds
+     */
+    boolean isOccupied(int x, int y) throws IndexOutOfBoundsException;
+
+    /**
+     * @return row of highest occupied cell in column x; getHeight() if column is empty
+     * @throws IndexOutOfBoundsException if x out of bounds
+     */
+    int getColumnTop(int x) throws IndexOutOfBoundsException;
+
+    /**
+     * @return row of highest occupied cell on board; getHeight() if board is empty
+     */
+    int getSurfaceTop();
+
+    /**
+     * @return true if no column of row y is occupied
+     * @throws IndexOutOfBoundsException if y out of bounds
+     */
+    boolean isRowEmpty(int y) throws IndexOutOfBoundsException;
+
+    /**
+     * @return true if every column of row y is occupied
+     * @throws IndexOutOfBoundsException if y out of bounds
+     */
+    boolean isRowComplete(int y) throws IndexOutOfBoundsException;
+
+    /**
+     * @return true if shape with origin at x, y lies within the board and covers no occupied cell
+     */
+    boolean fits(PieceShape shape, int x, int y);
+
+    /**
+     * @return clear distance shape with origin at x, y can travel down; 0 if shape does not fit at x, y + 1
+     */
+    int dropDistance(PieceShape shape, int x, int y);
+
+    /**
+     * MODIFIES: this
+     * sets every cell of shape with origin at x, y to colorIndex, then removes the rows it completed
+     *
+     * @param shape      compiled piece rotation; must fit at x, y
+     * @param colorIndex color index of piece cells, not EMPTY
+     * @return number of rows removed
+     * @throws IndexOutOfBoundsException if shape lies outside board
+     */
+    int placeShape(PieceShape shape, int x, int y, byte colorIndex) throws IndexOutOfBoundsException;
+
+    /**
+     * MODIFIES: this
+     * removes row from board by shifting all rows above it down one; top row becomes blank
+     *
+     * @throws IndexOutOfBoundsException if rowIndex out of bounds
+     */
+    void clearRow(int rowIndex) throws IndexOutOfBoundsException;
+
+    /**
+     * MODIFIES: this
+     * removes every complete row from fromY to toY in one pass; rows above each removed row move down and
+     * blank rows are added at top
+     *
+     * @return number of rows removed
+     * @throws IndexOutOfBoundsException if fromY or toY out of bounds, or fromY > toY
+     */
+    int clearCompleteRows(int fromY, int toY) throws IndexOutOfBoundsException;
+}
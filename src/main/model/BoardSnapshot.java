@@ -0,0 +1,90 @@
+package main.model;
+
+/**
+ * Immutable view of a PuzzleBoard's cells at the time it was published.
+ * Each row is a separate color index array that is never modified once published; consecutive snapshots share
+ * the arrays of rows that did not change, so comparing rows of two snapshots by reference finds changed rows.
+ */
+public final class BoardSnapshot {
+    private final long version;
+    private final int GRID_WIDTH;
+    private final int GRID_HEIGHT;
+    private final byte[][] rows;
+    private final byte[] blankRow;
+
+    /**
+     * Constructs first snapshot of blank board
+     */
+    BoardSnapshot(int gridWidth, int gridHeight) {
+        this.version = 0;
+        this.GRID_WIDTH = gridWidth;
+        this.GRID_HEIGHT = gridHeight;
+        this.blankRow = new byte[gridWidth];
+        this.rows = new byte[gridHeight][];
+        for (int y = 0; y < gridHeight; y++) {
+            this.rows[y] = blankRow;
+        }
+    }
+
+    /**
+     * Constructs snapshot following previous
+     *
+     * @param rows array obtained from previous.shareRows() with changed rows replaced; owned by this snapshot
+     */
+    BoardSnapshot(BoardSnapshot previous, byte[][] rows) {
+        this.version = previous.version + 1;
+        this.GRID_WIDTH = previous.GRID_WIDTH;
+        this.GRID_HEIGHT = previous.GRID_HEIGHT;
+        this.blankRow = previous.blankRow;
+        this.rows = rows;
+    }
+
+    /**
+     * @return copy of row references, to be modified into the rows of the next snapshot
+     */
+    byte[][] shareRows() {
+        return this.rows.clone();
+    }
+
+    /**
+     * @return all-EMPTY row array shared by every blank row
+     */
+    byte[] getBlankRow() {
+        return this.blankRow;
+    }
+
+    /**
+     * @return number of snapshots published before this one
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    public int getWidth() {
+        return this.GRID_WIDTH;
+    }
+
+    public int getHeight() {
+        return this.GRID_HEIGHT;
+    }
+
+    /**
+     * @return color index of cell at x, y; BitBoard.EMPTY if blank
+     * @throws IndexOutOfBoundsException if x or y out of bounds
+     */
+    public byte getCell(int x, int y) throws IndexOutOfBoundsException {
+        if (x < 0 || x >= GRID_WIDTH) {
+            throw new IndexOutOfBoundsException("x must be between 0 and GRID_WIDTH - 1");
+        }
+        return this.rows[y][x];
+    }
+
+    /**
+     * @return true if row y holds the same cells in this snapshot and other because both share its array;
+     *         false if row may differ
+     * @throws IndexOutOfBoundsException if y out of bounds
+     */
+    public boolean isSameRow(BoardSnapshot other, int y) throws IndexOutOfBoundsException {
+        return this.rows[y] == other.rows[y];
+    }
+}
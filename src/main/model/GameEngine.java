@@ -0,0 +1,510 @@
+package main.model;
+
+import main.metrics.Metrics;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Headless puzzle game core; holds board, active piece and score as primitive state.
+ * Driven by typed actions and an explicit gravity step, with no observer or UI dependencies.
+ */
+public class GameEngine {
+    public enum ACTIONS {LEFT, RIGHT, DOWN, ROTATE_CW, ROTATE_CCW, HARD_DROP}
+
+    public static final int DEFAULT_PREVIEW_DEPTH = 3;
+
+    private static final PuzzlePiece.PIECES[] TYPES = PuzzlePiece.PIECES.values();
+    private static final int Y0_NEW_PIECE = 0;
+    private static final int SCORE_PER_ROW = 50;
+    private static final int ROWS_PER_LEVEL = 12;
+    private static final double ROW_SCORE_MULT = 0.15;
+    private static final double LEVEL_SCORE_MULT = 0.1;
+    private static final long START_INTERVAL_NANOS = 1_600_000_000L;
+    private static final long INTERVAL_REDUCTION_NANOS = 300_000_000L;
+    private static final long MIN_INTERVAL_NANOS = 100_000_000L;
+    private static final int STATE_HEADER_BYTES = 3 * Long.BYTES + 5 * Integer.BYTES + 2 + PieceQueue.STATE_BYTES;
+    private final int X0_NEW_PIECE;
+    private final Board board;
+    private final GameRandom rotationRandom;
+    private final PieceQueue preview;
+    private PuzzlePiece.PIECES pieceType;
+    private int pieceRotation;
+    private int pieceX;
+    private int pieceY;
+    private long pieceCount;
+    private int level;
+    private int score;
+    private int clearedRows;
+    private long totalClearedRows;
+
+    /**
+     * Constructs game on a new blank board
+     *
+     * @param random source of piece types; rotations are drawn from a stream seeded by random
+     * @throws IllegalArgumentException if gridWidth or gridHeight < 1
+     */
+    public GameEngine(int gridWidth, int gridHeight, Random random) throws IllegalArgumentException {
+        this(Board.create(gridWidth, gridHeight), random);
+    }
+
+    /**
+     * Constructs game playing on board with uniformly chosen piece types and DEFAULT_PREVIEW_DEPTH previewed pieces
+     *
+     * @param random source of piece types; rotations are drawn from a stream seeded by random
+     */
+    public GameEngine(Board board, Random random) {
+        this(board, random, new UniformGenerator(random), DEFAULT_PREVIEW_DEPTH);
+    }
+
+    /**
+     * Constructs game playing on board
+     *
+     * @param random       seeds the stream rotations are drawn from; usually also the source of generator
+     * @param generator    source of piece types, not yet used by anyone else
+     * @param previewDepth number of upcoming pieces shown by getPreview, from 0 to PieceQueue.MAX_DEPTH
+     * @throws IllegalArgumentException if previewDepth out of bounds
+     */
+    public GameEngine(Board board, Random random, PieceGenerator generator, int previewDepth)
+            throws IllegalArgumentException {
+        this.X0_NEW_PIECE = board.getWidth() / 2 - 1;
+        this.board = board;
+        this.rotationRandom = new GameRandom(random.nextLong());
+        this.preview = new PieceQueue(generator, previewDepth);
+        initScore();
+        nextPiece();
+    }
+
+    /**
+     * @return board color index used for cells of piece type; never BitBoard.EMPTY
+     */
+    public static byte colorIndex(PuzzlePiece.PIECES type) {
+        return (byte) (type.ordinal() + 1);
+    }
+
+    /**
+     * MODIFIES: this
+     * Initializes level and score
+     */
+    private void initScore() {
+        this.level = 1;
+        this.score = 0;
+        this.clearedRows = 0;
+        this.totalClearedRows = 0;
+    }
+
+    /**
+     * MODIFIES: this
+     * Resets all board rows to blank; resets score and level
+     */
+    public void reset() {
+        this.board.setBlankBoard();
+        initScore();
+    }
+
+    public Board getBoard() {
+        return this.board;
+    }
+
+    public int getLevel() {
+        return this.level;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getClearedRows() {
+        return this.clearedRows;
+    }
+
+    /**
+     * @return number of rows cleared since last reset, across all levels
+     */
+    public long getTotalClearedRows() {
+        return this.totalClearedRows;
+    }
+
+    public PuzzlePiece.PIECES getPieceType() {
+        return this.pieceType;
+    }
+
+    public int getPieceRotation() {
+        return this.pieceRotation;
+    }
+
+    public int getPieceX() {
+        return this.pieceX;
+    }
+
+    public int getPieceY() {
+        return this.pieceY;
+    }
+
+    /**
+     * @return number of pieces spawned since construction
+     */
+    public long getPieceCount() {
+        return this.pieceCount;
+    }
+
+    /**
+     * @return shared geometry of current piece at its current rotation
+     */
+    public PieceShape getPieceShape() {
+        return PieceShape.get(this.pieceType, this.pieceRotation);
+    }
+
+    /**
+     * @return queue of pieces following the current one
+     */
+    public PieceQueue getPreview() {
+        return this.preview;
+    }
+
+    /**
+     * @return time between gravity steps at level, in nanoseconds
+     */
+    public static long gravityNanos(int level) {
+        return Math.max(START_INTERVAL_NANOS - INTERVAL_REDUCTION_NANOS * level, MIN_INTERVAL_NANOS);
+    }
+
+    /**
+     * @return number of bytes written by writeState
+     */
+    public int getStateSize() {
+        return stateSize(board.getWidth(), board.getHeight());
+    }
+
+    /**
+     * @return number of bytes written by writeState of a game on a gridWidth by gridHeight board
+     */
+    public static int stateSize(int gridWidth, int gridHeight) {
+        return STATE_HEADER_BYTES + gridWidth * gridHeight;
+    }
+
+    /**
+     * MODIFIES: buffer
+     * Writes random generator states, score, current piece, previewed pieces and board cells, from which readState
+     * resumes this game exactly
+     *
+     * @throws IllegalStateException if piece generator's random source is not a GameRandom
+     * @throws java.nio.BufferOverflowException if buffer has fewer than getStateSize() bytes remaining
+     */
+    public void writeState(ByteBuffer buffer) throws IllegalStateException {
+        writeHeader(buffer);
+        board.writeCells(buffer);
+    }
+
+    /**
+     * MODIFIES: buffer
+     * Writes every part of the state written by writeState except board cells
+     *
+     * @throws IllegalStateException if piece generator's random source is not a GameRandom
+     */
+    private void writeHeader(ByteBuffer buffer) throws IllegalStateException {
+        buffer.putLong(rotationRandom.getState());
+        buffer.putLong(pieceCount);
+        buffer.putLong(totalClearedRows);
+        buffer.putInt(level);
+        buffer.putInt(score);
+        buffer.putInt(clearedRows);
+        buffer.putInt(pieceX);
+        buffer.putInt(pieceY);
+        buffer.put((byte) pieceType.ordinal());
+        buffer.put((byte) pieceRotation);
+        preview.writeState(buffer);
+    }
+
+    /**
+     * MODIFIES: this, buffer
+     * Restores state written by writeState of a game on a board of the same size, with the same kind of piece
+     * generator and preview depth
+     *
+     * @throws IllegalStateException     if piece generator's random source is not a GameRandom
+     * @throws IndexOutOfBoundsException if state holds an invalid piece type or rotation
+     * @throws java.nio.BufferUnderflowException if buffer has fewer than getStateSize() bytes remaining
+     */
+    public void readState(ByteBuffer buffer) throws IllegalStateException, IndexOutOfBoundsException {
+        readHeader(buffer);
+        board.readCells(buffer);
+    }
+
+    /**
+     * MODIFIES: this, buffer
+     * Restores every part of the state read by readState except board cells
+     *
+     * @throws IllegalStateException     if piece generator's random source is not a GameRandom
+     * @throws IndexOutOfBoundsException if state holds an invalid piece type or rotation
+     */
+    private void readHeader(ByteBuffer buffer) throws IllegalStateException, IndexOutOfBoundsException {
+        long rotationState = buffer.getLong();
+        long count = buffer.getLong();
+        long totalRows = buffer.getLong();
+        int newLevel = buffer.getInt();
+        int newScore = buffer.getInt();
+        int rows = buffer.getInt();
+        int x = buffer.getInt();
+        int y = buffer.getInt();
+        int type = buffer.get();
+        int rotation = buffer.get();
+        if (type < 0 || type >= TYPES.length) {
+            throw new IndexOutOfBoundsException("Invalid Piece Type");
+        }
+        setPiece(TYPES[type], rotation, x, y);
+        preview.readState(buffer);
+        rotationRandom.setState(rotationState);
+        this.pieceCount = count;
+        this.totalClearedRows = totalRows;
+        this.level = newLevel;
+        this.score = newScore;
+        this.clearedRows = rows;
+    }
+
+    /**
+     * MODIFIES: state
+     * Copies board planes and the rest of this game's state into state, from which restoreState resumes this game
+     * exactly; takes time in proportion to the number of board rows and does not allocate
+     *
+     * @throws IllegalStateException    if piece generator's random source is not a GameRandom
+     * @throws IllegalArgumentException if state was constructed for a board of another size
+     */
+    public void saveState(GameState state) throws IllegalStateException, IllegalArgumentException {
+        writeHeader(state.startSave(board));
+        state.finishSave();
+    }
+
+    /**
+     * MODIFIES: this
+     * Restores state saved by saveState of a game on a board of the same size, with the same kind of piece
+     * generator and preview depth
+     *
+     * @throws IllegalStateException    if nothing was saved into state, or piece generator's random source is not
+     *                                  a GameRandom
+     * @throws IllegalArgumentException if state was constructed for a board of another size
+     */
+    public void restoreState(GameState state) throws IllegalStateException, IllegalArgumentException {
+        readHeader(state.restore(board));
+    }
+
+    /**
+     * MODIFIES: this
+     * Replaces current piece state without spawning a new piece
+     *
+     * @param rotationIndex rotation from 0 to PieceShape.ROTATIONS - 1
+     * @throws IndexOutOfBoundsException if rotationIndex out of bounds
+     */
+    public void setPiece(PuzzlePiece.PIECES type, int rotationIndex, int x0, int y0)
+            throws IndexOutOfBoundsException {
+        if (rotationIndex < 0 || rotationIndex >= PieceShape.ROTATIONS) {
+            throw new IndexOutOfBoundsException("Invalid Rotation Index");
+        }
+        this.pieceType = type;
+        this.pieceRotation = rotationIndex;
+        this.pieceX = x0;
+        this.pieceY = y0;
+    }
+
+    /**
+     * MODIFIES: this
+     * takes next piece of preview at spawn location as current piece
+     */
+    private void nextPiece() {
+        this.pieceType = preview.next();
+        this.pieceRotation = rotationRandom.nextInt(PieceShape.ROTATIONS);
+        this.pieceX = X0_NEW_PIECE;
+        this.pieceY = Y0_NEW_PIECE;
+        this.pieceCount++;
+        Metrics.add(Metrics.PIECES, 1);
+    }
+
+    /**
+     * MODIFIES: this
+     * Advances piece one unit down if able; sets piece in place and generates new piece at top otherwise.
+     *
+     * @return true if piece was set in place
+     */
+    public boolean step() {
+        if (isClearBelow(1)) {
+            this.pieceY++;
+            return false;
+        }
+        placePiece();
+        nextPiece();
+        return true;
+    }
+
+    /**
+     * MODIFIES: this
+     * Applies action to current piece; moves and rotations blocked by the board are ignored
+     *
+     * @return true if action set piece in place
+     */
+    public boolean apply(ACTIONS action) {
+        switch (action) {
+            case LEFT:
+                if (isClearLeft()) {
+                    this.pieceX--;
+                }
+                return false;
+            case RIGHT:
+                if (isClearRight()) {
+                    this.pieceX++;
+                }
+                return false;
+            case ROTATE_CW:
+                if (isClearCW()) {
+                    this.pieceRotation = PieceShape.nextRotationCW(this.pieceRotation);
+                }
+                return false;
+            case ROTATE_CCW:
+                if (isClearCounterCW()) {
+                    this.pieceRotation = PieceShape.nextRotationCounterCW(this.pieceRotation);
+                }
+                return false;
+            case HARD_DROP:
+                this.pieceY += getDistToBottom();
+                return step();
+            default:
+                return step();
+        }
+    }
+
+    /**
+     * MODIFIES: this, log
+     * Applies action as apply(action) does, first keeping in log what the action may change so that undo(log)
+     * takes it back; a placing action keeps only the rows from the top of the stack to the bottom of the piece
+     *
+     * @throws IllegalStateException    if log is full, or action may place a piece and piece generator's random
+     *                                  source is not a GameRandom
+     * @throws IllegalArgumentException if log was constructed for a board of another size
+     */
+    public boolean apply(ACTIONS action, UndoLog log) throws IllegalStateException, IllegalArgumentException {
+        if (log.getWidth() != board.getWidth() || log.getHeight() != board.getHeight()) {
+            throw new IllegalArgumentException("board sizes do not match");
+        }
+        log.push(pieceType, pieceRotation, pieceX, pieceY, pieceCount, level, score, clearedRows, totalClearedRows,
+                rotationRandom.getState());
+        if (action == ACTIONS.HARD_DROP || (action == ACTIONS.DOWN && !isClearBelow(1))) {
+            int landingY = action == ACTIONS.HARD_DROP ? getGhostY() : pieceY;
+            log.pushPlacement(board, Math.min(board.getSurfaceTop(), landingY),
+                    landingY + getPieceShape().getMaxY(), preview);
+        }
+        return apply(action);
+    }
+
+    /**
+     * MODIFIES: this, log
+     * Takes back the last action applied with log, restoring piece, score, random state, previewed pieces and the
+     * board rows it changed
+     *
+     * @throws IllegalStateException if log is empty
+     */
+    public void undo(UndoLog log) throws IllegalStateException {
+        log.pop();
+        log.restorePlacement(board, preview);
+        rotationRandom.setState(log.getRandomState());
+        this.pieceType = TYPES[log.getPieceType()];
+        this.pieceRotation = log.getPieceRotation();
+        this.pieceX = log.getPieceX();
+        this.pieceY = log.getPieceY();
+        this.pieceCount = log.getPieceCount();
+        this.level = log.getLevel();
+        this.score = log.getScore();
+        this.clearedRows = log.getClearedRows();
+        this.totalClearedRows = log.getTotalClearedRows();
+    }
+
+    /**
+     * MODIFIES: this
+     * sets piece on board; clears all rows it completed in one pass
+     * Updates Score for cleared rows;
+     */
+    public void placePiece() {
+        long start = Metrics.start();
+        int rows = board.placeShape(getPieceShape(), pieceX, pieceY, colorIndex(this.pieceType));
+        updateScore(rows);
+        Metrics.record(Metrics.PLACE_PIECE, start);
+        if (rows > 0) {
+            Metrics.record(Metrics.ROW_CLEAR, start);
+            Metrics.add(Metrics.ROWS_CLEARED, rows);
+        }
+    }
+
+    /**
+     * Updates score with additional points for rows cleared;
+     * Checks if next level reached; resets clearedRows counter if new level.
+     *
+     * @param rowsCleared number of rows cleared to be scored
+     */
+    public void updateScore(int rowsCleared) {
+        score += (SCORE_PER_ROW * rowsCleared
+                * (1 + (rowsCleared - 1) * ROW_SCORE_MULT + (level - 1) * LEVEL_SCORE_MULT));
+
+        clearedRows += rowsCleared;
+        totalClearedRows += rowsCleared;
+        if (clearedRows > ROWS_PER_LEVEL) {
+            level++;
+            clearedRows = 0;
+        }
+    }
+
+    /**
+     * @return true if game is over (new piece with no clear space below)
+     */
+    public boolean isGameOver() {
+        if (this.pieceX == X0_NEW_PIECE && this.pieceY == Y0_NEW_PIECE) {
+            return !isClearBelow(1);
+        }
+        return false;
+    }
+
+    /**
+     * @return true if current piece can move row grid spaces down (space is not occupied)
+     */
+    public boolean isClearBelow(int row) {
+        return board.fits(getPieceShape(), pieceX, pieceY + row);
+    }
+
+    /**
+     * @return true if current piece can move one grid space left (space is not occupied)
+     */
+    public boolean isClearLeft() {
+        return board.fits(getPieceShape(), pieceX - 1, pieceY);
+    }
+
+    /**
+     * @return true if current piece can move one grid space right (space is not occupied)
+     */
+    public boolean isClearRight() {
+        return board.fits(getPieceShape(), pieceX + 1, pieceY);
+    }
+
+    /**
+     * @return true if current piece can rotate counter cw at current x0,y0 (space is not occupied)
+     */
+    public boolean isClearCounterCW() {
+        return board.fits(PieceShape.get(pieceType, PieceShape.nextRotationCounterCW(pieceRotation)), pieceX, pieceY);
+    }
+
+    /**
+     * @return true if current piece can rotate cw at current x0,y0 (space is not occupied)
+     */
+    public boolean isClearCW() {
+        return board.fits(PieceShape.get(pieceType, PieceShape.nextRotationCW(pieceRotation)), pieceX, pieceY);
+    }
+
+    /**
+     * @return clear distance that current piece can travel down
+     */
+    public int getDistToBottom() {
+        return board.dropDistance(getPieceShape(), pieceX, pieceY);
+    }
+
+    /**
+     * @return y coordinate at which current piece would land if dropped (ghost piece origin)
+     */
+    public int getGhostY() {
+        return pieceY + getDistToBottom();
+    }
+}
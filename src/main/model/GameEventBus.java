@@ -0,0 +1,129 @@
+package main.model;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Typed change notifications of a PuzzleGame. Events posted while the game handles one input or gravity step are
+ * collected and published by flush; published events are merged until the dispatcher runs, so listeners see at
+ * most one call per dispatch however many changes it covers. Event sets are bitmasks of EVENTS ordinals.
+ * post and flush are called on the thread driving the game; subscribers may be added from any thread.
+ * Subscriptions are kept in an array replaced on every change, so posting, flushing and dispatching allocate nothing.
+ */
+public class GameEventBus {
+    public enum EVENTS {PIECE_MOVED, PIECE_LOCKED, ROWS_CLEARED, SCORE_CHANGED, GAME_OVER, GAME_RESET}
+
+    private final Executor dispatcher;
+    private volatile Subscription[] subscriptions = new Subscription[0];
+    private final AtomicInteger published = new AtomicInteger();
+    private final Runnable dispatchTask = this::dispatch;
+    private int posted;
+
+    /**
+     * Constructs bus dispatching on the thread that flushes
+     */
+    public GameEventBus() {
+        this(Runnable::run);
+    }
+
+    /**
+     * Constructs bus
+     *
+     * @param dispatcher runs dispatches, e.g. SwingUtilities::invokeLater to notify listeners on the EDT
+     */
+    public GameEventBus(Executor dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * @return event set holding only event
+     */
+    public static int of(EVENTS event) {
+        return 1 << event.ordinal();
+    }
+
+    /**
+     * @return true if event set events holds event
+     */
+    public static boolean contains(int events, EVENTS event) {
+        return (events & of(event)) != 0;
+    }
+
+    /**
+     * MODIFIES: this
+     * Adds listener, to be called only for dispatches holding at least one of events
+     */
+    public synchronized void subscribe(GameEventListener listener, EVENTS... events) {
+        int mask = 0;
+        for (EVENTS event : events) {
+            mask |= of(event);
+        }
+        Subscription[] added = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+        added[subscriptions.length] = new Subscription(listener, mask);
+        subscriptions = added;
+    }
+
+    /**
+     * MODIFIES: this
+     * Removes every subscription of listener
+     */
+    public synchronized void unsubscribe(GameEventListener listener) {
+        Subscription[] kept = new Subscription[subscriptions.length];
+        int count = 0;
+        for (Subscription subscription : subscriptions) {
+            if (subscription.LISTENER != listener) {
+                kept[count++] = subscription;
+            }
+        }
+        subscriptions = Arrays.copyOf(kept, count);
+    }
+
+    /**
+     * MODIFIES: this
+     * Adds event to events of the change being handled
+     */
+    public void post(EVENTS event) {
+        posted |= of(event);
+    }
+
+    /**
+     * MODIFIES: this
+     * Publishes events posted since last flush; schedules a dispatch unless one is already pending
+     */
+    public void flush() {
+        if (posted == 0) {
+            return;
+        }
+        int events = posted;
+        posted = 0;
+        if (published.getAndAccumulate(events, (a, b) -> a | b) == 0) {
+            dispatcher.execute(dispatchTask);
+        }
+    }
+
+    /**
+     * Calls each listener subscribed to any published event with all events published since last dispatch
+     */
+    private void dispatch() {
+        int events = published.getAndSet(0);
+        for (Subscription subscription : subscriptions) {
+            if ((subscription.MASK & events) != 0) {
+                subscription.LISTENER.gameChanged(events);
+            }
+        }
+    }
+
+    /**
+     * Listener and the event set it subscribed to
+     */
+    private static class Subscription {
+        private final GameEventListener LISTENER;
+        private final int MASK;
+
+        Subscription(GameEventListener listener, int mask) {
+            this.LISTENER = listener;
+            this.MASK = mask;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package main.model;
+
+/**
+ * Receives coalesced change notifications from a GameEventBus for the event types it subscribed to
+ */
+public interface GameEventListener {
+
+    /**
+     * Called once per dispatch with every event posted since the previous dispatch
+     *
+     * @param events set of GameEventBus.EVENTS; test membership with GameEventBus.contains
+     */
+    void gameChanged(int events);
+}
@@ -0,0 +1,23 @@
+package main.model;
+
+/**
+ * Receives every input that drives a PuzzleGame, in order; together with the game's Random seed these
+ * inputs determine the game exactly. Called on the thread driving the game, so implementations must not block.
+ */
+public interface GameInputListener {
+
+    /**
+     * Called when action is applied through userInput or userAction
+     */
+    void actionApplied(GameEngine.ACTIONS action);
+
+    /**
+     * Called when the game advances one gravity step through nextState
+     */
+    void stepped();
+
+    /**
+     * Called when the game is reset through resetGame
+     */
+    void gameReset();
+}
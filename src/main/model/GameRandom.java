@@ -0,0 +1,61 @@
+package main.model;
+
+import java.util.Random;
+
+/**
+ * Random producing the same sequence as java.util.Random for the same seed, whose generator state can be
+ * read and restored so that a game can be saved and resumed exactly. Not safe for use by several threads;
+ * nextGaussian's cached second value is not part of the saved state.
+ */
+public class GameRandom extends Random {
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+    private long state;
+
+    public GameRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * MODIFIES: this
+     * Resets generator as java.util.Random.setSeed does
+     */
+    @Override
+    public synchronized void setSeed(long seed) {
+        this.state = (seed ^ MULTIPLIER) & MASK;
+        super.setSeed(seed);
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /**
+     * @return random as a GameRandom
+     * @throws IllegalStateException if random is not a GameRandom
+     */
+    static GameRandom of(Random random) throws IllegalStateException {
+        if (!(random instanceof GameRandom)) {
+            throw new IllegalStateException("game state needs a GameRandom");
+        }
+        return (GameRandom) random;
+    }
+
+    /**
+     * @return 48 bit generator state
+     */
+    public long getState() {
+        return this.state;
+    }
+
+    /**
+     * MODIFIES: this
+     * Restores generator state returned by getState
+     */
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
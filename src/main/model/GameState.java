@@ -0,0 +1,87 @@
+package main.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Saved state of a GameEngine on a board of a fixed size: board planes, current piece, score, level, cleared rows,
+ * random generator states and previewed pieces. Filled by GameEngine.saveState and put back by
+ * GameEngine.restoreState; both copy the board row arrays directly, so a state can be reused for any number of
+ * saves without allocating.
+ */
+public class GameState {
+    private final Board board;
+    private final ByteBuffer header;
+    private boolean saved;
+
+    /**
+     * Constructs empty state for games on a gridWidth by gridHeight board
+     *
+     * @throws IllegalArgumentException if gridWidth or gridHeight < 1
+     */
+    public GameState(int gridWidth, int gridHeight) throws IllegalArgumentException {
+        this.board = Board.create(gridWidth, gridHeight);
+        this.header = ByteBuffer.allocate(GameEngine.stateSize(gridWidth, gridHeight) - gridWidth * gridHeight);
+    }
+
+    public int getWidth() {
+        return board.getWidth();
+    }
+
+    public int getHeight() {
+        return board.getHeight();
+    }
+
+    /**
+     * @return true if a game state has been saved into this state
+     */
+    public boolean isSaved() {
+        return this.saved;
+    }
+
+    /**
+     * @return Zobrist hash of saved board occupancy
+     */
+    public long getHash() {
+        return board.getHash();
+    }
+
+    /**
+     * MODIFIES: this
+     * Copies other board into saved board and clears header for writing; the state counts as saved only once
+     * finishSave is called
+     *
+     * @return header buffer positioned at its start
+     * @throws IllegalArgumentException if other board size differs from saved board size
+     */
+    ByteBuffer startSave(Board other) throws IllegalArgumentException {
+        board.copyFrom(other);
+        this.saved = false;
+        header.clear();
+        return this.header;
+    }
+
+    /**
+     * MODIFIES: this
+     * Marks header written after startSave as complete
+     */
+    void finishSave() {
+        this.saved = true;
+    }
+
+    /**
+     * MODIFIES: other
+     * Copies saved board into other board
+     *
+     * @return header buffer positioned at its start
+     * @throws IllegalStateException    if no state has been saved
+     * @throws IllegalArgumentException if other board size differs from saved board size
+     */
+    ByteBuffer restore(Board other) throws IllegalStateException, IllegalArgumentException {
+        if (!saved) {
+            throw new IllegalStateException("no state saved");
+        }
+        other.copyFrom(board);
+        header.clear();
+        return this.header;
+    }
+}
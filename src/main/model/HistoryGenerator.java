@@ -0,0 +1,94 @@
+package main.model;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Generator avoiding recent types: each piece is drawn uniformly up to a number of rolls, and the first draw not
+ * among the last HISTORY_LENGTH pieces dealt is kept; the last draw is kept if all rolls hit the history.
+ * Repeats and droughts are rarer than with UniformGenerator, but the sequence stays unpredictable.
+ */
+public class HistoryGenerator implements PieceGenerator {
+    public static final int HISTORY_LENGTH = 4;
+    public static final int DEFAULT_ROLLS = 4;
+    private static final PuzzlePiece.PIECES[] TYPES = PuzzlePiece.PIECES.values();
+    private final Random random;
+    private final int ROLLS;
+    private final byte[] history = new byte[HISTORY_LENGTH];
+    private final byte[] restored = new byte[HISTORY_LENGTH];
+    private int newest;
+
+    public HistoryGenerator(Random random) {
+        this(random, DEFAULT_ROLLS);
+    }
+
+    /**
+     * Constructs generator whose history starts filled with the zig and zag types, which are poor first pieces
+     *
+     * @param rolls maximum number of draws per piece, greater than 0
+     * @throws IllegalArgumentException if rolls < 1
+     */
+    public HistoryGenerator(Random random, int rolls) throws IllegalArgumentException {
+        if (rolls < 1) {
+            throw new IllegalArgumentException("rolls must be greater than 0");
+        }
+        this.random = random;
+        this.ROLLS = rolls;
+        for (int i = 0; i < HISTORY_LENGTH; i++) {
+            history[i] = (byte) (i % 2 == 0 ? PuzzlePiece.PIECES.ZI : PuzzlePiece.PIECES.ZA).ordinal();
+        }
+    }
+
+    @Override
+    public PuzzlePiece.PIECES next() {
+        int type = 0;
+        for (int roll = 0; roll < ROLLS; roll++) {
+            type = random.nextInt(TYPES.length);
+            if (!inHistory(type)) {
+                break;
+            }
+        }
+        newest = newest == HISTORY_LENGTH - 1 ? 0 : newest + 1;
+        history[newest] = (byte) type;
+        return TYPES[type];
+    }
+
+    private boolean inHistory(int type) {
+        for (byte recent : history) {
+            if (recent == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void writeState(ByteBuffer buffer) throws IllegalStateException {
+        buffer.putLong(GameRandom.of(random).getState());
+        buffer.put(history);
+        buffer.put((byte) newest);
+        for (int i = Long.BYTES + HISTORY_LENGTH + 1; i < STATE_BYTES; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) throws IllegalStateException, IndexOutOfBoundsException {
+        GameRandom gameRandom = GameRandom.of(random);
+        long state = buffer.getLong();
+        buffer.get(restored);
+        int newNewest = buffer.get();
+        buffer.position(buffer.position() + STATE_BYTES - Long.BYTES - HISTORY_LENGTH - 1);
+        if (newNewest < 0 || newNewest >= HISTORY_LENGTH) {
+            throw new IndexOutOfBoundsException("Invalid History Position");
+        }
+        for (byte type : restored) {
+            if (type < 0 || type >= TYPES.length) {
+                throw new IndexOutOfBoundsException("Invalid Piece Type");
+            }
+        }
+        gameRandom.setState(state);
+        System.arraycopy(restored, 0, history, 0, HISTORY_LENGTH);
+        newest = newNewest;
+    }
+}
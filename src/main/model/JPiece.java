@@ -1,6 +1,5 @@
 package main.model;
 
-import java.awt.*;
 import java.util.ArrayList;
 
 /**
@@ -21,20 +20,6 @@ public class JPiece extends PuzzlePiece {
      * @param y0 origin y coordinate for piece
      */
     public JPiece(int x0, int y0) {
-        super(x0, y0);
-        for (int i = 0; i < J_SHAPE.size(); i++) {
-            rotationMap.add(makeShape(J_SHAPE.get(i)));
-        }
-        currentRotation = RANDOM.nextInt(J_SHAPE.size());
-        setX1Y1();
-    }
-
-    /**
-     * MODIFIES: this
-     * J Piece Color - should be set different from BACKGROUND Color.
-     */
-    @Override
-    public void setColor() {
-        this.color = new Color(0, 255, 0);
+        super(PIECES.J, x0, y0);
     }
 }
@@ -1,6 +1,5 @@
 package main.model;
 
-import java.awt.*;
 import java.util.ArrayList;
 
 /**
@@ -21,21 +20,7 @@ public class LPiece extends PuzzlePiece {
      * @param y0 origin y coordinate for piece
      */
     public LPiece(int x0, int y0) {
-        super(x0, y0);
-        for (int i = 0; i < L_SHAPE.size(); i++) {
-            rotationMap.add(makeShape(L_SHAPE.get(i)));
-        }
-        currentRotation = RANDOM.nextInt(L_SHAPE.size());
-        setX1Y1();
-    }
-
-    /**
-     * MODIFIES: this
-     * L Piece Color - should be set different from BACKGROUND Color.
-     */
-    @Override
-    public void setColor() {
-        color = new Color(255, 0, 0);
+        super(PIECES.L, x0, y0);
     }
 
 }
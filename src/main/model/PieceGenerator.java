@@ -0,0 +1,35 @@
+package main.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Source of the sequence of piece types dealt to a game. A generator's state can be saved and restored in
+ * STATE_BYTES bytes, so that a game using it resumes its sequence exactly.
+ */
+public interface PieceGenerator {
+    int STATE_BYTES = Long.BYTES + 8;
+
+    /**
+     * MODIFIES: this
+     *
+     * @return next piece type of the sequence
+     */
+    PuzzlePiece.PIECES next();
+
+    /**
+     * MODIFIES: buffer
+     * Writes exactly STATE_BYTES bytes from which readState continues the sequence
+     *
+     * @throws IllegalStateException if generator's random source is not a GameRandom
+     */
+    void writeState(ByteBuffer buffer) throws IllegalStateException;
+
+    /**
+     * MODIFIES: this, buffer
+     * Restores state written by writeState of a generator of the same kind
+     *
+     * @throws IllegalStateException     if generator's random source is not a GameRandom
+     * @throws IndexOutOfBoundsException if state holds an invalid piece type
+     */
+    void readState(ByteBuffer buffer) throws IllegalStateException, IndexOutOfBoundsException;
+}
@@ -0,0 +1,103 @@
+package main.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Preview of the next pieces of a PieceGenerator, kept in a ring buffer of fixed depth. Taking a piece replaces it
+ * with a newly generated one in the same slot, so taking and peeking are constant time and never allocate.
+ */
+public class PieceQueue {
+    public static final int MAX_DEPTH = 6;
+    public static final int STATE_BYTES = PieceGenerator.STATE_BYTES + MAX_DEPTH;
+    private static final PuzzlePiece.PIECES[] TYPES = PuzzlePiece.PIECES.values();
+    private final PieceGenerator generator;
+    private final PuzzlePiece.PIECES[] ring;
+    private int head;
+
+    /**
+     * Constructs queue and fills it with the first depth pieces of generator
+     *
+     * @param depth number of pieces previewed, from 0 to MAX_DEPTH
+     * @throws IllegalArgumentException if depth out of bounds
+     */
+    public PieceQueue(PieceGenerator generator, int depth) throws IllegalArgumentException {
+        if (depth < 0 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("depth must be between 0 and MAX_DEPTH");
+        }
+        this.generator = generator;
+        this.ring = new PuzzlePiece.PIECES[depth];
+        for (int i = 0; i < depth; i++) {
+            ring[i] = generator.next();
+        }
+    }
+
+    /**
+     * @return number of pieces previewed
+     */
+    public int getDepth() {
+        return this.ring.length;
+    }
+
+    /**
+     * @param ahead 0 for the piece next taken, up to getDepth() - 1
+     * @return type of piece that will be taken after ahead other pieces
+     * @throws IndexOutOfBoundsException if ahead out of bounds
+     */
+    public PuzzlePiece.PIECES peek(int ahead) throws IndexOutOfBoundsException {
+        if (ahead < 0 || ahead >= ring.length) {
+            throw new IndexOutOfBoundsException("ahead must be between 0 and depth - 1");
+        }
+        int slot = head + ahead;
+        return ring[slot < ring.length ? slot : slot - ring.length];
+    }
+
+    /**
+     * MODIFIES: this
+     * Takes first piece of the preview and generates a piece into its slot
+     *
+     * @return type of taken piece
+     */
+    public PuzzlePiece.PIECES next() {
+        if (ring.length == 0) {
+            return generator.next();
+        }
+        PuzzlePiece.PIECES type = ring[head];
+        ring[head] = generator.next();
+        head = head == ring.length - 1 ? 0 : head + 1;
+        return type;
+    }
+
+    /**
+     * MODIFIES: buffer
+     * Writes generator state and previewed pieces in STATE_BYTES bytes
+     *
+     * @throws IllegalStateException if generator cannot save its state
+     */
+    public void writeState(ByteBuffer buffer) throws IllegalStateException {
+        generator.writeState(buffer);
+        for (int i = 0; i < MAX_DEPTH; i++) {
+            buffer.put(i < ring.length ? (byte) peek(i).ordinal() : 0);
+        }
+    }
+
+    /**
+     * MODIFIES: this, buffer
+     * Restores state written by writeState of a queue of the same depth and generator kind
+     *
+     * @throws IllegalStateException     if generator cannot restore its state
+     * @throws IndexOutOfBoundsException if state holds an invalid piece type
+     */
+    public void readState(ByteBuffer buffer) throws IllegalStateException, IndexOutOfBoundsException {
+        generator.readState(buffer);
+        for (int i = 0; i < MAX_DEPTH; i++) {
+            int type = buffer.get();
+            if (type < 0 || type >= TYPES.length) {
+                throw new IndexOutOfBoundsException("Invalid Piece Type");
+            }
+            if (i < ring.length) {
+                ring[i] = TYPES[type];
+            }
+        }
+        head = 0;
+    }
+}
@@ -0,0 +1,192 @@
+package main.model;
+
+import java.security.InvalidParameterException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Immutable geometry of one rotation of a puzzle piece type, shared by every piece of that type.
+ * Vertices are held as primitive x, y offsets from the piece origin x0, y0, and each row of the piece is
+ * compiled into a bitmask; bit dx of row mask dy is set if the piece has a vertex at dx, dy.
+ */
+public final class PieceShape {
+    public static final int ROTATIONS = 4;
+    private static final PieceShape[][] SHAPES = compileShapes();
+    private final int[] vertexX;
+    private final int[] vertexY;
+    private final ArrayList<Integer[]> vertices;
+    private final long[] rowMasks;
+    private final int[] columnBottoms;
+    private final int maxX;
+    private final int maxY;
+
+    /**
+     * Compiles shape from xy paired points, 0,0 for top left
+     *
+     * @param xyPairs xy paired points corresponding to relative location of each vertex
+     * @throws InvalidParameterException if xyPairs is 0 or not even length
+     */
+    private PieceShape(Integer[] xyPairs) throws InvalidParameterException {
+        if (xyPairs.length == 0 || xyPairs.length % 2 != 0) {
+            throw new InvalidParameterException("xyPairs expects even length parameter list > 0");
+        }
+        this.vertexX = new int[xyPairs.length / 2];
+        this.vertexY = new int[xyPairs.length / 2];
+        this.vertices = new ArrayList<>();
+        int maxX = 0;
+        int maxY = 0;
+        for (int i = 0; i < xyPairs.length; i += 2) {
+            this.vertexX[i / 2] = xyPairs[i];
+            this.vertexY[i / 2] = xyPairs[i + 1];
+            this.vertices.add(new Integer[]{xyPairs[i], xyPairs[i + 1]});
+            maxX = Math.max(maxX, xyPairs[i]);
+            maxY = Math.max(maxY, xyPairs[i + 1]);
+        }
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.rowMasks = new long[maxY + 1];
+        this.columnBottoms = new int[maxX + 1];
+        Arrays.fill(this.columnBottoms, -1);
+        for (int i = 0; i < xyPairs.length; i += 2) {
+            this.rowMasks[xyPairs[i + 1]] |= 1L << xyPairs[i];
+            this.columnBottoms[xyPairs[i]] = Math.max(this.columnBottoms[xyPairs[i]], xyPairs[i + 1]);
+        }
+    }
+
+    /**
+     * @return compiled shape tables indexed by piece type ordinal then rotation index
+     */
+    private static PieceShape[][] compileShapes() {
+        PuzzlePiece.PIECES[] types = PuzzlePiece.PIECES.values();
+        PieceShape[][] shapes = new PieceShape[types.length][ROTATIONS];
+        for (PuzzlePiece.PIECES type : types) {
+            ArrayList<Integer[]> rotations = shapeDefinition(type);
+            for (int r = 0; r < ROTATIONS; r++) {
+                shapes[type.ordinal()][r] = new PieceShape(rotations.get(r));
+            }
+        }
+        return shapes;
+    }
+
+    /**
+     * @return xy paired point definitions of each rotation of type
+     */
+    private static ArrayList<Integer[]> shapeDefinition(PuzzlePiece.PIECES type) {
+        switch (type) {
+            case J:
+                return JPiece.J_SHAPE;
+            case L:
+                return LPiece.L_SHAPE;
+            case SQ:
+                return SquarePiece.SQ_SHAPE;
+            case ST:
+                return StraightPiece.ST_SHAPE;
+            case T:
+                return TPiece.T_SHAPE;
+            case ZA:
+                return ZagPiece.ZAG_SHAPE;
+            default:
+                return ZigPiece.ZIG_SHAPE;
+        }
+    }
+
+    /**
+     * returns compiled shape of piece type at rotation
+     *
+     * @param rotationIndex rotation from 0 to ROTATIONS - 1
+     * @throws IndexOutOfBoundsException if rotationIndex out of bounds
+     */
+    public static PieceShape get(PuzzlePiece.PIECES type, int rotationIndex) throws IndexOutOfBoundsException {
+        return SHAPES[type.ordinal()][rotationIndex];
+    }
+
+    /**
+     * @return rotation index after rotating clockwise from rotationIndex
+     */
+    public static int nextRotationCW(int rotationIndex) {
+        return rotationIndex == ROTATIONS - 1 ? 0 : rotationIndex + 1;
+    }
+
+    /**
+     * @return rotation index after rotating counter clockwise from rotationIndex
+     */
+    public static int nextRotationCounterCW(int rotationIndex) {
+        return rotationIndex == 0 ? ROTATIONS - 1 : rotationIndex - 1;
+    }
+
+    /**
+     * @return number of vertices in shape
+     */
+    public int getVertexCount() {
+        return this.vertexX.length;
+    }
+
+    /**
+     * @param i vertex number from 0 to getVertexCount() - 1
+     * @return x offset of vertex i from origin
+     * @throws IndexOutOfBoundsException if i out of bounds
+     */
+    public int getVertexX(int i) throws IndexOutOfBoundsException {
+        return this.vertexX[i];
+    }
+
+    /**
+     * @param i vertex number from 0 to getVertexCount() - 1
+     * @return y offset of vertex i from origin
+     * @throws IndexOutOfBoundsException if i out of bounds
+     */
+    public int getVertexY(int i) throws IndexOutOfBoundsException {
+        return this.vertexY[i];
+    }
+
+    /**
+     * returns vertices of shape as xy pairs; list is shared by all pieces and must not be modified
+     *
+     * @return numbered vertices with corresponding integer xy pairs
+     */
+    public ArrayList<Integer[]> getVertices() {
+        return this.vertices;
+    }
+
+    /**
+     * @return largest x offset of any vertex from origin
+     */
+    public int getMaxX() {
+        return this.maxX;
+    }
+
+    /**
+     * @return largest y offset of any vertex from origin
+     */
+    public int getMaxY() {
+        return this.maxY;
+    }
+
+    /**
+     * @return number of rows spanned by shape
+     */
+    public int getHeight() {
+        return this.rowMasks.length;
+    }
+
+    /**
+     * returns largest y offset of any vertex in column dx of shape, the bottom profile used for drop distance
+     *
+     * @param dx column offset from 0 to getMaxX()
+     * @return largest y offset in column; -1 if column has no vertex
+     * @throws IndexOutOfBoundsException if dx out of bounds
+     */
+    public int getColumnBottom(int dx) throws IndexOutOfBoundsException {
+        return this.columnBottoms[dx];
+    }
+
+    /**
+     * returns bitmask of vertices in row dy of shape, relative to origin column
+     *
+     * @param dy row offset from 0 to getHeight() - 1
+     * @throws IndexOutOfBoundsException if dy out of bounds
+     */
+    public long getRowMask(int dy) throws IndexOutOfBoundsException {
+        return this.rowMasks[dy];
+    }
+}
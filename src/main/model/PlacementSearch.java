@@ -0,0 +1,288 @@
+package main.model;
+
+/**
+ * Finds every landing placement reachable by the current piece through left, right, rotate and down moves.
+ * Breadth first search over (rotation, x, y) states, marking visited states in a bitset; the live piece
+ * is never moved. Above the highest occupied row every rotation and column is reachable, so the search starts
+ * from all states at the lowest such row instead of stepping down through empty rows.
+ * Buffers are allocated once per board size, so a searcher should be reused, one per thread.
+ */
+public class PlacementSearch {
+    private static final GameEngine.ACTIONS[] MOVES = {
+            GameEngine.ACTIONS.LEFT,
+            GameEngine.ACTIONS.RIGHT,
+            GameEngine.ACTIONS.ROTATE_CW,
+            GameEngine.ACTIONS.ROTATE_CCW,
+            GameEngine.ACTIONS.DOWN};
+    private static final int NO_PARENT = -1;
+    private static final int SEED = -2;
+    private static final int MAX_EXTENT = maxExtent();
+    private final int GRID_WIDTH;
+    private final int GRID_HEIGHT;
+    private final int ROTATION_STATES;
+    private final long[] visited;
+    private final int[] queue;
+    private final int[] parents;
+    private final byte[] moves;
+    private final int[] placements;
+    private int placementCount;
+    private int queueLength;
+    private int startRotation;
+    private int startX;
+    private int startY;
+
+    /**
+     * Constructs searcher for boards of gridWidth by gridHeight
+     */
+    public PlacementSearch(int gridWidth, int gridHeight) {
+        this.GRID_WIDTH = gridWidth;
+        this.GRID_HEIGHT = gridHeight;
+        this.ROTATION_STATES = gridWidth * gridHeight;
+        int states = PieceShape.ROTATIONS * ROTATION_STATES;
+        this.visited = new long[(states + Long.SIZE - 1) / Long.SIZE];
+        this.queue = new int[states];
+        this.parents = new int[states];
+        this.moves = new byte[states];
+        this.placements = new int[states];
+    }
+
+    /**
+     * @return largest x or y offset of any vertex of any piece shape
+     */
+    private static int maxExtent() {
+        int extent = 0;
+        for (PuzzlePiece.PIECES type : PuzzlePiece.PIECES.values()) {
+            for (int r = 0; r < PieceShape.ROTATIONS; r++) {
+                PieceShape shape = PieceShape.get(type, r);
+                extent = Math.max(extent, Math.max(shape.getMaxX(), shape.getMaxY()));
+            }
+        }
+        return extent;
+    }
+
+    /**
+     * MODIFIES: this
+     * Finds landing placements of engine's current piece from its current position
+     *
+     * @return number of placements found
+     * @throws IllegalArgumentException if engine board size differs from searcher board size
+     */
+    public int search(GameEngine engine) throws IllegalArgumentException {
+        return search(engine.getBoard(), engine.getPieceType(), engine.getPieceRotation(),
+                engine.getPieceX(), engine.getPieceY());
+    }
+
+    /**
+     * MODIFIES: this
+     * Finds landing placements of a piece of type starting at rotationIndex with origin x0, y0;
+     * a landing placement is a reachable state from which the piece cannot move down
+     *
+     * @return number of placements found; 0 if piece does not fit at its start
+     * @throws IllegalArgumentException if board size differs from searcher board size
+     */
+    public int search(Board board, PuzzlePiece.PIECES type, int rotationIndex, int x0, int y0)
+            throws IllegalArgumentException {
+        if (board.getWidth() != GRID_WIDTH || board.getHeight() != GRID_HEIGHT) {
+            throw new IllegalArgumentException("board size does not match search size");
+        }
+        clearVisited();
+        placementCount = 0;
+        if (!board.fits(PieceShape.get(type, rotationIndex), x0, y0)) {
+            return 0;
+        }
+        startRotation = rotationIndex;
+        startX = x0;
+        startY = y0;
+        int airY = board.getSurfaceTop() - 1 - MAX_EXTENT;
+        if (airY > y0 && GRID_WIDTH > MAX_EXTENT) {
+            seedAirStates(type, airY);
+        } else {
+            visit(stateOf(rotationIndex, x0, y0), NO_PARENT, 0);
+        }
+        for (int head = 0; head < queueLength; head++) {
+            int state = queue[head];
+            int rotation = getStateRotation(state);
+            int x = getStateX(state);
+            int y = getStateY(state);
+            if (!board.fits(PieceShape.get(type, rotation), x, y + 1)) {
+                placements[placementCount++] = state;
+            }
+            for (int m = 0; m < MOVES.length; m++) {
+                int nextRotation = rotation;
+                int nextX = x;
+                int nextY = y;
+                switch (MOVES[m]) {
+                    case LEFT:
+                        nextX--;
+                        break;
+                    case RIGHT:
+                        nextX++;
+                        break;
+                    case ROTATE_CW:
+                        nextRotation = PieceShape.nextRotationCW(rotation);
+                        break;
+                    case ROTATE_CCW:
+                        nextRotation = PieceShape.nextRotationCounterCW(rotation);
+                        break;
+                    default:
+                        nextY++;
+                        break;
+                }
+                if (board.fits(PieceShape.get(type, nextRotation), nextX, nextY)) {
+                    int next = stateOf(nextRotation, nextX, nextY);
+                    if (!isVisited(next)) {
+                        visit(next, state, m);
+                    }
+                }
+            }
+        }
+        return placementCount;
+    }
+
+    /**
+     * MODIFIES: this
+     * queues every in-bounds rotation and column at row airY; all rows down to airY + MAX_EXTENT are empty
+     */
+    private void seedAirStates(PuzzlePiece.PIECES type, int airY) {
+        for (int r = 0; r < PieceShape.ROTATIONS; r++) {
+            int maxX = PieceShape.get(type, r).getMaxX();
+            for (int x = 0; x + maxX < GRID_WIDTH; x++) {
+                visit(stateOf(r, x, airY), SEED, 0);
+            }
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * clears visited bits of states reached by previous search
+     */
+    private void clearVisited() {
+        for (int i = 0; i < queueLength; i++) {
+            visited[queue[i] >>> 6] = 0L;
+        }
+        queueLength = 0;
+    }
+
+    /**
+     * MODIFIES: this
+     * marks state visited and queues it, remembering move from parent that reached it
+     */
+    private void visit(int state, int parent, int move) {
+        visited[state >>> 6] |= 1L << state;
+        parents[state] = parent;
+        moves[state] = (byte) move;
+        queue[queueLength++] = state;
+    }
+
+    private boolean isVisited(int state) {
+        return (visited[state >>> 6] & (1L << state)) != 0;
+    }
+
+    private int stateOf(int rotation, int x, int y) {
+        return rotation * ROTATION_STATES + y * GRID_WIDTH + x;
+    }
+
+    private int getStateRotation(int state) {
+        return state / ROTATION_STATES;
+    }
+
+    private int getStateX(int state) {
+        return state % GRID_WIDTH;
+    }
+
+    private int getStateY(int state) {
+        return (state % ROTATION_STATES) / GRID_WIDTH;
+    }
+
+    /**
+     * @return length of longest path getPath can write
+     */
+    public int getMaxPathLength() {
+        return queue.length + GRID_WIDTH + GRID_WIDTH + GRID_HEIGHT + PieceShape.ROTATIONS;
+    }
+
+    /**
+     * @return number of placements found by last search
+     */
+    public int getPlacementCount() {
+        return this.placementCount;
+    }
+
+    /**
+     * @param i placement number from 0 to getPlacementCount() - 1
+     * @return rotation index of placement i
+     */
+    public int getPlacementRotation(int i) {
+        return getStateRotation(placements[i]);
+    }
+
+    /**
+     * @param i placement number from 0 to getPlacementCount() - 1
+     * @return origin x coordinate of placement i
+     */
+    public int getPlacementX(int i) {
+        return getStateX(placements[i]);
+    }
+
+    /**
+     * @param i placement number from 0 to getPlacementCount() - 1
+     * @return origin y coordinate at which placement i lands
+     */
+    public int getPlacementY(int i) {
+        return getStateY(placements[i]);
+    }
+
+    /**
+     * Writes shortest sequence of moves leading from search start to placement i. Applying them to the
+     * searched piece, followed by DOWN, sets the piece in place at placement i.
+     *
+     * @param i    placement number from 0 to getPlacementCount() - 1
+     * @param path buffer receiving moves, at least as long as the path
+     * @return number of moves written to path
+     * @throws IndexOutOfBoundsException if path is too short
+     */
+    public int getPath(int i, GameEngine.ACTIONS[] path) throws IndexOutOfBoundsException {
+        int searched = 0;
+        int state = placements[i];
+        for (; parents[state] >= 0; state = parents[state]) {
+            searched++;
+        }
+        int length = parents[state] == SEED ? writeAirPath(state, path) : 0;
+        int index = length + searched;
+        for (state = placements[i]; parents[state] >= 0; state = parents[state]) {
+            path[--index] = MOVES[moves[state]];
+        }
+        return length + searched;
+    }
+
+    /**
+     * Writes moves from search start to seed state through empty rows: first shift to a column where every
+     * rotation fits, rotate, shift to seed column, then move down to seed row
+     *
+     * @return number of moves written to start of path
+     */
+    private int writeAirPath(int seed, GameEngine.ACTIONS[] path) {
+        int length = 0;
+        int rotateX = Math.min(startX, GRID_WIDTH - 1 - MAX_EXTENT);
+        length = writeShift(startX, rotateX, path, length);
+        for (int r = startRotation; r != getStateRotation(seed); r = PieceShape.nextRotationCW(r)) {
+            path[length++] = GameEngine.ACTIONS.ROTATE_CW;
+        }
+        length = writeShift(rotateX, getStateX(seed), path, length);
+        for (int y = startY; y < getStateY(seed); y++) {
+            path[length++] = GameEngine.ACTIONS.DOWN;
+        }
+        return length;
+    }
+
+    /**
+     * @return path length after writing moves shifting piece from column fromX to column toX
+     */
+    private int writeShift(int fromX, int toX, GameEngine.ACTIONS[] path, int length) {
+        GameEngine.ACTIONS move = fromX < toX ? GameEngine.ACTIONS.RIGHT : GameEngine.ACTIONS.LEFT;
+        for (int i = Math.abs(toX - fromX); i > 0; i--) {
+            path[length++] = move;
+        }
+        return length;
+    }
+}
@@ -1,102 +1,133 @@
 package main.model;
 
-import java.awt.*;
-import java.util.ArrayList;
 import java.util.Arrays;
 
 /**
- * Represents puzzle board with blank and colored grid squares
+ * Represents puzzle board with blank and colored grid squares.
+ * Cells are stored in a Board, chosen by Board.create for the width, as one color index byte each: BitBoard.EMPTY
+ * for blank cells and GameEngine.colorIndex of their type for piece cells. Indices are turned into colors only when
+ * drawn.
+ * The thread changing the board publishes immutable BoardSnapshots, which any thread may read through getSnapshot.
  */
 public class PuzzleBoard {
-    private final int GRID_WIDTH;
-    private final int GRID_HEIGHT;
-    private final Color BACKGROUND;
-    private ArrayList<Color> boardState;
+    private final Board board;
+    private final byte[] rowScratch;
+    private volatile BoardSnapshot snapshot;
 
-    public PuzzleBoard(int gridWidth, int gridHeight, Color background) {
-        this.GRID_WIDTH = gridWidth;
-        this.GRID_HEIGHT = gridHeight;
-        this.BACKGROUND = background;
-        setBlankBoard();
+    /**
+     * Constructs blank board
+     *
+     * @throws IllegalArgumentException if gridWidth or gridHeight < 1
+     */
+    public PuzzleBoard(int gridWidth, int gridHeight) throws IllegalArgumentException {
+        this.board = Board.create(gridWidth, gridHeight);
+        this.rowScratch = new byte[gridWidth];
+        this.snapshot = new BoardSnapshot(gridWidth, gridHeight);
+        this.board.clearDirtyRows();
     }
 
     /**
-     * MODIFIES: this
-     * Creates new ArrayList representation of board state with all elements set to BACKGROUND
+     * @return latest published snapshot; safe to call from any thread
      */
-    public void setBlankBoard() {
-        this.boardState = new ArrayList<>();
-        Color[] blankBoard = new Color[this.GRID_WIDTH * this.GRID_HEIGHT];
-        Arrays.fill(blankBoard, this.BACKGROUND);
-        this.boardState.addAll(Arrays.asList(blankBoard));
+    public BoardSnapshot getSnapshot() {
+        return this.snapshot;
     }
 
     /**
-     * returns Color of puzzle board at x, y coordinate
+     * MODIFIES: this
+     * Publishes snapshot of current cells if any row changed since the last one. The new snapshot shares every
+     * row whose cells are unchanged with the previous snapshot, so only changed rows are copied.
+     * Called by the thread changing the board.
      *
-     * @param x horizontal coordinate from 0 to GRID_WIDTH - 1
-     * @param y vertical coordinate from 0 to GRID_HEIGHT - 1
-     * @return Color of x,y position
-     * @throws IndexOutOfBoundsException if x or y out of bounds
+     * @return latest published snapshot
      */
-    public Color getPos(int x, int y) throws IndexOutOfBoundsException {
-        isOutOfBounds(x, y);
-        return this.boardState.get(x + y * this.GRID_WIDTH);
+    public BoardSnapshot publishSnapshot() {
+        int top = board.getDirtyTop();
+        int bottom = board.getDirtyBottom();
+        BoardSnapshot previous = this.snapshot;
+        if (top > bottom) {
+            return previous;
+        }
+        byte[][] rows = previous.shareRows();
+        for (int y = top; y <= bottom; y++) {
+            board.copyRowCells(y, rowScratch);
+            if (!Arrays.equals(rowScratch, rows[y])) {
+                rows[y] = board.isRowEmpty(y) ? previous.getBlankRow() : rowScratch.clone();
+            }
+        }
+        board.clearDirtyRows();
+        BoardSnapshot published = new BoardSnapshot(previous, rows);
+        this.snapshot = published;
+        return published;
     }
 
     /**
      * MODIFIES: this
-     * sets Color of puzzle board at x, y coordinate
+     * Sets all board cells to BitBoard.EMPTY
+     */
+    public void setBlankBoard() {
+        this.board.setBlankBoard();
+    }
+
+    /**
+     * @return board backing this PuzzleBoard
+     */
+    public Board getBoard() {
+        return this.board;
+    }
+
+    /**
+     * returns color index of puzzle board at x, y coordinate
      *
      * @param x horizontal coordinate from 0 to GRID_WIDTH - 1
      * @param y vertical coordinate from 0 to GRID_HEIGHT - 1
+     * @return color index of x,y position; BitBoard.EMPTY if blank
      * @throws IndexOutOfBoundsException if x or y out of bounds
      */
-    public void setPos(int x, int y, Color foreground) throws IndexOutOfBoundsException {
-        isOutOfBounds(x, y);
-        this.boardState.set(x + y * this.GRID_WIDTH, foreground);
+    public byte getPos(int x, int y) throws IndexOutOfBoundsException {
+        return this.board.getCell(x, y);
     }
 
     /**
-     * throws exception if x,y out of bounds
+     * MODIFIES: this
+     * sets color index of puzzle board at x, y coordinate
      *
-     * @param x horizontal coordinate from 0 to GRID_WIDTH - 1
-     * @param y vertical coordinate from 0 to GRID_HEIGHT - 1
+     * @param x          horizontal coordinate from 0 to GRID_WIDTH - 1
+     * @param y          vertical coordinate from 0 to GRID_HEIGHT - 1
+     * @param colorIndex color index of cell; BitBoard.EMPTY blanks it
      * @throws IndexOutOfBoundsException if x or y out of bounds
      */
-    private void isOutOfBounds(int x, int y) throws IndexOutOfBoundsException {
-        if (x < 0 || x >= GRID_WIDTH) {
-            throw new IndexOutOfBoundsException("x must be between 0 and GRID_WIDTH - 1");
-        }
-        if (y < 0 || y >= GRID_HEIGHT) {
-            throw new IndexOutOfBoundsException("y must be between 0 and GRID_HEIGHT - 1");
-        }
+    public void setPos(int x, int y, byte colorIndex) throws IndexOutOfBoundsException {
+        this.board.setCell(x, y, colorIndex);
     }
 
     /**
-     * Checks that all elements in row are not BACKGROUND
+     * Checks that all elements in row are not BitBoard.EMPTY
      *
      * @return true if row is full
+     * @throws IndexOutOfBoundsException if y out of bounds
      */
-    public boolean isRowComplete(int y) {
-        for (int x = 0; x < GRID_WIDTH; x++) {
-            if (getPos(x, y) == BACKGROUND) {
-                return false;
-            }
-        }
-        return true;
+    public boolean isRowComplete(int y) throws IndexOutOfBoundsException {
+        return this.board.isRowComplete(y);
     }
 
     /**
      * MODIFIES: this
      * updates board state by removing row from PuzzleBoard and adding new blank row at top
+     *
+     * @throws IndexOutOfBoundsException if rowIndex out of bounds
      */
-    public void clearRow(int rowIndex) {
-        Color[] blankRow = new Color[GRID_WIDTH];
-        Arrays.fill(blankRow, BACKGROUND);
-        for (int x = 0; x < GRID_WIDTH; x++) {
-            this.boardState.remove(rowIndex * GRID_WIDTH);
-        }
-        this.boardState.addAll(0, Arrays.asList(blankRow));
+    public void clearRow(int rowIndex) throws IndexOutOfBoundsException {
+        this.board.clearRow(rowIndex);
+    }
+
+    /**
+     * MODIFIES: this
+     * removes all complete rows in one pass, moving rows above them down and adding blank rows at top
+     *
+     * @return number of rows removed
+     */
+    public int clearCompleteRows() {
+        return this.board.clearCompleteRows(0, this.board.getHeight() - 1);
     }
 }
@@ -1,60 +1,68 @@
 package main.model;
 
-import java.awt.*;
+import main.metrics.Metrics;
+
 import java.awt.event.KeyEvent;
-import java.util.Observable;
+import java.nio.ByteBuffer;
 import java.util.Random;
 
 /**
- * represents the puzzle game; contains board and one active piece
+ * represents the puzzle game; contains board and one active piece.
+ * Adapts a headless GameEngine to key codes, PuzzlePiece objects and GameEventBus notifications.
+ * A board snapshot is published before listeners are notified of a change to the board, unless automatic
+ * publishing is turned off. One PuzzlePiece object per piece type is reused for every piece of that type, so with
+ * automatic publishing off steady play allocates nothing.
  */
-public class PuzzleGame extends Observable {
-    private final int X0_NEW_PIECE;
-    private static final int Y0_NEW_PIECE = 0;
-    private int level;
-    private int score;
-    private int topScore;
-    private int clearedRows;
-    private static final int SCORE_PER_ROW = 50;
-    private static final int ROWS_PER_LEVEL = 12;
-    private static final double ROW_SCORE_MULT = 0.15;
-    private static final double LEVEL_SCORE_MULT = 0.1;
+public class PuzzleGame {
     private static final int DEFAULT_SCORE = 2000;
-    private PuzzleBoard board;
-    private final int GRID_WIDTH;
-    private final int GRID_HEIGHT;
-    private final Color BACKGROUND;
+    private int topScore;
+    private final PuzzleBoard board;
+    private final GameEngine engine;
+    private final PuzzlePiece[] pieces = new PuzzlePiece[PuzzlePiece.PIECES.values().length];
     private PuzzlePiece currentPiece;
-    private Random random;
+    private long currentPieceCount;
+    private boolean autoPublish = true;
+    private GameInputListener inputListener;
+    private final GameEventBus events;
+    private int baseX;
+    private int baseY;
+    private int baseRotation;
+    private int baseScore;
+    private long baseClearedRows;
+
+    public PuzzleGame(int gridWidth, int gridHeight, Random random) {
+        this(gridWidth, gridHeight, random, new GameEventBus());
+    }
 
-    public PuzzleGame(int gridWidth, int gridHeight, Color background, Random random) {
-        initScore();
-        this.X0_NEW_PIECE = gridWidth / 2 - 1;
-        this.GRID_WIDTH = gridWidth;
-        this.GRID_HEIGHT = gridHeight;
-        this.BACKGROUND = background;
-        this.board = new PuzzleBoard(gridWidth, gridHeight, background);
-        this.random = random;
-        this.currentPiece = randomPiece();
+    /**
+     * Constructs game publishing its changes to events
+     */
+    public PuzzleGame(int gridWidth, int gridHeight, Random random, GameEventBus events) {
+        this(gridWidth, gridHeight, random, new UniformGenerator(random),
+                GameEngine.DEFAULT_PREVIEW_DEPTH, events);
     }
 
     /**
-     * MODIFIES: this
-     * Initializes level and score
+     * Constructs game dealing pieces from generator and publishing its changes to events
+     *
+     * @param previewDepth number of upcoming pieces previewed, from 0 to PieceQueue.MAX_DEPTH
+     * @throws IllegalArgumentException if previewDepth out of bounds
      */
-    private void initScore() {
-        this.level = 1;
-        this.score = 0;
+    public PuzzleGame(int gridWidth, int gridHeight, Random random, PieceGenerator generator, int previewDepth,
+                      GameEventBus events) throws IllegalArgumentException {
         this.topScore = DEFAULT_SCORE;
-        this.clearedRows = 0;
+        this.board = new PuzzleBoard(gridWidth, gridHeight);
+        this.engine = new GameEngine(board.getBoard(), random, generator, previewDepth);
+        this.events = events;
+        pullPiece();
     }
 
     public int getLevel() {
-        return this.level;
+        return engine.getLevel();
     }
 
     public int getScore() {
-        return this.score;
+        return engine.getScore();
     }
 
     public int getTopScore() {
@@ -62,58 +70,126 @@ public class PuzzleGame extends Observable {
     }
 
     public int getClearedRows() {
-        return this.clearedRows;
+        return engine.getClearedRows();
+    }
+
+    /**
+     * @return bus publishing this game's changes
+     */
+    public GameEventBus getEvents() {
+        return this.events;
+    }
+
+    /**
+     * @return headless game core driven by this game
+     */
+    public GameEngine getEngine() {
+        return this.engine;
+    }
+
+    /**
+     * MODIFIES: buffer
+     * Writes game state as GameEngine.writeState does; top score is not included
+     *
+     * @throws IllegalStateException if game was not constructed with a GameRandom
+     */
+    public void writeState(ByteBuffer buffer) throws IllegalStateException {
+        pushPiece();
+        engine.writeState(buffer);
+    }
+
+    /**
+     * MODIFIES: this, buffer
+     * Restores state written by writeState and replaces current piece with the restored piece
+     *
+     * @throws IllegalStateException if game was not constructed with a GameRandom
+     */
+    public void readState(ByteBuffer buffer) throws IllegalStateException {
+        engine.readState(buffer);
+        stateRestored();
+    }
+
+    /**
+     * MODIFIES: state
+     * Saves game state as GameEngine.saveState does; top score is not included
+     *
+     * @throws IllegalStateException    if game was not constructed with a GameRandom
+     * @throws IllegalArgumentException if state was constructed for a board of another size
+     */
+    public void saveState(GameState state) throws IllegalStateException, IllegalArgumentException {
+        pushPiece();
+        engine.saveState(state);
     }
 
     /**
      * MODIFIES: this
-     * Updates TopScore if current Score is higher
+     * Restores state saved by saveState and replaces current piece with the restored piece
+     *
+     * @throws IllegalStateException    if nothing was saved into state, or game was not constructed with a GameRandom
+     * @throws IllegalArgumentException if state was constructed for a board of another size
      */
-    public void setTopScore() {
-        this.topScore = Math.max(this.score, this.topScore);
-        this.setChanged();
-        this.notifyObservers("TopScore");
+    public void restoreState(GameState state) throws IllegalStateException, IllegalArgumentException {
+        engine.restoreState(state);
+        stateRestored();
     }
 
     /**
      * MODIFIES: this
-     * Resets all board rows to BACKGROUND; resets score and level
+     * Takes restored engine piece as current piece, publishes the restored board and notifies listeners
      */
-    public void resetGame() {
-        this.board.setBlankBoard();
-        this.score = 0;
-        this.level = 1;
-        this.clearedRows = 0;
-        this.setChanged();
-        notifyObservers("Score");
+    private void stateRestored() {
+        currentPiece = null;
+        pullPiece();
+        board.publishSnapshot();
+        events.post(GameEventBus.EVENTS.PIECE_MOVED);
+        events.post(GameEventBus.EVENTS.SCORE_CHANGED);
+        events.flush();
     }
 
     /**
      * MODIFIES: this
-     * generate new random piece as current piece
+     * Sets listener receiving every action, gravity step and reset applied to this game
      *
-     * @return current puzzle piece
-     */
-    private PuzzlePiece randomPiece() {
-        int numTypes = PuzzlePiece.PIECES.values().length;
-        PuzzlePiece.PIECES piece = PuzzlePiece.PIECES.values()[random.nextInt(numTypes)];
-        switch (piece) {
-            case J:
-                return new JPiece(X0_NEW_PIECE, Y0_NEW_PIECE);
-            case L:
-                return new LPiece(X0_NEW_PIECE, Y0_NEW_PIECE);
-            case T:
-                return new TPiece(X0_NEW_PIECE, Y0_NEW_PIECE);
-            case SQ:
-                return new SquarePiece(X0_NEW_PIECE, Y0_NEW_PIECE);
-            case ST:
-                return new StraightPiece(X0_NEW_PIECE, Y0_NEW_PIECE);
-            case ZA:
-                return new ZagPiece(X0_NEW_PIECE, Y0_NEW_PIECE);
-            case ZI:
-                return new ZigPiece(X0_NEW_PIECE, Y0_NEW_PIECE);
+     * @param inputListener listener, or null to stop reporting inputs
+     */
+    public void setInputListener(GameInputListener inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    /**
+     * MODIFIES: this
+     * Sets whether a board snapshot is published whenever a piece is locked; resets and restored states always
+     * publish one. With publishing off, locked pieces reach snapshots through getBoardState().publishSnapshot(),
+     * which must be called by the thread driving this game.
+     */
+    public void setAutoPublish(boolean autoPublish) {
+        this.autoPublish = autoPublish;
+    }
+
+    /**
+     * MODIFIES: this
+     * Updates TopScore if current Score is higher
+     */
+    public void setTopScore() {
+        if (getScore() > this.topScore) {
+            this.topScore = getScore();
+            events.post(GameEventBus.EVENTS.SCORE_CHANGED);
+            events.flush();
         }
-        return null;
+    }
+
+    /**
+     * MODIFIES: this
+     * Resets all board cells to BitBoard.EMPTY; resets score and level
+     */
+    public void resetGame() {
+        if (inputListener != null) {
+            inputListener.gameReset();
+        }
+        engine.reset();
+        board.publishSnapshot();
+        events.post(GameEventBus.EVENTS.GAME_RESET);
+        events.flush();
     }
 
     public PuzzleBoard getBoardState() {
@@ -128,43 +204,101 @@ public class PuzzleGame extends Observable {
         this.currentPiece = puzzlePiece;
     }
 
+    /**
+     * MODIFIES: this
+     * Copies current piece state into engine; current piece may have been moved or replaced directly
+     */
+    private void pushPiece() {
+        engine.setPiece(currentPiece.getType(), currentPiece.getCurrentRotation(),
+                currentPiece.getX0(), currentPiece.getY0());
+    }
+
+    /**
+     * MODIFIES: this
+     * Copies engine piece state into current piece; if engine spawned a piece, the piece object of its type
+     * becomes current piece, and is created the first time that type is spawned
+     */
+    private void pullPiece() {
+        if (currentPiece == null || currentPieceCount != engine.getPieceCount()) {
+            PuzzlePiece.PIECES type = engine.getPieceType();
+            if (pieces[type.ordinal()] == null) {
+                pieces[type.ordinal()] = PuzzlePiece.create(type, engine.getPieceX(), engine.getPieceY());
+            }
+            currentPiece = pieces[type.ordinal()];
+            currentPiece.setOrigin(engine.getPieceX(), engine.getPieceY());
+            currentPieceCount = engine.getPieceCount();
+        } else {
+            currentPiece.setOrigin(engine.getPieceX(), engine.getPieceY());
+        }
+        currentPiece.setCurrentRotation(engine.getPieceRotation());
+    }
+
     /**
      * MODIFIES: this
      * Advances puzzle piece one unit down if able; Sets piece in place and generates new piece at top otherwise.
      */
     public void nextState() {
-        if (isClearBelow(1)) {
-            this.currentPiece.moveDown();
-            this.setChanged();
-            this.notifyObservers();
-        } else {
-            placePiece();
-            nextPiece();
-            this.setChanged();
-            this.notifyObservers("Score");
+        long start = Metrics.start();
+        if (inputListener != null) {
+            inputListener.stepped();
         }
+        pushPiece();
+        saveChangeBase();
+        boolean placed = engine.step();
+        pullPiece();
+        postChanges(placed);
+        Metrics.record(Metrics.NEXT_STATE, start);
     }
 
     /**
      * MODIFIES: this
-     * sets piece on board; checks if any rows completed; clears completed rows in sequential order from top
-     * Updates Score for cleared rows;
+     * Saves piece position, score and cleared rows, against which postChanges compares
      */
-    public void placePiece() {
-        int x = currentPiece.getX0();
-        int y = currentPiece.getY0();
-        int yMax = currentPiece.getY1();
-        int rowsCleared = 0;
-        for (Integer[] xy : currentPiece.getVertices()) {
-            board.setPos(x + xy[0], y + xy[1], currentPiece.color);
+    private void saveChangeBase() {
+        baseX = engine.getPieceX();
+        baseY = engine.getPieceY();
+        baseRotation = engine.getPieceRotation();
+        baseScore = engine.getScore();
+        baseClearedRows = engine.getTotalClearedRows();
+    }
+
+    /**
+     * MODIFIES: this
+     * Posts events for changes since saveChangeBase and publishes them
+     *
+     * @param placed true if a piece was locked
+     */
+    private void postChanges(boolean placed) {
+        if (placed || engine.getPieceX() != baseX || engine.getPieceY() != baseY
+                || engine.getPieceRotation() != baseRotation) {
+            events.post(GameEventBus.EVENTS.PIECE_MOVED);
         }
-        for (int row = y; row <= yMax; row++) {
-            if (board.isRowComplete(row)) {
-                board.clearRow(row);
-                rowsCleared++;
+        if (placed) {
+            events.post(GameEventBus.EVENTS.PIECE_LOCKED);
+            if (engine.getTotalClearedRows() != baseClearedRows) {
+                events.post(GameEventBus.EVENTS.ROWS_CLEARED);
+            }
+            if (engine.getScore() != baseScore) {
+                events.post(GameEventBus.EVENTS.SCORE_CHANGED);
+            }
+            if (engine.isGameOver()) {
+                events.post(GameEventBus.EVENTS.GAME_OVER);
+            }
+            if (autoPublish) {
+                board.publishSnapshot();
             }
         }
-        updateScore(rowsCleared);
+        events.flush();
+    }
+
+    /**
+     * MODIFIES: this
+     * sets piece on board; clears all rows it completed in one pass
+     * Updates Score for cleared rows;
+     */
+    public void placePiece() {
+        pushPiece();
+        engine.placePiece();
     }
 
     /**
@@ -174,32 +308,15 @@ public class PuzzleGame extends Observable {
      * @param rowsCleared number of rows cleared to be scored
      */
     public void updateScore(int rowsCleared) {
-        score += (SCORE_PER_ROW * rowsCleared
-                * (1 + (rowsCleared - 1) * ROW_SCORE_MULT + (level - 1) * LEVEL_SCORE_MULT));
-
-        clearedRows += rowsCleared;
-        if (clearedRows > ROWS_PER_LEVEL) {
-            level++;
-            clearedRows = 0;
-        }
-    }
-
-    /**
-     * MODIFIES: this
-     * generates new random piece
-     */
-    private void nextPiece() {
-        this.currentPiece = randomPiece();
+        engine.updateScore(rowsCleared);
     }
 
     /**
      * @return true if game is over (new piece with no clear space below)
      */
     public boolean isGameOver() {
-        if (this.currentPiece.getX0() == X0_NEW_PIECE && this.currentPiece.getY0() == Y0_NEW_PIECE) {
-            return !isClearBelow(1);
-        }
-        return false;
+        pushPiece();
+        return engine.isGameOver();
     }
 
     /**
@@ -209,135 +326,119 @@ public class PuzzleGame extends Observable {
      * @param keyCode Key Event of user input
      */
     public void userInput(int keyCode) {
-        if (keyCode == KeyEvent.VK_LEFT && isClearLeft()) {
-            currentPiece.moveLeft();
-        } else if (keyCode == KeyEvent.VK_RIGHT && isClearRight()) {
-            currentPiece.moveRight();
-        } else if (keyCode == KeyEvent.VK_DOWN) {
-            nextState();
-        } else if (keyCode == KeyEvent.VK_A && isClearCounterCW()) {
-            currentPiece.rotateCounterCW();
-        } else if (keyCode == KeyEvent.VK_D && isClearCW()) {
-            currentPiece.rotateCW();
-        } else if (keyCode == KeyEvent.VK_SPACE) {
-            currentPiece.dropPiece(getDistToBottom());
-            nextState();
+        userAction(toAction(keyCode));
+    }
+
+    /**
+     * MODIFIES: this
+     * Applies action to current piece, as chosen by a user or a player such as main.ai.AiPlayer
+     *
+     * @param action action to apply; null is ignored
+     */
+    public void userAction(GameEngine.ACTIONS action) {
+        if (action == null) {
+            return;
+        }
+        long start = Metrics.start();
+        if (inputListener != null) {
+            inputListener.actionApplied(action);
         }
-        this.setChanged();
-        notifyObservers();
+        pushPiece();
+        saveChangeBase();
+        boolean placed = engine.apply(action);
+        pullPiece();
+        postChanges(placed);
+        Metrics.add(Metrics.MOVES, 1);
+        Metrics.record(Metrics.USER_INPUT, start);
     }
 
     /**
-     * @return true if current piece can move one grid space down (space is not occupied)
+     * @return action bound to keyCode, or null if key is not bound
      */
-    public boolean isClearBelow(int row) {
-        int nextX = currentPiece.getX0();
-        int nextY = currentPiece.getY0() + row;
-
-        if (currentPiece.getY1() + row < GRID_HEIGHT) {
-            for (Integer[] xy : currentPiece.getVertices()) {
-                if (board.getPos(nextX + xy[0], nextY + xy[1]) != BACKGROUND) {
-                    return false;
-                }
-            }
-            return true;
-        } else {
-            return false;
+    private static GameEngine.ACTIONS toAction(int keyCode) {
+        switch (keyCode) {
+            case KeyEvent.VK_LEFT:
+                return GameEngine.ACTIONS.LEFT;
+            case KeyEvent.VK_RIGHT:
+                return GameEngine.ACTIONS.RIGHT;
+            case KeyEvent.VK_DOWN:
+                return GameEngine.ACTIONS.DOWN;
+            case KeyEvent.VK_A:
+                return GameEngine.ACTIONS.ROTATE_CCW;
+            case KeyEvent.VK_D:
+                return GameEngine.ACTIONS.ROTATE_CW;
+            case KeyEvent.VK_SPACE:
+                return GameEngine.ACTIONS.HARD_DROP;
+            default:
+                return null;
         }
     }
 
+    /**
+     * @return true if current piece can move row grid spaces down (space is not occupied)
+     */
+    public boolean isClearBelow(int row) {
+        pushPiece();
+        return engine.isClearBelow(row);
+    }
+
     /**
      * @return true if current piece can move one grid space left (space is not occupied)
      */
     public boolean isClearLeft() {
-        int nextX = currentPiece.getX0() - 1;
-        int nextY = currentPiece.getY0();
-
-        if (nextX >= 0) {
-            for (Integer[] xy : currentPiece.getVertices()) {
-                if (board.getPos(nextX + xy[0], nextY + xy[1]) != BACKGROUND) {
-                    return false;
-                }
-            }
-            return true;
-        } else {
-            return false;
-        }
+        pushPiece();
+        return engine.isClearLeft();
     }
 
     /**
      * @return true if current piece can move one grid space right (space is not occupied)
      */
     public boolean isClearRight() {
-        int nextX = currentPiece.getX0() + 1;
-        int nextY = currentPiece.getY0();
-
-        if (currentPiece.getX1() + 1 < GRID_WIDTH) {
-            for (Integer[] xy : currentPiece.getVertices()) {
-                if (board.getPos(nextX + xy[0], nextY + xy[1]) != BACKGROUND) {
-                    return false;
-                }
-            }
-            return true;
-        } else {
-            return false;
-        }
+        pushPiece();
+        return engine.isClearRight();
     }
 
     /**
      * @return true if current piece can rotate counter cw at current x0,y0 (space is not occupied)
      */
     public boolean isClearCounterCW() {
-        int nextX = currentPiece.getX0();
-        int nextY = currentPiece.getY0();
-        this.currentPiece.rotateCounterCW();
-
-        if (currentPiece.getX1() < GRID_WIDTH && currentPiece.getY1() < GRID_HEIGHT) {
-            for (Integer[] xy : currentPiece.getVertices()) {
-                if (board.getPos(nextX + xy[0], nextY + xy[1]) != BACKGROUND) {
-                    this.currentPiece.rotateCW();
-                    return false;
-                }
-            }
-            this.currentPiece.rotateCW();
-            return true;
-        } else {
-            this.currentPiece.rotateCW();
-            return false;
-        }
+        pushPiece();
+        return engine.isClearCounterCW();
     }
 
     /**
      * @return true if current piece can rotate cw at current x0,y0 (space is not occupied)
      */
     public boolean isClearCW() {
-        int nextX = currentPiece.getX0();
-        int nextY = currentPiece.getY0();
-        this.currentPiece.rotateCW();
-
-        if (currentPiece.getX1() < GRID_WIDTH && currentPiece.getY1() < GRID_HEIGHT) {
-            for (Integer[] xy : currentPiece.getVertices()) {
-                if (board.getPos(nextX + xy[0], nextY + xy[1]) != BACKGROUND) {
-                    this.currentPiece.rotateCounterCW();
-                    return false;
-                }
-            }
-            this.currentPiece.rotateCounterCW();
-            return true;
-        } else {
-            this.currentPiece.rotateCounterCW();
-            return false;
-        }
+        pushPiece();
+        return engine.isClearCW();
     }
 
     /**
      * @return clear distance that current piece can travel down
      */
     public int getDistToBottom() {
-        int y_dist = 1;
-        while (isClearBelow(y_dist)) {
-            y_dist++;
-        }
-        return y_dist - 1;
+        pushPiece();
+        return engine.getDistToBottom();
+    }
+
+    /**
+     * @return y coordinate at which current piece would land if dropped (ghost piece origin)
+     */
+    public int getGhostY() {
+        pushPiece();
+        return engine.getGhostY();
+    }
+
+    /**
+     * MODIFIES: search
+     * Finds every landing placement reachable by current piece without moving it
+     *
+     * @param search searcher sized for this game's board
+     * @return number of placements found; read them from search
+     */
+    public int findPlacements(PlacementSearch search) {
+        pushPiece();
+        return search.search(engine);
     }
 }
@@ -1,58 +1,69 @@
 package main.model;
 
-import java.awt.*;
-import java.security.InvalidParameterException;
 import java.util.ArrayList;
 import java.util.Random;
 
 /**
- * Abstract class representing generic puzzle piece
+ * Abstract class representing generic puzzle piece.
+ * A piece holds only its type, rotation index and origin; shape geometry is shared through PieceShape.
  */
 public abstract class PuzzlePiece {
+    private final PIECES type;
     private int x0;
     private int y0;
-    private int x1;
-    private int y1;
-    protected ArrayList<ArrayList<Integer[]>> rotationMap = new ArrayList<>();
     protected static final Random RANDOM = new Random();
     protected int currentRotation;
-    protected Color color;
 
     public enum PIECES {J, L, SQ, ST, T, ZI, ZA}
 
-    public PuzzlePiece(int x0, int y0) {
+    /**
+     * Constructs piece of type with random starting rotation
+     *
+     * @param x0 origin x coordinate for piece
+     * @param y0 origin y coordinate for piece
+     */
+    public PuzzlePiece(PIECES type, int x0, int y0) {
+        this.type = type;
         this.x0 = x0;
         this.y0 = y0;
-        this.setColor();
+        this.currentRotation = RANDOM.nextInt(PieceShape.ROTATIONS);
     }
 
     /**
-     * Creates Hashmap of xy points representing the vertices of the shape
+     * Creates new piece of type with random starting rotation
      *
-     * @param xyPairs xy paired points corresponding to relative location of each vertex.  0,0 for top left
-     * @return numbered vertices with corresponding integer xy pairs
-     * @throws InvalidParameterException if xyPairs is 0 or not even length
+     * @param x0 origin x coordinate for piece
+     * @param y0 origin y coordinate for piece
+     * @return new piece of type
      */
-    protected ArrayList<Integer[]> makeShape(Integer[] xyPairs) throws InvalidParameterException {
-        if (xyPairs.length == 0 || xyPairs.length % 2 != 0) {
-            throw new InvalidParameterException("xyPairs expects even length parameter list > 0");
-        }
-
-        ArrayList<Integer[]> shape = new ArrayList<>();
-        for (int i = 0; i < xyPairs.length; i += 2) {
-            shape.add(new Integer[]{xyPairs[i], xyPairs[i + 1]});
+    public static PuzzlePiece create(PIECES type, int x0, int y0) {
+        switch (type) {
+            case J:
+                return new JPiece(x0, y0);
+            case L:
+                return new LPiece(x0, y0);
+            case T:
+                return new TPiece(x0, y0);
+            case SQ:
+                return new SquarePiece(x0, y0);
+            case ST:
+                return new StraightPiece(x0, y0);
+            case ZA:
+                return new ZagPiece(x0, y0);
+            default:
+                return new ZigPiece(x0, y0);
         }
-        return shape;
     }
 
     /**
-     * MODIFIES: this
-     * Color of Puzzle Piece
+     * @return board color index of piece's cells; never BitBoard.EMPTY
      */
-    protected abstract void setColor();
+    public byte getColorIndex() {
+        return GameEngine.colorIndex(this.type);
+    }
 
-    public Color getColor() {
-        return this.color;
+    public PIECES getType() {
+        return this.type;
     }
 
     public int getX0() {
@@ -64,26 +75,25 @@ public abstract class PuzzlePiece {
     }
 
     public int getX1() {
-        return this.x1;
+        return this.x0 + getShape().getMaxX();
     }
 
     public int getY1() {
-        return this.y1;
+        return this.y0 + getShape().getMaxY();
     }
 
     /**
      * MODIFIES: this
-     * Sets current rotation index of piece; updates X1,Y1 accordingly.
+     * Sets current rotation index of piece; X1,Y1 follow the new rotation.
      *
      * @param rotationIndex index corresponding
-     * @throws IndexOutOfBoundsException if rotationIndex < 0 || rotationIndex >= rotationMap.size()
+     * @throws IndexOutOfBoundsException if rotationIndex < 0 || rotationIndex >= PieceShape.ROTATIONS
      */
     public void setCurrentRotation(int rotationIndex) throws IndexOutOfBoundsException {
-        if (rotationIndex < 0 || rotationIndex >= this.rotationMap.size()) {
+        if (rotationIndex < 0 || rotationIndex >= PieceShape.ROTATIONS) {
             throw new IndexOutOfBoundsException("Invalid Rotation Index");
         }
         this.currentRotation = rotationIndex;
-        setX1Y1();
     }
 
     public int getCurrentRotation() {
@@ -91,89 +101,75 @@ public abstract class PuzzlePiece {
     }
 
     /**
-     * MODIFIES: this
-     * sets x1,y1 values for puzzle piece for current rotation;
-     * x1,y1 are relative to current x0,y0
+     * @return shared geometry of current rotation
      */
-    protected void setX1Y1() {
-        this.x1 = 0;
-        this.y1 = 0;
-        for (Integer[] xy : this.getVertices()) {
-            this.x1 = Math.max(this.x1, xy[0]);
-            this.y1 = Math.max(this.y1, xy[1]);
-        }
-        this.x1 += this.x0;
-        this.y1 += this.y0;
+    public PieceShape getShape() {
+        return PieceShape.get(this.type, this.currentRotation);
     }
 
     /**
-     * @return vertices of current shape rotation
+     * @return vertices of current shape rotation; shared between pieces and must not be modified
      */
     public ArrayList<Integer[]> getVertices() {
-        return rotationMap.get(currentRotation);
+        return getShape().getVertices();
     }
 
     /**
      * MODIFIES: this
-     * Moves piece one unit left; updates X1,Y1
+     * Moves piece origin to x0, y0
+     */
+    public void setOrigin(int x0, int y0) {
+        this.x0 = x0;
+        this.y0 = y0;
+    }
+
+    /**
+     * MODIFIES: this
+     * Moves piece one unit left
      */
     public void moveLeft() {
         this.x0 -= 1;
-        setX1Y1();
     }
 
     /**
      * MODIFIES: this
-     * Moves piece one unit right; updates X1,Y1
+     * Moves piece one unit right
      */
     public void moveRight() {
         this.x0 += 1;
-        setX1Y1();
     }
 
     /**
      * MODIFIES: this
-     * Moves piece one unit down; updates X1,Y1
+     * Moves piece one unit down
      */
     public void moveDown() {
         this.y0 += 1;
-        setX1Y1();
     }
 
     /**
      * MODIFIES: this
-     * Drops piece dropDistance units down; updates X1, Y1
+     * Drops piece dropDistance units down
      *
      * @param dropDistance number of units to drop piece
      */
     public void dropPiece(int dropDistance) {
         this.y0 += dropDistance;
-        setX1Y1();
     }
 
     /**
      * MODIFIES: this
-     * Rotates puzzle piece counter clockwise by changing vertex order and position; updates X1,Y1
+     * Rotates puzzle piece counter clockwise to previous rotation index
      */
     public void rotateCounterCW() {
-        if (this.currentRotation == 0) {
-            this.currentRotation = this.rotationMap.size() - 1;
-        } else {
-            this.currentRotation -= 1;
-        }
-        setX1Y1();
+        this.currentRotation = PieceShape.nextRotationCounterCW(this.currentRotation);
     }
 
     /**
      * MODIFIES: this
-     * Rotates puzzle piece clockwise by changing vertex order and position; updates X1,Y1
+     * Rotates puzzle piece clockwise to next rotation index
      */
     public void rotateCW() {
-        if (this.currentRotation == this.rotationMap.size() - 1) {
-            this.currentRotation = 0;
-        } else {
-            this.currentRotation += 1;
-        }
-        setX1Y1();
+        this.currentRotation = PieceShape.nextRotationCW(this.currentRotation);
     }
 }
@@ -1,6 +1,5 @@
 package main.model;
 
-import java.awt.*;
 import java.util.ArrayList;
 
 /**
@@ -21,20 +20,6 @@ public class SquarePiece extends PuzzlePiece {
      * @param y0 origin y coordinate for piece
      */
     public SquarePiece(int x0, int y0) {
-        super(x0, y0);
-        for (int i = 0; i < SQ_SHAPE.size(); i++) {
-            rotationMap.add(makeShape(SQ_SHAPE.get(i)));
-        }
-        currentRotation = RANDOM.nextInt(SQ_SHAPE.size());
-        setX1Y1();
-    }
-
-    /**
-     * MODIFIES: this
-     * Square Piece Color - should be set different from BACKGROUND Color.
-     */
-    @Override
-    public void setColor() {
-        this.color = new Color(255, 255, 0);
+        super(PIECES.SQ, x0, y0);
     }
 }
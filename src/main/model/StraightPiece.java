@@ -1,6 +1,5 @@
 package main.model;
 
-import java.awt.*;
 import java.util.ArrayList;
 
 /**
@@ -21,20 +20,6 @@ public class StraightPiece extends PuzzlePiece {
      * @param y0 origin y coordinate for piece
      */
     public StraightPiece(int x0, int y0) {
-        super(x0, y0);
-        for (int i = 0; i < ST_SHAPE.size(); i++) {
-            rotationMap.add(makeShape(ST_SHAPE.get(i)));
-        }
-        currentRotation = RANDOM.nextInt(ST_SHAPE.size());
-        setX1Y1();
-    }
-
-    /**
-     * MODIFIES: this
-     * Straight Piece Color - should be set different from BACKGROUND Color.
-     */
-    @Override
-    public void setColor() {
-        this.color = new Color(0, 255, 255);
+        super(PIECES.ST, x0, y0);
     }
 }
@@ -1,6 +1,5 @@
 package main.model;
 
-import java.awt.*;
 import java.util.ArrayList;
 
 /**
@@ -21,20 +20,6 @@ public class TPiece extends PuzzlePiece {
      * @param y0 origin y coordinate for piece
      */
     public TPiece(int x0, int y0) {
-        super(x0, y0);
-        for (int i = 0; i < T_SHAPE.size(); i++) {
-            rotationMap.add(makeShape(T_SHAPE.get(i)));
-        }
-        currentRotation = RANDOM.nextInt(T_SHAPE.size());
-        setX1Y1();
-    }
-
-    /**
-     * MODIFIES: this
-     * T Piece Color - should be set different from BACKGROUND Color.
-     */
-    @Override
-    public void setColor() {
-        this.color = new Color(255, 128, 0);
+        super(PIECES.T, x0, y0);
     }
 }
@@ -0,0 +1,210 @@
+package main.model;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stack of changes made by GameEngine.apply(action, log), each taken back by GameEngine.undo(log) in reverse order,
+ * for make/unmake searches that try moves on one game instead of copying it.
+ * A move keeps the piece, score and random generator state it replaced; a move that places a piece also keeps
+ * the board rows placing it could change and the previewed pieces. All space is allocated on construction.
+ */
+public class UndoLog {
+    private final int GRID_WIDTH;
+    private final int GRID_HEIGHT;
+    private final byte[] pieceTypes;
+    private final byte[] pieceRotations;
+    private final int[] pieceXs;
+    private final int[] pieceYs;
+    private final long[] pieceCounts;
+    private final int[] levels;
+    private final int[] scores;
+    private final int[] clearedRows;
+    private final long[] totalClearedRows;
+    private final long[] randomStates;
+    private final int[] rowFroms;
+    private final int[] rowTos;
+    private final int[] rowStarts;
+    private final long[] rows;
+    private final byte[] cells;
+    private final ByteBuffer previews;
+    private int size;
+    private int rowCount;
+
+    /**
+     * Constructs empty log for games on a gridWidth by gridHeight board
+     *
+     * @param capacity greatest number of moves held at once, greater than 0
+     * @throws IllegalArgumentException if capacity < 1, gridWidth < 1 or gridHeight < 1
+     */
+    public UndoLog(int gridWidth, int gridHeight, int capacity) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+        if (gridWidth < 1 || gridHeight < 1) {
+            throw new IllegalArgumentException("invalid board size");
+        }
+        this.GRID_WIDTH = gridWidth;
+        this.GRID_HEIGHT = gridHeight;
+        this.pieceTypes = new byte[capacity];
+        this.pieceRotations = new byte[capacity];
+        this.pieceXs = new int[capacity];
+        this.pieceYs = new int[capacity];
+        this.pieceCounts = new long[capacity];
+        this.levels = new int[capacity];
+        this.scores = new int[capacity];
+        this.clearedRows = new int[capacity];
+        this.totalClearedRows = new long[capacity];
+        this.randomStates = new long[capacity];
+        this.rowFroms = new int[capacity];
+        this.rowTos = new int[capacity];
+        this.rowStarts = new int[capacity];
+        this.rows = new long[capacity * gridHeight * ((gridWidth + Long.SIZE - 1) / Long.SIZE)];
+        this.cells = new byte[capacity * gridHeight * gridWidth];
+        this.previews = ByteBuffer.allocate(capacity * PieceQueue.STATE_BYTES);
+    }
+
+    public int getWidth() {
+        return this.GRID_WIDTH;
+    }
+
+    public int getHeight() {
+        return this.GRID_HEIGHT;
+    }
+
+    /**
+     * @return number of moves that can be undone
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * @return greatest number of moves held at once
+     */
+    public int getCapacity() {
+        return this.pieceTypes.length;
+    }
+
+    /**
+     * MODIFIES: this
+     * Forgets every move, so that none can be undone
+     */
+    public void clear() {
+        this.size = 0;
+        this.rowCount = 0;
+    }
+
+    /**
+     * MODIFIES: this
+     * Starts a move and keeps the piece, score and random state it replaces
+     *
+     * @throws IllegalStateException if log is full
+     */
+    void push(PuzzlePiece.PIECES type, int rotation, int x, int y, long pieceCount, int level, int score,
+              int rows, long totalRows, long randomState) throws IllegalStateException {
+        if (size == pieceTypes.length) {
+            throw new IllegalStateException("undo log is full");
+        }
+        pieceTypes[size] = (byte) type.ordinal();
+        pieceRotations[size] = (byte) rotation;
+        pieceXs[size] = x;
+        pieceYs[size] = y;
+        pieceCounts[size] = pieceCount;
+        levels[size] = level;
+        scores[size] = score;
+        clearedRows[size] = rows;
+        totalClearedRows[size] = totalRows;
+        randomStates[size] = randomState;
+        rowFroms[size] = 0;
+        rowTos[size] = -1;
+        rowStarts[size] = rowCount;
+        size++;
+    }
+
+    /**
+     * MODIFIES: this
+     * Keeps rows fromY to toY of board and previewed pieces of preview for the move started last
+     *
+     * @throws IllegalStateException if preview cannot save its state; the move is then removed
+     */
+    void pushPlacement(Board board, int fromY, int toY, PieceQueue preview) throws IllegalStateException {
+        int top = size - 1;
+        previews.position(top * PieceQueue.STATE_BYTES);
+        try {
+            preview.writeState(previews);
+        } catch (IllegalStateException e) {
+            size--;
+            throw e;
+        }
+        board.saveRows(fromY, toY, rows, cells, rowCount);
+        rowFroms[top] = fromY;
+        rowTos[top] = toY;
+        rowCount += toY - fromY + 1;
+    }
+
+    /**
+     * MODIFIES: this
+     * Removes the move started last; its kept state is read back by the getters and restorePlacement
+     *
+     * @throws IllegalStateException if log is empty
+     */
+    void pop() throws IllegalStateException {
+        if (size == 0) {
+            throw new IllegalStateException("undo log is empty");
+        }
+        size--;
+        rowCount = rowStarts[size];
+    }
+
+    /**
+     * MODIFIES: board, preview
+     * Puts back rows and previewed pieces kept for the move removed last by pop, if it placed a piece
+     */
+    void restorePlacement(Board board, PieceQueue preview) {
+        if (rowFroms[size] <= rowTos[size]) {
+            board.restoreRows(rowFroms[size], rowTos[size], rows, cells, rowStarts[size]);
+            previews.position(size * PieceQueue.STATE_BYTES);
+            preview.readState(previews);
+        }
+    }
+
+    int getPieceType() {
+        return pieceTypes[size];
+    }
+
+    int getPieceRotation() {
+        return pieceRotations[size];
+    }
+
+    int getPieceX() {
+        return pieceXs[size];
+    }
+
+    int getPieceY() {
+        return pieceYs[size];
+    }
+
+    long getPieceCount() {
+        return pieceCounts[size];
+    }
+
+    int getLevel() {
+        return levels[size];
+    }
+
+    int getScore() {
+        return scores[size];
+    }
+
+    int getClearedRows() {
+        return clearedRows[size];
+    }
+
+    long getTotalClearedRows() {
+        return totalClearedRows[size];
+    }
+
+    long getRandomState() {
+        return randomStates[size];
+    }
+}
@@ -0,0 +1,36 @@
+package main.model;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Generator choosing every piece type uniformly and independently; may deal long runs of one type or long
+ * droughts of another
+ */
+public class UniformGenerator implements PieceGenerator {
+    private static final PuzzlePiece.PIECES[] TYPES = PuzzlePiece.PIECES.values();
+    private final Random random;
+
+    public UniformGenerator(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public PuzzlePiece.PIECES next() {
+        return TYPES[random.nextInt(TYPES.length)];
+    }
+
+    @Override
+    public void writeState(ByteBuffer buffer) throws IllegalStateException {
+        buffer.putLong(GameRandom.of(random).getState());
+        for (int i = Long.BYTES; i < STATE_BYTES; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    @Override
+    public void readState(ByteBuffer buffer) throws IllegalStateException {
+        GameRandom.of(random).setState(buffer.getLong());
+        buffer.position(buffer.position() + STATE_BYTES - Long.BYTES);
+    }
+}
@@ -0,0 +1,531 @@
+package main.model;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Board of any width holding each row as several 64 bit occupancy words, with a separate color index plane, for
+ * stress boards wider than BitBoard.MAX_WIDTH. Bit x % 64 of word x / 64 of a row is set when column x is
+ * occupied, so row checks, hole counts, column heights and row clears handle 64 columns per operation instead of
+ * one cell at a time. As in BitBoard, column tops, the Zobrist hash and the range of changed rows are kept up to
+ * date on every change, so fitting and dropping a piece cost the same at any width.
+ */
+public class WideBitBoard implements Board {
+    public static final int WORD_BITS = Long.SIZE;
+    private final int GRID_WIDTH;
+    private final int GRID_HEIGHT;
+    private final int WORDS;
+    private final long LAST_WORD;
+    private final long[] words;
+    private final byte[] cells;
+    private final int[] columnTops;
+    private final long[] covered;
+    private int dirtyTop;
+    private int dirtyBottom;
+    private long hash;
+
+    /**
+     * Constructs blank board
+     *
+     * @param gridWidth  number of columns, greater than 0
+     * @param gridHeight number of rows, greater than 0
+     * @throws IllegalArgumentException if gridWidth or gridHeight < 1
+     */
+    public WideBitBoard(int gridWidth, int gridHeight) throws IllegalArgumentException {
+        if (gridWidth < 1 || gridHeight < 1) {
+            throw new IllegalArgumentException("gridWidth and gridHeight must be greater than 0");
+        }
+        this.GRID_WIDTH = gridWidth;
+        this.GRID_HEIGHT = gridHeight;
+        this.WORDS = (gridWidth + WORD_BITS - 1) / WORD_BITS;
+        this.LAST_WORD = gridWidth % WORD_BITS == 0 ? -1L : (1L << gridWidth % WORD_BITS) - 1;
+        this.words = new long[WORDS * gridHeight];
+        this.cells = new byte[gridWidth * gridHeight];
+        this.columnTops = new int[gridWidth];
+        this.covered = new long[WORDS];
+        Arrays.fill(this.columnTops, gridHeight);
+        this.dirtyTop = 0;
+        this.dirtyBottom = gridHeight - 1;
+    }
+
+    @Override
+    public int getWidth() {
+        return this.GRID_WIDTH;
+    }
+
+    @Override
+    public int getHeight() {
+        return this.GRID_HEIGHT;
+    }
+
+    @Override
+    public int getWordsPerRow() {
+        return this.WORDS;
+    }
+
+    @Override
+    public void setBlankBoard() {
+        Arrays.fill(this.words, 0L);
+        Arrays.fill(this.cells, BitBoard.EMPTY);
+        Arrays.fill(this.columnTops, GRID_HEIGHT);
+        this.hash = 0L;
+        markDirty(0, GRID_HEIGHT - 1);
+    }
+
+    @Override
+    public void copyFrom(Board other) throws IllegalArgumentException {
+        if (!(other instanceof WideBitBoard)) {
+            throw new IllegalArgumentException("board classes do not match");
+        }
+        WideBitBoard wide = (WideBitBoard) other;
+        if (wide.GRID_WIDTH != GRID_WIDTH || wide.GRID_HEIGHT != GRID_HEIGHT) {
+            throw new IllegalArgumentException("board sizes do not match");
+        }
+        System.arraycopy(wide.words, 0, this.words, 0, this.words.length);
+        System.arraycopy(wide.cells, 0, this.cells, 0, this.cells.length);
+        System.arraycopy(wide.columnTops, 0, this.columnTops, 0, GRID_WIDTH);
+        this.hash = wide.hash;
+        markDirty(0, GRID_HEIGHT - 1);
+    }
+
+    @Override
+    public void saveRows(int fromY, int toY, long[] rowsDest, byte[] cellsDest, int destRow)
+            throws IndexOutOfBoundsException {
+        System.arraycopy(this.words, fromY * WORDS, rowsDest, destRow * WORDS, (toY - fromY + 1) * WORDS);
+        System.arraycopy(this.cells, fromY * GRID_WIDTH, cellsDest, destRow * GRID_WIDTH,
+                (toY - fromY + 1) * GRID_WIDTH);
+    }
+
+    @Override
+    public void restoreRows(int fromY, int toY, long[] rowsSrc, byte[] cellsSrc, int srcRow)
+            throws IndexOutOfBoundsException {
+        isOutOfBounds(0, fromY);
+        isOutOfBounds(0, toY);
+        this.hash ^= rowsHash(fromY, toY);
+        System.arraycopy(rowsSrc, srcRow * WORDS, this.words, fromY * WORDS, (toY - fromY + 1) * WORDS);
+        System.arraycopy(cellsSrc, srcRow * GRID_WIDTH, this.cells, fromY * GRID_WIDTH,
+                (toY - fromY + 1) * GRID_WIDTH);
+        this.hash ^= rowsHash(fromY, toY);
+        markDirty(fromY, toY);
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            if (this.columnTops[x] >= fromY) {
+                this.columnTops[x] = findColumnTop(x, fromY);
+            }
+        }
+    }
+
+    /**
+     * @return Zobrist hash of occupancy: XOR over every occupancy word of the key of its index and value; 0 for a
+     *         blank board. Boards of the same size with the same occupied cells have the same hash.
+     */
+    @Override
+    public long getHash() {
+        return this.hash;
+    }
+
+    /**
+     * @return XOR of keys of words of rows fromY to toY
+     */
+    private long rowsHash(int fromY, int toY) {
+        long rowsHash = 0L;
+        for (int i = fromY * WORDS; i < (toY + 1) * WORDS; i++) {
+            rowsHash ^= BitBoard.rowKey(i, this.words[i]);
+        }
+        return rowsHash;
+    }
+
+    @Override
+    public int getDirtyTop() {
+        return this.dirtyTop;
+    }
+
+    @Override
+    public int getDirtyBottom() {
+        return this.dirtyBottom;
+    }
+
+    @Override
+    public void clearDirtyRows() {
+        this.dirtyTop = GRID_HEIGHT;
+        this.dirtyBottom = -1;
+    }
+
+    /**
+     * MODIFIES: this
+     * Adds rows fromY to toY to the range of changed rows
+     */
+    private void markDirty(int fromY, int toY) {
+        this.dirtyTop = Math.min(this.dirtyTop, fromY);
+        this.dirtyBottom = Math.max(this.dirtyBottom, toY);
+    }
+
+    @Override
+    public void writeCells(ByteBuffer buffer) {
+        buffer.put(this.cells);
+    }
+
+    @Override
+    public void readCells(ByteBuffer buffer) {
+        buffer.get(this.cells);
+        Arrays.fill(this.words, 0L);
+        Arrays.fill(this.columnTops, GRID_HEIGHT);
+        for (int y = GRID_HEIGHT - 1; y >= 0; y--) {
+            for (int x = 0; x < GRID_WIDTH; x++) {
+                if (this.cells[x + y * GRID_WIDTH] != BitBoard.EMPTY) {
+                    this.words[y * WORDS + x / WORD_BITS] |= 1L << x;
+                    this.columnTops[x] = y;
+                }
+            }
+        }
+        this.hash = rowsHash(0, GRID_HEIGHT - 1);
+        markDirty(0, GRID_HEIGHT - 1);
+    }
+
+    @Override
+    public void copyRowCells(int y, byte[] dest) throws IndexOutOfBoundsException {
+        isOutOfBounds(0, y);
+        System.arraycopy(this.cells, y * GRID_WIDTH, dest, 0, GRID_WIDTH);
+    }
+
+    /**
+     * @return word w of row y; bit i is set when column w * WORD_BITS + i is occupied
+     * @throws IndexOutOfBoundsException if y or w out of bounds
+     */
+    public long getWord(int y, int w) throws IndexOutOfBoundsException {
+        if (w < 0 || w >= WORDS) {
+            throw new IndexOutOfBoundsException("w must be between 0 and getWordsPerRow() - 1");
+        }
+        isOutOfBounds(0, y);
+        return this.words[y * WORDS + w];
+    }
+
+    @Override
+    public byte getCell(int x, int y) throws IndexOutOfBoundsException {
+        isOutOfBounds(x, y);
+        return this.cells[x + y * GRID_WIDTH];
+    }
+
+    @Override
+    public void setCell(int x, int y, byte colorIndex) throws IndexOutOfBoundsException {
+        isOutOfBounds(x, y);
+        this.cells[x + y * GRID_WIDTH] = colorIndex;
+        markDirty(y, y);
+        int i = y * WORDS + x / WORD_BITS;
+        long word = this.words[i];
+        if (colorIndex == BitBoard.EMPTY) {
+            this.words[i] = word & ~(1L << x);
+            if (y == this.columnTops[x]) {
+                this.columnTops[x] = findColumnTop(x, y + 1);
+            }
+        } else {
+            this.words[i] = word | 1L << x;
+            this.columnTops[x] = Math.min(this.columnTops[x], y);
+        }
+        if (this.words[i] != word) {
+            this.hash ^= BitBoard.rowKey(i, word) ^ BitBoard.rowKey(i, this.words[i]);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * sets every cell of row y to colorIndex, a word at a time; EMPTY clears the row
+     *
+     * @throws IndexOutOfBoundsException if y out of bounds
+     */
+    public void fillRow(int y, byte colorIndex) throws IndexOutOfBoundsException {
+        isOutOfBounds(0, y);
+        this.hash ^= rowsHash(y, y);
+        Arrays.fill(this.cells, y * GRID_WIDTH, (y + 1) * GRID_WIDTH, colorIndex);
+        int start = y * WORDS;
+        if (colorIndex == BitBoard.EMPTY) {
+            Arrays.fill(this.words, start, start + WORDS, 0L);
+        } else {
+            Arrays.fill(this.words, start, start + WORDS, -1L);
+            this.words[start + WORDS - 1] = LAST_WORD;
+        }
+        this.hash ^= rowsHash(y, y);
+        markDirty(y, y);
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            int top = this.columnTops[x];
+            if (colorIndex != BitBoard.EMPTY) {
+                this.columnTops[x] = Math.min(top, y);
+            } else if (top == y) {
+                this.columnTops[x] = findColumnTop(x, y + 1);
+            }
+        }
+    }
+
+    /**
+     * @return row of highest occupied cell in column x at or below row fromY; GRID_HEIGHT if none
+     */
+    private int findColumnTop(int x, int fromY) {
+        long bit = 1L << x;
+        for (int i = fromY * WORDS + x / WORD_BITS; i < this.words.length; i += WORDS) {
+            if ((this.words[i] & bit) != 0) {
+                return i / WORDS;
+            }
+        }
+        return GRID_HEIGHT;
+    }
+
+    @Override
+    public int getColumnTop(int x) throws IndexOutOfBoundsException {
+        return this.columnTops[x];
+    }
+
+    @Override
+    public int getSurfaceTop() {
+        int surface = GRID_HEIGHT;
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            surface = Math.min(surface, this.columnTops[x]);
+        }
+        return surface;
+    }
+
+    @Override
+    public boolean isOccupied(int x, int y) throws IndexOutOfBoundsException {
+        isOutOfBounds(x, y);
+        return (this.words[y * WORDS + x / WORD_BITS] & 1L << x) != 0;
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if x or y out of bounds
+     */
+    private void isOutOfBounds(int x, int y) throws IndexOutOfBoundsException {
+        if (x < 0 || x >= GRID_WIDTH) {
+            throw new IndexOutOfBoundsException("x must be between 0 and GRID_WIDTH - 1");
+        }
+        if (y < 0 || y >= GRID_HEIGHT) {
+            throw new IndexOutOfBoundsException("y must be between 0 and GRID_HEIGHT - 1");
+        }
+    }
+
+    @Override
+    public boolean isRowComplete(int y) throws IndexOutOfBoundsException {
+        isOutOfBounds(0, y);
+        return isComplete(y * WORDS);
+    }
+
+    /**
+     * @return true if row starting at word index start is complete
+     */
+    private boolean isComplete(int start) {
+        int last = start + WORDS - 1;
+        for (int i = start; i < last; i++) {
+            if (this.words[i] != -1L) {
+                return false;
+            }
+        }
+        return this.words[last] == LAST_WORD;
+    }
+
+    @Override
+    public boolean isRowEmpty(int y) throws IndexOutOfBoundsException {
+        isOutOfBounds(0, y);
+        for (int i = y * WORDS; i < (y + 1) * WORDS; i++) {
+            if (this.words[i] != 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if mask shifted left by x columns overlaps an occupied cell of the row starting at word
+     *         index start; mask may span two words
+     */
+    private boolean overlaps(int start, long mask, int x) {
+        int i = start + x / WORD_BITS;
+        int shift = x % WORD_BITS;
+        if ((this.words[i] & mask << shift) != 0) {
+            return true;
+        }
+        return shift != 0 && (mask >>> (WORD_BITS - shift)) != 0
+                && (this.words[i + 1] & mask >>> (WORD_BITS - shift)) != 0;
+    }
+
+    @Override
+    public boolean fits(PieceShape shape, int x, int y) {
+        if (x < 0 || y < 0 || x + shape.getMaxX() >= GRID_WIDTH || y + shape.getMaxY() >= GRID_HEIGHT) {
+            return false;
+        }
+        for (int dy = 0; dy < shape.getHeight(); dy++) {
+            if (overlaps((y + dy) * WORDS, shape.getRowMask(dy), x)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns how far shape with origin at x, y can move down before it is blocked.
+     * Constant time when shape lies above the surface of every column it covers; otherwise probes row by row.
+     */
+    @Override
+    public int dropDistance(PieceShape shape, int x, int y) {
+        if (x < 0 || y < 0 || x + shape.getMaxX() >= GRID_WIDTH) {
+            return 0;
+        }
+        int distance = GRID_HEIGHT;
+        for (int dx = 0; dx <= shape.getMaxX(); dx++) {
+            if (shape.getColumnBottom(dx) < 0) {
+                continue;
+            }
+            int bottom = y + shape.getColumnBottom(dx);
+            int top = this.columnTops[x + dx];
+            if (bottom >= top) {
+                int probed = 0;
+                while (fits(shape, x, y + probed + 1)) {
+                    probed++;
+                }
+                return probed;
+            }
+            distance = Math.min(distance, top - 1 - bottom);
+        }
+        return distance;
+    }
+
+    @Override
+    public int placeShape(PieceShape shape, int x, int y, byte colorIndex) throws IndexOutOfBoundsException {
+        for (int i = 0; i < shape.getVertexCount(); i++) {
+            setCell(x + shape.getVertexX(i), y + shape.getVertexY(i), colorIndex);
+        }
+        return clearCompleteRows(y, y + shape.getMaxY());
+    }
+
+    @Override
+    public void clearRow(int rowIndex) throws IndexOutOfBoundsException {
+        isOutOfBounds(0, rowIndex);
+        int surface = Math.min(getSurfaceTop(), rowIndex);
+        markDirty(surface, rowIndex);
+        this.hash ^= rowsHash(surface, rowIndex);
+        System.arraycopy(this.words, 0, this.words, WORDS, rowIndex * WORDS);
+        Arrays.fill(this.words, 0, WORDS, 0L);
+        this.hash ^= rowsHash(surface, rowIndex);
+        System.arraycopy(this.cells, 0, this.cells, GRID_WIDTH, rowIndex * GRID_WIDTH);
+        Arrays.fill(this.cells, 0, GRID_WIDTH, BitBoard.EMPTY);
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            int top = this.columnTops[x];
+            if (top < rowIndex) {
+                this.columnTops[x] = top + 1;
+            } else if (top == rowIndex) {
+                this.columnTops[x] = findColumnTop(x, rowIndex + 1);
+            }
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * removes every complete row from fromY to toY in one pass; rows above each removed row move down and
+     * blank rows are added at top. Each run of surviving rows between removed rows is moved by one array copy.
+     *
+     * @param fromY top row of range to check, from 0 to GRID_HEIGHT - 1
+     * @param toY   bottom row of range to check, from fromY to GRID_HEIGHT - 1
+     * @return number of rows removed
+     * @throws IndexOutOfBoundsException if fromY or toY out of bounds, or fromY > toY
+     */
+    @Override
+    public int clearCompleteRows(int fromY, int toY) throws IndexOutOfBoundsException {
+        isOutOfBounds(0, fromY);
+        isOutOfBounds(0, toY);
+        if (fromY > toY) {
+            throw new IndexOutOfBoundsException("fromY must not be greater than toY");
+        }
+        int bottom = toY;
+        while (bottom >= fromY && !isComplete(bottom * WORDS)) {
+            bottom--;
+        }
+        if (bottom < fromY) {
+            return 0;
+        }
+        int surface = Math.min(getSurfaceTop(), fromY);
+        this.hash ^= rowsHash(surface, bottom);
+        int removed = 0;
+        int runBottom = bottom;
+        for (int y = bottom; y >= fromY; y--) {
+            if (isComplete(y * WORDS)) {
+                if (removed > 0 && runBottom > y) {
+                    moveRows(y + 1, runBottom, removed);
+                }
+                removed++;
+                runBottom = y - 1;
+            }
+        }
+        moveRows(0, runBottom, removed);
+        Arrays.fill(this.words, 0, removed * WORDS, 0L);
+        Arrays.fill(this.cells, 0, removed * GRID_WIDTH, BitBoard.EMPTY);
+        this.hash ^= rowsHash(surface, bottom);
+        markDirty(surface, toY);
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            int top = this.columnTops[x];
+            if (top < fromY) {
+                this.columnTops[x] = top + removed;
+            } else if (top <= toY) {
+                this.columnTops[x] = findColumnTop(x, top);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * MODIFIES: this
+     * Moves occupancy and color indices of rows fromY to toY down by distance rows
+     */
+    private void moveRows(int fromY, int toY, int distance) {
+        if (toY < fromY) {
+            return;
+        }
+        System.arraycopy(this.words, fromY * WORDS, this.words, (fromY + distance) * WORDS,
+                (toY - fromY + 1) * WORDS);
+        System.arraycopy(this.cells, fromY * GRID_WIDTH, this.cells, (fromY + distance) * GRID_WIDTH,
+                (toY - fromY + 1) * GRID_WIDTH);
+    }
+
+    /**
+     * @return number of empty cells below the highest occupied cell of their column
+     */
+    public int countHoles() {
+        Arrays.fill(this.covered, 0L);
+        int holes = 0;
+        for (int i = 0; i < this.words.length; i += WORDS) {
+            for (int w = 0; w < WORDS; w++) {
+                long mask = this.words[i + w];
+                holes += Long.bitCount(this.covered[w] & ~mask);
+                this.covered[w] |= mask;
+            }
+        }
+        return holes;
+    }
+
+    /**
+     * MODIFIES: heights
+     * Writes height of each column, from its highest occupied cell to the bottom, into heights; 0 if column is empty
+     *
+     * @return sum of column heights
+     * @throws IndexOutOfBoundsException if heights is shorter than GRID_WIDTH
+     */
+    public int columnHeights(int[] heights) throws IndexOutOfBoundsException {
+        if (heights.length < GRID_WIDTH) {
+            throw new IndexOutOfBoundsException("heights must hold GRID_WIDTH columns");
+        }
+        Arrays.fill(heights, 0, GRID_WIDTH, 0);
+        Arrays.fill(this.covered, 0L);
+        int aggregate = 0;
+        int open = GRID_WIDTH;
+        for (int y = 0; y < GRID_HEIGHT && open > 0; y++) {
+            for (int w = 0; w < WORDS; w++) {
+                long first = this.words[y * WORDS + w] & ~this.covered[w];
+                if (first == 0L) {
+                    continue;
+                }
+                this.covered[w] |= first;
+                open -= Long.bitCount(first);
+                aggregate += (GRID_HEIGHT - y) * Long.bitCount(first);
+                for (; first != 0; first &= first - 1) {
+                    heights[w * WORD_BITS + Long.numberOfTrailingZeros(first)] = GRID_HEIGHT - y;
+                }
+            }
+        }
+        return aggregate;
+    }
+}
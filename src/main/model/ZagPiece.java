@@ -1,6 +1,5 @@
 package main.model;
 
-import java.awt.*;
 import java.util.ArrayList;
 
 /**
@@ -21,20 +20,6 @@ public class ZagPiece extends PuzzlePiece {
      * @param y0 origin y coordinate for piece
      */
     public ZagPiece(int x0, int y0) {
-        super(x0, y0);
-        for (int i = 0; i < ZAG_SHAPE.size(); i++) {
-            rotationMap.add(makeShape(ZAG_SHAPE.get(i)));
-        }
-        currentRotation = RANDOM.nextInt(ZAG_SHAPE.size());
-        setX1Y1();
-    }
-
-    /**
-     * MODIFIES: this
-     * Z Piece Color - should be set different from BACKGROUND Color.
-     */
-    @Override
-    public void setColor() {
-        this.color = new Color(120, 50, 150);
+        super(PIECES.ZA, x0, y0);
     }
 }
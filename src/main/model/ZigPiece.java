@@ -1,6 +1,5 @@
 package main.model;
 
-import java.awt.*;
 import java.util.ArrayList;
 
 /**
@@ -21,20 +20,6 @@ public class ZigPiece extends PuzzlePiece {
      * @param y0 origin y coordinate for piece
      */
     public ZigPiece(int x0, int y0) {
-        super(x0, y0);
-        for (int i = 0; i < ZIG_SHAPE.size(); i++) {
-            rotationMap.add(makeShape(ZIG_SHAPE.get(i)));
-        }
-        currentRotation = RANDOM.nextInt(ZIG_SHAPE.size());
-        setX1Y1();
-    }
-
-    /**
-     * MODIFIES: this
-     * Mirrored Z Piece Color - should be set different from BACKGROUND Color.
-     */
-    @Override
-    public void setColor() {
-        this.color = new Color(0, 0, 255);
+        super(PIECES.ZI, x0, y0);
     }
 }
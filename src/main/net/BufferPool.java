@@ -0,0 +1,55 @@
+package main.net;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of direct buffers of one size, so that connections reuse buffers instead of allocating direct memory each
+ * time one is opened. Not safe for use by several threads.
+ */
+public class BufferPool {
+    private final int BUFFER_SIZE;
+    private final int MAX_POOLED;
+    private final ArrayDeque<ByteBuffer> pooled = new ArrayDeque<>();
+
+    /**
+     * @param bufferSize size of each buffer in bytes
+     * @param maxPooled  maximum number of released buffers kept for reuse
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        this.BUFFER_SIZE = bufferSize;
+        this.MAX_POOLED = maxPooled;
+    }
+
+    public int getBufferSize() {
+        return this.BUFFER_SIZE;
+    }
+
+    /**
+     * @return number of released buffers waiting for reuse
+     */
+    public int getPooledCount() {
+        return pooled.size();
+    }
+
+    /**
+     * MODIFIES: this
+     *
+     * @return cleared buffer, taken from the pool if one is available
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = pooled.poll();
+        return buffer == null ? ByteBuffer.allocateDirect(BUFFER_SIZE) : buffer;
+    }
+
+    /**
+     * MODIFIES: this
+     * Returns buffer obtained from acquire for reuse; caller must not use it afterwards
+     */
+    public void release(ByteBuffer buffer) {
+        if (pooled.size() < MAX_POOLED) {
+            buffer.clear();
+            pooled.push(buffer);
+        }
+    }
+}
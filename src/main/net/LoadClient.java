@@ -0,0 +1,257 @@
+package main.net;
+
+import main.server.GameSession;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator simulating many remote players on one selector thread. Each player connects to a NetServer,
+ * mirrors its game in a RemoteBoard and sends random inputs at a fixed rate, resetting its game when it is over.
+ */
+public class LoadClient implements Runnable, Closeable {
+    private static final int INITIAL_READ_BYTES = 8192;
+    private final Selector selector;
+    private final ArrayList<Player> players = new ArrayList<>();
+    private final long INPUT_NANOS;
+    private final Random random;
+    private final ByteBuffer input = ByteBuffer.allocateDirect(1);
+    private volatile boolean stopped;
+    private volatile int connected;
+    private volatile long framesReceived;
+    private volatile long bytesReceived;
+    private volatile long inputsSent;
+    private volatile int failed;
+
+    /**
+     * Constructs client and starts connecting its players; they are served once run
+     *
+     * @param players         number of simulated players
+     * @param inputsPerSecond inputs each player sends per second, greater than 0
+     * @throws IOException if a connection cannot be started
+     */
+    public LoadClient(InetSocketAddress server, int players, int inputsPerSecond, long seed) throws IOException {
+        this.selector = Selector.open();
+        this.INPUT_NANOS = TimeUnit.SECONDS.toNanos(1) / inputsPerSecond;
+        this.random = new Random(seed);
+        try {
+            for (int i = 0; i < players; i++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Player player = new Player(channel);
+                this.players.add(player);
+                int ops = channel.connect(server) ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT;
+                if (ops == SelectionKey.OP_READ) {
+                    connected++;
+                }
+                channel.register(selector, ops, player);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return players whose connection is established
+     */
+    public int getConnected() {
+        return this.connected;
+    }
+
+    /**
+     * @return players whose connection failed or was closed by the server
+     */
+    public int getFailed() {
+        return this.failed;
+    }
+
+    public long getFramesReceived() {
+        return this.framesReceived;
+    }
+
+    public long getBytesReceived() {
+        return this.bytesReceived;
+    }
+
+    public long getInputsSent() {
+        return this.inputsSent;
+    }
+
+    /**
+     * @return mirrored game of player i
+     */
+    public RemoteBoard getBoard(int i) {
+        return players.get(i).board;
+    }
+
+    /**
+     * Stops run at its next wakeup
+     */
+    public void stop() {
+        stopped = true;
+        selector.wakeup();
+    }
+
+    /**
+     * Reads frames and sends inputs for all players until stopped
+     */
+    @Override
+    public void run() {
+        long nextInput = System.nanoTime() + INPUT_NANOS;
+        try {
+            while (!stopped) {
+                long wait = TimeUnit.NANOSECONDS.toMillis(nextInput - System.nanoTime());
+                if (wait > 0) {
+                    selector.select(wait);
+                } else {
+                    selector.selectNow();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+                if (System.nanoTime() - nextInput >= 0) {
+                    sendInputs();
+                    nextInput += INPUT_NANOS;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("load client stopped: " + e);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Completes connection or reads frames for a ready key
+     */
+    private void handle(SelectionKey key) {
+        Player player = (Player) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                player.channel.finishConnect();
+                key.interestOps(SelectionKey.OP_READ);
+                connected++;
+            } else if (key.isReadable()) {
+                int read = player.channel.read(player.in);
+                if (read < 0) {
+                    throw new IOException("closed by server");
+                }
+                bytesReceived += read;
+                player.in.flip();
+                framesReceived += player.board.read(player.in);
+                player.in.compact();
+                player.ensureFrameFits();
+            }
+        } catch (IOException | RuntimeException e) {
+            key.cancel();
+            failed++;
+            try {
+                player.channel.close();
+            } catch (IOException ignored) {
+                // already closed
+            }
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Sends one input for each player that has received its first update
+     */
+    private void sendInputs() throws IOException {
+        for (Player player : players) {
+            if (!player.channel.isConnected() || player.board.getUpdates() == 0) {
+                continue;
+            }
+            input.clear();
+            input.put((byte) (player.board.isRunning() ? random.nextInt(GameSession.RESET) : GameSession.RESET));
+            input.flip();
+            try {
+                inputsSent += player.channel.write(input);
+            } catch (IOException e) {
+                failed++;
+                player.channel.close();
+            }
+        }
+    }
+
+    /**
+     * Closes every connection and the selector
+     */
+    @Override
+    public void close() throws IOException {
+        for (Player player : players) {
+            player.channel.close();
+        }
+        selector.close();
+    }
+
+    /**
+     * One simulated player's connection and mirrored game
+     */
+    private static class Player {
+        private final SocketChannel channel;
+        private final RemoteBoard board = new RemoteBoard();
+        private ByteBuffer in = ByteBuffer.allocate(INITIAL_READ_BYTES);
+
+        Player(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * MODIFIES: this
+         * Once WELCOME has given the board size, grows in to hold a full UPDATE of that board, keeping its contents
+         */
+        void ensureFrameFits() {
+            int needed = NetProtocol.maxUpdateBytes(board.getWidth(), board.getHeight());
+            if (board.getWidth() > 0 && in.capacity() < needed) {
+                ByteBuffer larger = ByteBuffer.allocate(needed);
+                in.flip();
+                larger.put(in);
+                in = larger;
+            }
+        }
+    }
+
+    /**
+     * Connects simulated players to a NetServer and prints traffic once a second
+     *
+     * @param args host, port, number of players, seconds to run and inputs per player per second
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : NetServer.DEFAULT_PORT;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int rate = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        try (LoadClient client = new LoadClient(new InetSocketAddress(host, port), players, rate, 0L)) {
+            Thread thread = new Thread(client, "load-client");
+            thread.start();
+            long frames = 0;
+            long bytes = 0;
+            for (int s = 0; s < seconds; s++) {
+                Thread.sleep(1000);
+                System.out.printf("%d connected, %d failed, %d frames/s, %d bytes/s, %d inputs sent%n",
+                        client.getConnected(), client.getFailed(), client.getFramesReceived() - frames,
+                        client.getBytesReceived() - bytes, client.getInputsSent());
+                frames = client.getFramesReceived();
+                bytes = client.getBytesReceived();
+            }
+            client.stop();
+            thread.join();
+        }
+    }
+}
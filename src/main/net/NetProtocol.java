@@ -0,0 +1,30 @@
+package main.net;
+
+/**
+ * Binary protocol between NetServer and remote players.
+ * A client sends one byte per input: a GameEngine.ACTIONS ordinal or GameSession.RESET.
+ * The server sends frames, each an unsigned short length of the rest of the frame followed by a type byte.
+ * WELCOME carries the session id as long and board width and height as bytes. UPDATE carries score and level as
+ * ints, a flags byte (RUNNING), the falling piece as type ordinal, rotation, x0 and y0 bytes, a changed row count
+ * byte and then each changed row as its y byte followed by one color index byte per cell, as used by
+ * GameEngine.colorIndex. The first UPDATE holds every row; later ones only rows changed since the previous one.
+ */
+public final class NetProtocol {
+    public static final byte WELCOME = 1;
+    public static final byte UPDATE = 2;
+    public static final byte RUNNING = 1;
+    public static final int LENGTH_BYTES = Short.BYTES;
+    public static final int WELCOME_BYTES = LENGTH_BYTES + 1 + Long.BYTES + 2;
+    public static final int UPDATE_HEADER_BYTES = LENGTH_BYTES + 1 + 2 * Integer.BYTES + 1 + Integer.BYTES + 1;
+    public static final int MAX_GRID_SIZE = 255;
+
+    private NetProtocol() {
+    }
+
+    /**
+     * @return size of an UPDATE frame holding every row of a board of gridWidth by gridHeight
+     */
+    public static int maxUpdateBytes(int gridWidth, int gridHeight) {
+        return UPDATE_HEADER_BYTES + gridHeight * (1 + gridWidth);
+    }
+}
@@ -0,0 +1,378 @@
+package main.net;
+
+import main.model.BoardSnapshot;
+import main.server.GameSession;
+import main.server.SessionManager;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking server letting remote players drive games hosted by a SessionManager, speaking NetProtocol.
+ * One selector thread accepts connections, opens a session for each, forwards input bytes to the session's input
+ * queue and sends an UPDATE with the rows changed since the previous one whenever the session's state changed.
+ * A connection whose send buffer cannot take a full update is skipped until the client has read enough.
+ * Read and send buffers are pooled direct buffers.
+ */
+public class NetServer implements Runnable, Closeable {
+    public static final int DEFAULT_PORT = 7210;
+    private static final long UPDATE_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+    private static final int READ_BUFFER_BYTES = 256;
+    private static final int MAX_POOLED_BUFFERS = 1024;
+    private static final int ACCEPT_BACKLOG = 4096;
+    private final SessionManager manager;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final BufferPool readPool;
+    private final BufferPool writePool;
+    private final int MAX_UPDATE_BYTES;
+    private final ArrayList<Connection> connections = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean stopped;
+    private volatile int connectionCount;
+    private volatile long updatesSent;
+    private volatile long bytesSent;
+    private long nextSeed;
+
+    /**
+     * Constructs server listening on address; connections are served once started
+     *
+     * @param manager hosts the games of connected players; started and stopped by the caller
+     * @param address address to bind, port 0 for any free port
+     * @throws IOException              if address cannot be bound
+     * @throws IllegalArgumentException if manager's board is larger than MAX_GRID_SIZE in either dimension
+     */
+    public NetServer(SessionManager manager, InetSocketAddress address) throws IOException {
+        if (manager.getGridWidth() > NetProtocol.MAX_GRID_SIZE || manager.getGridHeight() > NetProtocol.MAX_GRID_SIZE) {
+            throw new IllegalArgumentException("board too large for NetProtocol");
+        }
+        this.manager = manager;
+        this.MAX_UPDATE_BYTES = NetProtocol.maxUpdateBytes(manager.getGridWidth(), manager.getGridHeight());
+        this.readPool = new BufferPool(READ_BUFFER_BYTES, MAX_POOLED_BUFFERS);
+        this.writePool = new BufferPool(2 * MAX_UPDATE_BYTES, MAX_POOLED_BUFFERS);
+        this.selector = Selector.open();
+        try {
+            this.serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(address, ACCEPT_BACKLOG);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException | RuntimeException e) {
+            selector.close();
+            throw e;
+        }
+        this.thread = new Thread(this, "net-server");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * @return port the server is bound to
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * @return number of open connections
+     */
+    public int getConnectionCount() {
+        return this.connectionCount;
+    }
+
+    /**
+     * @return number of UPDATE frames written
+     */
+    public long getUpdatesSent() {
+        return this.updatesSent;
+    }
+
+    /**
+     * @return number of bytes written to all connections
+     */
+    public long getBytesSent() {
+        return this.bytesSent;
+    }
+
+    /**
+     * MODIFIES: this
+     * Starts selector thread
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * MODIFIES: this
+     * Stops selector thread, then closes every connection and its session and the listening socket
+     */
+    @Override
+    public void close() throws IOException {
+        stopped = true;
+        selector.wakeup();
+        if (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (int i = connections.size() - 1; i >= 0; i--) {
+            disconnect(connections.get(i));
+        }
+        serverChannel.close();
+        selector.close();
+    }
+
+    @Override
+    public void run() {
+        long nextUpdate = System.nanoTime();
+        try {
+            while (!stopped) {
+                long wait = TimeUnit.NANOSECONDS.toMillis(nextUpdate - System.nanoTime());
+                if (wait > 0) {
+                    selector.select(wait);
+                } else {
+                    selector.selectNow();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+                long now = System.nanoTime();
+                if (now - nextUpdate >= 0) {
+                    sendUpdates();
+                    nextUpdate = now + UPDATE_NANOS;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("net server stopped: " + e);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Accepts, reads or flushes for a ready key
+     */
+    private void handle(SelectionKey key) throws IOException {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush(connection);
+            }
+        } catch (IOException e) {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Accepts pending connections, opening a session and queueing a WELCOME for each
+     */
+    private void accept() throws IOException {
+        for (SocketChannel channel = serverChannel.accept(); channel != null; channel = serverChannel.accept()) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            GameSession session = manager.getSession(manager.open(nextSeed++));
+            Connection connection = new Connection(channel, session, readPool.acquire(), writePool.acquire());
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.add(connection);
+            connectionCount = connections.size();
+            ByteBuffer out = connection.out;
+            out.putShort((short) (NetProtocol.WELCOME_BYTES - NetProtocol.LENGTH_BYTES));
+            out.put(NetProtocol.WELCOME);
+            out.putLong(session.getId());
+            out.put((byte) manager.getGridWidth());
+            out.put((byte) manager.getGridHeight());
+            try {
+                flush(connection);
+            } catch (IOException e) {
+                disconnect(connection);
+            }
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Reads input bytes of connection and queues them on its session; inputs beyond a full queue are dropped
+     *
+     * @throws IOException if reading fails or client closed connection
+     */
+    private void read(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        int read;
+        while ((read = connection.channel.read(in)) > 0) {
+            in.flip();
+            while (in.hasRemaining()) {
+                connection.session.submit(in.get());
+            }
+            in.clear();
+        }
+        if (read < 0) {
+            throw new IOException("connection closed by client");
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Queues an UPDATE on each connection whose session changed and which has room for it, and flushes it
+     */
+    private void sendUpdates() {
+        for (int i = connections.size() - 1; i >= 0; i--) {
+            Connection connection = connections.get(i);
+            if (connection.out.remaining() >= MAX_UPDATE_BYTES && encodeUpdate(connection)) {
+                try {
+                    flush(connection);
+                } catch (IOException e) {
+                    disconnect(connection);
+                }
+            }
+        }
+    }
+
+    /**
+     * MODIFIES: connection
+     * Writes UPDATE to connection's send buffer if its session changed since the previous one
+     *
+     * @return true if an UPDATE was written
+     */
+    private boolean encodeUpdate(Connection connection) {
+        GameSession session = connection.session;
+        BoardSnapshot board = session.getBoard();
+        int score = session.getScore();
+        int level = session.getLevel();
+        int piece = session.getPiece();
+        byte flags = session.isRunning() ? NetProtocol.RUNNING : 0;
+        BoardSnapshot sent = connection.sentBoard;
+        if (board == sent && score == connection.sentScore && level == connection.sentLevel
+                && piece == connection.sentPiece && flags == connection.sentFlags) {
+            return false;
+        }
+        ByteBuffer out = connection.out;
+        int start = out.position();
+        out.position(start + NetProtocol.LENGTH_BYTES);
+        out.put(NetProtocol.UPDATE);
+        out.putInt(score);
+        out.putInt(level);
+        out.put(flags);
+        out.putInt(piece);
+        int countAt = out.position();
+        out.put((byte) 0);
+        int rows = 0;
+        for (int y = 0; y < board.getHeight(); y++) {
+            if (sent == null || !board.isSameRow(sent, y)) {
+                out.put((byte) y);
+                for (int x = 0; x < board.getWidth(); x++) {
+                    out.put(board.getCell(x, y));
+                }
+                rows++;
+            }
+        }
+        out.put(countAt, (byte) rows);
+        out.putShort(start, (short) (out.position() - start - NetProtocol.LENGTH_BYTES));
+        connection.sentBoard = board;
+        connection.sentScore = score;
+        connection.sentLevel = level;
+        connection.sentPiece = piece;
+        connection.sentFlags = flags;
+        updatesSent++;
+        return true;
+    }
+
+    /**
+     * MODIFIES: this
+     * Writes as much of connection's send buffer as the socket takes, waiting for OP_WRITE if some is left
+     *
+     * @throws IOException if writing fails
+     */
+    private void flush(Connection connection) throws IOException {
+        ByteBuffer out = connection.out;
+        out.flip();
+        bytesSent += connection.channel.write(out);
+        boolean pending = out.hasRemaining();
+        out.compact();
+        connection.key.interestOps(pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    /**
+     * MODIFIES: this
+     * Closes connection and its session and returns its buffers to the pools
+     */
+    private void disconnect(Connection connection) {
+        if (!connections.remove(connection)) {
+            return;
+        }
+        connectionCount = connections.size();
+        manager.close(connection.session.getId());
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // already closed
+        }
+        readPool.release(connection.in);
+        writePool.release(connection.out);
+    }
+
+    /**
+     * State of one remote player, owned by the selector thread
+     */
+    private static class Connection {
+        private final SocketChannel channel;
+        private final GameSession session;
+        private final ByteBuffer in;
+        private final ByteBuffer out;
+        private SelectionKey key;
+        private BoardSnapshot sentBoard;
+        private int sentScore;
+        private int sentLevel;
+        private int sentPiece;
+        private byte sentFlags;
+
+        Connection(SocketChannel channel, GameSession session, ByteBuffer in, ByteBuffer out) {
+            this.channel = channel;
+            this.session = session;
+            this.in = in;
+            this.out = out;
+        }
+    }
+
+    /**
+     * Hosts games for remote players until the process is stopped
+     *
+     * @param args port, defaults to DEFAULT_PORT
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        SessionManager manager = new SessionManager(12, 21);
+        manager.start();
+        try (NetServer server = new NetServer(manager, new InetSocketAddress(port))) {
+            server.start();
+            System.out.println("listening on port " + server.getPort());
+            while (true) {
+                Thread.sleep(1000);
+                System.out.printf("%d connections, %d updates, %d bytes sent | %s%n", server.getConnectionCount(),
+                        server.getUpdatesSent(), server.getBytesSent(), manager.getMetrics());
+            }
+        }
+    }
+}
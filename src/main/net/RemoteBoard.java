@@ -0,0 +1,128 @@
+package main.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Client side mirror of a game hosted by a NetServer, rebuilt from the frames it sends
+ */
+public class RemoteBoard {
+    private long sessionId = -1;
+    private int gridWidth;
+    private int gridHeight;
+    private byte[][] cells;
+    private int score;
+    private int level;
+    private boolean running;
+    private int piece;
+    private long updates;
+    private long changedRows;
+
+    /**
+     * MODIFIES: this, in
+     * Applies every complete frame in in, leaving a partial frame at its position
+     *
+     * @param in buffer in read mode
+     * @return number of frames applied
+     * @throws IllegalStateException if a frame has an unknown type or arrives before WELCOME
+     */
+    public int read(ByteBuffer in) throws IllegalStateException {
+        int frames = 0;
+        while (in.remaining() >= NetProtocol.LENGTH_BYTES) {
+            int length = in.getShort(in.position()) & 0xFFFF;
+            if (in.remaining() < NetProtocol.LENGTH_BYTES + length) {
+                break;
+            }
+            in.position(in.position() + NetProtocol.LENGTH_BYTES);
+            byte type = in.get();
+            if (type == NetProtocol.WELCOME) {
+                welcome(in);
+            } else if (type == NetProtocol.UPDATE && cells != null) {
+                update(in);
+            } else {
+                throw new IllegalStateException("unexpected frame type " + type);
+            }
+            frames++;
+        }
+        return frames;
+    }
+
+    private void welcome(ByteBuffer in) {
+        sessionId = in.getLong();
+        gridWidth = in.get() & 0xFF;
+        gridHeight = in.get() & 0xFF;
+        cells = new byte[gridHeight][gridWidth];
+    }
+
+    private void update(ByteBuffer in) {
+        score = in.getInt();
+        level = in.getInt();
+        running = (in.get() & NetProtocol.RUNNING) != 0;
+        piece = in.getInt();
+        int rows = in.get() & 0xFF;
+        for (int i = 0; i < rows; i++) {
+            in.get(cells[in.get() & 0xFF]);
+        }
+        changedRows += rows;
+        updates++;
+    }
+
+    /**
+     * @return id of hosted session, or -1 before WELCOME
+     */
+    public long getSessionId() {
+        return this.sessionId;
+    }
+
+    public int getWidth() {
+        return this.gridWidth;
+    }
+
+    public int getHeight() {
+        return this.gridHeight;
+    }
+
+    /**
+     * @return color index of cell at x, y as last sent
+     * @throws IndexOutOfBoundsException if x or y out of bounds
+     * @throws NullPointerException      if called before WELCOME
+     */
+    public byte getCell(int x, int y) throws IndexOutOfBoundsException {
+        return this.cells[y][x];
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getLevel() {
+        return this.level;
+    }
+
+    /**
+     * @return false if the game is over and waits for a reset
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * @return falling piece packed as GameSession.getPiece returns it
+     */
+    public int getPiece() {
+        return this.piece;
+    }
+
+    /**
+     * @return number of UPDATE frames applied
+     */
+    public long getUpdates() {
+        return this.updates;
+    }
+
+    /**
+     * @return number of rows received over all UPDATE frames
+     */
+    public long getChangedRows() {
+        return this.changedRows;
+    }
+}
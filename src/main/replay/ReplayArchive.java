@@ -0,0 +1,233 @@
+package main.replay;
+
+import main.model.GameEngine;
+import main.model.GameRandom;
+import main.model.PuzzleGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a replay archive written by ReplayArchiveWriter, mapped into memory in segments.
+ * Any game can be opened at any move: the game is restored from the last keyframe at or before that move and
+ * only the events after the keyframe are played. Safe for use by several threads.
+ */
+public class ReplayArchive implements Closeable {
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final LongBuffer index;
+    private final int segmentSize;
+    private final long gameCount;
+
+    /**
+     * Opens and maps archive at path
+     *
+     * @throws IOException if file cannot be mapped or is not an archive of a supported version
+     */
+    public ReplayArchive(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(ReplayFormat.ARCHIVE_HEADER_BYTES);
+            int read = 0;
+            while (header.hasRemaining() && read >= 0) {
+                read = channel.read(header, header.position());
+            }
+            header.flip();
+            if (header.remaining() < ReplayFormat.ARCHIVE_HEADER_BYTES
+                    || header.getInt() != ReplayFormat.ARCHIVE_MAGIC || header.get() != ReplayFormat.ARCHIVE_VERSION) {
+                throw new IOException("not a replay archive of a supported version");
+            }
+            this.segmentSize = header.getInt();
+            this.gameCount = header.getLong();
+            long indexOffset = header.getLong();
+            if (segmentSize < ReplayFormat.ARCHIVE_HEADER_BYTES || gameCount < 0
+                    || gameCount > Integer.MAX_VALUE / Long.BYTES
+                    || indexOffset + gameCount * Long.BYTES > channel.size()) {
+                throw new IOException("corrupt replay archive header");
+            }
+            this.index = channel.map(FileChannel.MapMode.READ_ONLY, indexOffset, gameCount * Long.BYTES)
+                    .asLongBuffer();
+            this.segments = new MappedByteBuffer[(int) ((indexOffset + segmentSize - 1) / segmentSize)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i * segmentSize;
+                long size = Math.min(segmentSize, indexOffset - start);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of games in archive
+     */
+    public long getGameCount() {
+        return this.gameCount;
+    }
+
+    /**
+     * @param game game number from 0 to getGameCount() - 1
+     * @return seed of game's Random
+     * @throws IndexOutOfBoundsException if game out of bounds
+     */
+    public long getSeed(long game) throws IndexOutOfBoundsException {
+        return new Record(game).seed;
+    }
+
+    /**
+     * @param game game number from 0 to getGameCount() - 1
+     * @return number of recorded events of game, including its END event
+     * @throws IndexOutOfBoundsException if game out of bounds
+     */
+    public long getEventCount(long game) throws IndexOutOfBoundsException {
+        return new Record(game).eventCount;
+    }
+
+    /**
+     * @param game game number from 0 to getGameCount() - 1
+     * @return number of keyframes stored for game
+     * @throws IndexOutOfBoundsException if game out of bounds
+     */
+    public long getKeyframeCount(long game) throws IndexOutOfBoundsException {
+        return new Record(game).keyframeCount;
+    }
+
+    /**
+     * Creates headless game in the state recorded after its first move events; gravity steps recorded
+     * between events are included, steps after the last of those events are not
+     *
+     * @param game game number from 0 to getGameCount() - 1
+     * @param move number of events to apply, from 0 to getEventCount(game)
+     * @return new game at move
+     * @throws IndexOutOfBoundsException if game or move out of bounds
+     */
+    public PuzzleGame open(long game, long move) throws IndexOutOfBoundsException {
+        Record record = new Record(game);
+        if (move < 0 || move > record.eventCount) {
+            throw new IndexOutOfBoundsException("move must be between 0 and event count");
+        }
+        PuzzleGame puzzleGame = new PuzzleGame(record.gridWidth, record.gridHeight, new GameRandom(record.seed));
+        long applied = 0;
+        int eventOffset = 0;
+        int keyframe = record.findKeyframe(move);
+        if (keyframe >= 0) {
+            ByteBuffer state = record.keyframe(keyframe);
+            applied = state.getLong();
+            eventOffset = state.getInt();
+            state.getLong();
+            puzzleGame.readState(state);
+        }
+        ByteBuffer events = record.events(eventOffset);
+        for (; applied < move; applied++) {
+            long event = ReplayFormat.getVarint(events);
+            ReplayPlayer.applyEvent(puzzleGame, event >>> ReplayFormat.CODE_BITS,
+                    (int) (event & ((1 << ReplayFormat.CODE_BITS) - 1)));
+        }
+        return puzzleGame;
+    }
+
+    /**
+     * Closes archive file; mappings stay valid until they are garbage collected
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Parsed header of one game record, read from a private view of its segment
+     */
+    private class Record {
+        private final ByteBuffer buffer;
+        private final int gridWidth;
+        private final int gridHeight;
+        private final long seed;
+        private final long eventCount;
+        private final int keyframeCount;
+        private final int keyframeSize;
+        private final int keyframesStart;
+        private final int eventsStart;
+
+        Record(long game) throws IndexOutOfBoundsException {
+            if (game < 0 || game >= gameCount) {
+                throw new IndexOutOfBoundsException("game must be between 0 and game count - 1");
+            }
+            long offset = index.get((int) game);
+            buffer = segments[(int) (offset / segmentSize)].duplicate();
+            buffer.position((int) (offset % segmentSize));
+            gridWidth = (int) ReplayFormat.getVarint(buffer);
+            gridHeight = (int) ReplayFormat.getVarint(buffer);
+            buffer.getInt();
+            seed = buffer.getLong();
+            eventCount = ReplayFormat.getVarint(buffer);
+            keyframeCount = (int) ReplayFormat.getVarint(buffer);
+            ReplayFormat.getVarint(buffer);
+            keyframeSize = ReplayFormat.KEYFRAME_HEADER_BYTES + GameEngine.stateSize(gridWidth, gridHeight);
+            keyframesStart = buffer.position();
+            eventsStart = keyframesStart + keyframeCount * keyframeSize;
+        }
+
+        /**
+         * @return number of last keyframe taken at or before move by binary search; -1 if none
+         */
+        int findKeyframe(long move) {
+            int lo = 0;
+            int hi = keyframeCount - 1;
+            int found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (buffer.getLong(keyframesStart + mid * keyframeSize) <= move) {
+                    found = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        /**
+         * @return view positioned at start of keyframe number keyframe
+         */
+        ByteBuffer keyframe(int keyframe) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(keyframesStart + keyframe * keyframeSize);
+            return view;
+        }
+
+        /**
+         * @return view positioned at offset bytes into events
+         */
+        ByteBuffer events(int offset) {
+            ByteBuffer view = buffer.duplicate();
+            view.position(eventsStart + offset);
+            return view;
+        }
+    }
+
+    /**
+     * Prints score, level and cleared rows of a game at a move
+     *
+     * @param args archive path, game number and move; move defaults to the end of the game
+     */
+    public static void main(String[] args) throws IOException {
+        try (ReplayArchive archive = new ReplayArchive(Paths.get(args[0]))) {
+            long game = Long.parseLong(args[1]);
+            long move = args.length > 2 ? Long.parseLong(args[2]) : archive.getEventCount(game);
+            long start = System.nanoTime();
+            PuzzleGame puzzleGame = archive.open(game, move);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("game %d move %d: score %d, level %d, rows %d (%.2f ms)%n", game, move,
+                    puzzleGame.getScore(), puzzleGame.getLevel(), puzzleGame.getEngine().getTotalClearedRows(),
+                    elapsed / 1e6);
+        }
+    }
+}
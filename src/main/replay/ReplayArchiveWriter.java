@@ -0,0 +1,214 @@
+package main.replay;
+
+import main.model.GameRandom;
+import main.model.PuzzleGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends recorded games to a replay archive, laid out as described by ReplayFormat.
+ * Each game is re-simulated while it is added, and a keyframe holding the full game state is stored after the
+ * first event at which the piece count reaches a multiple of the keyframe interval.
+ */
+public class ReplayArchiveWriter implements Closeable {
+    private static final int INITIAL_RECORD_SIZE = 4096;
+    private final FileChannel channel;
+    private final int keyframeInterval;
+    private final int segmentSize;
+    private ByteBuffer index;
+    private ByteBuffer events;
+    private ByteBuffer keyframes;
+    private ByteBuffer record;
+    private long position;
+    private long gameCount;
+
+    /**
+     * Constructs writer with default segment size and writes archive header
+     *
+     * @param channel          empty file; closed when writer is closed
+     * @param keyframeInterval number of pieces between keyframes, greater than 0
+     * @throws IOException              if writing header fails
+     * @throws IllegalArgumentException if keyframeInterval < 1
+     */
+    public ReplayArchiveWriter(FileChannel channel, int keyframeInterval) throws IOException {
+        this(channel, keyframeInterval, ReplayFormat.DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructs writer and writes archive header
+     *
+     * @param channel          empty file; closed when writer is closed
+     * @param keyframeInterval number of pieces between keyframes, greater than 0
+     * @param segmentSize      size of segments in which archive is mapped; no record crosses a segment boundary
+     * @throws IOException              if writing header fails
+     * @throws IllegalArgumentException if keyframeInterval < 1 or segmentSize too small to hold header
+     */
+    public ReplayArchiveWriter(FileChannel channel, int keyframeInterval, int segmentSize) throws IOException {
+        if (keyframeInterval < 1 || segmentSize < ReplayFormat.ARCHIVE_HEADER_BYTES) {
+            throw new IllegalArgumentException("keyframeInterval or segmentSize too small");
+        }
+        this.channel = channel;
+        this.keyframeInterval = keyframeInterval;
+        this.segmentSize = segmentSize;
+        this.index = ByteBuffer.allocate(INITIAL_RECORD_SIZE);
+        this.events = ByteBuffer.allocate(INITIAL_RECORD_SIZE);
+        this.keyframes = ByteBuffer.allocate(INITIAL_RECORD_SIZE);
+        this.record = ByteBuffer.allocate(INITIAL_RECORD_SIZE);
+        writeHeader(0L);
+        this.position = ReplayFormat.ARCHIVE_HEADER_BYTES;
+    }
+
+    /**
+     * @return number of games added
+     */
+    public long getGameCount() {
+        return this.gameCount;
+    }
+
+    /**
+     * MODIFIES: this
+     * Reads every remaining event of replay and appends it as a new game
+     *
+     * @return number of added game in archive
+     * @throws IOException if replay cannot be read, archive cannot be written or game record exceeds segment size
+     */
+    public long addGame(ReplayReader replay) throws IOException {
+        PuzzleGame game = new PuzzleGame(replay.getGridWidth(), replay.getGridHeight(),
+                new GameRandom(replay.getSeed()));
+        game.setAutoPublish(false);
+        int stateSize = game.getEngine().getStateSize();
+        events.clear();
+        keyframes.clear();
+        long eventCount = 0;
+        long keyframeCount = 0;
+        long nextKeyframe = keyframeInterval;
+        long tick = 0;
+        while (replay.next()) {
+            events = ensure(events, ReplayFormat.MAX_VARINT_BYTES);
+            ReplayFormat.putVarint(events, ReplayFormat.event(replay.getTick() - tick, replay.getCode()));
+            ReplayPlayer.applyEvent(game, replay.getTick() - tick, replay.getCode());
+            tick = replay.getTick();
+            eventCount++;
+            if (game.getEngine().getPieceCount() >= nextKeyframe) {
+                keyframes = ensure(keyframes, ReplayFormat.KEYFRAME_HEADER_BYTES + stateSize);
+                keyframes.putLong(eventCount);
+                keyframes.putInt(events.position());
+                keyframes.putLong(tick);
+                game.writeState(keyframes);
+                keyframeCount++;
+                nextKeyframe = (game.getEngine().getPieceCount() / keyframeInterval + 1) * keyframeInterval;
+            }
+        }
+        record.clear();
+        record = ensure(record, 5 * ReplayFormat.MAX_VARINT_BYTES + Integer.BYTES + Long.BYTES);
+        ReplayFormat.putVarint(record, replay.getGridWidth());
+        ReplayFormat.putVarint(record, replay.getGridHeight());
+        record.putInt(replay.getBackground());
+        record.putLong(replay.getSeed());
+        ReplayFormat.putVarint(record, eventCount);
+        ReplayFormat.putVarint(record, keyframeCount);
+        ReplayFormat.putVarint(record, events.position());
+        record.flip();
+        keyframes.flip();
+        events.flip();
+        writeRecord(record, keyframes, events);
+        return gameCount++;
+    }
+
+    /**
+     * MODIFIES: this
+     * Writes parts of a game record at next position from which it does not cross a segment boundary,
+     * and adds that position to index
+     */
+    private void writeRecord(ByteBuffer... parts) throws IOException {
+        long size = 0;
+        for (ByteBuffer part : parts) {
+            size += part.remaining();
+        }
+        if (size > segmentSize) {
+            throw new IOException("game record larger than segment size");
+        }
+        if (position % segmentSize + size > segmentSize) {
+            position += segmentSize - position % segmentSize;
+        }
+        index = ensure(index, Long.BYTES);
+        index.putLong(position);
+        for (ByteBuffer part : parts) {
+            while (part.hasRemaining()) {
+                position += channel.write(part, position);
+            }
+        }
+    }
+
+    /**
+     * @return buffer holding contents of buffer with at least bytes remaining; buffer itself if it has room
+     */
+    private static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        larger.put(buffer);
+        return larger;
+    }
+
+    /**
+     * Writes archive header holding number of games added and offset of index
+     */
+    private void writeHeader(long indexOffset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(ReplayFormat.ARCHIVE_HEADER_BYTES);
+        header.putInt(ReplayFormat.ARCHIVE_MAGIC);
+        header.put(ReplayFormat.ARCHIVE_VERSION);
+        header.putInt(segmentSize);
+        header.putLong(gameCount);
+        header.putLong(indexOffset);
+        header.flip();
+        long at = 0;
+        while (header.hasRemaining()) {
+            at += channel.write(header, at);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Writes index after last game, completes header and closes channel
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            index.flip();
+            long indexOffset = position;
+            while (index.hasRemaining()) {
+                position += channel.write(index, position);
+            }
+            writeHeader(indexOffset);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Builds an archive from replay files
+     *
+     * @param args archive path, keyframe interval in pieces, then paths of replay files
+     */
+    public static void main(String[] args) throws IOException {
+        try (ReplayArchiveWriter writer = new ReplayArchiveWriter(FileChannel.open(Paths.get(args[0]),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), Integer.parseInt(args[1]))) {
+            for (int i = 2; i < args.length; i++) {
+                try (FileChannel replay = FileChannel.open(Paths.get(args[i]), StandardOpenOption.READ)) {
+                    writer.addGame(new ReplayReader(replay));
+                }
+            }
+            System.out.println(writer.getGameCount() + " games archived");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package main.replay;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Binary replay layout shared by ReplayRecorder and ReplayReader.
+ * A replay starts with a header: MAGIC, VERSION, board width and height as varints, background color as RGB int
+ * and the game's Random seed. It is followed by events, each one varint holding
+ * (ticks since previous event << CODE_BITS) | code, where a tick is one gravity step. Codes 0 to 5 are
+ * GameEngine.ACTIONS ordinals; RESET marks a game reset and END closes the replay.
+ * <p>
+ * An archive holds many games: ARCHIVE_MAGIC, ARCHIVE_VERSION, segment size, game count and index offset, followed by
+ * one record per game and an index of record offsets. A record holds board width and height as varints,
+ * background RGB, seed, event count, keyframe count and events length, then fixed-size keyframes
+ * (event index, event offset, tick, GameEngine state) and finally the game's events.
+ * Records never cross a multiple of the segment size, so each can be read from one mapped segment.
+ */
+public final class ReplayFormat {
+    public static final int MAGIC = 0x52425250;
+    public static final byte VERSION = 1;
+    public static final int CODE_BITS = 3;
+    public static final int RESET = 6;
+    public static final int END = 7;
+    public static final int MAX_VARINT_BYTES = 10;
+    public static final int MAX_HEADER_BYTES = Integer.BYTES + 1 + 5 + 5 + Integer.BYTES + Long.BYTES;
+    public static final int ARCHIVE_MAGIC = 0x52424141;
+    public static final byte ARCHIVE_VERSION = 2;
+    public static final int ARCHIVE_HEADER_BYTES = Integer.BYTES + 1 + Integer.BYTES + Long.BYTES + Long.BYTES;
+    public static final int KEYFRAME_HEADER_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+    private ReplayFormat() {
+    }
+
+    /**
+     * MODIFIES: buffer
+     * Writes value as unsigned LEB128 varint: seven bits per byte, low bits first, high bit set on all but last
+     *
+     * @throws java.nio.BufferOverflowException if buffer has too little space remaining
+     */
+    public static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * MODIFIES: buffer
+     * Reads unsigned LEB128 varint written by putVarint
+     *
+     * @throws BufferUnderflowException if buffer ends inside varint
+     * @throws IllegalArgumentException if varint is longer than MAX_VARINT_BYTES
+     */
+    public static long getVarint(ByteBuffer buffer) throws BufferUnderflowException, IllegalArgumentException {
+        long value = 0;
+        for (int shift = 0; shift < MAX_VARINT_BYTES * 7; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint too long");
+    }
+
+    /**
+     * @return event varint value of code after tickDelta gravity steps
+     */
+    public static long event(long tickDelta, int code) {
+        return (tickDelta << CODE_BITS) | code;
+    }
+}
@@ -0,0 +1,82 @@
+package main.replay;
+
+import main.model.GameEngine;
+import main.model.GameRandom;
+import main.model.PuzzleGame;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Re-drives a headless PuzzleGame from a replay, reproducing the recorded game exactly
+ */
+public final class ReplayPlayer {
+    private static final GameEngine.ACTIONS[] ACTIONS = GameEngine.ACTIONS.values();
+
+    private ReplayPlayer() {
+    }
+
+    /**
+     * Creates game from replay header and plays every recorded event on it
+     *
+     * @return game in the state it was in when recording ended
+     * @throws IOException if replay cannot be read
+     */
+    public static PuzzleGame replay(ReadableByteChannel channel) throws IOException {
+        ReplayReader reader = new ReplayReader(channel);
+        PuzzleGame game = new PuzzleGame(reader.getGridWidth(), reader.getGridHeight(),
+                new GameRandom(reader.getSeed()));
+        play(reader, game);
+        return game;
+    }
+
+    /**
+     * MODIFIES: game
+     * Plays remaining events of reader on game, advancing one gravity step per tick
+     *
+     * @param game game created from reader's header, in the state reached by events read so far
+     * @throws IOException if replay cannot be read
+     */
+    public static void play(ReplayReader reader, PuzzleGame game) throws IOException {
+        long tick = reader.getTick();
+        while (reader.next()) {
+            applyEvent(game, reader.getTick() - tick, reader.getCode());
+            tick = reader.getTick();
+        }
+    }
+
+    /**
+     * MODIFIES: game
+     * Advances game ticks gravity steps, then applies event code
+     *
+     * @param code GameEngine.ACTIONS ordinal, ReplayFormat.RESET or ReplayFormat.END
+     */
+    public static void applyEvent(PuzzleGame game, long ticks, int code) {
+        for (long i = 0; i < ticks; i++) {
+            game.nextState();
+        }
+        if (code == ReplayFormat.RESET) {
+            game.resetGame();
+        } else if (code != ReplayFormat.END) {
+            game.userAction(ACTIONS[code]);
+        }
+    }
+
+    /**
+     * Replays each replay file and prints its final score, level and cleared rows, for regression runs
+     *
+     * @param args paths of replay files
+     */
+    public static void main(String[] args) throws IOException {
+        for (String arg : args) {
+            try (FileChannel channel = FileChannel.open(Paths.get(arg), StandardOpenOption.READ)) {
+                PuzzleGame game = replay(channel);
+                System.out.printf("%s: score %d, level %d, rows %d%n", arg, game.getScore(), game.getLevel(),
+                        game.getEngine().getTotalClearedRows());
+            }
+        }
+    }
+}
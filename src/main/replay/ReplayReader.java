@@ -0,0 +1,138 @@
+package main.replay;
+
+import main.model.GameEngine;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads a replay written by ReplayRecorder one event at a time through a reused buffer
+ */
+public class ReplayReader {
+    private static final GameEngine.ACTIONS[] ACTIONS = GameEngine.ACTIONS.values();
+    private static final int BUFFER_SIZE = 8192;
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final int background;
+    private final long seed;
+    private long tick;
+    private int code;
+    private boolean ended;
+
+    /**
+     * Constructs reader and reads replay header from channel
+     *
+     * @throws IOException if header is truncated, or is not a replay of a supported version
+     */
+    public ReplayReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        buffer.flip();
+        fill(ReplayFormat.MAX_HEADER_BYTES);
+        if (buffer.remaining() < Integer.BYTES + 1 || buffer.getInt() != ReplayFormat.MAGIC) {
+            throw new IOException("not a replay");
+        }
+        if (buffer.get() != ReplayFormat.VERSION) {
+            throw new IOException("unsupported replay version");
+        }
+        try {
+            this.gridWidth = (int) ReplayFormat.getVarint(buffer);
+            this.gridHeight = (int) ReplayFormat.getVarint(buffer);
+            this.background = buffer.getInt();
+            this.seed = buffer.getLong();
+        } catch (RuntimeException e) {
+            throw new EOFException("truncated replay header");
+        }
+    }
+
+    public int getGridWidth() {
+        return this.gridWidth;
+    }
+
+    public int getGridHeight() {
+        return this.gridHeight;
+    }
+
+    /**
+     * @return background color of the recorded game as RGB int
+     */
+    public int getBackground() {
+        return this.background;
+    }
+
+    /**
+     * @return seed of the Random passed to the recorded game
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * MODIFIES: this
+     * Reads next event
+     *
+     * @return false if replay has no more events; true otherwise, including for the END event
+     * @throws IOException if reading fails or replay ends inside an event
+     */
+    public boolean next() throws IOException {
+        if (ended) {
+            return false;
+        }
+        fill(ReplayFormat.MAX_VARINT_BYTES);
+        if (!buffer.hasRemaining()) {
+            ended = true;
+            return false;
+        }
+        long event;
+        try {
+            event = ReplayFormat.getVarint(buffer);
+        } catch (RuntimeException e) {
+            throw new EOFException("truncated replay event");
+        }
+        tick += event >>> ReplayFormat.CODE_BITS;
+        code = (int) (event & ((1 << ReplayFormat.CODE_BITS) - 1));
+        ended = code == ReplayFormat.END;
+        return true;
+    }
+
+    /**
+     * @return number of gravity steps before last event read
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    /**
+     * @return code of last event read: a GameEngine.ACTIONS ordinal, ReplayFormat.RESET or ReplayFormat.END
+     */
+    public int getCode() {
+        return this.code;
+    }
+
+    /**
+     * @return action of last event read; null if it was not an action
+     */
+    public GameEngine.ACTIONS getAction() {
+        return code < ACTIONS.length ? ACTIONS[code] : null;
+    }
+
+    /**
+     * MODIFIES: this
+     * Reads from channel until at least bytes are buffered or channel is exhausted
+     */
+    private void fill(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        int read = 0;
+        while (buffer.position() < bytes && read >= 0) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,181 @@
+package main.replay;
+
+import main.model.GameEngine;
+import main.model.GameInputListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Records game inputs to an append-only binary replay, laid out as described by ReplayFormat.
+ * Events are encoded into preallocated direct buffers on the game thread; full buffers are handed to a
+ * writer thread that owns the channel, so recording never allocates or waits on I/O. The game thread only
+ * waits if every buffer is full and still being written.
+ */
+public class ReplayRecorder implements GameInputListener, Closeable {
+    public static final int BUFFER_SIZE = 8192;
+    private static final int BUFFERS = 4;
+    private static final ByteBuffer CLOSE = ByteBuffer.allocate(0);
+    private final WritableByteChannel channel;
+    private final ArrayBlockingQueue<ByteBuffer> free;
+    private final ArrayBlockingQueue<ByteBuffer> filled;
+    private final Thread writer;
+    private ByteBuffer current;
+    private long tick;
+    private long lastEventTick;
+    private boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * Constructs recorder and writes replay header for a game created with these arguments
+     *
+     * @param channel    destination of replay; closed when recorder is closed
+     * @param background background color shown by the recording UI, as RGB int
+     * @param seed       seed of the Random passed to the recorded PuzzleGame
+     */
+    public ReplayRecorder(WritableByteChannel channel, int gridWidth, int gridHeight, int background, long seed) {
+        this.channel = channel;
+        this.free = new ArrayBlockingQueue<>(BUFFERS);
+        this.filled = new ArrayBlockingQueue<>(BUFFERS + 1);
+        for (int i = 0; i < BUFFERS - 1; i++) {
+            free.add(ByteBuffer.allocateDirect(BUFFER_SIZE));
+        }
+        this.current = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        current.putInt(ReplayFormat.MAGIC);
+        current.put(ReplayFormat.VERSION);
+        ReplayFormat.putVarint(current, gridWidth);
+        ReplayFormat.putVarint(current, gridHeight);
+        current.putInt(background);
+        current.putLong(seed);
+        this.writer = new Thread(this::writeBuffers, "replay-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * @return number of gravity steps recorded
+     */
+    public long getTick() {
+        return this.tick;
+    }
+
+    @Override
+    public void actionApplied(GameEngine.ACTIONS action) {
+        record(action.ordinal());
+    }
+
+    @Override
+    public void stepped() {
+        tick++;
+    }
+
+    @Override
+    public void gameReset() {
+        record(ReplayFormat.RESET);
+    }
+
+    /**
+     * MODIFIES: this
+     * Encodes event with code at current tick; events after close are ignored
+     */
+    private void record(int code) {
+        if (closed) {
+            return;
+        }
+        if (current.remaining() < ReplayFormat.MAX_VARINT_BYTES) {
+            handOff();
+        }
+        ReplayFormat.putVarint(current, ReplayFormat.event(tick - lastEventTick, code));
+        lastEventTick = tick;
+    }
+
+    /**
+     * MODIFIES: this
+     * Passes current buffer to writer thread and takes a free buffer, waiting only if none is free
+     */
+    private void handOff() {
+        current.flip();
+        filled.add(current);
+        ByteBuffer next = free.poll();
+        while (next == null) {
+            try {
+                next = free.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        current = next;
+    }
+
+    /**
+     * MODIFIES: this
+     * Passes events recorded so far to writer thread without closing replay
+     */
+    public void flush() {
+        if (!closed && current.position() > 0) {
+            handOff();
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Records END event at current tick, writes all remaining events and closes channel
+     *
+     * @throws IOException if writing any part of replay failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        record(ReplayFormat.END);
+        flush();
+        closed = true;
+        filled.add(CLOSE);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writer thread loop: writes filled buffers to channel in order and returns them to free buffers.
+     * After a write fails, buffers are discarded so the game thread is never blocked.
+     */
+    private void writeBuffers() {
+        while (true) {
+            ByteBuffer buffer;
+            try {
+                buffer = filled.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (buffer == CLOSE) {
+                return;
+            }
+            try {
+                while (failure == null && buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+            buffer.clear();
+            free.add(buffer);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package main.server;
+
+import main.model.BoardSnapshot;
+import main.model.GameEngine;
+import main.model.GameEventBus;
+import main.model.GameRandom;
+import main.model.PuzzleGame;
+import main.model.PuzzlePiece;
+
+/**
+ * One hosted game: a headless PuzzleGame driven by its shard thread from a lock-free input queue.
+ * Inputs are GameEngine.ACTIONS ordinals or RESET; a finished game stops falling until it is reset.
+ * Score, level and board are published for readers on other threads.
+ */
+public class GameSession {
+    public static final int RESET = GameEngine.ACTIONS.values().length;
+    public static final int MAX_GRID_SIZE = 0xFF;
+    private static final GameEngine.ACTIONS[] ACTIONS = GameEngine.ACTIONS.values();
+    private final long ID;
+    private final PuzzleGame game;
+    private final InputQueue input;
+    private long gravityElapsed;
+    private boolean over;
+    private volatile boolean closed;
+    private volatile boolean running = true;
+    private volatile int score;
+    private volatile int level;
+    private volatile int piece;
+    private volatile long gamesPlayed;
+
+    /**
+     * Constructs running session with a new game
+     *
+     * @param queueCapacity capacity of input queue, a power of two
+     * @throws IllegalArgumentException if gridWidth or gridHeight not between 1 and MAX_GRID_SIZE
+     */
+    GameSession(long id, int gridWidth, int gridHeight, long seed, int queueCapacity)
+            throws IllegalArgumentException {
+        if (gridWidth < 1 || gridHeight < 1 || gridWidth > MAX_GRID_SIZE || gridHeight > MAX_GRID_SIZE) {
+            throw new IllegalArgumentException("gridWidth and gridHeight must be between 1 and MAX_GRID_SIZE");
+        }
+        this.ID = id;
+        this.game = new PuzzleGame(gridWidth, gridHeight, new GameRandom(seed));
+        this.input = new InputQueue(queueCapacity);
+        this.level = game.getLevel();
+        this.piece = packPiece(game.getCurrentPiece());
+        game.getEvents().subscribe(events -> over = true, GameEventBus.EVENTS.GAME_OVER);
+    }
+
+    public long getId() {
+        return this.ID;
+    }
+
+    /**
+     * @return latest published board of this session's game
+     */
+    public BoardSnapshot getBoard() {
+        return game.getBoardState().getSnapshot();
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getLevel() {
+        return this.level;
+    }
+
+    /**
+     * @return falling piece's type ordinal, rotation, x0 and y0 packed one byte each from high to low; board
+     *         size is at most MAX_GRID_SIZE, so x0 and y0 always fit their byte
+     */
+    public int getPiece() {
+        return this.piece;
+    }
+
+    /**
+     * @return false once the game is over, until it is reset
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * @return number of games that ended in this session
+     */
+    public long getGamesPlayed() {
+        return this.gamesPlayed;
+    }
+
+    /**
+     * @return number of inputs waiting to be applied
+     */
+    public int getQueueDepth() {
+        return input.size();
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /**
+     * Queues input code; safe to call from any thread
+     *
+     * @return false if session is closed, code is invalid or the queue is full
+     */
+    public boolean submit(int code) {
+        return !closed && code >= 0 && code <= RESET && input.offer(code);
+    }
+
+    void close() {
+        this.closed = true;
+    }
+
+    /**
+     * MODIFIES: this
+     * Applies at most maxInputs queued inputs, then advances gravity by tickNanos; called by the shard thread
+     *
+     * @return number of inputs applied
+     */
+    int tick(long tickNanos, int maxInputs) {
+        int applied = 0;
+        for (int code = input.poll(); code != InputQueue.EMPTY; code = input.poll()) {
+            apply(code);
+            if (++applied == maxInputs) {
+                break;
+            }
+        }
+        if (running) {
+            gravityElapsed += tickNanos;
+            long interval = GameEngine.gravityNanos(game.getLevel());
+            if (gravityElapsed >= interval) {
+                gravityElapsed -= interval;
+                game.nextState();
+                endIfOver();
+            }
+        }
+        this.score = game.getScore();
+        this.level = game.getLevel();
+        this.piece = packPiece(game.getCurrentPiece());
+        return applied;
+    }
+
+    /**
+     * MODIFIES: this
+     * Applies input code to game
+     */
+    private void apply(int code) {
+        if (code == RESET) {
+            game.resetGame();
+            over = false;
+            running = true;
+            gravityElapsed = 0;
+        } else if (running) {
+            game.userAction(ACTIONS[code]);
+            endIfOver();
+        }
+    }
+
+    /**
+     * @return type, rotation and origin of piece as returned by getPiece
+     */
+    private static int packPiece(PuzzlePiece piece) {
+        return piece.getType().ordinal() << 24 | (piece.getCurrentRotation() & 0xFF) << 16
+                | (piece.getX0() & 0xFF) << 8 | (piece.getY0() & 0xFF);
+    }
+
+    /**
+     * MODIFIES: this
+     * Stops gravity if the game reported GAME_OVER
+     */
+    private void endIfOver() {
+        if (over) {
+            over = false;
+            running = false;
+            gamesPlayed++;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package main.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of int input codes with many producers and a single consumer.
+ * Each slot carries a sequence number: a producer claims a position by compare-and-set on the tail and publishes
+ * its value by advancing the slot's sequence; the consumer reads a slot once its sequence shows it is published.
+ * Offering and polling never allocate.
+ */
+public class InputQueue {
+    public static final int EMPTY = Integer.MIN_VALUE;
+    private final int MASK;
+    private final int[] values;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Constructs empty queue
+     *
+     * @param capacity maximum number of queued codes, a power of two greater than 0
+     * @throws IllegalArgumentException if capacity is not a power of two greater than 0
+     */
+    public InputQueue(int capacity) throws IllegalArgumentException {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two greater than 0");
+        }
+        this.MASK = capacity - 1;
+        this.values = new int[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int getCapacity() {
+        return this.MASK + 1;
+    }
+
+    /**
+     * MODIFIES: this
+     * Adds code at tail; safe to call from any number of threads
+     *
+     * @param code code to queue, not EMPTY
+     * @return false if queue is full and code was dropped
+     */
+    public boolean offer(int code) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & MASK;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    values[slot] = code;
+                    sequences.lazySet(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Removes code at head; must only be called from the consuming thread
+     *
+     * @return removed code, or EMPTY if no published code is queued
+     */
+    public int poll() {
+        long position = head.get();
+        int slot = (int) position & MASK;
+        if (sequences.get(slot) != position + 1) {
+            return EMPTY;
+        }
+        int code = values[slot];
+        sequences.lazySet(slot, position + MASK + 1);
+        head.lazySet(position + 1);
+        return code;
+    }
+
+    /**
+     * @return number of codes claimed by producers and not yet polled; approximate while the queue is in use
+     */
+    public int size() {
+        return (int) Math.max(0L, Math.min(tail.get() - head.get(), MASK + 1L));
+    }
+}
@@ -0,0 +1,112 @@
+package main.server;
+
+/**
+ * Counters of a SessionManager summed over its shards at one moment.
+ * Rates are computed between two snapshots.
+ */
+public class ServerMetrics {
+    private final long timeNanos;
+    private final int sessions;
+    private final long ticks;
+    private final long skippedTicks;
+    private final long inputs;
+    private final long busyNanos;
+    private final int queueDepth;
+    private final int maxQueueDepth;
+    private final int shards;
+
+    ServerMetrics(long timeNanos, int shards, int sessions, long ticks, long skippedTicks, long inputs,
+                  long busyNanos, int queueDepth, int maxQueueDepth) {
+        this.timeNanos = timeNanos;
+        this.shards = shards;
+        this.sessions = sessions;
+        this.ticks = ticks;
+        this.skippedTicks = skippedTicks;
+        this.inputs = inputs;
+        this.busyNanos = busyNanos;
+        this.queueDepth = queueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    /**
+     * @return System.nanoTime when snapshot was taken
+     */
+    public long getTimeNanos() {
+        return this.timeNanos;
+    }
+
+    /**
+     * @return number of sessions ticked in each shard's latest tick, summed
+     */
+    public int getSessions() {
+        return this.sessions;
+    }
+
+    /**
+     * @return ticks run by all shards
+     */
+    public long getTicks() {
+        return this.ticks;
+    }
+
+    /**
+     * @return ticks dropped by all shards because they fell too far behind
+     */
+    public long getSkippedTicks() {
+        return this.skippedTicks;
+    }
+
+    /**
+     * @return inputs applied by all shards
+     */
+    public long getInputs() {
+        return this.inputs;
+    }
+
+    /**
+     * @return inputs waiting in all session queues at each shard's latest tick
+     */
+    public int getQueueDepth() {
+        return this.queueDepth;
+    }
+
+    /**
+     * @return deepest session queue at each shard's latest tick
+     */
+    public int getMaxQueueDepth() {
+        return this.maxQueueDepth;
+    }
+
+    /**
+     * @return ticks per second per shard since earlier snapshot
+     */
+    public double tickRate(ServerMetrics earlier) {
+        return rate(ticks - earlier.ticks, earlier) / shards;
+    }
+
+    /**
+     * @return inputs applied per second since earlier snapshot
+     */
+    public double inputRate(ServerMetrics earlier) {
+        return rate(inputs - earlier.inputs, earlier);
+    }
+
+    /**
+     * @return fraction of shard thread time spent ticking since earlier snapshot, from 0 to 1 per shard
+     */
+    public double utilization(ServerMetrics earlier) {
+        long elapsed = timeNanos - earlier.timeNanos;
+        return elapsed <= 0 ? 0.0 : (double) (busyNanos - earlier.busyNanos) / elapsed / shards;
+    }
+
+    private double rate(long count, ServerMetrics earlier) {
+        long elapsed = timeNanos - earlier.timeNanos;
+        return elapsed <= 0 ? 0.0 : count * 1e9 / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("sessions %d, ticks %d (skipped %d), inputs %d, queued %d (max %d)", sessions, ticks,
+                skippedTicks, inputs, queueDepth, maxQueueDepth);
+    }
+}
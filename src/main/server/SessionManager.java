@@ -0,0 +1,157 @@
+package main.server;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many headless games in one JVM. Sessions are spread over a fixed number of shard threads by id; each shard
+ * ticks all of its sessions at the same fixed rate, applying inputs that clients queue from any thread through the
+ * session's lock-free input queue. Submitting an input never blocks.
+ */
+public class SessionManager {
+    public static final long DEFAULT_TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final int MAX_INPUTS_PER_TICK = 16;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final SessionShard[] shards;
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Constructs manager with one shard per available processor, ticking at DEFAULT_TICK_NANOS
+     */
+    public SessionManager(int gridWidth, int gridHeight) {
+        this(gridWidth, gridHeight, Runtime.getRuntime().availableProcessors(), DEFAULT_TICK_NANOS);
+    }
+
+    /**
+     * Constructs manager; shard threads run once started
+     *
+     * @throws IllegalArgumentException if gridWidth or gridHeight not between 1 and GameSession.MAX_GRID_SIZE,
+     *                                  shardCount < 1 or tickNanos < 1
+     */
+    public SessionManager(int gridWidth, int gridHeight, int shardCount, long tickNanos)
+            throws IllegalArgumentException {
+        if (gridWidth < 1 || gridHeight < 1 || gridWidth > GameSession.MAX_GRID_SIZE
+                || gridHeight > GameSession.MAX_GRID_SIZE) {
+            throw new IllegalArgumentException("gridWidth and gridHeight must be between 1 and MAX_GRID_SIZE");
+        }
+        if (shardCount < 1 || tickNanos < 1) {
+            throw new IllegalArgumentException("shardCount and tickNanos must be greater than 0");
+        }
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.shards = new SessionShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new SessionShard(i, tickNanos, MAX_INPUTS_PER_TICK);
+        }
+    }
+
+    public int getGridWidth() {
+        return this.gridWidth;
+    }
+
+    public int getGridHeight() {
+        return this.gridHeight;
+    }
+
+    /**
+     * MODIFIES: this
+     * Starts shard threads
+     */
+    public void start() {
+        for (SessionShard shard : shards) {
+            shard.start();
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Stops shard threads and waits for them to finish
+     */
+    public void stop() throws InterruptedException {
+        for (SessionShard shard : shards) {
+            shard.stop();
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Opens session with a new game seeded with seed
+     *
+     * @return id of new session
+     */
+    public long open(long seed) {
+        long id = nextId.getAndIncrement();
+        GameSession session = new GameSession(id, gridWidth, gridHeight, seed, QUEUE_CAPACITY);
+        sessions.put(id, session);
+        shards[(int) (id % shards.length)].add(session);
+        return id;
+    }
+
+    /**
+     * MODIFIES: this
+     * Closes session; its shard stops ticking it at its next tick
+     *
+     * @return false if no session has id
+     */
+    public boolean close(long id) {
+        GameSession session = sessions.remove(id);
+        if (session == null) {
+            return false;
+        }
+        session.close();
+        return true;
+    }
+
+    /**
+     * @return session with id, or null if none is open
+     */
+    public GameSession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Queues input for session id; never blocks
+     *
+     * @param code GameEngine.ACTIONS ordinal or GameSession.RESET
+     * @return false if session is not open, code is invalid or session's queue is full
+     */
+    public boolean submit(long id, int code) {
+        GameSession session = sessions.get(id);
+        return session != null && session.submit(code);
+    }
+
+    /**
+     * @return number of open sessions
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @return counters of all shards at this moment
+     */
+    public ServerMetrics getMetrics() {
+        int sessionCount = 0;
+        long ticks = 0;
+        long skipped = 0;
+        long inputs = 0;
+        long busy = 0;
+        int depth = 0;
+        int maxDepth = 0;
+        for (SessionShard shard : shards) {
+            sessionCount += shard.getSessionCount();
+            ticks += shard.getTicks();
+            skipped += shard.getSkippedTicks();
+            inputs += shard.getInputs();
+            busy += shard.getBusyNanos();
+            depth += shard.getQueueDepth();
+            maxDepth = Math.max(maxDepth, shard.getMaxQueueDepth());
+        }
+        return new ServerMetrics(System.nanoTime(), shards.length, sessionCount, ticks, skipped, inputs, busy,
+                depth, maxDepth);
+    }
+}
@@ -0,0 +1,134 @@
+package main.server;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Event loop thread ticking a share of the hosted sessions at a fixed rate.
+ * Sessions are handed over through a concurrent queue and owned by the loop thread from then on.
+ * Counters are written only by the loop thread and may be read from any thread.
+ */
+class SessionShard implements Runnable {
+    private static final int MAX_CATCH_UP_TICKS = 15;
+    private final long TICK_NANOS;
+    private final int MAX_INPUTS_PER_TICK;
+    private final ConcurrentLinkedQueue<GameSession> added = new ConcurrentLinkedQueue<>();
+    private final ArrayList<GameSession> sessions = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean stopped;
+    private volatile int sessionCount;
+    private volatile long ticks;
+    private volatile long skippedTicks;
+    private volatile long inputs;
+    private volatile long busyNanos;
+    private volatile int queueDepth;
+    private volatile int maxQueueDepth;
+
+    SessionShard(int index, long tickNanos, int maxInputsPerTick) {
+        this.TICK_NANOS = tickNanos;
+        this.MAX_INPUTS_PER_TICK = maxInputsPerTick;
+        this.thread = new Thread(this, "session-shard-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        stopped = true;
+        LockSupport.unpark(thread);
+        thread.join();
+    }
+
+    /**
+     * Hands session to this shard; it is ticked from the next tick on
+     */
+    void add(GameSession session) {
+        added.offer(session);
+    }
+
+    @Override
+    public void run() {
+        long next = System.nanoTime() + TICK_NANOS;
+        while (!stopped) {
+            long now = System.nanoTime();
+            int due = 0;
+            while (now - next >= 0 && due < MAX_CATCH_UP_TICKS) {
+                tick();
+                next += TICK_NANOS;
+                due++;
+                now = System.nanoTime();
+            }
+            if (now - next >= 0) {
+                long behind = (now - next) / TICK_NANOS + 1;
+                skippedTicks += behind;
+                next += behind * TICK_NANOS;
+            }
+            LockSupport.parkNanos(this, next - now);
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Takes added sessions, drops closed ones and ticks the rest once
+     */
+    private void tick() {
+        long start = System.nanoTime();
+        for (GameSession session = added.poll(); session != null; session = added.poll()) {
+            sessions.add(session);
+        }
+        int depth = 0;
+        int maxDepth = 0;
+        long applied = 0;
+        for (int i = 0; i < sessions.size(); i++) {
+            GameSession session = sessions.get(i);
+            if (session.isClosed()) {
+                int last = sessions.size() - 1;
+                sessions.set(i, sessions.get(last));
+                sessions.remove(last);
+                i--;
+                continue;
+            }
+            int sessionDepth = session.getQueueDepth();
+            depth += sessionDepth;
+            maxDepth = Math.max(maxDepth, sessionDepth);
+            applied += session.tick(TICK_NANOS, MAX_INPUTS_PER_TICK);
+        }
+        sessionCount = sessions.size();
+        queueDepth = depth;
+        maxQueueDepth = maxDepth;
+        inputs += applied;
+        ticks++;
+        busyNanos += System.nanoTime() - start;
+    }
+
+    int getSessionCount() {
+        return this.sessionCount;
+    }
+
+    long getTicks() {
+        return this.ticks;
+    }
+
+    long getSkippedTicks() {
+        return this.skippedTicks;
+    }
+
+    long getInputs() {
+        return this.inputs;
+    }
+
+    long getBusyNanos() {
+        return this.busyNanos;
+    }
+
+    int getQueueDepth() {
+        return this.queueDepth;
+    }
+
+    int getMaxQueueDepth() {
+        return this.maxQueueDepth;
+    }
+}
@@ -0,0 +1,109 @@
+package main.server;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator: opens many sessions on a SessionManager and drives them from a few client threads, each sending
+ * random inputs to its share of the sessions at a fixed rate and resetting games that are over.
+ */
+public class SimulatedClients implements Runnable {
+    private final SessionManager manager;
+    private final long[] ids;
+    private final int inputsPerSecond;
+    private final long seed;
+    private volatile boolean stopped;
+    private volatile long rejected;
+
+    /**
+     * Constructs client driving sessions ids of manager
+     *
+     * @param inputsPerSecond inputs sent to each session per second
+     */
+    public SimulatedClients(SessionManager manager, long[] ids, int inputsPerSecond, long seed) {
+        this.manager = manager;
+        this.ids = ids;
+        this.inputsPerSecond = inputsPerSecond;
+        this.seed = seed;
+    }
+
+    /**
+     * Stops run at its next round
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return number of inputs not accepted because a session queue was full
+     */
+    public long getRejected() {
+        return this.rejected;
+    }
+
+    /**
+     * Sends one input to every session per round, with rounds spaced to keep inputsPerSecond, until stopped
+     */
+    @Override
+    public void run() {
+        Random random = new Random(seed);
+        long interval = TimeUnit.SECONDS.toNanos(1) / inputsPerSecond;
+        long next = System.nanoTime();
+        while (!stopped) {
+            for (long id : ids) {
+                GameSession session = manager.getSession(id);
+                if (session == null) {
+                    continue;
+                }
+                int code = session.isRunning() ? random.nextInt(GameSession.RESET) : GameSession.RESET;
+                if (!session.submit(code)) {
+                    rejected++;
+                }
+            }
+            next += interval;
+            LockSupport.parkNanos(this, next - System.nanoTime());
+        }
+    }
+
+    /**
+     * Hosts sessions driven by simulated clients and prints server metrics once a second
+     *
+     * @param args number of sessions, seconds to run, client threads and inputs per session per second
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int clientCount = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int rate = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        SessionManager manager = new SessionManager(12, 21);
+        manager.start();
+        SimulatedClients[] clients = new SimulatedClients[clientCount];
+        Thread[] threads = new Thread[clientCount];
+        for (int c = 0; c < clientCount; c++) {
+            long[] ids = new long[sessions / clientCount + (c < sessions % clientCount ? 1 : 0)];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = manager.open(c * (long) sessions + i);
+            }
+            clients[c] = new SimulatedClients(manager, ids, rate, c);
+            threads[c] = new Thread(clients[c], "client-" + c);
+            threads[c].start();
+        }
+        ServerMetrics previous = manager.getMetrics();
+        for (int s = 0; s < seconds; s++) {
+            Thread.sleep(1000);
+            ServerMetrics metrics = manager.getMetrics();
+            System.out.printf("%s | %.1f ticks/s per shard, %.0f inputs/s, %.0f%% busy%n", metrics,
+                    metrics.tickRate(previous), metrics.inputRate(previous), 100 * metrics.utilization(previous));
+            previous = metrics;
+        }
+        long rejected = 0;
+        for (int c = 0; c < clientCount; c++) {
+            clients[c].stop();
+            threads[c].join();
+            rejected += clients[c].getRejected();
+        }
+        manager.stop();
+        System.out.println("rejected inputs: " + rejected);
+    }
+}
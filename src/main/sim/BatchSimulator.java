@@ -0,0 +1,147 @@
+package main.sim;
+
+import main.model.GameEngine;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongFunction;
+
+/**
+ * Runs batches of independent headless games across a fork/join pool.
+ * Every game is reproducible from its own seed, derived from the batch seed and the game number.
+ */
+public class BatchSimulator {
+    private static final int GAMES_PER_TASK = 4;
+    private static final long PLAYER_SEED_SALT = 0x5DEECE66DL;
+    private final int gridWidth;
+    private final int gridHeight;
+    private final int actionsPerStep;
+    private final long maxMoves;
+    private final LongFunction<Player> players;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs simulator using the common fork/join pool
+     *
+     * @param actionsPerStep number of player actions between gravity steps
+     * @param maxMoves       number of player actions after which a game is stopped
+     * @param players        creates a player for a game from that game's player seed
+     * @throws IllegalArgumentException if actionsPerStep < 1 or maxMoves < 1
+     */
+    public BatchSimulator(int gridWidth, int gridHeight, int actionsPerStep, long maxMoves,
+                          LongFunction<Player> players) throws IllegalArgumentException {
+        this(gridWidth, gridHeight, actionsPerStep, maxMoves, players, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs simulator running games in pool
+     *
+     * @throws IllegalArgumentException if actionsPerStep < 1 or maxMoves < 1
+     */
+    public BatchSimulator(int gridWidth, int gridHeight, int actionsPerStep, long maxMoves,
+                          LongFunction<Player> players, ForkJoinPool pool) throws IllegalArgumentException {
+        if (actionsPerStep < 1 || maxMoves < 1) {
+            throw new IllegalArgumentException("actionsPerStep and maxMoves must be greater than 0");
+        }
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.actionsPerStep = actionsPerStep;
+        this.maxMoves = maxMoves;
+        this.players = players;
+        this.pool = pool;
+    }
+
+    /**
+     * @return seed of game number gameIndex in batch seeded with batchSeed
+     */
+    public static long gameSeed(long batchSeed, int gameIndex) {
+        long z = batchSeed + (gameIndex + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Plays games independent games in parallel
+     *
+     * @param games     number of games in batch
+     * @param batchSeed seed from which every game seed is derived
+     * @return results and summary statistics of all games
+     * @throws IllegalArgumentException if games < 0
+     */
+    public BatchSummary run(int games, long batchSeed) throws IllegalArgumentException {
+        if (games < 0) {
+            throw new IllegalArgumentException("games must not be negative");
+        }
+        GameResult[] results = new GameResult[games];
+        pool.invoke(new GamesTask(results, batchSeed, 0, games));
+        return new BatchSummary(results);
+    }
+
+    /**
+     * Plays one game to game over or maxMoves
+     *
+     * @param seed seed of game's piece sequence and player
+     * @return final state of game
+     */
+    public GameResult play(long seed) {
+        GameEngine engine = new GameEngine(gridWidth, gridHeight, new Random(seed));
+        Player player = players.apply(seed ^ PLAYER_SEED_SALT);
+        long moves = 0;
+        while (moves < maxMoves && !engine.isGameOver()) {
+            engine.apply(player.nextAction(engine));
+            moves++;
+            if (moves % actionsPerStep == 0) {
+                engine.step();
+            }
+        }
+        return new GameResult(seed, engine.getScore(), engine.getLevel(), engine.getTotalClearedRows(),
+                engine.getPieceCount(), moves);
+    }
+
+    /**
+     * Fork/join task playing games from index lo to hi - 1, splitting in halves
+     */
+    private class GamesTask extends RecursiveAction {
+        private final GameResult[] results;
+        private final long batchSeed;
+        private final int lo;
+        private final int hi;
+
+        GamesTask(GameResult[] results, long batchSeed, int lo, int hi) {
+            this.results = results;
+            this.batchSeed = batchSeed;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= GAMES_PER_TASK) {
+                for (int i = lo; i < hi; i++) {
+                    results[i] = play(gameSeed(batchSeed, i));
+                }
+            } else {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new GamesTask(results, batchSeed, lo, mid), new GamesTask(results, batchSeed, mid, hi));
+            }
+        }
+    }
+
+    /**
+     * Runs batch of random-player games on a 12 x 21 board and prints summary
+     *
+     * @param args optional number of games and batch seed
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 0L;
+        BatchSimulator simulator = new BatchSimulator(12, 21, 4, 1_000_000L, RandomPlayer::new);
+        long start = System.nanoTime();
+        BatchSummary summary = simulator.run(games, seed);
+        long elapsed = System.nanoTime() - start;
+        System.out.println(summary);
+        System.out.printf("elapsed: %.1f ms on %d threads%n", elapsed / 1e6, ForkJoinPool.getCommonPoolParallelism());
+    }
+}
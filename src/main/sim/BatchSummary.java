@@ -0,0 +1,70 @@
+package main.sim;
+
+/**
+ * Summary statistics over a batch of simulated games
+ */
+public class BatchSummary {
+    private final GameResult[] results;
+    private final Statistic score = new Statistic();
+    private final Statistic level = new Statistic();
+    private final Statistic clearedRows = new Statistic();
+    private final Statistic pieces = new Statistic();
+    private final Statistic moves = new Statistic();
+
+    /**
+     * Summarizes results in index order so summaries of equal batches are identical
+     */
+    public BatchSummary(GameResult[] results) {
+        this.results = results;
+        for (GameResult result : results) {
+            score.accept(result.getScore());
+            level.accept(result.getLevel());
+            clearedRows.accept(result.getClearedRows());
+            pieces.accept(result.getPieces());
+            moves.accept(result.getMoves());
+        }
+    }
+
+    /**
+     * @return per game results, indexed by game number
+     */
+    public GameResult[] getResults() {
+        return this.results;
+    }
+
+    public Statistic getScore() {
+        return this.score;
+    }
+
+    public Statistic getLevel() {
+        return this.level;
+    }
+
+    public Statistic getClearedRows() {
+        return this.clearedRows;
+    }
+
+    /**
+     * @return game length in pieces spawned
+     */
+    public Statistic getPieces() {
+        return this.pieces;
+    }
+
+    /**
+     * @return game length in player actions
+     */
+    public Statistic getMoves() {
+        return this.moves;
+    }
+
+    @Override
+    public String toString() {
+        return "games:   " + results.length
+                + "\nscore:   " + score
+                + "\nlevel:   " + level
+                + "\nrows:    " + clearedRows
+                + "\npieces:  " + pieces
+                + "\nmoves:   " + moves;
+    }
+}
@@ -0,0 +1,58 @@
+package main.sim;
+
+/**
+ * Final state of one simulated game
+ */
+public class GameResult {
+    private final long seed;
+    private final int score;
+    private final int level;
+    private final long clearedRows;
+    private final long pieces;
+    private final long moves;
+
+    public GameResult(long seed, int score, int level, long clearedRows, long pieces, long moves) {
+        this.seed = seed;
+        this.score = score;
+        this.level = level;
+        this.clearedRows = clearedRows;
+        this.pieces = pieces;
+        this.moves = moves;
+    }
+
+    /**
+     * @return seed the game was played from
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getLevel() {
+        return this.level;
+    }
+
+    /**
+     * @return rows cleared over the whole game
+     */
+    public long getClearedRows() {
+        return this.clearedRows;
+    }
+
+    /**
+     * @return number of pieces spawned
+     */
+    public long getPieces() {
+        return this.pieces;
+    }
+
+    /**
+     * @return number of player actions applied
+     */
+    public long getMoves() {
+        return this.moves;
+    }
+}
@@ -0,0 +1,15 @@
+package main.sim;
+
+import main.model.GameEngine;
+
+/**
+ * Chooses actions for a headless game; one instance plays one game
+ */
+public interface Player {
+
+    /**
+     * @param engine game being played; must not be modified by player
+     * @return next action to apply to engine
+     */
+    GameEngine.ACTIONS nextAction(GameEngine engine);
+}
@@ -0,0 +1,22 @@
+package main.sim;
+
+import main.model.GameEngine;
+
+import java.util.Random;
+
+/**
+ * Player choosing uniformly random actions from a seeded stream
+ */
+public class RandomPlayer implements Player {
+    private static final GameEngine.ACTIONS[] ACTIONS = GameEngine.ACTIONS.values();
+    private final Random random;
+
+    public RandomPlayer(long seed) {
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public GameEngine.ACTIONS nextAction(GameEngine engine) {
+        return ACTIONS[random.nextInt(ACTIONS.length)];
+    }
+}
@@ -0,0 +1,59 @@
+package main.sim;
+
+/**
+ * Running count, min, max, mean and standard deviation of a series of values
+ */
+public class Statistic {
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private double mean;
+    private double sumSquaredDiff;
+
+    /**
+     * MODIFIES: this
+     * Adds value to series
+     */
+    public void accept(long value) {
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        double diff = value - mean;
+        mean += diff / count;
+        sumSquaredDiff += diff * (value - mean);
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return smallest value, or 0 if series is empty
+     */
+    public long getMin() {
+        return count == 0 ? 0 : this.min;
+    }
+
+    /**
+     * @return largest value, or 0 if series is empty
+     */
+    public long getMax() {
+        return count == 0 ? 0 : this.max;
+    }
+
+    public double getMean() {
+        return this.mean;
+    }
+
+    /**
+     * @return population standard deviation of series
+     */
+    public double getStdDev() {
+        return count == 0 ? 0 : Math.sqrt(sumSquaredDiff / count);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("mean %.2f, sd %.2f, min %d, max %d", getMean(), getStdDev(), getMin(), getMax());
+    }
+}
@@ -1,23 +1,27 @@
 package main.ui;
 
-import main.model.PuzzleBoard;
-import main.model.PuzzleGame;
-import main.model.PuzzlePiece;
+import main.metrics.Metrics;
+import main.model.BoardSnapshot;
+import main.model.PieceShape;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
-import java.util.Observable;
-import java.util.Observer;
+import java.awt.image.BufferedImage;
 
 import static main.ui.Main.*;
 
 /**
  * Display panel for the game; contains welcome and game over screens.
+ * Draws GameFrames published by the game loop, turning board color indices into colors through PALETTE.
+ * Settled board cells are cached in an image at device resolution;
+ * for each frame only the rows whose arrays its board snapshot does not share with the last drawn snapshot are
+ * redrawn into it, and only those rows and the old and new piece bounds are repainted.
  */
-public class DisplayPanel extends JPanel implements Observer {
-    private PuzzleGame game;
+public class DisplayPanel extends JPanel {
+    private GameFrame frame;
     private boolean gameOver = false;
     private boolean welcome = true;
     private boolean running = false;
@@ -26,9 +30,13 @@ public class DisplayPanel extends JPanel implements Observer {
     private static final Font TEXT_FONT = new Font("Serif", Font.PLAIN, 24);
     private static final Color WELCOME_COLOR = new Color(255, 255, 255);
     private static final Color GAME_OVER_COLOR = new Color(255, 0, 0);
+    private BufferedImage boardImage;
+    private BoardSnapshot drawnBoard;
+    private double imageScaleX;
+    private double imageScaleY;
+    private Rectangle pieceBounds;
 
-    public DisplayPanel(PuzzleGame game) {
-        this.game = game;
+    public DisplayPanel() {
         setLayout(new FlowLayout(FlowLayout.CENTER, 0, 0));
         setPreferredSize(new Dimension(panelWidth, panelHeight));
         setMaximumSize(new Dimension(panelWidth, panelHeight));
@@ -41,6 +49,7 @@ public class DisplayPanel extends JPanel implements Observer {
      */
     @Override
     protected void paintComponent(Graphics g) {
+        long start = Metrics.start();
         super.paintComponent(g);
         setBackground(BOARD_COLOR);
         if (welcome) {
@@ -50,6 +59,7 @@ public class DisplayPanel extends JPanel implements Observer {
         } else {
             drawGame(g);
         }
+        Metrics.record(Metrics.PAINT, start);
     }
 
     /**
@@ -106,24 +116,84 @@ public class DisplayPanel extends JPanel implements Observer {
      * Draws board state and current piece location to display panel
      */
     private void drawGame(Graphics g) {
-        PuzzleBoard board = game.getBoardState();
-        for (int x = 0; x < GRID_WIDTH; x++) {
-            for (int y = 0; y < GRID_HEIGHT; y++) {
-                g.setColor(board.getPos(x, y));
-                g.fillRect(x * GRID_SCALE, y * GRID_SCALE, GRID_SCALE, GRID_SCALE);
-            }
+        if (frame == null) {
+            return;
+        }
+        AffineTransform transform = ((Graphics2D) g).getTransform();
+        if (boardImage == null || transform.getScaleX() != imageScaleX || transform.getScaleY() != imageScaleY) {
+            imageScaleX = transform.getScaleX();
+            imageScaleY = transform.getScaleY();
+            boardImage = new BufferedImage((int) Math.ceil(panelWidth * imageScaleX),
+                    (int) Math.ceil(panelHeight * imageScaleY), BufferedImage.TYPE_INT_RGB);
+            drawnBoard = null;
+            drawChangedRows(frame.getBoard());
         }
-        PuzzlePiece piece = game.getCurrentPiece();
-        int pieceX0 = piece.getX0();
-        int pieceY0 = piece.getY0();
-        g.setColor(piece.getColor());
-        for (Integer[] xy : piece.getVertices()) {
-            int rectX0 = (pieceX0 + xy[0]) * GRID_SCALE;
-            int rectY0 = (pieceY0 + xy[1]) * GRID_SCALE;
+        g.drawImage(boardImage, 0, 0, panelWidth, panelHeight, null);
+        PieceShape shape = frame.getPieceShape();
+        int pieceX0 = frame.getPieceX();
+        int pieceY0 = frame.getPieceY();
+        g.setColor(PALETTE.getColor(frame.getPieceColorIndex()));
+        for (int i = 0; i < shape.getVertexCount(); i++) {
+            int rectX0 = (pieceX0 + shape.getVertexX(i)) * GRID_SCALE;
+            int rectY0 = (pieceY0 + shape.getVertexY(i)) * GRID_SCALE;
             g.fillRect(rectX0, rectY0, GRID_SCALE, GRID_SCALE);
         }
     }
 
+    /**
+     * MODIFIES: this
+     * Draws rows of board that differ from the last drawn snapshot into cached board image; all rows if none
+     */
+    private void drawChangedRows(BoardSnapshot board) {
+        Graphics2D g = boardImage.createGraphics();
+        g.scale(imageScaleX, imageScaleY);
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            if (drawnBoard == null || !board.isSameRow(drawnBoard, y)) {
+                for (int x = 0; x < GRID_WIDTH; x++) {
+                    g.setColor(PALETTE.getColor(board.getCell(x, y)));
+                    g.fillRect(x * GRID_SCALE, y * GRID_SCALE, GRID_SCALE, GRID_SCALE);
+                }
+            }
+        }
+        g.dispose();
+        drawnBoard = board;
+    }
+
+    /**
+     * MODIFIES: this
+     * Makes frame the displayed frame: redraws its changed board rows into cached board image and repaints them
+     * along with the area the piece covered in the previous frame and the area it covers now
+     */
+    public void showFrame(GameFrame frame) {
+        this.frame = frame;
+        BoardSnapshot board = frame.getBoard();
+        int top = GRID_HEIGHT;
+        int bottom = -1;
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            if (drawnBoard == null || !board.isSameRow(drawnBoard, y)) {
+                top = Math.min(top, y);
+                bottom = y;
+            }
+        }
+        if (boardImage != null) {
+            drawChangedRows(board);
+        }
+        if (!running) {
+            repaint();
+            return;
+        }
+        if (top <= bottom) {
+            repaint(0, top * GRID_SCALE, panelWidth, (bottom - top + 1) * GRID_SCALE);
+        }
+        if (pieceBounds != null) {
+            repaint(pieceBounds);
+        }
+        PieceShape shape = frame.getPieceShape();
+        pieceBounds = new Rectangle(frame.getPieceX() * GRID_SCALE, frame.getPieceY() * GRID_SCALE,
+                (shape.getMaxX() + 1) * GRID_SCALE, (shape.getMaxY() + 1) * GRID_SCALE);
+        repaint(pieceBounds);
+    }
+
     public void setGameOver() {
         this.gameOver = true;
         this.welcome = false;
@@ -141,9 +211,4 @@ public class DisplayPanel extends JPanel implements Observer {
         this.welcome = false;
         this.gameOver = false;
     }
-
-    @Override
-    public void update(Observable o, Object arg) {
-        this.repaint();
-    }
 }
@@ -0,0 +1,99 @@
+package main.ui;
+
+import main.model.BoardSnapshot;
+import main.model.GameEngine;
+import main.model.PieceQueue;
+import main.model.PieceShape;
+import main.model.PuzzleGame;
+import main.model.PuzzlePiece;
+
+/**
+ * Immutable view of everything the UI shows of a game, taken by the game loop and read on the EDT.
+ * The board is the game's latest published BoardSnapshot. Events cover every change since the previous frame the
+ * UI took, including frames it never saw.
+ */
+public class GameFrame {
+    private final BoardSnapshot board;
+    private final int events;
+    private final PuzzlePiece.PIECES pieceType;
+    private final PieceShape pieceShape;
+    private final int pieceX;
+    private final int pieceY;
+    private final PuzzlePiece.PIECES nextType;
+    private final int score;
+    private final int level;
+    private final int topScore;
+
+    /**
+     * Constructs frame of game's current state; called on the thread driving game
+     *
+     * @param events events posted since last frame
+     * @param unseen previous frame the UI has not taken, whose events are merged; null if none
+     */
+    public GameFrame(PuzzleGame game, int events, GameFrame unseen) {
+        this.board = game.getBoardState().publishSnapshot();
+        this.events = unseen == null ? events : events | unseen.events;
+        PuzzlePiece piece = game.getCurrentPiece();
+        this.pieceType = piece.getType();
+        this.pieceShape = piece.getShape();
+        this.pieceX = piece.getX0();
+        this.pieceY = piece.getY0();
+        PieceQueue preview = game.getEngine().getPreview();
+        this.nextType = preview.getDepth() > 0 ? preview.peek(0) : null;
+        this.score = game.getScore();
+        this.level = game.getLevel();
+        this.topScore = game.getTopScore();
+    }
+
+    /**
+     * @return set of GameEventBus.EVENTS covered by this frame
+     */
+    public int getEvents() {
+        return this.events;
+    }
+
+    /**
+     * @return settled board cells
+     */
+    public BoardSnapshot getBoard() {
+        return this.board;
+    }
+
+    public PieceShape getPieceShape() {
+        return this.pieceShape;
+    }
+
+    /**
+     * @return board color index of falling piece
+     */
+    public byte getPieceColorIndex() {
+        return GameEngine.colorIndex(this.pieceType);
+    }
+
+    public int getPieceX() {
+        return this.pieceX;
+    }
+
+    public int getPieceY() {
+        return this.pieceY;
+    }
+
+    /**
+     * @return type of piece following the falling one; null if the game has no preview
+     */
+    public PuzzlePiece.PIECES getNextType() {
+        return this.nextType;
+    }
+
+    public int getScore() {
+        return this.score;
+    }
+
+    public int getLevel() {
+        return this.level;
+    }
+
+    public int getTopScore() {
+        return this.topScore;
+    }
+}
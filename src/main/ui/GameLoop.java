@@ -0,0 +1,215 @@
+package main.ui;
+
+import main.metrics.Metrics;
+import main.model.GameEngine;
+import main.model.GameEventBus;
+import main.model.PuzzleGame;
+import main.server.InputQueue;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Runs a game on its own thread with a fixed timestep. Elapsed time is added to an accumulator that is spent in
+ * whole ticks, so gravity keeps its cadence when the thread is delayed; key codes are applied as soon as they are
+ * submitted. After each change the loop publishes a GameFrame through an atomic reference and hands it to the
+ * renderer on the render executor, so rendering never reads the game while the loop mutates it.
+ * The game must only be driven through this loop while it runs.
+ */
+public class GameLoop implements Runnable {
+    public static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / 60;
+    private static final long MAX_ACCUMULATED_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+    private static final int START = -1;
+    private static final int INPUT_CAPACITY = 64;
+    private static final int ALL_EVENTS = -1;
+    private final PuzzleGame game;
+    private final Executor renderExecutor;
+    private final Consumer<GameFrame> renderer;
+    private final InputQueue input = new InputQueue(INPUT_CAPACITY);
+    private final AtomicReference<GameFrame> latest = new AtomicReference<>();
+    private final AtomicBoolean renderScheduled = new AtomicBoolean();
+    private final Runnable renderTask = this::render;
+    private volatile boolean stopped;
+    private volatile Thread thread;
+    private boolean running;
+    private boolean over;
+    private int events;
+    private long accumulator;
+    private long gravityElapsed;
+
+    /**
+     * Constructs loop for game, whose event bus must dispatch on the thread that flushes
+     *
+     * @param renderExecutor runs renderer, e.g. SwingUtilities::invokeLater
+     * @param renderer       receives each frame taken on the render executor
+     */
+    public GameLoop(PuzzleGame game, Executor renderExecutor, Consumer<GameFrame> renderer) {
+        this.game = game;
+        this.renderExecutor = renderExecutor;
+        this.renderer = renderer;
+        game.getEvents().subscribe(posted -> events |= posted, GameEventBus.EVENTS.values());
+        game.getEvents().subscribe(posted -> over = true, GameEventBus.EVENTS.GAME_OVER);
+    }
+
+    /**
+     * MODIFIES: this
+     * Starts loop thread and publishes first frame
+     */
+    public synchronized void start() {
+        if (thread == null) {
+            thread = new Thread(this, "game-loop");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Stops loop thread and waits for it to finish its current iteration
+     */
+    public synchronized void stop() throws InterruptedException {
+        stopped = true;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join();
+        }
+    }
+
+    /**
+     * Queues key code for the game; applied by the loop thread without waiting for the next tick.
+     * Keys are dropped while INPUT_CAPACITY keys are waiting.
+     */
+    public void submitKey(int keyCode) {
+        input.offer(keyCode);
+        wake();
+    }
+
+    /**
+     * Queues start of a new game: the game is reset and gravity runs until the game is over
+     */
+    public void startGame() {
+        input.offer(START);
+        wake();
+    }
+
+    private void wake() {
+        Thread loopThread = thread;
+        if (loopThread != null) {
+            LockSupport.unpark(loopThread);
+        }
+    }
+
+    @Override
+    public void run() {
+        events = ALL_EVENTS;
+        publish();
+        long previous = System.nanoTime();
+        long deadline = previous;
+        while (!stopped) {
+            long now = System.nanoTime();
+            if (Metrics.ENABLED && now - deadline >= 0) {
+                Metrics.TICK_JITTER.record(now - deadline);
+            }
+            long allocated = Metrics.threadAllocatedBytes();
+            update(now - previous);
+            Metrics.add(Metrics.LOOP_ALLOCATED_BYTES, Metrics.threadAllocatedBytes() - allocated);
+            previous = now;
+            long wait = TICK_NANOS - accumulator;
+            deadline = now + wait;
+            LockSupport.parkNanos(this, wait);
+        }
+    }
+
+    /**
+     * MODIFIES: this, game
+     * Applies queued input, then runs every whole tick in elapsedNanos plus time left over from earlier updates;
+     * at most MAX_ACCUMULATED_NANOS are caught up. Publishes a frame if anything changed.
+     * Called by the loop thread; may be called directly to drive a loop that was not started.
+     */
+    public void update(long elapsedNanos) {
+        for (int keyCode = input.poll(); keyCode != InputQueue.EMPTY; keyCode = input.poll()) {
+            if (keyCode == START) {
+                game.resetGame();
+                running = true;
+                over = false;
+                gravityElapsed = 0;
+            } else if (running) {
+                game.userInput(keyCode);
+                endIfOver();
+            }
+        }
+        accumulator = Math.min(accumulator + elapsedNanos, MAX_ACCUMULATED_NANOS);
+        while (accumulator >= TICK_NANOS) {
+            accumulator -= TICK_NANOS;
+            tick();
+        }
+        if (events != 0) {
+            publish();
+        }
+    }
+
+    /**
+     * MODIFIES: this, game
+     * Advances game one gravity step once a gravity interval has passed; the part of a tick beyond the interval
+     * counts towards the next one, so steps keep the interval on average
+     */
+    private void tick() {
+        if (!running) {
+            return;
+        }
+        gravityElapsed += TICK_NANOS;
+        long interval = GameEngine.gravityNanos(game.getLevel());
+        if (gravityElapsed >= interval) {
+            gravityElapsed -= interval;
+            game.nextState();
+            endIfOver();
+        }
+    }
+
+    /**
+     * MODIFIES: this, game
+     * Stops gravity and updates top score if the game reported GAME_OVER
+     */
+    private void endIfOver() {
+        if (over) {
+            over = false;
+            running = false;
+            game.setTopScore();
+        }
+    }
+
+    /**
+     * @return true if a game has been started and is not over
+     */
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * MODIFIES: this
+     * Publishes frame of current game state with events since the frame last taken, and schedules rendering
+     */
+    private void publish() {
+        GameFrame unseen = latest.getAndSet(null);
+        latest.set(new GameFrame(game, events, unseen));
+        events = 0;
+        if (renderScheduled.compareAndSet(false, true)) {
+            renderExecutor.execute(renderTask);
+        }
+    }
+
+    /**
+     * Takes latest frame and passes it to renderer; runs on the render executor
+     */
+    private void render() {
+        renderScheduled.set(false);
+        GameFrame frame = latest.getAndSet(null);
+        if (frame != null) {
+            renderer.accept(frame);
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package main.ui;
 
+import main.metrics.Metrics;
+import main.model.GameEventBus;
+import main.model.GameRandom;
 import main.model.PuzzleGame;
+import main.replay.ReplayRecorder;
 
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Random;
 
 /**
@@ -19,24 +27,27 @@ public class Main extends JFrame {
     public static final int GRID_WIDTH = 12;
     public static final int GRID_HEIGHT = (int) (1.75 * GRID_WIDTH);
     public static final Color BOARD_COLOR = new Color(0, 0, 0);
-    private static final int START_INTERVAL = 1600;
-    private static final int INTERVAL_REDUCTION = 300;
-    private static final int MIN_INTERVAL = 100;
-    private int dropInterval;
+    public static final Palette PALETTE = new Palette(BOARD_COLOR);
+    private static final String REPLAY_DIRECTORY = "replays";
+    private static final long METRICS_DUMP_SECONDS = 10;
     private PuzzleGame game;
     private DisplayPanel dp;
     private ScorePanel sp;
+    private GameLoop loop;
+    private ReplayRecorder recorder;
     private boolean gameStarted = false;
 
     public Main() {
         super("Raining Blocks!");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
-        this.game = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, BOARD_COLOR, new Random());
-        this.dp = new DisplayPanel(game);
+        long seed = new Random().nextLong();
+        this.game = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, new GameRandom(seed));
+        this.game.setAutoPublish(false);
+        this.dp = new DisplayPanel();
         this.sp = new ScorePanel(game);
-        this.game.addObserver(dp);
-        this.game.addObserver(sp);
+        this.loop = new GameLoop(game, SwingUtilities::invokeLater, this::render);
+        startRecording(seed);
 
         JPanel display = new JPanel();
         display.setLayout(new BoxLayout(display, BoxLayout.PAGE_AXIS));
@@ -56,47 +67,67 @@ public class Main extends JFrame {
 
         addKeyListener(new UserInput());
 
-        this.dropInterval = START_INTERVAL;
+        loop.start();
     }
 
     /**
-     * MODIFIES: this, dp, game
-     * Timer for managing drop rate of pieces
+     * MODIFIES: this, game
+     * Records this session's inputs to a new replay file; the game runs without recording if it cannot be created
      */
-    private void setTimers() {
-        Timer dropTimer = new Timer(dropInterval, null);
-        dropTimer.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (game.isGameOver()) {
-                    dropTimer.stop();
-                    gameStarted = false;
-                    dp.setGameOver();
-                    game.setTopScore();
-                } else {
-                    game.nextState();
-                    dropTimer.setDelay(Math.max(START_INTERVAL - INTERVAL_REDUCTION * game.getLevel(), MIN_INTERVAL));
-                }
-                dp.repaint();
-            }
-        });
+    private void startRecording(long seed) {
+        try {
+            Path directory = Files.createDirectories(Paths.get(REPLAY_DIRECTORY));
+            Path file = directory.resolve("session-" + System.currentTimeMillis() + ".rbr");
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            this.recorder = new ReplayRecorder(channel, GRID_WIDTH, GRID_HEIGHT, BOARD_COLOR.getRGB(), seed);
+            this.game.setInputListener(recorder);
+            this.game.getEvents().subscribe(events -> recorder.flush(), GameEventBus.EVENTS.GAME_OVER);
+            Runtime.getRuntime().addShutdownHook(new Thread(this::stopRecording));
+        } catch (IOException e) {
+            System.err.println("Replay recording disabled: " + e.getMessage());
+        }
+    }
+
+    /**
+     * MODIFIES: this
+     * Stops game loop, then writes remaining replay events and closes replay file
+     */
+    private void stopRecording() {
+        try {
+            loop.stop();
+            recorder.close();
+        } catch (IOException e) {
+            System.err.println("Replay recording failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-        dropTimer.start();
+    /**
+     * MODIFIES: this, dp, sp
+     * Shows frame published by game loop; switches to game over screen if the game ended
+     */
+    private void render(GameFrame frame) {
+        sp.showFrame(frame);
+        if (gameStarted && GameEventBus.contains(frame.getEvents(), GameEventBus.EVENTS.GAME_OVER)) {
+            gameStarted = false;
+            dp.setGameOver();
+        }
+        dp.showFrame(frame);
     }
 
     /**
-     * MODIFIES: this, game, dp
-     * passes user input to game keyhandler if game is running, otherwise brings up welcome screen or starts new game
+     * MODIFIES: this, loop, dp
+     * passes user input to game loop if game is running, otherwise brings up welcome screen or starts new game
      */
     private class UserInput extends KeyAdapter {
         @Override
         public void keyPressed(KeyEvent e) {
             if (gameStarted) {
-                game.userInput(e.getKeyCode());
+                loop.submitKey(e.getKeyCode());
             } else if (e.getKeyCode() == KeyEvent.VK_N) {
-                setTimers();
                 gameStarted = true;
-                game.resetGame();
+                loop.startGame();
                 dp.setGameRunning();
                 dp.repaint();
             } else {
@@ -107,6 +138,7 @@ public class Main extends JFrame {
     }
 
     public static void main(String[] args) {
+        Metrics.publish(METRICS_DUMP_SECONDS);
         new Main();
     }
 }
@@ -0,0 +1,63 @@
+package main.ui;
+
+import main.model.BitBoard;
+import main.model.GameEngine;
+import main.model.PuzzlePiece;
+
+import java.awt.*;
+import java.util.EnumMap;
+
+/**
+ * Colors of board color indices, looked up when a board is drawn.
+ * Index BitBoard.EMPTY is the background and each piece type's cells use GameEngine.colorIndex of that type;
+ * indices of no piece type are drawn in FILLER_COLOR.
+ */
+public final class Palette {
+    public static final int SIZE = 256;
+    public static final Color FILLER_COLOR = new Color(128, 128, 128);
+    private static final EnumMap<PuzzlePiece.PIECES, Color> PIECE_COLORS = pieceColors();
+    private final Color[] colors;
+
+    /**
+     * Constructs palette drawing blank cells in background
+     */
+    public Palette(Color background) {
+        this.colors = new Color[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            colors[i] = FILLER_COLOR;
+        }
+        colors[BitBoard.EMPTY] = background;
+        for (PuzzlePiece.PIECES type : PuzzlePiece.PIECES.values()) {
+            colors[GameEngine.colorIndex(type) & 0xFF] = PIECE_COLORS.get(type);
+        }
+    }
+
+    /**
+     * @return color of each piece type
+     */
+    private static EnumMap<PuzzlePiece.PIECES, Color> pieceColors() {
+        EnumMap<PuzzlePiece.PIECES, Color> pieceColors = new EnumMap<>(PuzzlePiece.PIECES.class);
+        pieceColors.put(PuzzlePiece.PIECES.J, new Color(0, 255, 0));
+        pieceColors.put(PuzzlePiece.PIECES.L, new Color(255, 0, 0));
+        pieceColors.put(PuzzlePiece.PIECES.SQ, new Color(255, 255, 0));
+        pieceColors.put(PuzzlePiece.PIECES.ST, new Color(0, 255, 255));
+        pieceColors.put(PuzzlePiece.PIECES.T, new Color(255, 128, 0));
+        pieceColors.put(PuzzlePiece.PIECES.ZA, new Color(120, 50, 150));
+        pieceColors.put(PuzzlePiece.PIECES.ZI, new Color(0, 0, 255));
+        return pieceColors;
+    }
+
+    /**
+     * @return Color of pieces of type
+     */
+    public static Color colorOf(PuzzlePiece.PIECES type) {
+        return PIECE_COLORS.get(type);
+    }
+
+    /**
+     * @return Color drawn for cells of colorIndex
+     */
+    public Color getColor(byte colorIndex) {
+        return this.colors[colorIndex & 0xFF];
+    }
+}
@@ -1,75 +1,116 @@
 package main.ui;
 
 import main.model.PuzzleGame;
+import main.model.PuzzlePiece;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Observable;
-import java.util.Observer;
 
 import static main.ui.Main.BOARD_COLOR;
 
 /**
- * ScorePanel displayed above game area; Observes game
+ * ScorePanel displayed above game area; shows scores of GameFrames published by the game loop.
+ * Each value is shown as plain text in its own label under a fixed caption label, so no HTML is built or parsed
+ * when a value changes. A label is only updated when the value it shows has changed; level texts up to
+ * CACHED_LEVELS and the next piece texts are built once.
  */
-public class ScorePanel implements Observer {
+public class ScorePanel {
 
+    private static final int CACHED_LEVELS = 100;
     private PuzzleGame game;
     private JPanel scorePanel = new JPanel();
     private JLabel levelLabel;
     private JLabel scoreLabel;
     private JLabel topScoreLabel;
+    private JLabel nextLabel;
+    private int shownLevel;
+    private int shownScore;
+    private int shownTopScore;
+    private PuzzlePiece.PIECES shownNext;
     private static final Color TEXT_COLOR = new Color(255, 255, 255);
     private static final Font TEXT_FONT = new Font("Serif", Font.BOLD, 14);
+    private static final String[] LEVEL_TEXTS = levelTexts();
 
     public ScorePanel(PuzzleGame game) {
         this.game = game;
-        this.scorePanel.setLayout(new GridLayout(1, 3));
-        setLevelLabel();
-        setScoreLabel();
-        setTopScoreLabel();
+        this.scorePanel.setLayout(new GridLayout(1, 4));
         this.scorePanel.setBackground(BOARD_COLOR);
-        this.scorePanel.add(levelLabel);
-        this.scorePanel.add(scoreLabel);
-        this.scorePanel.add(topScoreLabel);
+        this.shownLevel = game.getLevel();
+        this.shownScore = game.getScore();
+        this.shownTopScore = game.getTopScore();
+        this.levelLabel = addValue("CURRENT LEVEL", levelText(shownLevel));
+        this.scoreLabel = addValue("CURRENT SCORE", Integer.toString(shownScore));
+        this.topScoreLabel = addValue("TOP SCORE", Integer.toString(shownTopScore));
+        this.nextLabel = addValue("NEXT", " ");
     }
 
-    private void setLevelLabel() {
-        this.levelLabel = new JLabel("<html><div style='text-align:center;'>CURRENT LEVEL<br>"
-                + game.getLevel() + "</div></html>");
-        this.levelLabel.setFont(TEXT_FONT);
-        this.levelLabel.setForeground(TEXT_COLOR);
-        this.levelLabel.setHorizontalAlignment(SwingConstants.CENTER);
+    /**
+     * MODIFIES: this
+     * Adds a caption label above a value label to the panel
+     *
+     * @return value label, showing text
+     */
+    private JLabel addValue(String caption, String text) {
+        JPanel cell = new JPanel(new GridLayout(2, 1));
+        cell.setBackground(BOARD_COLOR);
+        JLabel captionLabel = newLabel(caption);
+        JLabel valueLabel = newLabel(text);
+        cell.add(captionLabel);
+        cell.add(valueLabel);
+        this.scorePanel.add(cell);
+        return valueLabel;
     }
 
-    private void setScoreLabel() {
-        this.scoreLabel = new JLabel("<html><div style='text-align:center;'>CURRENT SCORE<br>"
-                + game.getScore() + "</div></html>");
-        this.scoreLabel.setFont(TEXT_FONT);
-        this.scoreLabel.setForeground(TEXT_COLOR);
-        this.scoreLabel.setHorizontalAlignment(SwingConstants.CENTER);
+    /**
+     * @return centered label showing text in TEXT_FONT and TEXT_COLOR
+     */
+    private static JLabel newLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setFont(TEXT_FONT);
+        label.setForeground(TEXT_COLOR);
+        label.setHorizontalAlignment(SwingConstants.CENTER);
+        return label;
     }
 
-    private void setTopScoreLabel() {
-        this.topScoreLabel = new JLabel("<html><div style='text-align:center;'>TOP SCORE<br>"
-                + game.getTopScore() + "</div></html>");
-        this.topScoreLabel.setFont(TEXT_FONT);
-        this.topScoreLabel.setForeground(TEXT_COLOR);
-        this.topScoreLabel.setHorizontalAlignment(SwingConstants.CENTER);
+    /**
+     * @return text of each level from 0 to CACHED_LEVELS - 1
+     */
+    private static String[] levelTexts() {
+        String[] levelTexts = new String[CACHED_LEVELS];
+        for (int i = 0; i < CACHED_LEVELS; i++) {
+            levelTexts[i] = Integer.toString(i);
+        }
+        return levelTexts;
+    }
+
+    /**
+     * @return text of level; cached below CACHED_LEVELS
+     */
+    private static String levelText(int level) {
+        return level >= 0 && level < CACHED_LEVELS ? LEVEL_TEXTS[level] : Integer.toString(level);
     }
 
-    @Override
-    public void update(Observable o, Object arg) {
-        if (arg instanceof String) {
-            if (arg.equals("TopScore")) {
-                topScoreLabel.setText("<html><div style='text-align:center;'>TOP SCORE<br>"
-                        + game.getTopScore() + "</div></html>");
-            } else {
-                levelLabel.setText("<html><div style='text-align:center;'>CURRENT LEVEL<br>"
-                        + game.getLevel() + "</div></html>");
-                scoreLabel.setText("<html><div style='text-align:center;'>CURRENT SCORE<br>"
-                        + game.getScore() + "</div></html>");
-            }
+    /**
+     * MODIFIES: this
+     * Updates labels whose values differ in frame
+     */
+    public void showFrame(GameFrame frame) {
+        if (frame.getLevel() != shownLevel) {
+            shownLevel = frame.getLevel();
+            levelLabel.setText(levelText(shownLevel));
+        }
+        if (frame.getScore() != shownScore) {
+            shownScore = frame.getScore();
+            scoreLabel.setText(Integer.toString(shownScore));
+        }
+        if (frame.getTopScore() != shownTopScore) {
+            shownTopScore = frame.getTopScore();
+            topScoreLabel.setText(Integer.toString(shownTopScore));
+        }
+        if (frame.getNextType() != shownNext && frame.getNextType() != null) {
+            shownNext = frame.getNextType();
+            nextLabel.setForeground(Palette.colorOf(shownNext));
+            nextLabel.setText(shownNext.name());
         }
     }
 
@@ -0,0 +1,42 @@
+package test.ai;
+
+import main.ai.AiPlayer;
+import main.model.GameEngine;
+import main.sim.BatchSimulator;
+import main.sim.GameResult;
+import main.sim.RandomPlayer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for AiPlayer class
+ */
+public class AiPlayerTest {
+
+    private static final int GRID_WIDTH = 10;
+    private static final int GRID_HEIGHT = 20;
+    private static final long SEED = 99L;
+
+    @Test
+    public void testOutplaysRandomPlayer() {
+        GameResult ai = new BatchSimulator(GRID_WIDTH, GRID_HEIGHT, 4, 5000L,
+                playerSeed -> new AiPlayer(GRID_WIDTH, GRID_HEIGHT)).play(SEED);
+        GameResult random = new BatchSimulator(GRID_WIDTH, GRID_HEIGHT, 4, 5000L, RandomPlayer::new).play(SEED);
+        assertTrue(ai.getClearedRows() > 100);
+        assertTrue(ai.getPieces() > 10 * random.getPieces());
+    }
+
+    @Test
+    public void testPlaysWithoutGravity() {
+        GameEngine engine = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new Random(SEED));
+        AiPlayer player = new AiPlayer(GRID_WIDTH, GRID_HEIGHT);
+        for (int i = 0; i < 2000 && !engine.isGameOver(); i++) {
+            engine.apply(player.nextAction(engine));
+        }
+        assertFalse(engine.isGameOver());
+        assertTrue(engine.getTotalClearedRows() > 50);
+    }
+}
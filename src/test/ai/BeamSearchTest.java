@@ -0,0 +1,113 @@
+package test.ai;
+
+import main.ai.BeamSearch;
+import main.ai.TranspositionTable;
+import main.model.BitBoard;
+import main.model.PlacementSearch;
+import main.model.PuzzlePiece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for BeamSearch class
+ */
+public class BeamSearchTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private static final byte FILLED = 1;
+    private BitBoard board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new BitBoard(GRID_WIDTH, GRID_HEIGHT);
+    }
+
+    @Test
+    public void testConstructor() {
+        try {
+            new BeamSearch(GRID_WIDTH, GRID_HEIGHT, 0, 2, null);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        try {
+            new BeamSearch(GRID_WIDTH, GRID_HEIGHT, 4, 0, null);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testCompletesRows() {
+        for (int y = GRID_HEIGHT - 4; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < GRID_WIDTH - 1; x++) {
+                board.setCell(x, y, FILLED);
+            }
+        }
+        for (int depth = 1; depth <= 3; depth++) {
+            BeamSearch search = new BeamSearch(GRID_WIDTH, GRID_HEIGHT, 4, depth, null);
+            int best = search.search(board, PuzzlePiece.PIECES.ST, 1, 2, 0);
+            PlacementSearch placements = search.getPlacementSearch();
+            assertEquals(GRID_WIDTH - 1, placements.getPlacementX(best));
+            assertEquals(GRID_HEIGHT - 4, placements.getPlacementY(best));
+            assertEquals(0, placements.getPlacementRotation(best) % 2);
+        }
+    }
+
+    @Test
+    public void testBlockedStart() {
+        board.setCell(3, 0, FILLED);
+        BeamSearch search = new BeamSearch(GRID_WIDTH, GRID_HEIGHT, 4, 2, null);
+        assertEquals(-1, search.search(board, PuzzlePiece.PIECES.SQ, 0, 3, 0));
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            BeamSearch sequential = new BeamSearch(GRID_WIDTH, GRID_HEIGHT, 5, 3, null);
+            BeamSearch parallel = new BeamSearch(GRID_WIDTH, GRID_HEIGHT, 5, 3, pool);
+            Random random = new Random(3);
+            for (int trial = 0; trial < 20; trial++) {
+                board.setBlankBoard();
+                for (int i = 0; i < 20; i++) {
+                    board.setCell(random.nextInt(GRID_WIDTH), 6 + random.nextInt(GRID_HEIGHT - 6), FILLED);
+                }
+                PuzzlePiece.PIECES type = PuzzlePiece.PIECES.values()[trial % PuzzlePiece.PIECES.values().length];
+                int expected = sequential.search(board, type, 0, 3, 0);
+                assertTrue(expected >= 0);
+                assertEquals(expected, parallel.search(board, type, 0, 3, 0));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testTableMatchesUncached() {
+        BeamSearch uncached = new BeamSearch(GRID_WIDTH, GRID_HEIGHT, 4, 2, null);
+        TranspositionTable table = new TranspositionTable(1 << 12, 1);
+        BeamSearch cached = new BeamSearch(GRID_WIDTH, GRID_HEIGHT, 4, 2, null, table);
+        Random random = new Random(11);
+        for (int trial = 0; trial < 40; trial++) {
+            board.setBlankBoard();
+            for (int i = 0; i < 15; i++) {
+                board.setCell(random.nextInt(GRID_WIDTH), 8 + random.nextInt(GRID_HEIGHT - 8), FILLED);
+            }
+            PuzzlePiece.PIECES type = PuzzlePiece.PIECES.values()[trial % PuzzlePiece.PIECES.values().length];
+            int expected = uncached.search(board, type, 0, 3, 0);
+            assertEquals(expected, cached.search(board, type, 0, 3, 0));
+            assertEquals(expected, cached.search(board, type, 0, 3, 0));
+        }
+        assertTrue(table.getHits() > 0);
+        assertTrue(cached.getEvaluationCount() < uncached.getEvaluationCount());
+        assertEquals(table.getMisses(), cached.getEvaluationCount());
+    }
+}
@@ -0,0 +1,84 @@
+package test.ai;
+
+import main.ai.BoardEvaluator;
+import main.model.BitBoard;
+import main.model.PieceShape;
+import main.model.PuzzlePiece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for BoardEvaluator class
+ */
+public class BoardEvaluatorTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private static final byte FILLED = 1;
+    private static final PieceShape SQUARE = PieceShape.get(PuzzlePiece.PIECES.SQ, 0);
+    private BitBoard board;
+    private BoardEvaluator evaluator;
+
+    @BeforeEach
+    public void setUp() {
+        board = new BitBoard(GRID_WIDTH, GRID_HEIGHT);
+        evaluator = new BoardEvaluator(GRID_WIDTH);
+    }
+
+    @Test
+    public void testEmptyBoard() {
+        double score = evaluator.evaluate(board, SQUARE, 0, GRID_HEIGHT - 2);
+        assertEquals(4, evaluator.getAggregateHeight());
+        assertEquals(0, evaluator.getHoles());
+        assertEquals(2, evaluator.getBumpiness());
+        assertEquals(0, evaluator.getLines());
+        assertEquals(4 * BoardEvaluator.DEFAULT_HEIGHT_WEIGHT + 2 * BoardEvaluator.DEFAULT_BUMPINESS_WEIGHT,
+                score, 1e-9);
+        assertEquals(GRID_HEIGHT, board.getSurfaceTop());
+    }
+
+    @Test
+    public void testHoles() {
+        board.setCell(5, GRID_HEIGHT - 1, FILLED);
+        board.setCell(5, GRID_HEIGHT - 4, FILLED);
+        board.setCell(6, GRID_HEIGHT - 2, FILLED);
+        evaluator.evaluate(board, SQUARE, 0, GRID_HEIGHT - 2);
+        assertEquals(3, evaluator.getHoles());
+        assertEquals(2 + 2 + 4 + 2, evaluator.getAggregateHeight());
+        assertEquals(2 + 4 + 2 + 2, evaluator.getBumpiness());
+
+        evaluator.evaluate(board, SQUARE, 4, GRID_HEIGHT - 6);
+        assertEquals(3 + 4, evaluator.getHoles());
+        assertEquals(6 + 6 + 2, evaluator.getAggregateHeight());
+        assertFalse(board.isOccupied(4, GRID_HEIGHT - 6));
+    }
+
+    @Test
+    public void testLinesCleared() {
+        for (int x = 2; x < GRID_WIDTH; x++) {
+            board.setCell(x, GRID_HEIGHT - 1, FILLED);
+        }
+        board.setCell(3, GRID_HEIGHT - 2, FILLED);
+        board.setCell(3, GRID_HEIGHT - 3, FILLED);
+        evaluator.evaluate(board, SQUARE, 0, GRID_HEIGHT - 2);
+        assertEquals(1, evaluator.getLines());
+        assertEquals(0, evaluator.getHoles());
+        assertEquals(1 + 1 + 0 + 2, evaluator.getAggregateHeight());
+        assertEquals(0 + 1 + 2 + 2, evaluator.getBumpiness());
+        assertEquals(GRID_WIDTH - 2, Long.bitCount(board.getRow(GRID_HEIGHT - 1)));
+    }
+
+    @Test
+    public void testWeights() {
+        BoardEvaluator heightOnly = new BoardEvaluator(GRID_WIDTH, 1, 0, 0, 0);
+        BoardEvaluator linesOnly = new BoardEvaluator(GRID_WIDTH, 0, 10, 0, 0);
+        for (int x = 2; x < GRID_WIDTH; x++) {
+            board.setCell(x, GRID_HEIGHT - 1, FILLED);
+        }
+        assertEquals(2, heightOnly.evaluate(board, SQUARE, 0, GRID_HEIGHT - 2), 1e-9);
+        assertEquals(10, linesOnly.evaluate(board, SQUARE, 0, GRID_HEIGHT - 2), 1e-9);
+        assertEquals(10, linesOnly.getLinesWeight());
+    }
+}
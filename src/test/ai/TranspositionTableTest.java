@@ -0,0 +1,102 @@
+package test.ai;
+
+import main.ai.TranspositionTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for TranspositionTable class
+ */
+public class TranspositionTableTest {
+
+    private static final int CAPACITY = 64;
+    private TranspositionTable table;
+
+    @BeforeEach
+    public void setUp() {
+        table = new TranspositionTable(CAPACITY, 4);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(CAPACITY, table.getCapacity());
+        assertEquals(TranspositionTable.WAYS, new TranspositionTable(1, 8).getCapacity());
+        assertEquals(128, new TranspositionTable(100, 1).getCapacity());
+
+        try {
+            new TranspositionTable(0, 1);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        try {
+            new TranspositionTable(CAPACITY, 0);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testGetPut() {
+        assertTrue(Double.isNaN(table.get(0L)));
+        assertEquals(1, table.getMisses());
+        table.put(0L, 2.5);
+        table.put(-7L, -1.0);
+        assertEquals(2.5, table.get(0L));
+        assertEquals(-1.0, table.get(-7L));
+        table.put(0L, 3.0);
+        assertEquals(3.0, table.get(0L));
+        assertEquals(3, table.getHits());
+
+        table.clear();
+        assertTrue(Double.isNaN(table.get(0L)));
+        assertEquals(0, table.getHits());
+        assertEquals(1, table.getMisses());
+    }
+
+    @Test
+    public void testReplacesOldestGeneration() {
+        long step = CAPACITY / TranspositionTable.WAYS;
+        for (int i = 0; i < TranspositionTable.WAYS; i++) {
+            table.put(i * step, i);
+            table.nextGeneration();
+        }
+        assertEquals(0.0, table.get(0L));
+        table.put(TranspositionTable.WAYS * step, -1.0);
+        assertEquals(0.0, table.get(0L));
+        assertTrue(Double.isNaN(table.get(step)));
+        assertEquals(-1.0, table.get(TranspositionTable.WAYS * step));
+        for (int i = 2; i < TranspositionTable.WAYS; i++) {
+            assertEquals(i, table.get(i * step));
+        }
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        TranspositionTable shared = new TranspositionTable(1 << 12, 8);
+        AtomicInteger wrong = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (long key = 0; key < 20000; key++) {
+                    double value = shared.get(key * 0x9E3779B97F4A7C15L);
+                    if (!Double.isNaN(value) && value != key) {
+                        wrong.incrementAndGet();
+                    }
+                    shared.put(key * 0x9E3779B97F4A7C15L, key);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, wrong.get());
+        assertEquals(4 * 20000, shared.getHits() + shared.getMisses());
+    }
+}
@@ -0,0 +1,68 @@
+package test.bench;
+
+import main.ai.BeamSearch;
+import main.model.BitBoard;
+import main.model.PuzzlePiece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks one AI placement decision on a fixed-seed board, in the calling thread or across the common pool
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BeamSearchBenchmark {
+    private static final byte FILLED = 1;
+
+    @Param({BoardSizes.SMALL, BoardSizes.MEDIUM, BoardSizes.LARGE})
+    public String size;
+
+    @Param({"1", "2"})
+    public int depth;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private BitBoard board;
+    private BeamSearch search;
+    private int x0;
+
+    @Setup
+    public void setUp() {
+        int width = BoardSizes.width(size);
+        int height = BoardSizes.height(size);
+        board = new BitBoard(width, height);
+        Random random = new Random(1);
+        for (int row = height - 4; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (random.nextInt(4) != 0) {
+                    board.setCell(col, row, FILLED);
+                }
+            }
+        }
+        search = new BeamSearch(width, height, 4, depth, parallel ? ForkJoinPool.commonPool() : null);
+        x0 = width / 2 - 1;
+    }
+
+    @Benchmark
+    public int decide() {
+        return search.search(board, PuzzlePiece.PIECES.T, 0, x0, 0);
+    }
+}
@@ -0,0 +1,23 @@
+package test.bench;
+
+/**
+ * Board size parameter shared by benchmarks; sizes are written as "WIDTHxHEIGHT"
+ */
+final class BoardSizes {
+    static final String SMALL = "12x21";
+    static final String MEDIUM = "32x64";
+    static final String LARGE = "64x512";
+    static final String WIDE = "256x64";
+    static final String WIDEST = "1024x64";
+
+    private BoardSizes() {
+    }
+
+    static int width(String size) {
+        return Integer.parseInt(size.substring(0, size.indexOf('x')));
+    }
+
+    static int height(String size) {
+        return Integer.parseInt(size.substring(size.indexOf('x') + 1));
+    }
+}
@@ -0,0 +1,48 @@
+package test.bench;
+
+import main.sim.BatchSimulator;
+import main.sim.GameResult;
+import main.sim.RandomPlayer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks full headless games per second; every invocation plays the same fixed-seed game.
+ * Boards wider than 64 columns are played on a WideBitBoard.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameThroughputBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({BoardSizes.SMALL, BoardSizes.MEDIUM, BoardSizes.LARGE, BoardSizes.WIDE, BoardSizes.WIDEST})
+    public String size;
+
+    private BatchSimulator simulator;
+
+    @Setup
+    public void setUp() {
+        simulator = new BatchSimulator(BoardSizes.width(size), BoardSizes.height(size), 4, 1_000_000L,
+                RandomPlayer::new);
+    }
+
+    @Benchmark
+    public GameResult fullGame() {
+        return simulator.play(SEED);
+    }
+}
@@ -0,0 +1,96 @@
+package test.bench;
+
+import main.model.BitBoard;
+import main.model.PuzzleBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks PuzzleBoard cell access, row checks and row clears on half filled boards
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PuzzleBoardBenchmark {
+    private static final byte BACKGROUND = BitBoard.EMPTY;
+    private static final byte FOREGROUND = 2;
+
+    @Param({BoardSizes.SMALL, BoardSizes.MEDIUM, BoardSizes.LARGE})
+    public String size;
+
+    private PuzzleBoard board;
+    private int width;
+    private int height;
+    private int x;
+    private int y;
+
+    @Setup
+    public void setUp() {
+        width = BoardSizes.width(size);
+        height = BoardSizes.height(size);
+        board = new PuzzleBoard(width, height);
+        Random random = new Random(0);
+        for (int row = height / 2; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (col != row % width && random.nextBoolean()) {
+                    board.setPos(col, row, FOREGROUND);
+                }
+            }
+        }
+    }
+
+    /**
+     * advances benchmark cursor through every cell of board
+     */
+    private void advance() {
+        if (++x == width) {
+            x = 0;
+            if (++y == height) {
+                y = 0;
+            }
+        }
+    }
+
+    @Benchmark
+    public byte getPos() {
+        advance();
+        return board.getPos(x, y);
+    }
+
+    @Benchmark
+    public void setPos() {
+        advance();
+        board.setPos(x, y, (x & 1) == 0 ? FOREGROUND : BACKGROUND);
+    }
+
+    @Benchmark
+    public void isRowComplete(Blackhole blackhole) {
+        for (int row = 0; row < height; row++) {
+            blackhole.consume(board.isRowComplete(row));
+        }
+    }
+
+    /**
+     * clears bottom row; board content only moves down so cost stays that of a full height shift
+     */
+    @Benchmark
+    public void clearRow() {
+        board.clearRow(height - 1);
+    }
+}
@@ -0,0 +1,97 @@
+package test.bench;
+
+import main.model.PlacementSearch;
+import main.model.BitBoard;
+import main.model.PuzzleBoard;
+import main.model.PuzzleGame;
+import main.model.PuzzlePiece;
+import main.model.TPiece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks PuzzleGame collision checks, drop distance and piece placement with a fixed seed
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PuzzleGameBenchmark {
+    private static final byte BACKGROUND = BitBoard.EMPTY;
+    private static final byte FOREGROUND = 2;
+
+    @Param({BoardSizes.SMALL, BoardSizes.MEDIUM, BoardSizes.LARGE})
+    public String size;
+
+    private PuzzleGame game;
+    private PuzzleBoard board;
+    private PuzzlePiece piece;
+    private int height;
+    private PlacementSearch search;
+
+    @Setup
+    public void setUp() {
+        int width = BoardSizes.width(size);
+        height = BoardSizes.height(size);
+        game = new PuzzleGame(width, height, new Random(0));
+        board = game.getBoardState();
+        Random random = new Random(1);
+        for (int row = height - height / 4; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (random.nextInt(4) != 0) {
+                    board.setPos(col, row, FOREGROUND);
+                }
+            }
+        }
+        piece = new TPiece(width / 2 - 1, 0);
+        piece.setCurrentRotation(0);
+        game.setCurrentPiece(piece);
+        search = new PlacementSearch(width, height);
+    }
+
+    @Benchmark
+    public boolean isClearBelow() {
+        return game.isClearBelow(1);
+    }
+
+    @Benchmark
+    public boolean isClearCW() {
+        return game.isClearCW();
+    }
+
+    @Benchmark
+    public int getDistToBottom() {
+        return game.getDistToBottom();
+    }
+
+    @Benchmark
+    public int findPlacements() {
+        return game.findPlacements(search);
+    }
+
+    /**
+     * places piece at top of board and blanks its cells again, so every invocation sees the same board
+     */
+    @Benchmark
+    public void placePiece() {
+        game.placePiece();
+        board.setPos(piece.getX0(), piece.getY0() + 1, BACKGROUND);
+        board.setPos(piece.getX0() + 1, piece.getY0(), BACKGROUND);
+        board.setPos(piece.getX0() + 1, piece.getY0() + 1, BACKGROUND);
+        board.setPos(piece.getX0() + 2, piece.getY0() + 1, BACKGROUND);
+    }
+}
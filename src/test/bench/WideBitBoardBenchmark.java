@@ -0,0 +1,228 @@
+package test.bench;
+
+import main.model.BitBoard;
+import main.model.Board;
+import main.model.GameEngine;
+import main.model.GameRandom;
+import main.model.WideBitBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares WideBitBoard row checks, hole counts, column heights and row clears with the same operations done one
+ * cell at a time on a byte per cell, on half filled boards of growing width.
+ * The Backend benchmarks run the operations GameEngine uses through the Board interface on a BitBoard and a
+ * WideBitBoard of at most 64 columns with the same cells, and play hard drops on a GameEngine over each, so the
+ * wide board is also measured against the one bitmask per row path it replaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WideBitBoardBenchmark {
+    private static final byte BLANK = 0;
+    private static final byte OCCUPIED = 1;
+
+    @Param({BoardSizes.SMALL, BoardSizes.LARGE, BoardSizes.WIDE, BoardSizes.WIDEST})
+    public String size;
+
+    private WideBitBoard board;
+    private byte[] cells;
+    private int[] heights;
+    private int width;
+    private int height;
+
+    @Setup
+    public void setUp() {
+        width = BoardSizes.width(size);
+        height = BoardSizes.height(size);
+        board = new WideBitBoard(width, height);
+        cells = new byte[width * height];
+        heights = new int[width];
+        Random random = new Random(0);
+        for (int row = height / 2; row < height; row++) {
+            for (int col = 0; col < width; col++) {
+                if (col != row % width && random.nextBoolean()) {
+                    board.setCell(col, row, OCCUPIED);
+                    cells[col + row * width] = OCCUPIED;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void isRowCompleteWords(Blackhole blackhole) {
+        for (int row = 0; row < height; row++) {
+            blackhole.consume(board.isRowComplete(row));
+        }
+    }
+
+    @Benchmark
+    public void isRowCompleteCells(Blackhole blackhole) {
+        for (int row = 0; row < height; row++) {
+            blackhole.consume(isRowComplete(row));
+        }
+    }
+
+    @Benchmark
+    public int countHolesWords() {
+        return board.countHoles();
+    }
+
+    @Benchmark
+    public int countHolesCells() {
+        int holes = 0;
+        for (int col = 0; col < width; col++) {
+            boolean covered = false;
+            for (int row = 0; row < height; row++) {
+                if (cells[col + row * width] != BLANK) {
+                    covered = true;
+                } else if (covered) {
+                    holes++;
+                }
+            }
+        }
+        return holes;
+    }
+
+    @Benchmark
+    public int columnHeightsWords() {
+        return board.columnHeights(heights);
+    }
+
+    @Benchmark
+    public int columnHeightsCells() {
+        int aggregate = 0;
+        for (int col = 0; col < width; col++) {
+            int row = 0;
+            while (row < height && cells[col + row * width] == BLANK) {
+                row++;
+            }
+            heights[col] = height - row;
+            aggregate += height - row;
+        }
+        return aggregate;
+    }
+
+    /**
+     * fills bottom row and clears it; board content only moves down so cost stays that of a full height shift
+     */
+    @Benchmark
+    public int clearRowsWords() {
+        board.fillRow(height - 1, OCCUPIED);
+        return board.clearCompleteRows(0, height - 1);
+    }
+
+    @Benchmark
+    public int clearRowsCells() {
+        Arrays.fill(cells, (height - 1) * width, height * width, OCCUPIED);
+        int removed = 0;
+        for (int row = height - 1; row >= 0; row--) {
+            if (isRowComplete(row)) {
+                removed++;
+            } else if (removed > 0) {
+                System.arraycopy(cells, row * width, cells, (row + removed) * width, width);
+            }
+        }
+        Arrays.fill(cells, 0, removed * width, BLANK);
+        return removed;
+    }
+
+    @Benchmark
+    public static void isRowCompleteBoard(Backend backend, Blackhole blackhole) {
+        for (int row = 0; row < backend.height; row++) {
+            blackhole.consume(backend.board.isRowComplete(row));
+        }
+    }
+
+    /**
+     * fills bottom row cell by cell and clears it, as a placement completing a row does
+     */
+    @Benchmark
+    public static int clearRowsBoard(Backend backend) {
+        for (int col = 0; col < backend.width; col++) {
+            backend.board.setCell(col, backend.height - 1, OCCUPIED);
+        }
+        return backend.board.clearCompleteRows(0, backend.height - 1);
+    }
+
+    @Benchmark
+    public static boolean hardDropBoard(Backend backend) {
+        boolean moved = backend.engine.apply(GameEngine.ACTIONS.HARD_DROP);
+        if (backend.engine.isGameOver()) {
+            backend.engine.reset();
+        }
+        return moved;
+    }
+
+    /**
+     * @return true if every cell of row is occupied, checked one cell at a time
+     */
+    private boolean isRowComplete(int row) {
+        for (int col = 0; col < width; col++) {
+            if (cells[col + row * width] == BLANK) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Board of at most 64 columns held by either backend, with the cells of the outer benchmark's board
+     */
+    @State(Scope.Thread)
+    public static class Backend {
+        @Param({BoardSizes.SMALL, BoardSizes.LARGE})
+        public String size;
+
+        @Param({"BitBoard", "WideBitBoard"})
+        public String backend;
+
+        private Board board;
+        private GameEngine engine;
+        private int width;
+        private int height;
+
+        @Setup
+        public void setUp() {
+            width = BoardSizes.width(size);
+            height = BoardSizes.height(size);
+            board = newBoard();
+            Random random = new Random(0);
+            for (int row = height / 2; row < height; row++) {
+                for (int col = 0; col < width; col++) {
+                    if (col != row % width && random.nextBoolean()) {
+                        board.setCell(col, row, OCCUPIED);
+                    }
+                }
+            }
+            engine = new GameEngine(newBoard(), new GameRandom(42));
+        }
+
+        /**
+         * @return blank board of the chosen backend
+         */
+        private Board newBoard() {
+            if (backend.equals("BitBoard")) {
+                return new BitBoard(width, height);
+            }
+            return new WideBitBoard(width, height);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package test.metrics;
+
+import main.metrics.LatencyHistogram;
+import main.metrics.MetricsRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for LatencyHistogram class
+ */
+public class LatencyHistogramTest {
+
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    public void setUp() {
+        histogram = new MetricsRegistry().histogram("test");
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals("test", histogram.getName());
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getP50Nanos());
+        assertEquals(0.0, histogram.getMeanNanos());
+        assertEquals(0, histogram.getMaxNanos());
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        for (int i = 0; i < 10; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+        assertEquals(11, histogram.getCount());
+        assertEquals(4, histogram.getP50Nanos());
+        assertEquals(9, histogram.getPercentile(100.0));
+        assertEquals(0, histogram.getPercentile(0.0));
+        assertEquals(9, histogram.getMaxNanos());
+        assertEquals(45.0 / 11, histogram.getMeanNanos(), 1e-9);
+    }
+
+    @Test
+    public void testPercentilesWithinBucketPrecision() {
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1000);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000L, histogram.getMaxNanos());
+        assertWithin(50_000_000L, histogram.getP50Nanos());
+        assertWithin(90_000_000L, histogram.getP90Nanos());
+        assertWithin(99_000_000L, histogram.getP99Nanos());
+        assertWithin(99_900_000L, histogram.getP999Nanos());
+        assertEquals(50_000_500.0, histogram.getMeanNanos(), 1e-3);
+    }
+
+    @Test
+    public void testExtremeValue() {
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getMaxNanos());
+        assertEquals(Long.MAX_VALUE, histogram.getP50Nanos());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final long value = (t + 1) * 100L;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(value);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(400, histogram.getMaxNanos());
+        assertEquals(250.0, histogram.getMeanNanos(), 1e-9);
+    }
+
+    /**
+     * asserts that reported is at least expected and within one bucket of it
+     */
+    private static void assertWithin(long expected, long reported) {
+        assertTrue(reported >= expected, reported + " below " + expected);
+        assertTrue(reported <= expected + expected / LatencyHistogram.SUB_BUCKETS, reported + " above bucket");
+    }
+}
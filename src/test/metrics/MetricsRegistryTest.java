@@ -0,0 +1,68 @@
+package test.metrics;
+
+import main.metrics.Counter;
+import main.metrics.LatencyHistogram;
+import main.metrics.MetricsRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for MetricsRegistry class
+ */
+public class MetricsRegistryTest {
+
+    private MetricsRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    public void testMetricsCreatedOncePerName() {
+        Counter counter = registry.counter("a.count");
+        assertSame(counter, registry.counter("a.count"));
+        assertNotSame(counter, registry.counter("b.count"));
+        LatencyHistogram histogram = registry.histogram("a.latency");
+        assertSame(histogram, registry.histogram("a.latency"));
+        counter.increment();
+        counter.add(4);
+        assertEquals(5, counter.getCount());
+    }
+
+    @Test
+    public void testDump() {
+        registry.counter("game.moves").add(3);
+        registry.histogram("game.nextState").record(2_000);
+        String dump = registry.dump();
+        assertTrue(dump.contains("game.moves"));
+        assertTrue(dump.contains("count 3"));
+        assertTrue(dump.contains("game.nextState"));
+        assertTrue(dump.contains("p99"));
+        assertTrue(registry.dump().contains("0.0/s"));
+    }
+
+    @Test
+    public void testRegisterMBeans() throws JMException {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        registry.counter("game.moves").add(7);
+        registry.histogram("game.nextState").record(1_000);
+        registry.registerMBeans(server);
+        assertEquals(7L, server.getAttribute(MetricsRegistry.objectName("Counter", "game.moves"), "Count"));
+        assertEquals(1L, server.getAttribute(MetricsRegistry.objectName("Latency", "game.nextState"), "Count"));
+        assertEquals(1_000L, server.getAttribute(MetricsRegistry.objectName("Latency", "game.nextState"),
+                "P99Nanos"));
+        try {
+            registry.registerMBeans(server);
+            fail("Exception expected");
+        } catch (JMException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package test.model;
+
+import main.model.BagGenerator;
+import main.model.GameRandom;
+import main.model.PieceGenerator;
+import main.model.PuzzlePiece;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for BagGenerator class
+ */
+public class BagGeneratorTest {
+
+    private static final int TYPE_COUNT = PuzzlePiece.PIECES.values().length;
+
+    @Test
+    public void testEveryBagHoldsEachTypeOnce() {
+        BagGenerator generator = new BagGenerator(new GameRandom(17));
+        for (int bag = 0; bag < 100; bag++) {
+            boolean[] seen = new boolean[TYPE_COUNT];
+            for (int i = 0; i < TYPE_COUNT; i++) {
+                PuzzlePiece.PIECES type = generator.next();
+                assertFalse(seen[type.ordinal()]);
+                seen[type.ordinal()] = true;
+            }
+        }
+    }
+
+    @Test
+    public void testSameSeedSameSequence() {
+        BagGenerator first = new BagGenerator(new GameRandom(3));
+        BagGenerator second = new BagGenerator(new GameRandom(3));
+        BagGenerator other = new BagGenerator(new GameRandom(4));
+        boolean differs = false;
+        for (int i = 0; i < 70; i++) {
+            PuzzlePiece.PIECES type = first.next();
+            assertEquals(type, second.next());
+            differs |= type != other.next();
+        }
+        assertTrue(differs);
+    }
+
+    @Test
+    public void testWriteAndReadStateMidBag() {
+        BagGenerator first = new BagGenerator(new GameRandom(21));
+        for (int i = 0; i < 10; i++) {
+            first.next();
+        }
+        ByteBuffer state = ByteBuffer.allocate(PieceGenerator.STATE_BYTES);
+        first.writeState(state);
+        assertFalse(state.hasRemaining());
+        state.flip();
+        BagGenerator second = new BagGenerator(new GameRandom(0));
+        second.readState(state);
+        for (int i = 0; i < 30; i++) {
+            assertEquals(first.next(), second.next());
+        }
+    }
+
+    @Test
+    public void testReadStateRejectsBadType() {
+        ByteBuffer state = ByteBuffer.allocate(PieceGenerator.STATE_BYTES);
+        state.putLong(0L);
+        state.put((byte) TYPE_COUNT);
+        state.rewind();
+        try {
+            new BagGenerator(new GameRandom(0)).readState(state);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package test.model;
+
+import main.model.BitBoard;
+import main.model.PieceShape;
+import main.model.PuzzlePiece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for BitBoard class
+ */
+public class BitBoardTest {
+
+    private static final byte PIECE_INDEX = 3;
+    private static final int WIDTH = 8;
+    private static final int HEIGHT = 12;
+    private BitBoard board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new BitBoard(WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(WIDTH, board.getWidth());
+        assertEquals(HEIGHT, board.getHeight());
+        assertEquals(0xFFL, board.getFullRow());
+        assertEquals(-1L, new BitBoard(BitBoard.MAX_WIDTH, 1).getFullRow());
+        for (int y = 0; y < HEIGHT; y++) {
+            assertEquals(0L, board.getRow(y));
+        }
+        try {
+            new BitBoard(BitBoard.MAX_WIDTH + 1, HEIGHT);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        try {
+            new BitBoard(WIDTH, 0);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testGetSetCell() {
+        board.setCell(7, 11, PIECE_INDEX);
+        assertEquals(PIECE_INDEX, board.getCell(7, 11));
+        assertTrue(board.isOccupied(7, 11));
+        assertEquals(1L << 7, board.getRow(11));
+
+        board.setCell(7, 11, BitBoard.EMPTY);
+        assertEquals(BitBoard.EMPTY, board.getCell(7, 11));
+        assertFalse(board.isOccupied(7, 11));
+        assertEquals(0L, board.getRow(11));
+
+        try {
+            board.setCell(8, 11, PIECE_INDEX);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+        try {
+            board.getCell(7, 12);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+        try {
+            board.isOccupied(-1, 0);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testRowComplete() {
+        for (int x = 0; x < WIDTH; x++) {
+            board.setCell(x, 1, PIECE_INDEX);
+        }
+        assertTrue(board.isRowComplete(1));
+        board.setCell(1, 1, BitBoard.EMPTY);
+        assertFalse(board.isRowComplete(1));
+    }
+
+    @Test
+    public void testClearRow() {
+        for (int x = 0; x < WIDTH; x++) {
+            board.setCell(x, x, (byte) (x + 1));
+        }
+
+        board.clearRow(3);
+        assertEquals(0L, board.getRow(0));
+        for (int x = 0; x < 3; x++) {
+            assertEquals(x + 1, board.getCell(x, x + 1));
+            assertEquals(1L << x, board.getRow(x + 1));
+        }
+        for (int x = 4; x < WIDTH; x++) {
+            assertEquals(x + 1, board.getCell(x, x));
+        }
+
+        board.clearRow(HEIGHT - 1);
+        assertEquals(1L << 7, board.getRow(8));
+
+        try {
+            board.clearRow(HEIGHT);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testFits() {
+        PieceShape shape = PieceShape.get(PuzzlePiece.PIECES.T, 0);
+        assertTrue(board.fits(shape, 0, 0));
+        assertTrue(board.fits(shape, WIDTH - 3, HEIGHT - 2));
+        assertFalse(board.fits(shape, -1, 0));
+        assertFalse(board.fits(shape, 0, -1));
+        assertFalse(board.fits(shape, WIDTH - 2, 0));
+        assertFalse(board.fits(shape, 0, HEIGHT - 1));
+
+        board.setCell(1, 5, PIECE_INDEX);
+        assertFalse(board.fits(shape, 0, 5));
+        assertFalse(board.fits(shape, 0, 4));
+        assertTrue(board.fits(shape, 2, 4));
+        board.setCell(0, 5, PIECE_INDEX);
+        assertTrue(board.fits(shape, 0, 3));
+    }
+
+    @Test
+    public void testColumnTops() {
+        assertEquals(HEIGHT, board.getColumnTop(2));
+        assertEquals(0, board.getColumnHeight(2));
+        board.setCell(2, 9, PIECE_INDEX);
+        board.setCell(2, 6, PIECE_INDEX);
+        board.setCell(2, 11, PIECE_INDEX);
+        assertEquals(6, board.getColumnTop(2));
+        assertEquals(HEIGHT - 6, board.getColumnHeight(2));
+
+        board.setCell(2, 6, BitBoard.EMPTY);
+        assertEquals(9, board.getColumnTop(2));
+
+        for (int x = 0; x < WIDTH; x++) {
+            board.setCell(x, 10, PIECE_INDEX);
+        }
+        board.setCell(3, 4, PIECE_INDEX);
+        board.clearRow(10);
+        assertEquals(10, board.getColumnTop(2));
+        assertEquals(5, board.getColumnTop(3));
+        assertEquals(HEIGHT, board.getColumnTop(4));
+
+        assertEquals(5, board.getSurfaceTop());
+
+        board.clearRow(5);
+        assertEquals(HEIGHT, board.getColumnTop(3));
+        assertEquals(10, board.getSurfaceTop());
+        board.setBlankBoard();
+        assertEquals(HEIGHT, board.getColumnTop(2));
+        assertEquals(HEIGHT, board.getSurfaceTop());
+    }
+
+    @Test
+    public void testDropDistance() {
+        PieceShape shape = PieceShape.get(PuzzlePiece.PIECES.T, 0);
+        assertEquals(HEIGHT - 2, board.dropDistance(shape, 0, 0));
+        board.setCell(2, 7, PIECE_INDEX);
+        assertEquals(5, board.dropDistance(shape, 0, 0));
+        assertEquals(0, board.dropDistance(shape, -1, 0));
+        assertEquals(0, board.dropDistance(shape, WIDTH - 2, 0));
+
+        board.setCell(5, 4, PIECE_INDEX);
+        assertEquals(HEIGHT - 7, board.dropDistance(shape, 4, 5));
+    }
+
+    @Test
+    public void testDropDistanceMatchesProbe() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 200; trial++) {
+            board.setBlankBoard();
+            for (int i = 0; i < 30; i++) {
+                board.setCell(random.nextInt(WIDTH), 2 + random.nextInt(HEIGHT - 2), PIECE_INDEX);
+            }
+            for (PuzzlePiece.PIECES type : PuzzlePiece.PIECES.values()) {
+                for (int r = 0; r < PieceShape.ROTATIONS; r++) {
+                    PieceShape shape = PieceShape.get(type, r);
+                    for (int x = 0; x + shape.getMaxX() < WIDTH; x++) {
+                        for (int y = 0; y + shape.getMaxY() < HEIGHT; y++) {
+                            if (board.fits(shape, x, y)) {
+                                int expected = 0;
+                                while (board.fits(shape, x, y + expected + 1)) {
+                                    expected++;
+                                }
+                                assertEquals(expected, board.dropDistance(shape, x, y));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testClearCompleteRows() {
+        for (int x = 0; x < WIDTH; x++) {
+            board.setCell(x, 4, PIECE_INDEX);
+            board.setCell(x, 6, PIECE_INDEX);
+            board.setCell(x, 7, PIECE_INDEX);
+        }
+        board.setCell(0, 2, (byte) 1);
+        board.setCell(1, 5, (byte) 2);
+        board.setCell(2, 8, (byte) 3);
+        board.setCell(3, 11, (byte) 4);
+        assertEquals(0, board.clearCompleteRows(8, 11));
+
+        assertEquals(3, board.clearCompleteRows(4, 8));
+        assertEquals(0L, board.getRow(0));
+        assertEquals(0L, board.getRow(4));
+        assertEquals(1, board.getCell(0, 5));
+        assertEquals(2, board.getCell(1, 7));
+        assertEquals(3, board.getCell(2, 8));
+        assertEquals(4, board.getCell(3, 11));
+        assertEquals(5, board.getColumnTop(0));
+        assertEquals(7, board.getColumnTop(1));
+        assertEquals(8, board.getColumnTop(2));
+        assertEquals(HEIGHT, board.getColumnTop(4));
+        for (int y = 0; y < HEIGHT; y++) {
+            assertFalse(board.isRowComplete(y));
+        }
+
+        try {
+            board.clearCompleteRows(5, 4);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testClearCompleteRowsMatchesClearRow() {
+        Random random = new Random(5);
+        BitBoard expected = new BitBoard(WIDTH, HEIGHT);
+        for (int trial = 0; trial < 100; trial++) {
+            board.setBlankBoard();
+            expected.setBlankBoard();
+            for (int y = 0; y < HEIGHT; y++) {
+                boolean full = random.nextInt(3) == 0;
+                for (int x = 0; x < WIDTH; x++) {
+                    if (full || random.nextBoolean()) {
+                        byte index = (byte) (1 + random.nextInt(7));
+                        board.setCell(x, y, index);
+                        expected.setCell(x, y, index);
+                    }
+                }
+            }
+            int fromY = random.nextInt(HEIGHT);
+            int toY = fromY + random.nextInt(HEIGHT - fromY);
+            int cleared = 0;
+            for (int y = fromY; y <= toY; y++) {
+                if (expected.isRowComplete(y)) {
+                    expected.clearRow(y);
+                    cleared++;
+                }
+            }
+            assertEquals(cleared, board.clearCompleteRows(fromY, toY));
+            for (int y = 0; y < HEIGHT; y++) {
+                assertEquals(expected.getRow(y), board.getRow(y));
+                for (int x = 0; x < WIDTH; x++) {
+                    assertEquals(expected.getCell(x, y), board.getCell(x, y));
+                }
+            }
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals(expected.getColumnTop(x), board.getColumnTop(x));
+            }
+            assertEquals(expected.getHash(), board.getHash());
+            assertEquals(rebuiltHash(board), board.getHash());
+        }
+    }
+
+    @Test
+    public void testHash() {
+        assertEquals(0L, board.getHash());
+        board.setCell(2, 5, PIECE_INDEX);
+        long one = board.getHash();
+        assertNotEquals(0L, one);
+        board.setCell(2, 5, (byte) 6);
+        assertEquals(one, board.getHash());
+        board.setCell(3, 5, PIECE_INDEX);
+        board.setCell(2, 6, PIECE_INDEX);
+        assertNotEquals(one, board.getHash());
+        assertEquals(rebuiltHash(board), board.getHash());
+
+        BitBoard other = new BitBoard(WIDTH, HEIGHT);
+        other.setCell(2, 6, PIECE_INDEX);
+        other.setCell(3, 5, PIECE_INDEX);
+        other.setCell(2, 5, PIECE_INDEX);
+        assertEquals(board.getHash(), other.getHash());
+        other.setCell(3, 5, BitBoard.EMPTY);
+        other.setCell(2, 6, BitBoard.EMPTY);
+        assertEquals(one, other.getHash());
+
+        BitBoard copy = new BitBoard(WIDTH, HEIGHT);
+        copy.copyFrom(board);
+        assertEquals(board.getHash(), copy.getHash());
+        board.setBlankBoard();
+        assertEquals(0L, board.getHash());
+    }
+
+    @Test
+    public void testHashAfterPlacing() {
+        Random random = new Random(8);
+        for (int trial = 0; trial < 100; trial++) {
+            board.setBlankBoard();
+            for (int i = 0; i < 30; i++) {
+                board.setCell(random.nextInt(WIDTH), 4 + random.nextInt(HEIGHT - 4), PIECE_INDEX);
+            }
+            PuzzlePiece.PIECES type = PuzzlePiece.PIECES.values()[random.nextInt(PuzzlePiece.PIECES.values().length)];
+            PieceShape shape = PieceShape.get(type, random.nextInt(PieceShape.ROTATIONS));
+            int x = random.nextInt(WIDTH - shape.getMaxX());
+            long before = board.getHash();
+            long placed = board.hashAfterPlacing(shape, x, 0);
+            assertEquals(before, board.getHash());
+            for (int i = 0; i < shape.getVertexCount(); i++) {
+                board.setCell(x + shape.getVertexX(i), shape.getVertexY(i), PIECE_INDEX);
+            }
+            assertEquals(placed, board.getHash());
+        }
+    }
+
+    /**
+     * @return hash of a new board read from cells of board
+     */
+    private static long rebuiltHash(BitBoard board) {
+        ByteBuffer buffer = ByteBuffer.allocate(board.getWidth() * board.getHeight());
+        board.writeCells(buffer);
+        buffer.flip();
+        BitBoard rebuilt = new BitBoard(board.getWidth(), board.getHeight());
+        rebuilt.readCells(buffer);
+        return rebuilt.getHash();
+    }
+
+    @Test
+    public void testSetBlankBoard() {
+        board.setCell(2, 5, PIECE_INDEX);
+        board.setBlankBoard();
+        assertEquals(0L, board.getRow(5));
+        assertEquals(BitBoard.EMPTY, board.getCell(2, 5));
+    }
+
+    @Test
+    public void testCopyFrom() {
+        board.setCell(2, 5, PIECE_INDEX);
+        board.setCell(7, 11, PIECE_INDEX);
+        BitBoard copy = new BitBoard(WIDTH, HEIGHT);
+        copy.setCell(0, 0, PIECE_INDEX);
+        copy.copyFrom(board);
+        assertEquals(PIECE_INDEX, copy.getCell(2, 5));
+        assertFalse(copy.isOccupied(0, 0));
+        assertEquals(5, copy.getColumnTop(2));
+        assertEquals(HEIGHT, copy.getColumnTop(0));
+        copy.setCell(2, 5, BitBoard.EMPTY);
+        assertTrue(board.isOccupied(2, 5));
+
+        try {
+            copy.copyFrom(new BitBoard(WIDTH, HEIGHT + 1));
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testSaveAndRestoreRows() {
+        board.setCell(2, 5, PIECE_INDEX);
+        board.setCell(4, 9, PIECE_INDEX);
+        board.setCell(4, 11, PIECE_INDEX);
+        long[] rows = new long[HEIGHT + 1];
+        byte[] cells = new byte[(HEIGHT + 1) * WIDTH];
+        board.saveRows(4, 9, rows, cells, 1);
+        long hash = board.getHash();
+
+        board.setCell(2, 5, BitBoard.EMPTY);
+        board.setCell(2, 3, PIECE_INDEX);
+        board.setCell(4, 6, PIECE_INDEX);
+        board.setCell(4, 9, BitBoard.EMPTY);
+        board.setCell(6, 8, PIECE_INDEX);
+        board.clearDirtyRows();
+        board.setCell(2, 3, BitBoard.EMPTY);
+        board.restoreRows(4, 9, rows, cells, 1);
+        assertEquals(PIECE_INDEX, board.getCell(2, 5));
+        assertEquals(PIECE_INDEX, board.getCell(4, 9));
+        assertFalse(board.isOccupied(4, 6));
+        assertFalse(board.isOccupied(6, 8));
+        assertEquals(5, board.getColumnTop(2));
+        assertEquals(9, board.getColumnTop(4));
+        assertEquals(HEIGHT, board.getColumnTop(6));
+        assertEquals(hash, board.getHash());
+        assertEquals(rebuiltHash(board), board.getHash());
+        assertEquals(3, board.getDirtyTop());
+        assertEquals(9, board.getDirtyBottom());
+
+        try {
+            board.restoreRows(4, HEIGHT, rows, cells, 0);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testPlaceShape() {
+        PieceShape square = PieceShape.get(PuzzlePiece.PIECES.SQ, 0);
+        for (int x = 2; x < WIDTH; x++) {
+            board.setCell(x, HEIGHT - 1, PIECE_INDEX);
+        }
+        assertEquals(1, board.placeShape(square, 0, HEIGHT - 2, (byte) 5));
+        assertEquals(5, board.getCell(0, HEIGHT - 1));
+        assertEquals(5, board.getCell(1, HEIGHT - 1));
+        assertFalse(board.isOccupied(2, HEIGHT - 1));
+        assertEquals(HEIGHT - 1, board.getColumnTop(0));
+
+        assertEquals(0, board.placeShape(square, 4, HEIGHT - 2, (byte) 5));
+        assertEquals(HEIGHT - 2, board.getColumnTop(5));
+    }
+
+    @Test
+    public void testDirtyRows() {
+        assertEquals(0, board.getDirtyTop());
+        assertEquals(HEIGHT - 1, board.getDirtyBottom());
+        board.clearDirtyRows();
+        assertTrue(board.getDirtyTop() > board.getDirtyBottom());
+
+        board.setCell(2, 5, PIECE_INDEX);
+        board.setCell(4, 7, PIECE_INDEX);
+        assertEquals(5, board.getDirtyTop());
+        assertEquals(7, board.getDirtyBottom());
+        board.clearDirtyRows();
+
+        for (int x = 0; x < WIDTH - 1; x++) {
+            board.setCell(x, HEIGHT - 1, PIECE_INDEX);
+        }
+        board.clearDirtyRows();
+        board.placeShape(PieceShape.get(PuzzlePiece.PIECES.ST, 0), WIDTH - 1, HEIGHT - 4, PIECE_INDEX);
+        assertEquals(5, board.getDirtyTop());
+        assertEquals(HEIGHT - 1, board.getDirtyBottom());
+        assertEquals(0L, board.getRow(5));
+
+        board.clearDirtyRows();
+        board.setBlankBoard();
+        assertEquals(0, board.getDirtyTop());
+        assertEquals(HEIGHT - 1, board.getDirtyBottom());
+    }
+}
@@ -0,0 +1,105 @@
+package test.model;
+
+import main.model.BitBoard;
+import main.model.BoardSnapshot;
+import main.model.PuzzleBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for BoardSnapshot class
+ */
+public class BoardSnapshotTest {
+
+    private static final int WIDTH = 8;
+    private static final int HEIGHT = 12;
+    private static final byte RED = 2;
+    private static final byte GREEN = 1;
+    private static final byte BLUE = 7;
+    private PuzzleBoard board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new PuzzleBoard(WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void testInitialSnapshot() {
+        BoardSnapshot snapshot = board.getSnapshot();
+        assertEquals(0, snapshot.getVersion());
+        assertEquals(WIDTH, snapshot.getWidth());
+        assertEquals(HEIGHT, snapshot.getHeight());
+        assertEquals(BitBoard.EMPTY, snapshot.getCell(3, 4));
+        assertSame(snapshot, board.publishSnapshot());
+    }
+
+    @Test
+    public void testSnapshotIsImmutableAndSharesRows() {
+        board.setPos(2, 5, RED);
+        BoardSnapshot first = board.publishSnapshot();
+        assertSame(first, board.getSnapshot());
+        assertEquals(1, first.getVersion());
+        assertEquals(RED, first.getCell(2, 5));
+
+        board.setPos(3, 9, BLUE);
+        board.setPos(2, 5, BitBoard.EMPTY);
+        assertEquals(RED, first.getCell(2, 5));
+        BoardSnapshot second = board.publishSnapshot();
+        assertEquals(2, second.getVersion());
+        assertEquals(BitBoard.EMPTY, second.getCell(2, 5));
+        assertEquals(BLUE, second.getCell(3, 9));
+        assertEquals(BitBoard.EMPTY, first.getCell(3, 9));
+        for (int y = 0; y < HEIGHT; y++) {
+            assertEquals(y != 5 && y != 9, second.isSameRow(first, y));
+        }
+        assertTrue(second.isSameRow(board.getSnapshot(), 0));
+    }
+
+    @Test
+    public void testUnchangedRowsStayShared() {
+        board.setPos(4, 6, RED);
+        BoardSnapshot first = board.publishSnapshot();
+        board.setPos(4, 6, BitBoard.EMPTY);
+        board.setPos(4, 6, RED);
+        board.setPos(1, 1, RED);
+        board.setPos(1, 1, BitBoard.EMPTY);
+        BoardSnapshot second = board.publishSnapshot();
+        assertTrue(second.isSameRow(first, 6));
+        assertTrue(second.isSameRow(first, 1));
+        assertTrue(second.isSameRow(first, 0));
+    }
+
+    @Test
+    public void testRowClearShiftsRows() {
+        for (int x = 0; x < WIDTH; x++) {
+            board.setPos(x, HEIGHT - 1, GREEN);
+        }
+        board.setPos(0, HEIGHT - 2, RED);
+        BoardSnapshot before = board.publishSnapshot();
+        assertEquals(1, board.clearCompleteRows());
+        BoardSnapshot after = board.publishSnapshot();
+        assertEquals(RED, after.getCell(0, HEIGHT - 1));
+        assertEquals(BitBoard.EMPTY, after.getCell(0, HEIGHT - 2));
+        assertTrue(after.isSameRow(before, 0));
+        assertTrue(after.isSameRow(before, HEIGHT - 3));
+        assertFalse(after.isSameRow(before, HEIGHT - 1));
+    }
+
+    @Test
+    public void testOutOfBounds() {
+        try {
+            board.getSnapshot().getCell(WIDTH, 0);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+        try {
+            board.getSnapshot().getCell(0, HEIGHT);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+}
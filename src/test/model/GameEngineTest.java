@@ -0,0 +1,223 @@
+package test.model;
+
+import main.model.BagGenerator;
+import main.model.BitBoard;
+import main.model.GameEngine;
+import main.model.GameRandom;
+import main.model.PieceQueue;
+import main.model.PuzzlePiece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for GameEngine class
+ */
+public class GameEngineTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private GameEngine engine;
+    private BitBoard board;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new MockRandom());
+        board = (BitBoard) engine.getBoard();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(PuzzlePiece.PIECES.J, engine.getPieceType());
+        assertEquals(3, engine.getPieceX());
+        assertEquals(0, engine.getPieceY());
+        assertEquals(1, engine.getPieceCount());
+        assertEquals(1, engine.getLevel());
+        assertEquals(0, engine.getScore());
+        assertEquals(0, engine.getClearedRows());
+        assertFalse(engine.isGameOver());
+    }
+
+    @Test
+    public void testStep() {
+        assertFalse(engine.step());
+        assertEquals(1, engine.getPieceY());
+
+        engine.setPiece(PuzzlePiece.PIECES.J, 1, 3, GRID_HEIGHT - 2);
+        assertTrue(engine.step());
+        assertEquals(PuzzlePiece.PIECES.L, engine.getPieceType());
+        assertEquals(2, engine.getPieceCount());
+        byte jIndex = GameEngine.colorIndex(PuzzlePiece.PIECES.J);
+        assertEquals(jIndex, board.getCell(3, GRID_HEIGHT - 2));
+        assertEquals(jIndex, board.getCell(3, GRID_HEIGHT - 1));
+        assertEquals(jIndex, board.getCell(4, GRID_HEIGHT - 1));
+        assertEquals(jIndex, board.getCell(5, GRID_HEIGHT - 1));
+    }
+
+    @Test
+    public void testApplyMoves() {
+        engine.setPiece(PuzzlePiece.PIECES.SQ, 0, 3, 0);
+        assertFalse(engine.apply(GameEngine.ACTIONS.LEFT));
+        assertEquals(2, engine.getPieceX());
+        for (int i = 0; i < GRID_WIDTH; i++) {
+            engine.apply(GameEngine.ACTIONS.RIGHT);
+        }
+        assertEquals(GRID_WIDTH - 2, engine.getPieceX());
+        for (int i = 0; i < GRID_WIDTH; i++) {
+            engine.apply(GameEngine.ACTIONS.LEFT);
+        }
+        assertEquals(0, engine.getPieceX());
+        assertFalse(engine.apply(GameEngine.ACTIONS.DOWN));
+        assertEquals(1, engine.getPieceY());
+    }
+
+    @Test
+    public void testApplyRotations() {
+        engine.setPiece(PuzzlePiece.PIECES.ST, 0, 0, 0);
+        engine.apply(GameEngine.ACTIONS.ROTATE_CW);
+        assertEquals(1, engine.getPieceRotation());
+        engine.apply(GameEngine.ACTIONS.ROTATE_CCW);
+        engine.apply(GameEngine.ACTIONS.ROTATE_CCW);
+        assertEquals(3, engine.getPieceRotation());
+
+        engine.setPiece(PuzzlePiece.PIECES.ST, 0, GRID_WIDTH - 1, 0);
+        engine.apply(GameEngine.ACTIONS.ROTATE_CW);
+        assertEquals(0, engine.getPieceRotation());
+        engine.apply(GameEngine.ACTIONS.ROTATE_CCW);
+        assertEquals(0, engine.getPieceRotation());
+    }
+
+    @Test
+    public void testHardDropClearsRow() {
+        for (int x = 0; x < GRID_WIDTH - 1; x++) {
+            board.setCell(x, GRID_HEIGHT - 1, (byte) 9);
+        }
+        board.setCell(0, GRID_HEIGHT - 2, (byte) 9);
+        engine.setPiece(PuzzlePiece.PIECES.ST, 0, GRID_WIDTH - 1, 0);
+        assertEquals(GRID_HEIGHT - 4, engine.getDistToBottom());
+        assertTrue(engine.apply(GameEngine.ACTIONS.HARD_DROP));
+        assertEquals(50, engine.getScore());
+        assertEquals(1, engine.getClearedRows());
+        assertEquals(1L | 1L << (GRID_WIDTH - 1), board.getRow(GRID_HEIGHT - 1));
+        assertEquals(1L << (GRID_WIDTH - 1), board.getRow(GRID_HEIGHT - 2));
+    }
+
+    @Test
+    public void testGameOverAndReset() {
+        engine.setPiece(PuzzlePiece.PIECES.L, 0, 3, 0);
+        board.setCell(3, 3, (byte) 9);
+        assertTrue(engine.isGameOver());
+        engine.updateScore(2);
+        engine.reset();
+        assertFalse(engine.isGameOver());
+        assertEquals(0L, board.getRow(3));
+        assertEquals(0, engine.getScore());
+        assertEquals(1, engine.getLevel());
+    }
+
+    @Test
+    public void testDeterministicUnderSeed() {
+        GameEngine first = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new Random(42));
+        GameEngine second = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new Random(42));
+        Random moves = new Random(7);
+        GameEngine.ACTIONS[] actions = GameEngine.ACTIONS.values();
+        for (int i = 0; i < 2000 && !first.isGameOver(); i++) {
+            GameEngine.ACTIONS action = actions[moves.nextInt(actions.length)];
+            assertEquals(first.apply(action), second.apply(action));
+            assertEquals(first.getPieceType(), second.getPieceType());
+            assertEquals(first.getPieceRotation(), second.getPieceRotation());
+        }
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            assertEquals(((BitBoard) first.getBoard()).getRow(y), ((BitBoard) second.getBoard()).getRow(y));
+        }
+        assertEquals(first.getScore(), second.getScore());
+        assertTrue(first.getPieceCount() > 1);
+    }
+
+    @Test
+    public void testWriteAndReadState() {
+        GameEngine first = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new GameRandom(42));
+        Random moves = new Random(7);
+        GameEngine.ACTIONS[] actions = GameEngine.ACTIONS.values();
+        for (int i = 0; i < 300; i++) {
+            first.apply(actions[moves.nextInt(actions.length)]);
+        }
+        ByteBuffer state = ByteBuffer.allocate(first.getStateSize());
+        first.writeState(state);
+        assertFalse(state.hasRemaining());
+        assertEquals(GameEngine.stateSize(GRID_WIDTH, GRID_HEIGHT), first.getStateSize());
+
+        GameEngine second = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new GameRandom(0));
+        state.flip();
+        second.readState(state);
+        assertEquals(first.getPieceCount(), second.getPieceCount());
+        for (int i = 0; i < 2000 && !first.isGameOver(); i++) {
+            GameEngine.ACTIONS action = actions[moves.nextInt(actions.length)];
+            assertEquals(first.apply(action), second.apply(action));
+            assertEquals(first.getPieceType(), second.getPieceType());
+            assertEquals(first.getPieceX(), second.getPieceX());
+            assertEquals(first.getPieceRotation(), second.getPieceRotation());
+        }
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            assertEquals(((BitBoard) first.getBoard()).getRow(y), ((BitBoard) second.getBoard()).getRow(y));
+            for (int x = 0; x < GRID_WIDTH; x++) {
+                assertEquals(first.getBoard().getCell(x, y), second.getBoard().getCell(x, y));
+            }
+        }
+        assertEquals(first.getScore(), second.getScore());
+        assertEquals(first.getTotalClearedRows(), second.getTotalClearedRows());
+    }
+
+    @Test
+    public void testStateNeedsGameRandom() {
+        try {
+            engine.writeState(ByteBuffer.allocate(engine.getStateSize()));
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testPreviewShowsNextPieces() {
+        GameEngine bagEngine = new GameEngine(new BitBoard(GRID_WIDTH, GRID_HEIGHT), new GameRandom(3),
+                new BagGenerator(new GameRandom(5)), PieceQueue.MAX_DEPTH);
+        PieceQueue preview = bagEngine.getPreview();
+        assertEquals(PieceQueue.MAX_DEPTH, preview.getDepth());
+        for (int i = 0; i < 50 && !bagEngine.isGameOver(); i++) {
+            PuzzlePiece.PIECES second = preview.peek(1);
+            PuzzlePiece.PIECES next = preview.peek(0);
+            bagEngine.apply(GameEngine.ACTIONS.HARD_DROP);
+            assertEquals(next, bagEngine.getPieceType());
+            assertEquals(second, preview.peek(0));
+        }
+    }
+
+    @Test
+    public void testWriteAndReadStateWithBag() {
+        GameRandom random = new GameRandom(11);
+        GameEngine first = new GameEngine(new BitBoard(GRID_WIDTH, GRID_HEIGHT), random, new BagGenerator(random), 2);
+        first.apply(GameEngine.ACTIONS.HARD_DROP);
+        first.apply(GameEngine.ACTIONS.HARD_DROP);
+        ByteBuffer state = ByteBuffer.allocate(first.getStateSize());
+        first.writeState(state);
+        state.flip();
+        GameRandom other = new GameRandom(0);
+        GameEngine second = new GameEngine(new BitBoard(GRID_WIDTH, GRID_HEIGHT), other, new BagGenerator(other), 2);
+        second.readState(state);
+        for (int i = 0; i < 30; i++) {
+            assertEquals(first.getPieceType(), second.getPieceType());
+            assertEquals(first.getPreview().peek(1), second.getPreview().peek(1));
+            first.step();
+            second.step();
+            if (first.isGameOver()) {
+                first.reset();
+                second.reset();
+            }
+        }
+    }
+}
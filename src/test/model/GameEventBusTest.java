@@ -0,0 +1,118 @@
+package test.model;
+
+import main.model.GameEngine;
+import main.model.GameEventBus;
+import main.model.GameEventListener;
+import main.model.PuzzleGame;
+import main.model.PuzzlePiece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for GameEventBus class
+ */
+public class GameEventBusTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private ArrayDeque<Runnable> pending;
+    private GameEventBus bus;
+    private List<Integer> scoreDispatches;
+    private List<Integer> pieceDispatches;
+
+    @BeforeEach
+    public void setUp() {
+        pending = new ArrayDeque<>();
+        bus = new GameEventBus(pending::add);
+        scoreDispatches = new ArrayList<>();
+        pieceDispatches = new ArrayList<>();
+        bus.subscribe(scoreDispatches::add, GameEventBus.EVENTS.SCORE_CHANGED);
+        bus.subscribe(pieceDispatches::add, GameEventBus.EVENTS.PIECE_MOVED, GameEventBus.EVENTS.PIECE_LOCKED);
+    }
+
+    @Test
+    public void testCoalescesUntilDispatch() {
+        bus.post(GameEventBus.EVENTS.PIECE_MOVED);
+        bus.flush();
+        bus.post(GameEventBus.EVENTS.PIECE_MOVED);
+        bus.post(GameEventBus.EVENTS.PIECE_LOCKED);
+        bus.flush();
+        bus.flush();
+        assertEquals(1, pending.size());
+        assertTrue(pieceDispatches.isEmpty());
+
+        pending.poll().run();
+        assertEquals(1, pieceDispatches.size());
+        int events = pieceDispatches.get(0);
+        assertTrue(GameEventBus.contains(events, GameEventBus.EVENTS.PIECE_MOVED));
+        assertTrue(GameEventBus.contains(events, GameEventBus.EVENTS.PIECE_LOCKED));
+        assertFalse(GameEventBus.contains(events, GameEventBus.EVENTS.SCORE_CHANGED));
+        assertTrue(scoreDispatches.isEmpty());
+
+        bus.post(GameEventBus.EVENTS.SCORE_CHANGED);
+        bus.flush();
+        assertEquals(1, pending.size());
+        pending.poll().run();
+        assertEquals(1, scoreDispatches.size());
+        assertEquals(1, pieceDispatches.size());
+    }
+
+    @Test
+    public void testPostWithoutFlushIsNotDispatched() {
+        bus.post(GameEventBus.EVENTS.PIECE_MOVED);
+        assertTrue(pending.isEmpty());
+        bus.flush();
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    public void testUnsubscribe() {
+        GameEventBus direct = new GameEventBus();
+        List<Integer> dispatches = new ArrayList<>();
+        GameEventListener listener = dispatches::add;
+        direct.subscribe(listener, GameEventBus.EVENTS.GAME_OVER);
+        direct.post(GameEventBus.EVENTS.GAME_OVER);
+        direct.flush();
+        assertEquals(1, dispatches.size());
+        direct.unsubscribe(listener);
+        direct.post(GameEventBus.EVENTS.GAME_OVER);
+        direct.flush();
+        assertEquals(1, dispatches.size());
+    }
+
+    @Test
+    public void testGameEvents() {
+        PuzzleGame game = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, new MockRandom(), bus);
+        game.userAction(GameEngine.ACTIONS.LEFT);
+        game.userAction(GameEngine.ACTIONS.HARD_DROP);
+        game.nextState();
+        assertEquals(1, pending.size());
+        pending.poll().run();
+        assertEquals(1, pieceDispatches.size());
+        int events = pieceDispatches.get(0);
+        assertTrue(GameEventBus.contains(events, GameEventBus.EVENTS.PIECE_MOVED));
+        assertTrue(GameEventBus.contains(events, GameEventBus.EVENTS.PIECE_LOCKED));
+        assertFalse(GameEventBus.contains(events, GameEventBus.EVENTS.ROWS_CLEARED));
+        assertTrue(scoreDispatches.isEmpty());
+
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            game.getBoardState().getBoard().setCell(x, GRID_HEIGHT - 1, (byte) 1);
+        }
+        game.getBoardState().getBoard().setCell(0, GRID_HEIGHT - 1, (byte) 0);
+        PuzzlePiece straight = PuzzlePiece.create(PuzzlePiece.PIECES.ST, 0, 0);
+        straight.setCurrentRotation(0);
+        game.setCurrentPiece(straight);
+        game.userAction(GameEngine.ACTIONS.HARD_DROP);
+        pending.poll().run();
+        assertEquals(1, scoreDispatches.size());
+        events = scoreDispatches.get(0);
+        assertTrue(GameEventBus.contains(events, GameEventBus.EVENTS.ROWS_CLEARED));
+        assertTrue(GameEventBus.contains(events, GameEventBus.EVENTS.SCORE_CHANGED));
+    }
+}
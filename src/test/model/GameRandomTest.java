@@ -0,0 +1,44 @@
+package test.model;
+
+import main.model.GameRandom;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for GameRandom class
+ */
+public class GameRandomTest {
+
+    @Test
+    public void testSameSequenceAsRandom() {
+        Random expected = new Random(2024L);
+        GameRandom random = new GameRandom(2024L);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(expected.nextInt(7), random.nextInt(7));
+            assertEquals(expected.nextLong(), random.nextLong());
+        }
+        expected.setSeed(5L);
+        random.setSeed(5L);
+        assertEquals(expected.nextDouble(), random.nextDouble());
+    }
+
+    @Test
+    public void testStateResumesSequence() {
+        GameRandom random = new GameRandom(99L);
+        random.nextInt();
+        long state = random.getState();
+        int[] values = new int[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(1000);
+        }
+        GameRandom resumed = new GameRandom(0L);
+        resumed.setState(state);
+        assertEquals(state, resumed.getState());
+        for (int value : values) {
+            assertEquals(value, resumed.nextInt(1000));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package test.model;
+
+import main.model.BagGenerator;
+import main.model.BitBoard;
+import main.model.GameEngine;
+import main.model.GameRandom;
+import main.model.GameState;
+import main.model.HistoryGenerator;
+import main.model.PieceGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * unit tests for GameState class
+ */
+public class GameStateTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private static final GameEngine.ACTIONS[] ACTIONS = GameEngine.ACTIONS.values();
+    private GameEngine engine;
+    private GameState state;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new GameRandom(42));
+        state = new GameState(GRID_WIDTH, GRID_HEIGHT);
+    }
+
+    /**
+     * @return bytes written by writeState of engine
+     */
+    private static byte[] stateBytes(GameEngine engine) {
+        ByteBuffer buffer = ByteBuffer.allocate(engine.getStateSize());
+        engine.writeState(buffer);
+        return buffer.array();
+    }
+
+    /**
+     * applies count random actions to engine, resetting it whenever its game is over
+     */
+    private static void play(GameEngine engine, Random moves, int count) {
+        for (int i = 0; i < count; i++) {
+            engine.apply(ACTIONS[moves.nextInt(ACTIONS.length)]);
+            if (engine.isGameOver()) {
+                engine.reset();
+            }
+        }
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(GRID_WIDTH, state.getWidth());
+        assertEquals(GRID_HEIGHT, state.getHeight());
+        assertFalse(state.isSaved());
+        try {
+            new GameState(GRID_WIDTH, 0);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testSaveAndRestoreWideBoard() {
+        int width = 200;
+        GameEngine wide = new GameEngine(width, GRID_HEIGHT, new GameRandom(42));
+        GameState wideState = new GameState(width, GRID_HEIGHT);
+        Random moves = new Random(7);
+        play(wide, moves, 300);
+        wide.saveState(wideState);
+        assertEquals(wide.getBoard().getHash(), wideState.getHash());
+        byte[] saved = stateBytes(wide);
+
+        play(wide, moves, 300);
+        wide.restoreState(wideState);
+        assertArrayEquals(saved, stateBytes(wide));
+        assertEquals(wideState.getHash(), wide.getBoard().getHash());
+        try {
+            engine.restoreState(wideState);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testSaveAndRestore() {
+        Random moves = new Random(7);
+        play(engine, moves, 300);
+        engine.saveState(state);
+        assertTrue(state.isSaved());
+        assertEquals(engine.getBoard().getHash(), state.getHash());
+        byte[] saved = stateBytes(engine);
+
+        play(engine, moves, 300);
+        assertFalse(Arrays.equals(saved, stateBytes(engine)));
+        engine.restoreState(state);
+        assertArrayEquals(saved, stateBytes(engine));
+        assertEquals(state.getHash(), engine.getBoard().getHash());
+
+        GameEngine other = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new GameRandom(0));
+        other.restoreState(state);
+        for (int i = 0; i < 500; i++) {
+            GameEngine.ACTIONS action = ACTIONS[moves.nextInt(ACTIONS.length)];
+            assertEquals(engine.apply(action), other.apply(action));
+            if (engine.isGameOver()) {
+                engine.reset();
+                other.reset();
+            }
+        }
+        assertArrayEquals(stateBytes(engine), stateBytes(other));
+    }
+
+    @Test
+    public void testSaveAndRestoreWithBag() {
+        GameRandom random = new GameRandom(11);
+        GameEngine bagEngine = new GameEngine(new BitBoard(GRID_WIDTH, GRID_HEIGHT), random,
+                new BagGenerator(random), 4);
+        play(bagEngine, new Random(3), 100);
+        bagEngine.saveState(state);
+        byte[] saved = stateBytes(bagEngine);
+        play(bagEngine, new Random(4), 100);
+        bagEngine.restoreState(state);
+        assertArrayEquals(saved, stateBytes(bagEngine));
+    }
+
+    @Test
+    public void testRestoreNothingSaved() {
+        try {
+            engine.restoreState(state);
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testSizeMismatch() {
+        GameState other = new GameState(GRID_WIDTH, GRID_HEIGHT + 1);
+        try {
+            engine.saveState(other);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        new GameEngine(GRID_WIDTH, GRID_HEIGHT + 1, new GameRandom(1)).saveState(other);
+        try {
+            engine.restoreState(other);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testNeedsGameRandom() {
+        try {
+            new GameEngine(GRID_WIDTH, GRID_HEIGHT, new MockRandom()).saveState(state);
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // pass
+        }
+        assertFalse(state.isSaved());
+    }
+
+    @Test
+    public void testRestoreDoesNotAllocate() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        GameRandom bagRandom = new GameRandom(11);
+        GameRandom historyRandom = new GameRandom(12);
+        PieceGenerator[] generators = {new BagGenerator(bagRandom), new HistoryGenerator(historyRandom)};
+        GameRandom[] randoms = {bagRandom, historyRandom};
+        for (int i = 0; i < generators.length; i++) {
+            GameEngine generatorEngine = new GameEngine(new BitBoard(GRID_WIDTH, GRID_HEIGHT), randoms[i],
+                    generators[i], 4);
+            play(generatorEngine, new Random(3), 50);
+            generatorEngine.saveState(state);
+
+            // compiling the loop may allocate a few hundred bytes once, so passes are repeated until the JIT
+            // settles; any allocation per restore would show in every pass
+            long allocated = -1;
+            for (int pass = 0; pass < 10 && allocated != 0; pass++) {
+                long start = allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+                for (int j = 0; j < 10000; j++) {
+                    generatorEngine.apply(GameEngine.ACTIONS.HARD_DROP);
+                    generatorEngine.restoreState(state);
+                }
+                allocated = allocations.getThreadAllocatedBytes(Thread.currentThread().getId()) - start;
+            }
+            assertEquals(0L, allocated);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package test.model;
+
+import main.model.GameRandom;
+import main.model.HistoryGenerator;
+import main.model.PieceGenerator;
+import main.model.PuzzlePiece;
+import main.model.UniformGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for HistoryGenerator class
+ */
+public class HistoryGeneratorTest {
+
+    private static final int PIECES = 7000;
+
+    @Test
+    public void testConstructorRejectsNoRolls() {
+        try {
+            new HistoryGenerator(new GameRandom(1), 0);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testFewerRepeatsThanUniform() {
+        assertTrue(repeats(new HistoryGenerator(new GameRandom(5))) * 4 < repeats(new UniformGenerator(
+                new GameRandom(5))));
+    }
+
+    @Test
+    public void testFirstPieceNeverZigOrZagWithManyRolls() {
+        for (long seed = 0; seed < 50; seed++) {
+            PuzzlePiece.PIECES first = new HistoryGenerator(new GameRandom(seed), 100).next();
+            assertNotEquals(PuzzlePiece.PIECES.ZI, first);
+            assertNotEquals(PuzzlePiece.PIECES.ZA, first);
+        }
+    }
+
+    @Test
+    public void testWriteAndReadState() {
+        HistoryGenerator first = new HistoryGenerator(new GameRandom(13));
+        for (int i = 0; i < 6; i++) {
+            first.next();
+        }
+        ByteBuffer state = ByteBuffer.allocate(PieceGenerator.STATE_BYTES);
+        first.writeState(state);
+        assertFalse(state.hasRemaining());
+        state.flip();
+        HistoryGenerator second = new HistoryGenerator(new GameRandom(0));
+        second.readState(state);
+        assertFalse(state.hasRemaining());
+        for (int i = 0; i < 30; i++) {
+            assertEquals(first.next(), second.next());
+        }
+    }
+
+    /**
+     * @return number of pieces equal to the piece before them in PIECES pieces of generator
+     */
+    private static int repeats(PieceGenerator generator) {
+        int count = 0;
+        PuzzlePiece.PIECES previous = null;
+        for (int i = 0; i < PIECES; i++) {
+            PuzzlePiece.PIECES type = generator.next();
+            if (type == previous) {
+                count++;
+            }
+            previous = type;
+        }
+        return count;
+    }
+}
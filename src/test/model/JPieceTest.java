@@ -76,7 +76,7 @@ public class JPieceTest extends PuzzlePieceTest {
 
     @Test
     public void testColor() {
-        assertEquals(J_PIECE_COLOR, puzzlePiece.getColor());
+        assertEquals(J_PIECE_COLOR, puzzlePiece.getColorIndex());
     }
 
     @Test
@@ -75,7 +75,7 @@ public class LPieceTest extends PuzzlePieceTest {
 
     @Test
     public void testColor() {
-        assertEquals(L_PIECE_COLOR, puzzlePiece.getColor());
+        assertEquals(L_PIECE_COLOR, puzzlePiece.getColorIndex());
     }
 
     @Test
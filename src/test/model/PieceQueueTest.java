@@ -0,0 +1,95 @@
+package test.model;
+
+import main.model.GameRandom;
+import main.model.PieceQueue;
+import main.model.PuzzlePiece;
+import main.model.UniformGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for PieceQueue class
+ */
+public class PieceQueueTest {
+
+    private static final PuzzlePiece.PIECES[] TYPES = PuzzlePiece.PIECES.values();
+
+    @Test
+    public void testConstructorRejectsBadDepth() {
+        try {
+            new PieceQueue(new UniformGenerator(new Random(1)), -1);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new PieceQueue(new UniformGenerator(new Random(1)), PieceQueue.MAX_DEPTH + 1);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUniformSequenceMatchesRandom() {
+        Random expected = new Random(9);
+        PieceQueue queue = new PieceQueue(new UniformGenerator(new Random(9)), 0);
+        assertEquals(0, queue.getDepth());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(TYPES[expected.nextInt(TYPES.length)], queue.next());
+        }
+    }
+
+    @Test
+    public void testPeekFollowsSequenceAcrossWrap() {
+        PieceQueue plain = new PieceQueue(new UniformGenerator(new Random(4)), 0);
+        PuzzlePiece.PIECES[] sequence = new PuzzlePiece.PIECES[40];
+        for (int i = 0; i < sequence.length; i++) {
+            sequence[i] = plain.next();
+        }
+        PieceQueue queue = new PieceQueue(new UniformGenerator(new Random(4)), 3);
+        for (int taken = 0; taken + 3 < sequence.length; taken++) {
+            for (int ahead = 0; ahead < 3; ahead++) {
+                assertEquals(sequence[taken + ahead], queue.peek(ahead));
+            }
+            assertEquals(sequence[taken], queue.next());
+        }
+        try {
+            queue.peek(3);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testWriteAndReadState() {
+        PieceQueue first = new PieceQueue(new UniformGenerator(new GameRandom(8)), 4);
+        first.next();
+        ByteBuffer state = ByteBuffer.allocate(PieceQueue.STATE_BYTES);
+        first.writeState(state);
+        assertFalse(state.hasRemaining());
+        state.flip();
+        PieceQueue second = new PieceQueue(new UniformGenerator(new GameRandom(0)), 4);
+        second.readState(state);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(first.peek(3), second.peek(3));
+            assertEquals(first.next(), second.next());
+        }
+    }
+
+    @Test
+    public void testStateNeedsGameRandom() {
+        PieceQueue queue = new PieceQueue(new UniformGenerator(new Random(8)), 4);
+        try {
+            queue.writeState(ByteBuffer.allocate(PieceQueue.STATE_BYTES));
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package test.model;
+
+import main.model.JPiece;
+import main.model.PieceShape;
+import main.model.PuzzlePiece;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static main.model.JPiece.J_SHAPE;
+import static main.model.StraightPiece.ST_SHAPE;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for PieceShape class
+ */
+public class PieceShapeTest {
+
+    @Test
+    public void testJShapeMasks() {
+        PieceShape shape = PieceShape.get(PuzzlePiece.PIECES.J, 0);
+        assertEquals(1, shape.getMaxX());
+        assertEquals(2, shape.getMaxY());
+        assertEquals(3, shape.getHeight());
+        assertEquals(0b10L, shape.getRowMask(0));
+        assertEquals(0b10L, shape.getRowMask(1));
+        assertEquals(0b11L, shape.getRowMask(2));
+
+        shape = PieceShape.get(PuzzlePiece.PIECES.J, 3);
+        assertEquals(2, shape.getMaxX());
+        assertEquals(1, shape.getMaxY());
+        assertEquals(0b111L, shape.getRowMask(0));
+        assertEquals(0b100L, shape.getRowMask(1));
+    }
+
+    @Test
+    public void testStraightShapeMasks() {
+        PieceShape shape = PieceShape.get(PuzzlePiece.PIECES.ST, 1);
+        assertEquals(3, shape.getMaxX());
+        assertEquals(0, shape.getMaxY());
+        assertEquals(0b1111L, shape.getRowMask(0));
+        try {
+            shape.getRowMask(1);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testMasksMatchDefinitions() {
+        checkMasks(PuzzlePiece.PIECES.J, J_SHAPE);
+        checkMasks(PuzzlePiece.PIECES.ST, ST_SHAPE);
+    }
+
+    @Test
+    public void testSharedBetweenPieces() {
+        PuzzlePiece first = new JPiece(0, 0);
+        PuzzlePiece second = new JPiece(5, 7);
+        first.setCurrentRotation(2);
+        second.setCurrentRotation(2);
+        assertSame(first.getShape(), second.getShape());
+        assertSame(first.getVertices(), second.getVertices());
+        assertSame(PieceShape.get(PuzzlePiece.PIECES.J, 2), first.getShape());
+
+        PieceShape shape = first.getShape();
+        assertEquals(4, shape.getVertexCount());
+        for (int i = 0; i < shape.getVertexCount(); i++) {
+            assertEquals(J_SHAPE.get(2)[2 * i], shape.getVertexX(i));
+            assertEquals(J_SHAPE.get(2)[2 * i + 1], shape.getVertexY(i));
+        }
+    }
+
+    @Test
+    public void testRotationIndices() {
+        assertEquals(1, PieceShape.nextRotationCW(0));
+        assertEquals(0, PieceShape.nextRotationCW(PieceShape.ROTATIONS - 1));
+        assertEquals(PieceShape.ROTATIONS - 1, PieceShape.nextRotationCounterCW(0));
+        assertEquals(1, PieceShape.nextRotationCounterCW(2));
+        try {
+            PieceShape.get(PuzzlePiece.PIECES.T, PieceShape.ROTATIONS);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+
+    private void checkMasks(PuzzlePiece.PIECES type, ArrayList<Integer[]> definition) {
+        for (int r = 0; r < PieceShape.ROTATIONS; r++) {
+            PieceShape shape = PieceShape.get(type, r);
+            Integer[] xyPairs = definition.get(r);
+            int vertices = 0;
+            for (int dy = 0; dy < shape.getHeight(); dy++) {
+                vertices += Long.bitCount(shape.getRowMask(dy));
+            }
+            assertEquals(xyPairs.length / 2, vertices);
+            for (int i = 0; i < xyPairs.length; i += 2) {
+                assertTrue((shape.getRowMask(xyPairs[i + 1]) & (1L << xyPairs[i])) != 0);
+            }
+        }
+    }
+}
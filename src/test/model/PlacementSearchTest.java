@@ -0,0 +1,123 @@
+package test.model;
+
+import main.model.BitBoard;
+import main.model.GameEngine;
+import main.model.PieceShape;
+import main.model.PlacementSearch;
+import main.model.PuzzlePiece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for PlacementSearch class
+ */
+public class PlacementSearchTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private static final byte FILLED = 9;
+    private GameEngine engine;
+    private BitBoard board;
+    private PlacementSearch search;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new MockRandom());
+        board = (BitBoard) engine.getBoard();
+        search = new PlacementSearch(GRID_WIDTH, GRID_HEIGHT);
+    }
+
+    @Test
+    public void testEmptyBoard() {
+        engine.setPiece(PuzzlePiece.PIECES.SQ, 0, 3, 0);
+        assertEquals(4 * (GRID_WIDTH - 1), search.search(engine));
+        HashSet<Integer> seen = new HashSet<>();
+        for (int i = 0; i < search.getPlacementCount(); i++) {
+            assertEquals(GRID_HEIGHT - 2, search.getPlacementY(i));
+            assertTrue(seen.add(search.getPlacementRotation(i) * GRID_WIDTH + search.getPlacementX(i)));
+        }
+        assertEquals(PuzzlePiece.PIECES.SQ, engine.getPieceType());
+        assertEquals(0, engine.getPieceRotation());
+        assertEquals(3, engine.getPieceX());
+        assertEquals(0, engine.getPieceY());
+    }
+
+    @Test
+    public void testBlockedStart() {
+        engine.setPiece(PuzzlePiece.PIECES.SQ, 0, 3, 0);
+        board.setCell(3, 0, FILLED);
+        assertEquals(0, search.search(engine));
+        try {
+            new PlacementSearch(GRID_WIDTH + 1, GRID_HEIGHT).search(engine);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testTuckUnderOverhang() {
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            if (x != 2) {
+                board.setCell(x, GRID_HEIGHT - 1, FILLED);
+            }
+        }
+        for (int x = 0; x < 4; x++) {
+            board.setCell(x, GRID_HEIGHT - 3, FILLED);
+        }
+        engine.setPiece(PuzzlePiece.PIECES.ST, 1, 4, 0);
+        int count = search.search(engine);
+        int found = -1;
+        for (int i = 0; i < count; i++) {
+            if (search.getPlacementRotation(i) == 1 && search.getPlacementX(i) == 0
+                    && search.getPlacementY(i) > GRID_HEIGHT - 3) {
+                assertEquals(-1, found);
+                found = i;
+            }
+        }
+        assertTrue(found >= 0);
+        assertEquals(GRID_HEIGHT - 2, search.getPlacementY(found));
+
+        GameEngine.ACTIONS[] path = new GameEngine.ACTIONS[GRID_WIDTH * GRID_HEIGHT * PieceShape.ROTATIONS];
+        int length = search.getPath(found, path);
+        for (int i = 0; i < length; i++) {
+            assertFalse(engine.apply(path[i]));
+        }
+        assertTrue(engine.apply(GameEngine.ACTIONS.DOWN));
+        assertTrue(board.isOccupied(0, GRID_HEIGHT - 2));
+        assertTrue(board.isOccupied(3, GRID_HEIGHT - 2));
+    }
+
+    @Test
+    public void testPathsReachPlacements() {
+        Random random = new Random(11);
+        GameEngine.ACTIONS[] path = new GameEngine.ACTIONS[GRID_WIDTH * GRID_HEIGHT * PieceShape.ROTATIONS];
+        for (int trial = 0; trial < 50; trial++) {
+            board.setBlankBoard();
+            for (int i = 0; i < 25; i++) {
+                board.setCell(random.nextInt(GRID_WIDTH), 5 + random.nextInt(GRID_HEIGHT - 5), FILLED);
+            }
+            PuzzlePiece.PIECES type = PuzzlePiece.PIECES.values()[trial % PuzzlePiece.PIECES.values().length];
+            int rotation = trial % PieceShape.ROTATIONS;
+            int x0 = (trial * 3) % (GRID_WIDTH - 3);
+            int count = search.search(board, type, rotation, x0, 0);
+            assertTrue(count > 0);
+            for (int i = 0; i < count; i++) {
+                engine.setPiece(type, rotation, x0, 0);
+                int length = search.getPath(i, path);
+                for (int j = 0; j < length; j++) {
+                    engine.apply(path[j]);
+                }
+                assertEquals(search.getPlacementRotation(i), engine.getPieceRotation());
+                assertEquals(search.getPlacementX(i), engine.getPieceX());
+                assertEquals(search.getPlacementY(i), engine.getPieceY());
+                assertFalse(engine.isClearBelow(1));
+            }
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package test.model;
 
+import main.model.BitBoard;
 import main.model.PuzzleBoard;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.awt.*;
-
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -13,15 +12,15 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 public class PuzzleBoardTest {
 
-    private static final Color BOARD_COLOR = new Color(0, 0, 0);
-    private static final Color PIECE_COLOR = new Color(255, 0, 0);
+    private static final byte BOARD_COLOR = BitBoard.EMPTY;
+    private static final byte PIECE_COLOR = 2;
     private static final int WIDTH = 8;
     private static final int HEIGHT = 12;
     private PuzzleBoard board;
 
     @BeforeEach
     public void setUp() {
-        board = new PuzzleBoard(WIDTH, HEIGHT, BOARD_COLOR);
+        board = new PuzzleBoard(WIDTH, HEIGHT);
     }
 
     @Test
@@ -107,4 +106,20 @@ public class PuzzleBoardTest {
             assertEquals(PIECE_COLOR, board.getPos(x, x + 1));
         }
     }
+
+    @Test
+    public void testClearCompleteRows() {
+        for (int x = 0; x < WIDTH; x++) {
+            board.setPos(x, HEIGHT - 1, PIECE_COLOR);
+            board.setPos(x, HEIGHT - 3, PIECE_COLOR);
+        }
+        board.setPos(2, HEIGHT - 2, PIECE_COLOR);
+        board.setPos(5, 0, PIECE_COLOR);
+        assertEquals(2, board.clearCompleteRows());
+        assertEquals(PIECE_COLOR, board.getPos(2, HEIGHT - 1));
+        assertEquals(PIECE_COLOR, board.getPos(5, 2));
+        assertEquals(BOARD_COLOR, board.getPos(0, HEIGHT - 1));
+        assertEquals(BOARD_COLOR, board.getPos(5, 0));
+        assertEquals(0, board.clearCompleteRows());
+    }
 }
@@ -1,13 +1,16 @@
 package test.model;
 
+import main.ai.AiPlayer;
 import main.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.awt.*;
 import java.awt.event.KeyEvent;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 /**
  * unit tests for PuzzleGame class
@@ -19,24 +22,27 @@ public class PuzzleGameTest {
     private PuzzlePiece testPiece;
     private static final int GRID_WIDTH = 8;
     private static final int GRID_HEIGHT = 14;
-    private static final Color BACKGROUND = new Color(0, 0, 0);
+    private static final byte BACKGROUND = BitBoard.EMPTY;
+    private static final byte FILLER = 9;
     private static final int SCORE_PER_ROW = 50;
     private static final double ROW_SCORE_MULT = 0.15;
     private static final double LEVEL_SCORE_MULT = 0.1;
+    private static final int ALLOCATION_WIDTH = 10;
+    private static final int ALLOCATION_HEIGHT = 20;
 
     @BeforeEach
     public void setUp() {
-        testGame = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, BACKGROUND, new MockRandom());
+        testGame = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, new MockRandom());
         testBoard = testGame.getBoardState();
         testPiece = testGame.getCurrentPiece();
     }
 
     @Test
     public void testResetGame() {
-        testBoard.setPos(1, 3, Color.WHITE);
+        testBoard.setPos(1, 3, FILLER);
         testGame.updateScore(20);
         testGame.resetGame();
-        assertEquals(Color.BLACK, testBoard.getPos(1, 3));
+        assertEquals(BACKGROUND, testBoard.getPos(1, 3));
         assertEquals(0, testGame.getScore());
         assertEquals(1, testGame.getLevel());
         assertEquals(0, testGame.getClearedRows());
@@ -49,21 +55,34 @@ public class PuzzleGameTest {
         assertEquals(1, testPiece.getY0());
     }
 
+    @Test
+    public void testUserAction() {
+        testGame.userAction(null);
+        assertSame(testPiece, testGame.getCurrentPiece());
+        testGame.userAction(GameEngine.ACTIONS.HARD_DROP);
+        assertNotSame(testPiece, testGame.getCurrentPiece());
+        boolean placed = false;
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            placed |= BACKGROUND != testBoard.getPos(x, GRID_HEIGHT - 1);
+        }
+        assertTrue(placed);
+    }
+
     @Test
     public void testNextStateIsFull() {
-        Color pieceColor = testPiece.getColor();
-        assertEquals(Color.GREEN, pieceColor);
+        byte pieceColor = testPiece.getColorIndex();
+        assertEquals(GameEngine.colorIndex(PuzzlePiece.PIECES.J), pieceColor);
         testPiece.setCurrentRotation(0);
-        testBoard.setPos(3, 1, Color.WHITE);
-        testBoard.setPos(4, 1, Color.WHITE);
-        testBoard.setPos(5, 1, Color.WHITE);
+        testBoard.setPos(3, 1, FILLER);
+        testBoard.setPos(4, 1, FILLER);
+        testBoard.setPos(5, 1, FILLER);
         testGame.nextState();
-        assertEquals(Color.GREEN, testBoard.getPos(3, 2));
-        assertEquals(Color.GREEN, testBoard.getPos(4, 0));
-        assertEquals(Color.GREEN, testBoard.getPos(4, 1));
-        assertEquals(Color.GREEN, testBoard.getPos(4, 2));
-        assertEquals(Color.WHITE, testBoard.getPos(3, 1));
-        assertEquals(Color.WHITE, testBoard.getPos(5, 1));
+        assertEquals(GameEngine.colorIndex(PuzzlePiece.PIECES.J), testBoard.getPos(3, 2));
+        assertEquals(GameEngine.colorIndex(PuzzlePiece.PIECES.J), testBoard.getPos(4, 0));
+        assertEquals(GameEngine.colorIndex(PuzzlePiece.PIECES.J), testBoard.getPos(4, 1));
+        assertEquals(GameEngine.colorIndex(PuzzlePiece.PIECES.J), testBoard.getPos(4, 2));
+        assertEquals(FILLER, testBoard.getPos(3, 1));
+        assertEquals(FILLER, testBoard.getPos(5, 1));
         assertNotEquals(testPiece, testGame.getCurrentPiece());
         assertTrue(testGame.getCurrentPiece() instanceof LPiece);
     }
@@ -73,7 +92,7 @@ public class PuzzleGameTest {
         assertTrue(testPiece instanceof JPiece);
         testPiece.setCurrentRotation(1);
         testGame.userInput(KeyEvent.VK_SPACE);
-        Color expectedColor = new Color(0, 255, 0);
+        byte expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.J);
         assertEquals(expectedColor, testBoard.getPos(3, GRID_HEIGHT - 2));
         assertEquals(expectedColor, testBoard.getPos(3, GRID_HEIGHT - 1));
         assertEquals(expectedColor, testBoard.getPos(4, GRID_HEIGHT - 1));
@@ -83,7 +102,7 @@ public class PuzzleGameTest {
         assertTrue(testPiece instanceof LPiece);
         testPiece.setCurrentRotation(3);
         testGame.userInput(KeyEvent.VK_SPACE);
-        expectedColor = new Color(255, 0, 0);
+        expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.L);
         assertEquals(expectedColor, testBoard.getPos(5, GRID_HEIGHT - 4));
         assertEquals(expectedColor, testBoard.getPos(3, GRID_HEIGHT - 3));
         assertEquals(expectedColor, testBoard.getPos(4, GRID_HEIGHT - 3));
@@ -93,7 +112,7 @@ public class PuzzleGameTest {
         assertTrue(testPiece instanceof SquarePiece);
         testPiece.setCurrentRotation(0);
         testGame.userInput(KeyEvent.VK_SPACE);
-        expectedColor = new Color(255, 255, 0);
+        expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.SQ);
         assertEquals(expectedColor, testBoard.getPos(3, GRID_HEIGHT - 5));
         assertEquals(expectedColor, testBoard.getPos(4, GRID_HEIGHT - 5));
         assertEquals(expectedColor, testBoard.getPos(3, GRID_HEIGHT - 4));
@@ -103,7 +122,7 @@ public class PuzzleGameTest {
         assertTrue(testPiece instanceof StraightPiece);
         testPiece.setCurrentRotation(1);
         testGame.userInput(KeyEvent.VK_SPACE);
-        expectedColor = new Color(0, 255, 255);
+        expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.ST);
         assertEquals(expectedColor, testBoard.getPos(3, GRID_HEIGHT - 6));
         assertEquals(expectedColor, testBoard.getPos(4, GRID_HEIGHT - 6));
         assertEquals(expectedColor, testBoard.getPos(5, GRID_HEIGHT - 6));
@@ -113,7 +132,7 @@ public class PuzzleGameTest {
         assertTrue(testPiece instanceof TPiece);
         testPiece.setCurrentRotation(2);
         testGame.userInput(KeyEvent.VK_SPACE);
-        expectedColor = new Color(255, 128, 0);
+        expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.T);
         assertEquals(expectedColor, testBoard.getPos(3, GRID_HEIGHT - 8));
         assertEquals(expectedColor, testBoard.getPos(4, GRID_HEIGHT - 8));
         assertEquals(expectedColor, testBoard.getPos(5, GRID_HEIGHT - 8));
@@ -123,7 +142,7 @@ public class PuzzleGameTest {
         assertTrue(testPiece instanceof ZigPiece);
         testPiece.setCurrentRotation(0);
         testGame.userInput(KeyEvent.VK_SPACE);
-        expectedColor = new Color(0, 0, 255);
+        expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.ZI);
         assertEquals(expectedColor, testBoard.getPos(3, GRID_HEIGHT - 9));
         assertEquals(expectedColor, testBoard.getPos(4, GRID_HEIGHT - 9));
         assertEquals(expectedColor, testBoard.getPos(4, GRID_HEIGHT - 10));
@@ -133,7 +152,7 @@ public class PuzzleGameTest {
         assertTrue(testPiece instanceof ZagPiece);
         testPiece.setCurrentRotation(2);
         testGame.userInput(KeyEvent.VK_SPACE);
-        expectedColor = new Color(120, 50, 150);
+        expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.ZA);
         assertEquals(expectedColor, testBoard.getPos(3, GRID_HEIGHT - 12));
         assertEquals(expectedColor, testBoard.getPos(4, GRID_HEIGHT - 12));
         assertEquals(expectedColor, testBoard.getPos(4, GRID_HEIGHT - 11));
@@ -147,7 +166,7 @@ public class PuzzleGameTest {
         testPiece.moveRight();
         testPiece.moveRight();
         testGame.userInput(KeyEvent.VK_SPACE);
-        Color expectedColor = new Color(0, 255, 0);
+        byte expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.J);
         assertEquals(expectedColor, testBoard.getPos(5, GRID_HEIGHT - 2));
         assertEquals(expectedColor, testBoard.getPos(5, GRID_HEIGHT - 1));
         assertEquals(expectedColor, testBoard.getPos(6, GRID_HEIGHT - 1));
@@ -160,7 +179,7 @@ public class PuzzleGameTest {
         testPiece.moveLeft();
         testPiece.moveLeft();
         testGame.userInput(KeyEvent.VK_SPACE);
-        expectedColor = new Color(255, 0, 0);
+        expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.L);
         assertEquals(expectedColor, testBoard.getPos(2, GRID_HEIGHT - 2));
         assertEquals(expectedColor, testBoard.getPos(0, GRID_HEIGHT - 1));
         assertEquals(expectedColor, testBoard.getPos(1, GRID_HEIGHT - 1));
@@ -170,15 +189,15 @@ public class PuzzleGameTest {
         assertTrue(testPiece instanceof SquarePiece);
         testPiece.setCurrentRotation(0);
         testGame.userInput(KeyEvent.VK_SPACE);
-        expectedColor = new Color(255, 255, 0);
+        expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.SQ);
         assertEquals(BACKGROUND, testBoard.getPos(3, GRID_HEIGHT - 2));
         assertEquals(BACKGROUND, testBoard.getPos(4, GRID_HEIGHT - 2));
         assertEquals(expectedColor, testBoard.getPos(3, GRID_HEIGHT - 1));
         assertEquals(expectedColor, testBoard.getPos(4, GRID_HEIGHT - 1));
         assertEquals(BACKGROUND, testBoard.getPos(0, GRID_HEIGHT - 1));
         assertEquals(BACKGROUND, testBoard.getPos(1, GRID_HEIGHT - 1));
-        assertEquals(Color.RED, testBoard.getPos(2, GRID_HEIGHT - 1));
-        assertEquals(Color.GREEN, testBoard.getPos(5, GRID_HEIGHT - 1));
+        assertEquals(GameEngine.colorIndex(PuzzlePiece.PIECES.L), testBoard.getPos(2, GRID_HEIGHT - 1));
+        assertEquals(GameEngine.colorIndex(PuzzlePiece.PIECES.J), testBoard.getPos(5, GRID_HEIGHT - 1));
         assertEquals(BACKGROUND, testBoard.getPos(6, GRID_HEIGHT - 1));
         assertEquals(BACKGROUND, testBoard.getPos(7, GRID_HEIGHT - 1));
 
@@ -187,7 +206,7 @@ public class PuzzleGameTest {
             testPiece = testGame.getCurrentPiece();
             testPiece.setCurrentRotation(0);
             testGame.userInput(KeyEvent.VK_SPACE);
-            expectedColor = new Color(0, 255, 255);
+            expectedColor = GameEngine.colorIndex(PuzzlePiece.PIECES.ST);
             if (x == 2 || x == 3 || x == 4 || x == 5) {
                 for (int y = GRID_HEIGHT - 5; y < GRID_HEIGHT - 1; y++) {
                     assertEquals(expectedColor, testBoard.getPos(x, y));
@@ -260,8 +279,8 @@ public class PuzzleGameTest {
         testGame.setCurrentPiece(new LPiece(3, 0));
         testPiece = testGame.getCurrentPiece();
         testPiece.setCurrentRotation(0);
-        testBoard.setPos(3, 3, Color.WHITE);
-        testBoard.setPos(4, 3, Color.WHITE);
+        testBoard.setPos(3, 3, FILLER);
+        testBoard.setPos(4, 3, FILLER);
         assertTrue(testGame.isGameOver());
     }
 
@@ -271,7 +290,7 @@ public class PuzzleGameTest {
         assertEquals(2, testPiece.getX0());
         assertEquals(0, testPiece.getY0());
 
-        testBoard.setPos(2, 2, Color.WHITE);
+        testBoard.setPos(2, 2, FILLER);
         testGame.setCurrentPiece(new JPiece(3, 0));
         testPiece = testGame.getCurrentPiece();
         testPiece.setCurrentRotation(0);
@@ -298,7 +317,7 @@ public class PuzzleGameTest {
         assertEquals(4, testPiece.getX0());
         assertEquals(0, testPiece.getY0());
 
-        testBoard.setPos(5, 2, Color.WHITE);
+        testBoard.setPos(5, 2, FILLER);
         testGame.setCurrentPiece(new LPiece(3, 0));
         testPiece = testGame.getCurrentPiece();
         testPiece.setCurrentRotation(0);
@@ -334,7 +353,7 @@ public class PuzzleGameTest {
 
         testGame.userInput(KeyEvent.VK_LEFT);
         assertTrue(testGame.isClearCounterCW());
-        testBoard.setPos(GRID_WIDTH - 1, 0, Color.WHITE);
+        testBoard.setPos(GRID_WIDTH - 1, 0, FILLER);
         assertFalse(testGame.isClearCounterCW());
 
         testGame.setCurrentPiece(new TPiece(5, GRID_HEIGHT - 2));
@@ -359,7 +378,7 @@ public class PuzzleGameTest {
 
         testGame.userInput(KeyEvent.VK_LEFT);
         assertTrue(testGame.isClearCW());
-        testBoard.setPos(GRID_WIDTH - 1, 1, Color.WHITE);
+        testBoard.setPos(GRID_WIDTH - 1, 1, FILLER);
         assertFalse(testGame.isClearCW());
 
         testGame.setCurrentPiece(new ZigPiece(5, GRID_HEIGHT - 2));
@@ -368,4 +387,138 @@ public class PuzzleGameTest {
         testGame.userInput(KeyEvent.VK_D);
         assertEquals(0, testPiece.getCurrentRotation());
     }
+
+    @Test
+    public void testWideBoard() {
+        int width = 130;
+        PuzzleGame wide = new PuzzleGame(width, GRID_HEIGHT, new MockRandom());
+        assertTrue(wide.getBoardState().getBoard() instanceof WideBitBoard);
+        for (int i = 0; i < 10 && !wide.getEngine().isGameOver(); i++) {
+            wide.getEngine().apply(GameEngine.ACTIONS.RIGHT);
+            wide.getEngine().apply(GameEngine.ACTIONS.HARD_DROP);
+        }
+        BoardSnapshot snapshot = wide.getBoardState().publishSnapshot();
+        assertEquals(width, snapshot.getWidth());
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < width; x++) {
+                assertEquals(wide.getBoardState().getPos(x, y), snapshot.getCell(x, y));
+            }
+        }
+        assertFalse(wide.getBoardState().getBoard().isRowEmpty(GRID_HEIGHT - 1));
+    }
+
+    @Test
+    public void testReusesPieces() {
+        PuzzlePiece[] seen = new PuzzlePiece[PuzzlePiece.PIECES.values().length];
+        for (int i = 0; i < 20; i++) {
+            testGame.userAction(GameEngine.ACTIONS.HARD_DROP);
+            testGame.resetGame();
+            PuzzlePiece piece = testGame.getCurrentPiece();
+            int type = piece.getType().ordinal();
+            if (seen[type] == null) {
+                seen[type] = piece;
+            }
+            assertSame(seen[type], piece);
+            assertEquals(testGame.getEngine().getPieceX(), piece.getX0());
+            assertEquals(testGame.getEngine().getPieceY(), piece.getY0());
+            assertEquals(testGame.getEngine().getPieceRotation(), piece.getCurrentRotation());
+        }
+    }
+
+    @Test
+    public void testAutoPublish() {
+        testGame.setAutoPublish(false);
+        BoardSnapshot before = testBoard.getSnapshot();
+        testGame.userAction(GameEngine.ACTIONS.HARD_DROP);
+        assertSame(before, testBoard.getSnapshot());
+        assertNotSame(before, testBoard.publishSnapshot());
+        testGame.setAutoPublish(true);
+        before = testBoard.getSnapshot();
+        testGame.userAction(GameEngine.ACTIONS.HARD_DROP);
+        assertNotSame(before, testBoard.getSnapshot());
+    }
+
+    @Test
+    public void testSaveAndRestoreState() {
+        PuzzleGame game = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, new GameRandom(5));
+        for (int i = 0; i < 6; i++) {
+            game.userAction(GameEngine.ACTIONS.LEFT);
+            game.userAction(GameEngine.ACTIONS.HARD_DROP);
+        }
+        game.userAction(GameEngine.ACTIONS.ROTATE_CW);
+        GameState state = new GameState(GRID_WIDTH, GRID_HEIGHT);
+        game.saveState(state);
+        PuzzlePiece.PIECES type = game.getCurrentPiece().getType();
+        int rotation = game.getCurrentPiece().getCurrentRotation();
+        int score = game.getScore();
+        byte[] cells = new byte[GRID_WIDTH * GRID_HEIGHT];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = game.getBoardState().getPos(i % GRID_WIDTH, i / GRID_WIDTH);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            game.userAction(GameEngine.ACTIONS.HARD_DROP);
+        }
+        BoardSnapshot before = game.getBoardState().getSnapshot();
+        game.restoreState(state);
+        assertNotSame(before, game.getBoardState().getSnapshot());
+        assertEquals(type, game.getCurrentPiece().getType());
+        assertEquals(rotation, game.getCurrentPiece().getCurrentRotation());
+        assertEquals(score, game.getScore());
+        for (int i = 0; i < cells.length; i++) {
+            assertEquals(cells[i], game.getBoardState().getPos(i % GRID_WIDTH, i / GRID_WIDTH));
+        }
+    }
+
+    @Test
+    public void testNoAllocationInSteadyState() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        GameEngine.ACTIONS[] moves = new GameEngine.ACTIONS[10000];
+        GameEngine planner = new GameEngine(ALLOCATION_WIDTH, ALLOCATION_HEIGHT, new GameRandom(4));
+        AiPlayer player = new AiPlayer(ALLOCATION_WIDTH, ALLOCATION_HEIGHT);
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = player.nextAction(planner);
+            planner.apply(moves[i]);
+            if (i % 3 == 2) {
+                planner.step();
+            }
+        }
+        assertFalse(planner.isGameOver());
+
+        // compiling the loop may allocate a few hundred bytes once, so passes are repeated until the JIT settles;
+        // any allocation per tick would show in every pass
+        long allocated = -1;
+        for (int pass = 0; pass < 10 && allocated != 0; pass++) {
+            allocated = playAllocating(allocations, moves, planner.getScore());
+        }
+        assertEquals(0L, allocated);
+    }
+
+    /**
+     * Plays moves on a new game without automatic publishing, applying gravity after every third move
+     *
+     * @return bytes allocated by this thread after the game's first thousand moves
+     */
+    private long playAllocating(com.sun.management.ThreadMXBean allocations, GameEngine.ACTIONS[] moves,
+                                int expectedScore) {
+        PuzzleGame game = new PuzzleGame(ALLOCATION_WIDTH, ALLOCATION_HEIGHT, new GameRandom(4));
+        game.setAutoPublish(false);
+        long threadId = Thread.currentThread().getId();
+        long start = 0;
+        for (int i = 0; i < moves.length; i++) {
+            if (i == 1000) {
+                start = allocations.getThreadAllocatedBytes(threadId);
+            }
+            game.userAction(moves[i]);
+            if (i % 3 == 2) {
+                game.nextState();
+            }
+        }
+        long allocated = allocations.getThreadAllocatedBytes(threadId) - start;
+        assertEquals(expectedScore, game.getScore());
+        return allocated;
+    }
 }
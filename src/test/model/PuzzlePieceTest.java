@@ -1,9 +1,9 @@
 package test.model;
 
+import main.model.GameEngine;
 import main.model.PuzzlePiece;
 import org.junit.jupiter.api.Test;
 
-import java.awt.*;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -16,13 +16,13 @@ public abstract class PuzzlePieceTest {
     protected PuzzlePiece puzzlePiece;
     protected static final int PIECE_X0 = 8;
     protected static final int PIECE_Y0 = 0;
-    protected static final Color J_PIECE_COLOR = new Color(0, 255, 0);
-    protected static final Color L_PIECE_COLOR = new Color(255, 0, 0);
-    protected static final Color SQ_PIECE_COLOR = new Color(255, 255, 0);
-    protected static final Color ST_PIECE_COLOR = new Color(0, 255, 255);
-    protected static final Color T_PIECE_COLOR = new Color(255, 128, 0);
-    protected static final Color ZAG_PIECE_COLOR = new Color(120, 50, 150);
-    protected static final Color ZIG_PIECE_COLOR = new Color(0, 0, 255);
+    protected static final byte J_PIECE_COLOR = GameEngine.colorIndex(PuzzlePiece.PIECES.J);
+    protected static final byte L_PIECE_COLOR = GameEngine.colorIndex(PuzzlePiece.PIECES.L);
+    protected static final byte SQ_PIECE_COLOR = GameEngine.colorIndex(PuzzlePiece.PIECES.SQ);
+    protected static final byte ST_PIECE_COLOR = GameEngine.colorIndex(PuzzlePiece.PIECES.ST);
+    protected static final byte T_PIECE_COLOR = GameEngine.colorIndex(PuzzlePiece.PIECES.T);
+    protected static final byte ZAG_PIECE_COLOR = GameEngine.colorIndex(PuzzlePiece.PIECES.ZA);
+    protected static final byte ZIG_PIECE_COLOR = GameEngine.colorIndex(PuzzlePiece.PIECES.ZI);
 
     @Test
     public void testConstructor() {
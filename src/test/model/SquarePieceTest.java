@@ -51,7 +51,7 @@ public class SquarePieceTest extends PuzzlePieceTest {
 
     @Test
     public void testColor() {
-        assertEquals(SQ_PIECE_COLOR, puzzlePiece.getColor());
+        assertEquals(SQ_PIECE_COLOR, puzzlePiece.getColorIndex());
     }
 
     @Test
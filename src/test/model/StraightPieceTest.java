@@ -59,7 +59,7 @@ public class StraightPieceTest extends PuzzlePieceTest {
 
     @Test
     public void testColor() {
-        assertEquals(ST_PIECE_COLOR, puzzlePiece.getColor());
+        assertEquals(ST_PIECE_COLOR, puzzlePiece.getColorIndex());
     }
 
     @Test
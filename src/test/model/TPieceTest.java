@@ -75,7 +75,7 @@ public class TPieceTest extends PuzzlePieceTest {
 
     @Test
     public void testColor() {
-        assertEquals(T_PIECE_COLOR, puzzlePiece.getColor());
+        assertEquals(T_PIECE_COLOR, puzzlePiece.getColorIndex());
     }
 
     @Test
@@ -0,0 +1,272 @@
+package test.model;
+
+import main.model.BagGenerator;
+import main.model.BitBoard;
+import main.model.GameEngine;
+import main.model.GameRandom;
+import main.model.HistoryGenerator;
+import main.model.PieceGenerator;
+import main.model.PieceShape;
+import main.model.UndoLog;
+import main.model.WideBitBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * unit tests for UndoLog class
+ */
+public class UndoLogTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private static final int CAPACITY = 40;
+    private static final GameEngine.ACTIONS[] ACTIONS = GameEngine.ACTIONS.values();
+    private GameEngine engine;
+    private UndoLog log;
+
+    @BeforeEach
+    public void setUp() {
+        engine = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new GameRandom(42));
+        log = new UndoLog(GRID_WIDTH, GRID_HEIGHT, CAPACITY);
+    }
+
+    /**
+     * @return bytes written by writeState of engine
+     */
+    private static byte[] stateBytes(GameEngine engine) {
+        ByteBuffer buffer = ByteBuffer.allocate(engine.getStateSize());
+        engine.writeState(buffer);
+        return buffer.array();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(GRID_WIDTH, log.getWidth());
+        assertEquals(GRID_HEIGHT, log.getHeight());
+        assertEquals(CAPACITY, log.getCapacity());
+        assertEquals(0, log.getSize());
+        try {
+            new UndoLog(GRID_WIDTH, GRID_HEIGHT, 0);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        try {
+            new UndoLog(0, GRID_HEIGHT, CAPACITY);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testApplyMatchesApply() {
+        GameEngine plain = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new GameRandom(42));
+        Random moves = new Random(7);
+        for (int i = 0; i < CAPACITY; i++) {
+            GameEngine.ACTIONS action = ACTIONS[moves.nextInt(ACTIONS.length)];
+            assertEquals(plain.apply(action), engine.apply(action, log));
+        }
+        assertEquals(CAPACITY, log.getSize());
+        assertArrayEquals(stateBytes(plain), stateBytes(engine));
+    }
+
+    @Test
+    public void testUndoRestoresEveryState() {
+        Random moves = new Random(7);
+        for (int game = 0; game < 20; game++) {
+            List<byte[]> states = new ArrayList<>();
+            for (int i = 0; i < CAPACITY; i++) {
+                states.add(stateBytes(engine));
+                engine.apply(i % 3 == 0 ? GameEngine.ACTIONS.HARD_DROP : ACTIONS[moves.nextInt(ACTIONS.length)],
+                        log);
+            }
+            for (int i = CAPACITY - 1; i >= 0; i--) {
+                engine.undo(log);
+                assertArrayEquals(states.get(i), stateBytes(engine));
+                assertEquals(i, log.getSize());
+            }
+            for (int i = 0; i < CAPACITY; i++) {
+                engine.apply(ACTIONS[moves.nextInt(ACTIONS.length)]);
+            }
+            if (engine.isGameOver()) {
+                engine.reset();
+            }
+        }
+    }
+
+    @Test
+    public void testUndoRestoresBoard() {
+        BitBoard board = (BitBoard) engine.getBoard();
+        for (int i = 0; i < 30; i++) {
+            engine.apply(GameEngine.ACTIONS.HARD_DROP);
+            if (engine.isGameOver()) {
+                engine.reset();
+            }
+        }
+        long hash = board.getHash();
+        long[] rows = new long[GRID_HEIGHT];
+        int[] tops = new int[GRID_WIDTH];
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            rows[y] = board.getRow(y);
+        }
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            tops[x] = board.getColumnTop(x);
+        }
+        for (int i = 0; i < 8; i++) {
+            engine.apply(GameEngine.ACTIONS.HARD_DROP, log);
+        }
+        for (int i = 0; i < 8; i++) {
+            engine.undo(log);
+        }
+        assertEquals(hash, board.getHash());
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            assertEquals(rows[y], board.getRow(y));
+        }
+        for (int x = 0; x < GRID_WIDTH; x++) {
+            assertEquals(tops[x], board.getColumnTop(x));
+        }
+    }
+
+    @Test
+    public void testUndoOnWideBoard() {
+        int width = 150;
+        GameEngine wide = new GameEngine(width, GRID_HEIGHT, new GameRandom(42));
+        UndoLog wideLog = new UndoLog(width, GRID_HEIGHT, CAPACITY);
+        assertTrue(wide.getBoard() instanceof WideBitBoard);
+        byte[] bottom = new byte[width];
+        Arrays.fill(bottom, (byte) 1);
+        PieceShape shape = wide.getPieceShape();
+        for (int i = 0; i < shape.getVertexCount(); i++) {
+            if (wide.getGhostY() + shape.getVertexY(i) == GRID_HEIGHT - 1) {
+                bottom[wide.getPieceX() + shape.getVertexX(i)] = BitBoard.EMPTY;
+            }
+        }
+        for (int x = 0; x < width; x++) {
+            wide.getBoard().setCell(x, GRID_HEIGHT - 1, bottom[x]);
+        }
+        Random moves = new Random(7);
+        List<byte[]> states = new ArrayList<>();
+        for (int i = 0; i < CAPACITY; i++) {
+            states.add(stateBytes(wide));
+            wide.apply(i % 2 == 0 ? GameEngine.ACTIONS.HARD_DROP : ACTIONS[moves.nextInt(ACTIONS.length)], wideLog);
+        }
+        assertTrue(wide.getTotalClearedRows() > 0);
+        for (int i = CAPACITY - 1; i >= 0; i--) {
+            wide.undo(wideLog);
+            assertArrayEquals(states.get(i), stateBytes(wide));
+        }
+    }
+
+    @Test
+    public void testUndoWithBag() {
+        GameRandom random = new GameRandom(11);
+        GameEngine bagEngine = new GameEngine(new BitBoard(GRID_WIDTH, GRID_HEIGHT), random,
+                new BagGenerator(random), 4);
+        byte[] start = stateBytes(bagEngine);
+        for (int i = 0; i < 12; i++) {
+            bagEngine.apply(GameEngine.ACTIONS.HARD_DROP, log);
+        }
+        for (int i = 0; i < 12; i++) {
+            bagEngine.undo(log);
+        }
+        assertArrayEquals(start, stateBytes(bagEngine));
+    }
+
+    @Test
+    public void testClear() {
+        engine.apply(GameEngine.ACTIONS.HARD_DROP, log);
+        engine.apply(GameEngine.ACTIONS.LEFT, log);
+        log.clear();
+        assertEquals(0, log.getSize());
+        try {
+            engine.undo(log);
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testFull() {
+        for (int i = 0; i < CAPACITY; i++) {
+            engine.apply(GameEngine.ACTIONS.LEFT, log);
+        }
+        try {
+            engine.apply(GameEngine.ACTIONS.LEFT, log);
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // pass
+        }
+        assertEquals(CAPACITY, log.getSize());
+    }
+
+    @Test
+    public void testSizeMismatch() {
+        try {
+            engine.apply(GameEngine.ACTIONS.LEFT, new UndoLog(GRID_WIDTH + 1, GRID_HEIGHT, CAPACITY));
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testPlacementNeedsGameRandom() {
+        GameEngine mockEngine = new GameEngine(GRID_WIDTH, GRID_HEIGHT, new MockRandom());
+        mockEngine.apply(GameEngine.ACTIONS.LEFT, log);
+        try {
+            mockEngine.apply(GameEngine.ACTIONS.HARD_DROP, log);
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // pass
+        }
+        assertEquals(1, log.getSize());
+        mockEngine.undo(log);
+        assertEquals(0, log.getSize());
+    }
+
+    @Test
+    public void testApplyAndUndoDoNotAllocate() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+        GameRandom bagRandom = new GameRandom(11);
+        GameRandom historyRandom = new GameRandom(12);
+        PieceGenerator[] generators = {new BagGenerator(bagRandom), new HistoryGenerator(historyRandom)};
+        GameRandom[] randoms = {bagRandom, historyRandom};
+        for (int i = 0; i < generators.length; i++) {
+            GameEngine generatorEngine = new GameEngine(new BitBoard(GRID_WIDTH, GRID_HEIGHT), randoms[i],
+                    generators[i], 4);
+
+            // compiling the loop may allocate a few hundred bytes once, so passes are repeated until the JIT
+            // settles; any allocation per move would show in every pass
+            long allocated = -1;
+            for (int pass = 0; pass < 10 && allocated != 0; pass++) {
+                long start = allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+                for (int j = 0; j < 5000; j++) {
+                    generatorEngine.apply(GameEngine.ACTIONS.LEFT, log);
+                    generatorEngine.apply(GameEngine.ACTIONS.HARD_DROP, log);
+                    generatorEngine.apply(GameEngine.ACTIONS.HARD_DROP, log);
+                    generatorEngine.undo(log);
+                    generatorEngine.undo(log);
+                    generatorEngine.undo(log);
+                }
+                allocated = allocations.getThreadAllocatedBytes(Thread.currentThread().getId()) - start;
+            }
+            assertEquals(0L, allocated);
+        }
+    }
+}
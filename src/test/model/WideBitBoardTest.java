@@ -0,0 +1,355 @@
+package test.model;
+
+import main.model.BitBoard;
+import main.model.Board;
+import main.model.PieceShape;
+import main.model.PuzzlePiece;
+import main.model.WideBitBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for WideBitBoard class
+ */
+public class WideBitBoardTest {
+
+    private static final int WIDTH = 150;
+    private static final int HEIGHT = 20;
+    private static final int[] WIDTHS = {1, 63, 64, 65, 128, 200};
+    private static final byte FILLED = 3;
+    private WideBitBoard board;
+
+    @BeforeEach
+    public void setUp() {
+        board = new WideBitBoard(WIDTH, HEIGHT);
+    }
+
+    /**
+     * @return board of width with random cells set in its lower half and every third of those rows complete,
+     *         mirrored into cells
+     */
+    private static WideBitBoard randomBoard(int width, boolean[][] cells, Random random) {
+        WideBitBoard wide = new WideBitBoard(width, cells.length);
+        for (int y = cells.length / 2; y < cells.length; y++) {
+            for (int x = 0; x < width; x++) {
+                cells[y][x] = y % 3 == 0 || random.nextBoolean();
+                if (cells[y][x]) {
+                    wide.setCell(x, y, FILLED);
+                }
+            }
+        }
+        return wide;
+    }
+
+    @Test
+    public void testConstructor() {
+        assertEquals(WIDTH, board.getWidth());
+        assertEquals(HEIGHT, board.getHeight());
+        assertEquals(3, board.getWordsPerRow());
+        assertEquals(1, new WideBitBoard(64, 1).getWordsPerRow());
+        for (int y = 0; y < HEIGHT; y++) {
+            assertTrue(board.isRowEmpty(y));
+        }
+        try {
+            new WideBitBoard(0, HEIGHT);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testCreate() {
+        assertTrue(Board.create(BitBoard.MAX_WIDTH, HEIGHT) instanceof BitBoard);
+        assertTrue(Board.create(BitBoard.MAX_WIDTH + 1, HEIGHT) instanceof WideBitBoard);
+        try {
+            Board.create(BitBoard.MAX_WIDTH + 1, 0);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testSetCell() {
+        board.setCell(0, 3, FILLED);
+        board.setCell(64, 3, FILLED);
+        board.setCell(WIDTH - 1, 3, (byte) 5);
+        assertTrue(board.isOccupied(0, 3));
+        assertTrue(board.isOccupied(64, 3));
+        assertFalse(board.isOccupied(63, 3));
+        assertEquals(5, board.getCell(WIDTH - 1, 3));
+        assertEquals(BitBoard.EMPTY, board.getCell(63, 3));
+        assertEquals(1L, board.getWord(3, 1));
+        assertEquals(1L << (WIDTH - 1 - 128), board.getWord(3, 2));
+        assertEquals(3, board.getColumnTop(64));
+        assertEquals(3, board.getSurfaceTop());
+        board.setCell(64, 3, BitBoard.EMPTY);
+        assertEquals(0L, board.getWord(3, 1));
+        assertEquals(HEIGHT, board.getColumnTop(64));
+        assertFalse(board.isRowEmpty(3));
+        board.setBlankBoard();
+        assertTrue(board.isRowEmpty(3));
+        assertEquals(0L, board.getHash());
+        assertEquals(HEIGHT, board.getSurfaceTop());
+
+        try {
+            board.setCell(WIDTH, 0, FILLED);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+        try {
+            board.getWord(0, 3);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testRowComplete() {
+        for (int width : WIDTHS) {
+            WideBitBoard wide = new WideBitBoard(width, 2);
+            wide.fillRow(1, FILLED);
+            assertTrue(wide.isRowComplete(1));
+            assertFalse(wide.isRowComplete(0));
+            assertEquals(1, wide.getColumnTop(width - 1));
+            wide.setCell(width - 1, 1, BitBoard.EMPTY);
+            assertFalse(wide.isRowComplete(1));
+            wide.setCell(width - 1, 1, FILLED);
+            assertTrue(wide.isRowComplete(1));
+            wide.fillRow(1, BitBoard.EMPTY);
+            assertTrue(wide.isRowEmpty(1));
+            assertEquals(2, wide.getColumnTop(0));
+            assertEquals(0L, wide.getHash());
+        }
+        try {
+            board.isRowComplete(HEIGHT);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testHolesAndHeightsMatchCells() {
+        Random random = new Random(3);
+        for (int width : WIDTHS) {
+            boolean[][] cells = new boolean[HEIGHT][width];
+            WideBitBoard wide = randomBoard(width, cells, random);
+            int holes = 0;
+            int aggregate = 0;
+            int[] expected = new int[width];
+            for (int x = 0; x < width; x++) {
+                boolean covered = false;
+                for (int y = 0; y < HEIGHT; y++) {
+                    if (cells[y][x] && !covered) {
+                        covered = true;
+                        expected[x] = HEIGHT - y;
+                        aggregate += HEIGHT - y;
+                    } else if (!cells[y][x] && covered) {
+                        holes++;
+                    }
+                }
+            }
+            int[] heights = new int[width];
+            assertEquals(holes, wide.countHoles());
+            assertEquals(aggregate, wide.columnHeights(heights));
+            assertArrayEquals(expected, heights);
+        }
+        try {
+            board.columnHeights(new int[WIDTH - 1]);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testClearCompleteRows() {
+        Random random = new Random(5);
+        for (int width : WIDTHS) {
+            boolean[][] cells = new boolean[HEIGHT][width];
+            WideBitBoard wide = randomBoard(width, cells, random);
+            boolean[][] expected = new boolean[HEIGHT][];
+            int removed = HEIGHT;
+            for (int y = HEIGHT - 1; y >= 0; y--) {
+                if (!wide.isRowComplete(y)) {
+                    expected[--removed] = cells[y];
+                }
+            }
+            for (int y = 0; y < removed; y++) {
+                expected[y] = new boolean[width];
+            }
+            assertEquals(removed, wide.clearCompleteRows(0, HEIGHT - 1));
+            WideBitBoard rebuilt = new WideBitBoard(width, HEIGHT);
+            for (int y = 0; y < HEIGHT; y++) {
+                for (int x = 0; x < width; x++) {
+                    assertEquals(expected[y][x], wide.isOccupied(x, y));
+                    assertEquals(expected[y][x] ? FILLED : BitBoard.EMPTY, wide.getCell(x, y));
+                    rebuilt.setCell(x, y, wide.getCell(x, y));
+                }
+            }
+            assertColumnTopsMatch(wide);
+            assertEquals(rebuilt.getHash(), wide.getHash());
+            assertEquals(0, wide.clearCompleteRows(0, HEIGHT - 1));
+        }
+    }
+
+    @Test
+    public void testClearCompleteRowsInRange() {
+        board.fillRow(5, FILLED);
+        board.fillRow(12, FILLED);
+        board.setCell(7, 4, FILLED);
+        assertEquals(1, board.clearCompleteRows(10, HEIGHT - 1));
+        assertTrue(board.isRowComplete(6));
+        assertTrue(board.isOccupied(7, 5));
+        assertTrue(board.isRowEmpty(0));
+        try {
+            board.clearCompleteRows(4, 3);
+            fail("Exception expected");
+        } catch (IndexOutOfBoundsException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testClearRow() {
+        board.fillRow(HEIGHT - 1, FILLED);
+        board.setCell(100, HEIGHT - 2, FILLED);
+        board.setCell(100, 2, FILLED);
+        board.clearRow(HEIGHT - 1);
+        assertTrue(board.isOccupied(100, HEIGHT - 1));
+        assertTrue(board.isOccupied(100, 3));
+        assertFalse(board.isOccupied(0, HEIGHT - 1));
+        assertEquals(3, board.getColumnTop(100));
+        assertEquals(HEIGHT, board.getColumnTop(0));
+        assertColumnTopsMatch(board);
+    }
+
+    @Test
+    public void testFitsAcrossWords() {
+        PieceShape shape = PieceShape.get(PuzzlePiece.PIECES.ST, 0);
+        int y = HEIGHT - 1 - shape.getMaxY();
+        assertTrue(board.fits(shape, 62, y));
+        assertFalse(board.fits(shape, WIDTH - shape.getMaxX(), y));
+        for (int dy = 0; dy < shape.getHeight(); dy++) {
+            board.setCell(64, y + dy, FILLED);
+        }
+        for (int x = 64 - shape.getMaxX(); x <= 64; x++) {
+            assertFalse(board.fits(shape, x, y));
+        }
+        assertTrue(board.fits(shape, 65, y));
+        assertTrue(board.fits(shape, 63 - shape.getMaxX(), y));
+    }
+
+    @Test
+    public void testPlaceAndDrop() {
+        for (PuzzlePiece.PIECES type : PuzzlePiece.PIECES.values()) {
+            for (int rotation = 0; rotation < PieceShape.ROTATIONS; rotation++) {
+                board.setBlankBoard();
+                PieceShape shape = PieceShape.get(type, rotation);
+                for (int x = 60; x <= 66 && board.fits(shape, x, 0); x++) {
+                    int distance = board.dropDistance(shape, x, 0);
+                    assertTrue(board.fits(shape, x, distance));
+                    assertFalse(board.fits(shape, x, distance + 1));
+                    board.placeShape(shape, x, distance, FILLED);
+                    assertColumnTopsMatch(board);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPlaceShapeClearsRows() {
+        for (int x = 0; x < WIDTH; x++) {
+            if (x != 70) {
+                board.setCell(x, HEIGHT - 1, FILLED);
+            }
+        }
+        PieceShape shape = PieceShape.get(PuzzlePiece.PIECES.ST, 0);
+        if (shape.getMaxX() > 0) {
+            shape = PieceShape.get(PuzzlePiece.PIECES.ST, 1);
+        }
+        int y = board.dropDistance(shape, 70, 0);
+        assertEquals(1, board.placeShape(shape, 70, y, FILLED));
+        assertFalse(board.isRowComplete(HEIGHT - 1));
+        assertEquals(HEIGHT - shape.getHeight() + 1, board.getColumnTop(70));
+        assertColumnTopsMatch(board);
+    }
+
+    @Test
+    public void testSaveAndRestoreRows() {
+        WideBitBoard wide = randomBoard(WIDTH, new boolean[HEIGHT][WIDTH], new Random(9));
+        WideBitBoard expected = randomBoard(WIDTH, new boolean[HEIGHT][WIDTH], new Random(9));
+        long[] rows = new long[(HEIGHT + 1) * wide.getWordsPerRow()];
+        byte[] cells = new byte[(HEIGHT + 1) * WIDTH];
+        wide.saveRows(0, HEIGHT - 1, rows, cells, 1);
+        wide.fillRow(HEIGHT - 1, FILLED);
+        wide.clearCompleteRows(0, HEIGHT - 1);
+        wide.clearDirtyRows();
+        wide.restoreRows(HEIGHT / 2, HEIGHT - 1, rows, cells, HEIGHT / 2 + 1);
+        assertEquals(HEIGHT / 2, wide.getDirtyTop());
+        assertEquals(HEIGHT - 1, wide.getDirtyBottom());
+        wide.restoreRows(0, HEIGHT - 1, rows, cells, 1);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals(expected.getCell(x, y), wide.getCell(x, y));
+            }
+        }
+        assertEquals(expected.getHash(), wide.getHash());
+        assertColumnTopsMatch(wide);
+    }
+
+    @Test
+    public void testCopyAndCells() {
+        WideBitBoard wide = randomBoard(WIDTH, new boolean[HEIGHT][WIDTH], new Random(11));
+        board.copyFrom(wide);
+        assertEquals(wide.getHash(), board.getHash());
+        ByteBuffer buffer = ByteBuffer.allocate(WIDTH * HEIGHT);
+        wide.writeCells(buffer);
+        buffer.flip();
+        WideBitBoard read = new WideBitBoard(WIDTH, HEIGHT);
+        read.readCells(buffer);
+        assertEquals(wide.getHash(), read.getHash());
+        byte[] row = new byte[WIDTH];
+        byte[] expected = new byte[WIDTH];
+        for (int y = 0; y < HEIGHT; y++) {
+            board.copyRowCells(y, row);
+            read.copyRowCells(y, expected);
+            assertArrayEquals(expected, row);
+        }
+        assertColumnTopsMatch(read);
+        try {
+            board.copyFrom(new WideBitBoard(WIDTH + 1, HEIGHT));
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+        try {
+            board.copyFrom(new BitBoard(BitBoard.MAX_WIDTH, HEIGHT));
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    /**
+     * Checks that column tops kept by wide match its cells
+     */
+    private static void assertColumnTopsMatch(WideBitBoard wide) {
+        for (int x = 0; x < wide.getWidth(); x++) {
+            int top = 0;
+            while (top < wide.getHeight() && !wide.isOccupied(x, top)) {
+                top++;
+            }
+            assertEquals(top, wide.getColumnTop(x));
+        }
+    }
+}
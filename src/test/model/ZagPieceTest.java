@@ -76,7 +76,7 @@ public class ZagPieceTest extends PuzzlePieceTest {
 
     @Test
     public void testColor() {
-        assertEquals(ZAG_PIECE_COLOR, puzzlePiece.getColor());
+        assertEquals(ZAG_PIECE_COLOR, puzzlePiece.getColorIndex());
     }
 
     @Test
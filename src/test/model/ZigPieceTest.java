@@ -76,7 +76,7 @@ public class ZigPieceTest extends PuzzlePieceTest {
 
     @Test
     public void testColor() {
-        assertEquals(ZIG_PIECE_COLOR, puzzlePiece.getColor());
+        assertEquals(ZIG_PIECE_COLOR, puzzlePiece.getColorIndex());
     }
 
     @Test
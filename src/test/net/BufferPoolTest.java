@@ -0,0 +1,33 @@
+package test.net;
+
+import main.net.BufferPool;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for BufferPool class
+ */
+public class BufferPoolTest {
+
+    @Test
+    public void testAcquireAndRelease() {
+        BufferPool pool = new BufferPool(64, 1);
+        ByteBuffer first = pool.acquire();
+        assertTrue(first.isDirect());
+        assertEquals(64, first.capacity());
+        first.putInt(7);
+        ByteBuffer second = pool.acquire();
+        assertNotSame(first, second);
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.getPooledCount());
+        ByteBuffer reused = pool.acquire();
+        assertSame(first, reused);
+        assertEquals(0, reused.position());
+        assertEquals(64, reused.remaining());
+        assertEquals(0, pool.getPooledCount());
+    }
+}
@@ -0,0 +1,167 @@
+package test.net;
+
+import main.model.BoardSnapshot;
+import main.model.GameEngine;
+import main.net.LoadClient;
+import main.net.NetProtocol;
+import main.net.NetServer;
+import main.net.RemoteBoard;
+import main.server.GameSession;
+import main.server.SessionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for NetServer class
+ */
+public class NetServerTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(20);
+    private SessionManager manager;
+    private NetServer server;
+    private InetSocketAddress address;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        manager = new SessionManager(GRID_WIDTH, GRID_HEIGHT, 1, TimeUnit.MILLISECONDS.toNanos(2));
+        manager.start();
+        server = new NetServer(manager, new InetSocketAddress("localhost", 0));
+        server.start();
+        address = new InetSocketAddress("localhost", server.getPort());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException, InterruptedException {
+        server.close();
+        manager.stop();
+    }
+
+    @Test
+    public void testRemotePlayMirrorsSession() throws IOException {
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            ByteBuffer in = ByteBuffer.allocate(4096);
+            RemoteBoard board = new RemoteBoard();
+            while (board.getUpdates() == 0) {
+                receive(channel, in, board);
+            }
+            assertEquals(GRID_WIDTH, board.getWidth());
+            assertEquals(GRID_HEIGHT, board.getHeight());
+            assertEquals(GRID_HEIGHT, board.getChangedRows());
+            GameSession session = manager.getSession(board.getSessionId());
+            assertNotNull(session);
+            assertEquals(1, server.getConnectionCount());
+
+            ByteBuffer out = ByteBuffer.allocate(3);
+            out.put((byte) GameEngine.ACTIONS.LEFT.ordinal());
+            out.put((byte) GameEngine.ACTIONS.HARD_DROP.ordinal());
+            out.put((byte) GameEngine.ACTIONS.HARD_DROP.ordinal());
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            long deadline = System.nanoTime() + TIMEOUT_NANOS;
+            while (!mirrors(board, session.getBoard())) {
+                assertTrue(System.nanoTime() - deadline < 0, "board not mirrored in time");
+                receive(channel, in, board);
+            }
+            assertTrue(board.getChangedRows() < board.getUpdates() * GRID_HEIGHT);
+        }
+        awaitTrue(() -> server.getConnectionCount() == 0);
+        assertEquals(0, manager.getSessionCount());
+    }
+
+    @Test
+    public void testManySimulatedPlayers() throws IOException, InterruptedException {
+        final int players = 300;
+        try (LoadClient client = new LoadClient(address, players, 20, 1L)) {
+            Thread thread = new Thread(client);
+            thread.start();
+            awaitTrue(() -> client.getConnected() == players && server.getConnectionCount() == players);
+            awaitTrue(() -> client.getInputsSent() >= 2L * players);
+            awaitTrue(() -> {
+                for (int i = 0; i < players; i++) {
+                    if (client.getBoard(i).getUpdates() < 2) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            client.stop();
+            thread.join();
+            assertEquals(0, client.getFailed());
+            assertTrue(manager.getMetrics().getInputs() > 0);
+        }
+        awaitTrue(() -> server.getConnectionCount() == 0);
+    }
+
+    @Test
+    public void testSimulatedPlayersOnTallBoard() throws IOException, InterruptedException {
+        final int players = 3;
+        final int width = 64;
+        final int height = 128;
+        assertTrue(NetProtocol.maxUpdateBytes(width, height) > 8192);
+        SessionManager tallManager = new SessionManager(width, height, 1, TimeUnit.MILLISECONDS.toNanos(2));
+        tallManager.start();
+        try (NetServer tallServer = new NetServer(tallManager, new InetSocketAddress("localhost", 0));
+             LoadClient client = new LoadClient(new InetSocketAddress("localhost", tallServer.getPort()),
+                     players, 20, 1L)) {
+            tallServer.start();
+            Thread thread = new Thread(client);
+            thread.start();
+            awaitTrue(() -> {
+                for (int i = 0; i < players; i++) {
+                    if (client.getBoard(i).getUpdates() < 2) {
+                        return false;
+                    }
+                }
+                return true;
+            });
+            client.stop();
+            thread.join();
+            assertEquals(0, client.getFailed());
+            assertEquals(height, client.getBoard(0).getHeight());
+        } finally {
+            tallManager.stop();
+        }
+    }
+
+    private static void receive(SocketChannel channel, ByteBuffer in, RemoteBoard board) throws IOException {
+        assertTrue(channel.read(in) >= 0);
+        in.flip();
+        board.read(in);
+        in.compact();
+    }
+
+    private static boolean mirrors(RemoteBoard board, BoardSnapshot snapshot) {
+        boolean placed = false;
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < GRID_WIDTH; x++) {
+                if (board.getCell(x, y) != snapshot.getCell(x, y)) {
+                    return false;
+                }
+                placed |= board.getCell(x, y) != 0;
+            }
+        }
+        return placed;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() - deadline < 0, "condition not reached in time");
+            Thread.yield();
+        }
+    }
+}
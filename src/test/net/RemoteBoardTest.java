@@ -0,0 +1,99 @@
+package test.net;
+
+import main.net.NetProtocol;
+import main.net.RemoteBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for RemoteBoard class
+ */
+public class RemoteBoardTest {
+
+    private RemoteBoard board;
+    private ByteBuffer in;
+
+    @BeforeEach
+    public void setUp() {
+        board = new RemoteBoard();
+        in = ByteBuffer.allocate(256);
+    }
+
+    @Test
+    public void testWelcomeAndUpdates() {
+        putWelcome(42L, 3, 2);
+        putUpdate(100, 1, true, 0x01020304, new int[]{0, 1}, new byte[][]{{0, 0, 0}, {1, 2, 3}});
+        putUpdate(150, 2, false, 0x05060708, new int[]{0}, new byte[][]{{4, 0, 0}});
+        in.flip();
+        assertEquals(3, board.read(in));
+        assertFalse(in.hasRemaining());
+        assertEquals(42L, board.getSessionId());
+        assertEquals(3, board.getWidth());
+        assertEquals(2, board.getHeight());
+        assertEquals(150, board.getScore());
+        assertEquals(2, board.getLevel());
+        assertFalse(board.isRunning());
+        assertEquals(0x05060708, board.getPiece());
+        assertEquals(4, board.getCell(0, 0));
+        assertEquals(3, board.getCell(2, 1));
+        assertEquals(2, board.getUpdates());
+        assertEquals(3, board.getChangedRows());
+    }
+
+    @Test
+    public void testPartialFrameIsLeft() {
+        putWelcome(1L, 2, 2);
+        int end = in.position();
+        putUpdate(5, 0, true, 0, new int[]{1}, new byte[][]{{7, 7}});
+        int full = in.position();
+        in.flip();
+        in.limit(full - 1);
+        assertEquals(1, board.read(in));
+        assertEquals(end, in.position());
+        assertEquals(0, board.getUpdates());
+        in.limit(full);
+        assertEquals(1, board.read(in));
+        assertEquals(7, board.getCell(1, 1));
+        assertEquals(0, board.getCell(0, 0));
+    }
+
+    @Test
+    public void testUpdateBeforeWelcome() {
+        putUpdate(5, 0, true, 0, new int[0], new byte[0][]);
+        in.flip();
+        try {
+            board.read(in);
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private void putWelcome(long id, int width, int height) {
+        in.putShort((short) (NetProtocol.WELCOME_BYTES - NetProtocol.LENGTH_BYTES));
+        in.put(NetProtocol.WELCOME);
+        in.putLong(id);
+        in.put((byte) width);
+        in.put((byte) height);
+    }
+
+    private void putUpdate(int score, int level, boolean running, int piece, int[] ys, byte[][] rows) {
+        int start = in.position();
+        in.position(start + NetProtocol.LENGTH_BYTES);
+        in.put(NetProtocol.UPDATE);
+        in.putInt(score);
+        in.putInt(level);
+        in.put(running ? NetProtocol.RUNNING : 0);
+        in.putInt(piece);
+        in.put((byte) ys.length);
+        for (int i = 0; i < ys.length; i++) {
+            in.put((byte) ys[i]);
+            in.put(rows[i]);
+        }
+        in.putShort(start, (short) (in.position() - start - NetProtocol.LENGTH_BYTES));
+    }
+}
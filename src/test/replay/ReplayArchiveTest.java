@@ -0,0 +1,190 @@
+package test.replay;
+
+import main.model.PuzzleGame;
+import main.replay.ReplayArchive;
+import main.replay.ReplayArchiveWriter;
+import main.replay.ReplayPlayer;
+import main.replay.ReplayReader;
+import main.replay.ReplayRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.event.KeyEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for ReplayArchive and ReplayArchiveWriter classes
+ */
+public class ReplayArchiveTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private static final int BACKGROUND = 0xFF000000;
+    private static final int KEYFRAME_INTERVAL = 10;
+    private static final int SEGMENT_SIZE = 32 * 1024;
+    private static final int[] KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_DOWN, KeyEvent.VK_A,
+        KeyEvent.VK_D, KeyEvent.VK_SPACE};
+    private Path file;
+    private List<byte[]> replays;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("archive", ".rba");
+        Files.delete(file);
+        replays = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            replays.add(record(100 + i, 2000 + 500 * i));
+        }
+        try (ReplayArchiveWriter writer = new ReplayArchiveWriter(FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), KEYFRAME_INTERVAL, SEGMENT_SIZE)) {
+            for (int i = 0; i < replays.size(); i++) {
+                assertEquals(i, writer.addGame(reader(i)));
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testHeaderAndCounts() throws IOException {
+        assertTrue(Files.size(file) > SEGMENT_SIZE);
+        try (ReplayArchive archive = new ReplayArchive(file)) {
+            assertEquals(replays.size(), archive.getGameCount());
+            for (int i = 0; i < replays.size(); i++) {
+                assertEquals(100 + i, archive.getSeed(i));
+                assertTrue(archive.getKeyframeCount(i) > 0);
+                ReplayReader reader = reader(i);
+                long events = 0;
+                while (reader.next()) {
+                    events++;
+                }
+                assertEquals(events, archive.getEventCount(i));
+            }
+        }
+    }
+
+    @Test
+    public void testOpenMatchesSequentialReplay() throws IOException {
+        try (ReplayArchive archive = new ReplayArchive(file)) {
+            for (int i = 0; i < replays.size(); i++) {
+                long eventCount = archive.getEventCount(i);
+                long[] moves = {0, 1, eventCount / 3, eventCount / 2 + 1, eventCount - 1, eventCount};
+                for (long move : moves) {
+                    assertSameGame(replayTo(i, move), archive.open(i, move));
+                }
+            }
+            PuzzleGame end = archive.open(2, archive.getEventCount(2));
+            ReplayReader reader = reader(2);
+            PuzzleGame replayed = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, new Random(102));
+            ReplayPlayer.play(reader, replayed);
+            assertSameGame(replayed, end);
+        }
+    }
+
+    @Test
+    public void testOpenOutOfBounds() throws IOException {
+        try (ReplayArchive archive = new ReplayArchive(file)) {
+            try {
+                archive.open(replays.size(), 0);
+                fail("Exception expected");
+            } catch (IndexOutOfBoundsException e) {
+                // pass
+            }
+            try {
+                archive.open(0, archive.getEventCount(0) + 1);
+                fail("Exception expected");
+            } catch (IndexOutOfBoundsException e) {
+                // pass
+            }
+        }
+    }
+
+    @Test
+    public void testNotAnArchive() throws IOException {
+        Files.write(file, replays.get(0));
+        try {
+            new ReplayArchive(file);
+            fail("Exception expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    /**
+     * @return replay of a game with seed played with count random inputs and gravity steps
+     */
+    private byte[] record(long seed, int count) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PuzzleGame game = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, new Random(seed));
+        ReplayRecorder recorder = new ReplayRecorder(Channels.newChannel(out), GRID_WIDTH, GRID_HEIGHT,
+                BACKGROUND, seed);
+        game.setInputListener(recorder);
+        Random inputs = new Random(seed * 31);
+        for (int i = 0; i < count; i++) {
+            if (game.isGameOver()) {
+                game.resetGame();
+            } else if (inputs.nextInt(3) == 0) {
+                game.nextState();
+            } else {
+                game.userInput(KEYS[inputs.nextInt(KEYS.length)]);
+            }
+        }
+        recorder.close();
+        return out.toByteArray();
+    }
+
+    private ReplayReader reader(int game) throws IOException {
+        return new ReplayReader(Channels.newChannel(new ByteArrayInputStream(replays.get(game))));
+    }
+
+    /**
+     * @return game after applying the first move events of replay game one by one
+     */
+    private PuzzleGame replayTo(int game, long move) throws IOException {
+        ReplayReader reader = reader(game);
+        PuzzleGame puzzleGame = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, new Random(reader.getSeed()));
+        long tick = 0;
+        for (long i = 0; i < move; i++) {
+            assertTrue(reader.next());
+            ReplayPlayer.applyEvent(puzzleGame, reader.getTick() - tick, reader.getCode());
+            tick = reader.getTick();
+        }
+        return puzzleGame;
+    }
+
+    private void assertSameGame(PuzzleGame expected, PuzzleGame actual) {
+        assertEquals(expected.getScore(), actual.getScore());
+        assertEquals(expected.getLevel(), actual.getLevel());
+        assertEquals(expected.getEngine().getPieceCount(), actual.getEngine().getPieceCount());
+        assertEquals(expected.getCurrentPiece().getType(), actual.getCurrentPiece().getType());
+        assertEquals(expected.getCurrentPiece().getX0(), actual.getCurrentPiece().getX0());
+        assertEquals(expected.getCurrentPiece().getY0(), actual.getCurrentPiece().getY0());
+        ByteBuffer first = ByteBuffer.allocate(GRID_WIDTH * GRID_HEIGHT);
+        ByteBuffer second = ByteBuffer.allocate(GRID_WIDTH * GRID_HEIGHT);
+        expected.getEngine().getBoard().writeCells(first);
+        actual.getEngine().getBoard().writeCells(second);
+        assertArrayEquals(first.array(), second.array());
+        for (int i = 0; i < 50; i++) {
+            expected.nextState();
+            actual.nextState();
+            assertEquals(expected.getCurrentPiece().getType(), actual.getCurrentPiece().getType());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package test.replay;
+
+import main.model.GameEngine;
+import main.replay.ReplayFormat;
+import main.replay.ReplayReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for ReplayReader class and ReplayFormat varints
+ */
+public class ReplayReaderTest {
+
+    private static final int RGB = 0xFF102030;
+    private static final long SEED = -5L;
+
+    @Test
+    public void testVarint() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        long[] values = {0, 1, 127, 128, 300, 1L << 35, Long.MAX_VALUE, -1L};
+        for (long value : values) {
+            ReplayFormat.putVarint(buffer, value);
+        }
+        assertEquals(1 + 1 + 1 + 2 + 2 + 6 + 9 + 10, buffer.position());
+        buffer.flip();
+        for (long value : values) {
+            assertEquals(value, ReplayFormat.getVarint(buffer));
+        }
+        assertEquals((3L << ReplayFormat.CODE_BITS) | ReplayFormat.RESET, ReplayFormat.event(3, ReplayFormat.RESET));
+    }
+
+    @Test
+    public void testReadEvents() throws IOException {
+        ByteBuffer replay = header(ReplayFormat.MAGIC, ReplayFormat.VERSION);
+        ReplayFormat.putVarint(replay, ReplayFormat.event(0, GameEngine.ACTIONS.ROTATE_CW.ordinal()));
+        ReplayFormat.putVarint(replay, ReplayFormat.event(200, ReplayFormat.RESET));
+        ReplayFormat.putVarint(replay, ReplayFormat.event(2, ReplayFormat.END));
+        ReplayFormat.putVarint(replay, ReplayFormat.event(1, GameEngine.ACTIONS.LEFT.ordinal()));
+        ReplayReader reader = reader(replay);
+        assertEquals(10, reader.getGridWidth());
+        assertEquals(300, reader.getGridHeight());
+        assertEquals(RGB, reader.getBackground());
+        assertEquals(SEED, reader.getSeed());
+
+        assertTrue(reader.next());
+        assertEquals(0, reader.getTick());
+        assertEquals(GameEngine.ACTIONS.ROTATE_CW, reader.getAction());
+        assertTrue(reader.next());
+        assertEquals(200, reader.getTick());
+        assertEquals(ReplayFormat.RESET, reader.getCode());
+        assertNull(reader.getAction());
+        assertTrue(reader.next());
+        assertEquals(202, reader.getTick());
+        assertEquals(ReplayFormat.END, reader.getCode());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    public void testEndOfStream() throws IOException {
+        ByteBuffer replay = header(ReplayFormat.MAGIC, ReplayFormat.VERSION);
+        ReplayFormat.putVarint(replay, ReplayFormat.event(4, GameEngine.ACTIONS.DOWN.ordinal()));
+        ReplayReader reader = reader(replay);
+        assertTrue(reader.next());
+        assertFalse(reader.next());
+        assertFalse(reader.next());
+
+        replay = header(ReplayFormat.MAGIC, ReplayFormat.VERSION);
+        replay.put((byte) 0x80);
+        try {
+            reader(replay).next();
+            fail("Exception expected");
+        } catch (EOFException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testInvalidHeader() {
+        try {
+            reader(header(0x12345678, ReplayFormat.VERSION));
+            fail("Exception expected");
+        } catch (IOException e) {
+            // pass
+        }
+        try {
+            reader(header(ReplayFormat.MAGIC, (byte) 99));
+            fail("Exception expected");
+        } catch (IOException e) {
+            // pass
+        }
+        try {
+            ByteBuffer truncated = header(ReplayFormat.MAGIC, ReplayFormat.VERSION);
+            truncated.position(truncated.position() - 3);
+            reader(truncated);
+            fail("Exception expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    private static ByteBuffer header(int magic, byte version) {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.putInt(magic).put(version);
+        ReplayFormat.putVarint(buffer, 10);
+        ReplayFormat.putVarint(buffer, 300);
+        buffer.putInt(RGB).putLong(SEED);
+        return buffer;
+    }
+
+    private static ReplayReader reader(ByteBuffer replay) throws IOException {
+        byte[] bytes = Arrays.copyOf(replay.array(), replay.position());
+        return new ReplayReader(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -0,0 +1,146 @@
+package test.replay;
+
+import main.model.GameEngine;
+import main.model.PuzzleGame;
+import main.replay.ReplayFormat;
+import main.replay.ReplayPlayer;
+import main.replay.ReplayRecorder;
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+
+import java.awt.event.KeyEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * unit tests for ReplayRecorder class
+ */
+public class ReplayRecorderTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private static final int BACKGROUND = 0xFF000000;
+    private static final long SEED = 2024L;
+    private static final GameEngine.ACTIONS[] ACTIONS = GameEngine.ACTIONS.values();
+    private static final int[] KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_DOWN, KeyEvent.VK_A,
+        KeyEvent.VK_D, KeyEvent.VK_SPACE, KeyEvent.VK_Q};
+
+    @Test
+    public void testReplayReproducesGame() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PuzzleGame game = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, new Random(SEED));
+        ReplayRecorder recorder = new ReplayRecorder(Channels.newChannel(out), GRID_WIDTH, GRID_HEIGHT,
+                BACKGROUND, SEED);
+        game.setInputListener(recorder);
+        Random inputs = new Random(7);
+        int resets = 0;
+        for (int i = 0; i < 20000; i++) {
+            if (game.isGameOver()) {
+                game.resetGame();
+                resets++;
+            } else if (inputs.nextInt(3) == 0) {
+                game.nextState();
+            } else {
+                game.userInput(KEYS[inputs.nextInt(KEYS.length)]);
+            }
+            if (i % 5000 == 0) {
+                recorder.flush();
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            game.nextState();
+        }
+        recorder.close();
+        assertTrue(resets > 0);
+
+        PuzzleGame replayed = ReplayPlayer.replay(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+        assertEquals(game.getScore(), replayed.getScore());
+        assertEquals(game.getLevel(), replayed.getLevel());
+        assertEquals(game.getEngine().getTotalClearedRows(), replayed.getEngine().getTotalClearedRows());
+        assertEquals(game.getEngine().getPieceCount(), replayed.getEngine().getPieceCount());
+        assertEquals(game.getCurrentPiece().getType(), replayed.getCurrentPiece().getType());
+        assertEquals(game.getCurrentPiece().getX0(), replayed.getCurrentPiece().getX0());
+        assertEquals(game.getCurrentPiece().getY0(), replayed.getCurrentPiece().getY0());
+        assertEquals(game.getCurrentPiece().getCurrentRotation(), replayed.getCurrentPiece().getCurrentRotation());
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < GRID_WIDTH; x++) {
+                assertEquals(game.getBoardState().getPos(x, y), replayed.getBoardState().getPos(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testCompactEvents() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReplayRecorder recorder = new ReplayRecorder(Channels.newChannel(out), GRID_WIDTH, GRID_HEIGHT,
+                BACKGROUND, SEED);
+        ByteBuffer header = ByteBuffer.allocate(ReplayFormat.MAX_HEADER_BYTES);
+        for (int i = 0; i < 1000; i++) {
+            recorder.actionApplied(GameEngine.ACTIONS.LEFT);
+            recorder.stepped();
+        }
+        recorder.close();
+        assertEquals(1000, recorder.getTick());
+        header.putInt(ReplayFormat.MAGIC).put(ReplayFormat.VERSION);
+        ReplayFormat.putVarint(header, GRID_WIDTH);
+        ReplayFormat.putVarint(header, GRID_HEIGHT);
+        header.putInt(BACKGROUND).putLong(SEED);
+        assertEquals(header.position() + 1000 + 1, out.size());
+
+        recorder.actionApplied(GameEngine.ACTIONS.RIGHT);
+        recorder.close();
+        assertEquals(header.position() + 1000 + 1, out.size());
+    }
+
+    @Test
+    public void testRecordingDoesNotAllocate() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean);
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ReplayRecorder recorder = new ReplayRecorder(new NullChannel(), GRID_WIDTH, GRID_HEIGHT, BACKGROUND, SEED);
+        for (int i = 0; i < 100000; i++) {
+            recorder.actionApplied(ACTIONS[i % ACTIONS.length]);
+            recorder.stepped();
+        }
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 1000000; i++) {
+            recorder.actionApplied(ACTIONS[i % ACTIONS.length]);
+            recorder.stepped();
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        recorder.close();
+        assertTrue(allocated < 16 * 1024, "allocated " + allocated + " bytes");
+    }
+
+    /**
+     * channel discarding everything written to it
+     */
+    private static class NullChannel implements WritableByteChannel {
+        private boolean open = true;
+
+        @Override
+        public int write(ByteBuffer src) {
+            int written = src.remaining();
+            src.position(src.limit());
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package test.server;
+
+import main.server.InputQueue;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for InputQueue class
+ */
+public class InputQueueTest {
+
+    @Test
+    public void testConstructor() {
+        assertEquals(8, new InputQueue(8).getCapacity());
+        try {
+            new InputQueue(6);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new InputQueue(0);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testOfferAndPollInOrder() {
+        InputQueue queue = new InputQueue(4);
+        assertEquals(InputQueue.EMPTY, queue.poll());
+        for (int round = 0; round < 3; round++) {
+            assertTrue(queue.offer(-1));
+            assertTrue(queue.offer(2));
+            assertTrue(queue.offer(3));
+            assertTrue(queue.offer(round));
+            assertFalse(queue.offer(5));
+            assertEquals(4, queue.size());
+            assertEquals(-1, queue.poll());
+            assertEquals(2, queue.poll());
+            assertEquals(3, queue.poll());
+            assertEquals(round, queue.poll());
+            assertEquals(InputQueue.EMPTY, queue.poll());
+            assertEquals(0, queue.size());
+        }
+    }
+
+    @Test
+    public void testManyProducers() throws InterruptedException {
+        final int producers = 4;
+        final int perProducer = 20000;
+        InputQueue queue = new InputQueue(64);
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!queue.offer(producer * perProducer + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            int code = queue.poll();
+            if (code == InputQueue.EMPTY) {
+                Thread.yield();
+                continue;
+            }
+            int producer = code / perProducer;
+            assertEquals(next[producer], code % perProducer);
+            next[producer]++;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(InputQueue.EMPTY, queue.poll());
+    }
+}
@@ -0,0 +1,154 @@
+package test.server;
+
+import main.model.GameEngine;
+import main.server.GameSession;
+import main.server.ServerMetrics;
+import main.server.SessionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for SessionManager class
+ */
+public class SessionManagerTest {
+
+    private static final int SESSIONS = 2000;
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(20);
+    private SessionManager manager;
+
+    @BeforeEach
+    public void setUp() {
+        manager = new SessionManager(8, 14, 2, TimeUnit.MILLISECONDS.toNanos(2));
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        manager.stop();
+    }
+
+    @Test
+    public void testConstructorRejectsBadArguments() {
+        try {
+            new SessionManager(8, 14, 0, 1);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new SessionManager(8, 14, 1, 0);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new SessionManager(GameSession.MAX_GRID_SIZE + 1, 14, 1, 1);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new SessionManager(8, GameSession.MAX_GRID_SIZE + 1, 1, 1);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        new SessionManager(GameSession.MAX_GRID_SIZE, GameSession.MAX_GRID_SIZE, 1, 1);
+    }
+
+    @Test
+    public void testOpenSubmitAndClose() {
+        long id = manager.open(1L);
+        GameSession session = manager.getSession(id);
+        assertEquals(id, session.getId());
+        assertEquals(1, manager.getSessionCount());
+        assertTrue(manager.submit(id, GameEngine.ACTIONS.LEFT.ordinal()));
+        assertTrue(manager.submit(id, GameSession.RESET));
+        assertFalse(manager.submit(id, GameSession.RESET + 1));
+        assertFalse(manager.submit(id, -1));
+        assertEquals(2, session.getQueueDepth());
+        assertTrue(manager.close(id));
+        assertTrue(session.isClosed());
+        assertNull(manager.getSession(id));
+        assertFalse(manager.close(id));
+        assertFalse(manager.submit(id, GameSession.RESET));
+        assertEquals(0, manager.getSessionCount());
+    }
+
+    @Test
+    public void testSubmitDropsInputsWhenQueueFull() {
+        long id = manager.open(1L);
+        int accepted = 0;
+        while (manager.submit(id, GameEngine.ACTIONS.ROTATE_CW.ordinal())) {
+            accepted++;
+        }
+        assertTrue(accepted > 0);
+        assertEquals(accepted, manager.getSession(id).getQueueDepth());
+    }
+
+    @Test
+    public void testShardsTickAllSessionsAndApplyInputs() {
+        long[] ids = new long[SESSIONS];
+        long[] versions = new long[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            ids[i] = manager.open(i);
+            versions[i] = manager.getSession(ids[i]).getBoard().getVersion();
+        }
+        ServerMetrics before = manager.getMetrics();
+        manager.start();
+        awaitTrue(() -> manager.getMetrics().getSessions() == SESSIONS);
+        for (long id : ids) {
+            assertTrue(manager.submit(id, GameEngine.ACTIONS.HARD_DROP.ordinal()));
+            assertTrue(manager.submit(id, GameEngine.ACTIONS.HARD_DROP.ordinal()));
+        }
+        awaitTrue(() -> manager.getMetrics().getInputs() == 2L * SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            GameSession session = manager.getSession(ids[i]);
+            assertTrue(session.getBoard().getVersion() > versions[i]);
+            assertEquals(0, session.getQueueDepth());
+        }
+        ServerMetrics after = manager.getMetrics();
+        assertTrue(after.getTicks() > before.getTicks());
+        assertTrue(after.tickRate(before) > 0);
+        assertTrue(after.inputRate(before) > 0);
+
+        for (int i = 0; i < SESSIONS; i += 2) {
+            assertTrue(manager.close(ids[i]));
+        }
+        awaitTrue(() -> manager.getMetrics().getSessions() == SESSIONS / 2);
+        assertEquals(SESSIONS / 2, manager.getSessionCount());
+    }
+
+    @Test
+    public void testGameOverStopsUntilReset() {
+        long id = manager.open(7L);
+        GameSession session = manager.getSession(id);
+        manager.start();
+        int submitted = 0;
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (session.isRunning()) {
+            assertTrue(System.nanoTime() - deadline < 0, "game did not end");
+            if (manager.submit(id, GameEngine.ACTIONS.HARD_DROP.ordinal())) {
+                submitted++;
+            }
+        }
+        assertTrue(submitted > 0);
+        assertEquals(1, session.getGamesPlayed());
+        assertTrue(manager.submit(id, GameSession.RESET));
+        awaitTrue(session::isRunning);
+        assertEquals(0, session.getScore());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() - deadline < 0, "condition not reached in time");
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package test.sim;
+
+import main.sim.BatchSimulator;
+import main.sim.BatchSummary;
+import main.sim.GameResult;
+import main.sim.RandomPlayer;
+import main.sim.Statistic;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for BatchSimulator class
+ */
+public class BatchSimulatorTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private static final int GAMES = 40;
+    private static final long SEED = 12345L;
+    private BatchSimulator simulator;
+
+    @BeforeEach
+    public void setUp() {
+        simulator = new BatchSimulator(GRID_WIDTH, GRID_HEIGHT, 3, 100000L, RandomPlayer::new);
+    }
+
+    @Test
+    public void testRunIsDeterministic() {
+        BatchSummary first = simulator.run(GAMES, SEED);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            BatchSummary second = new BatchSimulator(GRID_WIDTH, GRID_HEIGHT, 3, 100000L, RandomPlayer::new, pool)
+                    .run(GAMES, SEED);
+            for (int i = 0; i < GAMES; i++) {
+                GameResult a = first.getResults()[i];
+                GameResult b = second.getResults()[i];
+                assertEquals(BatchSimulator.gameSeed(SEED, i), a.getSeed());
+                assertEquals(a.getSeed(), b.getSeed());
+                assertEquals(a.getScore(), b.getScore());
+                assertEquals(a.getPieces(), b.getPieces());
+                assertEquals(a.getMoves(), b.getMoves());
+            }
+            assertEquals(first.getScore().getMean(), second.getScore().getMean());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPlayReproducesBatchGame() {
+        BatchSummary summary = simulator.run(GAMES, SEED);
+        GameResult result = summary.getResults()[7];
+        GameResult replayed = simulator.play(result.getSeed());
+        assertEquals(result.getScore(), replayed.getScore());
+        assertEquals(result.getClearedRows(), replayed.getClearedRows());
+        assertEquals(result.getMoves(), replayed.getMoves());
+    }
+
+    @Test
+    public void testSummary() {
+        BatchSummary summary = simulator.run(GAMES, SEED);
+        assertEquals(GAMES, summary.getResults().length);
+        assertEquals(GAMES, summary.getPieces().getCount());
+        assertTrue(summary.getPieces().getMin() > 1);
+        assertTrue(summary.getMoves().getMean() >= summary.getPieces().getMean());
+        assertTrue(summary.getLevel().getMin() >= 1);
+        assertNotEquals(BatchSimulator.gameSeed(SEED, 0), BatchSimulator.gameSeed(SEED, 1));
+
+        BatchSummary empty = simulator.run(0, SEED);
+        assertEquals(0, empty.getScore().getCount());
+        try {
+            simulator.run(-1, SEED);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+
+    @Test
+    public void testStatistic() {
+        Statistic statistic = new Statistic();
+        assertEquals(0, statistic.getMin());
+        assertEquals(0, statistic.getMax());
+        assertEquals(0.0, statistic.getStdDev());
+        statistic.accept(2);
+        statistic.accept(4);
+        statistic.accept(4);
+        statistic.accept(4);
+        statistic.accept(5);
+        statistic.accept(5);
+        statistic.accept(7);
+        statistic.accept(9);
+        assertEquals(8, statistic.getCount());
+        assertEquals(2, statistic.getMin());
+        assertEquals(9, statistic.getMax());
+        assertEquals(5.0, statistic.getMean(), 1e-9);
+        assertEquals(2.0, statistic.getStdDev(), 1e-9);
+    }
+}
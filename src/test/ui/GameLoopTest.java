@@ -0,0 +1,153 @@
+package test.ui;
+
+import main.model.GameEngine;
+import main.model.GameEventBus;
+import main.model.GameRandom;
+import main.model.PuzzleGame;
+import main.ui.GameFrame;
+import main.ui.GameLoop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for GameLoop class
+ */
+public class GameLoopTest {
+
+    private static final int GRID_WIDTH = 8;
+    private static final int GRID_HEIGHT = 14;
+    private PuzzleGame game;
+    private ArrayDeque<Runnable> pending;
+    private List<GameFrame> frames;
+    private GameLoop loop;
+
+    @BeforeEach
+    public void setUp() {
+        game = new PuzzleGame(GRID_WIDTH, GRID_HEIGHT, new GameRandom(3));
+        pending = new ArrayDeque<>();
+        frames = new ArrayList<>();
+        loop = new GameLoop(game, pending::add, frames::add);
+    }
+
+    private void render() {
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+    }
+
+    @Test
+    public void testGravityFollowsLevel() {
+        loop.update(GameEngine.gravityNanos(1));
+        assertEquals(0, game.getCurrentPiece().getY0());
+        loop.startGame();
+        loop.update(0);
+        assertTrue(loop.isRunning());
+        long interval = GameEngine.gravityNanos(game.getLevel());
+        for (int step = 1; step <= 3; step++) {
+            long ticks = 0;
+            while (game.getCurrentPiece().getY0() < step) {
+                loop.update(GameLoop.TICK_NANOS);
+                ticks++;
+            }
+            assertEquals((double) interval / GameLoop.TICK_NANOS, ticks, 1.0);
+        }
+    }
+
+    @Test
+    public void testCatchUpIsBounded() {
+        loop.startGame();
+        loop.update(0);
+        int y0 = game.getCurrentPiece().getY0();
+        for (int i = 0; i < 6; i++) {
+            loop.update(TimeUnit.SECONDS.toNanos(10));
+        }
+        assertTrue(game.getCurrentPiece().getY0() - y0 <= 2);
+    }
+
+    @Test
+    public void testKeysApplyWithoutTick() {
+        loop.submitKey(KeyEvent.VK_LEFT);
+        loop.update(0);
+        render();
+        assertTrue(frames.isEmpty());
+
+        loop.startGame();
+        loop.submitKey(KeyEvent.VK_LEFT);
+        int x0 = game.getCurrentPiece().getX0();
+        loop.update(0);
+        assertEquals(x0 - 1, game.getCurrentPiece().getX0());
+        render();
+        assertEquals(1, frames.size());
+        GameFrame frame = frames.get(0);
+        assertEquals(x0 - 1, frame.getPieceX());
+        assertTrue(GameEventBus.contains(frame.getEvents(), GameEventBus.EVENTS.GAME_RESET));
+        assertTrue(GameEventBus.contains(frame.getEvents(), GameEventBus.EVENTS.PIECE_MOVED));
+    }
+
+    @Test
+    public void testUnseenFramesMerge() {
+        loop.startGame();
+        loop.update(0);
+        loop.submitKey(KeyEvent.VK_SPACE);
+        loop.update(0);
+        loop.submitKey(KeyEvent.VK_RIGHT);
+        loop.update(0);
+        assertEquals(1, pending.size());
+        render();
+        assertEquals(1, frames.size());
+        GameFrame frame = frames.get(0);
+        assertTrue(GameEventBus.contains(frame.getEvents(), GameEventBus.EVENTS.GAME_RESET));
+        assertTrue(GameEventBus.contains(frame.getEvents(), GameEventBus.EVENTS.PIECE_LOCKED));
+        assertTrue(frame.getBoard().getVersion() > 0);
+        for (int y = 0; y < GRID_HEIGHT; y++) {
+            for (int x = 0; x < GRID_WIDTH; x++) {
+                assertEquals(game.getBoardState().getBoard().getCell(x, y), frame.getBoard().getCell(x, y));
+            }
+        }
+        assertEquals(game.getCurrentPiece().getX0(), frame.getPieceX());
+    }
+
+    @Test
+    public void testGameOverStopsGravity() {
+        loop.startGame();
+        loop.update(0);
+        for (int i = 0; i < GRID_HEIGHT * GRID_WIDTH && loop.isRunning(); i++) {
+            loop.submitKey(KeyEvent.VK_SPACE);
+            loop.update(0);
+        }
+        assertFalse(loop.isRunning());
+        assertTrue(game.isGameOver());
+        render();
+        GameFrame frame = frames.get(frames.size() - 1);
+        assertTrue(GameEventBus.contains(frame.getEvents(), GameEventBus.EVENTS.GAME_OVER));
+        assertEquals(Math.max(2000, game.getScore()), frame.getTopScore());
+        int y0 = game.getCurrentPiece().getY0();
+        loop.update(GameEngine.gravityNanos(game.getLevel()));
+        assertEquals(y0, game.getCurrentPiece().getY0());
+    }
+
+    @Test
+    public void testLoopThread() throws InterruptedException {
+        CountDownLatch moved = new CountDownLatch(1);
+        int x0 = game.getCurrentPiece().getX0();
+        GameLoop threaded = new GameLoop(game, Runnable::run, frame -> {
+            if (frame.getPieceX() == x0 + 1) {
+                moved.countDown();
+            }
+        });
+        threaded.start();
+        threaded.startGame();
+        threaded.submitKey(KeyEvent.VK_RIGHT);
+        assertTrue(moved.await(5, TimeUnit.SECONDS));
+        threaded.stop();
+    }
+}
@@ -0,0 +1,43 @@
+package test.ui;
+
+import main.model.BitBoard;
+import main.model.GameEngine;
+import main.model.PuzzlePiece;
+import main.ui.Palette;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * unit tests for Palette class
+ */
+public class PaletteTest {
+
+    private static final Color BACKGROUND = new Color(10, 20, 30);
+
+    @Test
+    public void testPieceColors() {
+        assertEquals(new Color(0, 255, 0), Palette.colorOf(PuzzlePiece.PIECES.J));
+        assertEquals(new Color(255, 0, 0), Palette.colorOf(PuzzlePiece.PIECES.L));
+        assertEquals(new Color(255, 255, 0), Palette.colorOf(PuzzlePiece.PIECES.SQ));
+        assertEquals(new Color(0, 255, 255), Palette.colorOf(PuzzlePiece.PIECES.ST));
+        assertEquals(new Color(255, 128, 0), Palette.colorOf(PuzzlePiece.PIECES.T));
+        assertEquals(new Color(120, 50, 150), Palette.colorOf(PuzzlePiece.PIECES.ZA));
+        assertEquals(new Color(0, 0, 255), Palette.colorOf(PuzzlePiece.PIECES.ZI));
+    }
+
+    @Test
+    public void testGetColor() {
+        Palette palette = new Palette(BACKGROUND);
+        assertEquals(BACKGROUND, palette.getColor(BitBoard.EMPTY));
+        for (PuzzlePiece.PIECES type : PuzzlePiece.PIECES.values()) {
+            Color color = palette.getColor(GameEngine.colorIndex(type));
+            assertEquals(Palette.colorOf(type), color);
+            assertNotEquals(BACKGROUND, color);
+        }
+        assertEquals(Palette.FILLER_COLOR, palette.getColor((byte) 9));
+        assertEquals(Palette.FILLER_COLOR, palette.getColor((byte) -1));
+    }
+}